@@ -0,0 +1,10 @@
+package com.example.identitymanager.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Background maintenance jobs (@Scheduled), e.g. TicketAutoCloseJob
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,304 @@
+package com.example.identitymanager.config;
+
+import com.example.identitymanager.model.Role;
+import com.example.identitymanager.model.SupportTicket;
+import com.example.identitymanager.service.FileStorageService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fills the database with a large synthetic dataset for performance testing.
+ * Activated only with the "perf" profile (see application-perf.yml); runs after DataInitializer.
+ *
+ * Everything is drawn from one Random with a fixed seed, so the same settings
+ * always produce the same rows. Rows are written with batched JDBC, one transaction per batch,
+ * and all users share a small pool of password hashes computed up front (bcrypt is ~100 ms per hash).
+ */
+@Component
+@Profile("perf")
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    static final String EMAIL_DOMAIN = "@perf.example.com";
+    static final String PASSWORD = "password123";
+
+    // Distinct hashes of the same password (different salts) - login works for every user
+    static final int PASSWORD_HASH_POOL = 4;
+
+    // Only this many distinct images are drawn; each user with an avatar gets its own file,
+    // hard-linked to one of them, so replacing or deleting one user's avatar never touches another's
+    static final int AVATAR_POOL = 16;
+
+    private static final String[] FIRST_NAMES = {
+            "Anna", "Piotr", "Katarzyna", "Tomasz", "Maria", "Jan", "Agnieszka", "Pawel", "Magdalena", "Michal",
+            "Joanna", "Krzysztof", "Ewa", "Marcin", "Zofia", "Adam", "Olivia", "James", "Emma", "Liam",
+            "Sophia", "Noah", "Isabella", "Lucas", "Mia", "Ethan", "Amelia", "Mateo", "Harper", "Leo"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "Nowak", "Kowalski", "Wisniewski", "Wojcik", "Kowalczyk", "Kaminski", "Lewandowski", "Zielinski",
+            "Szymanski", "Wozniak", "Dabrowski", "Kozlowski", "Jankowski", "Mazur", "Pietrucha", "Smith",
+            "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Martinez", "Taylor",
+            "Anderson", "Thomas", "Moore", "Jackson", "Martin"
+    };
+
+    private static final String[] TICKET_SUBJECTS = {
+            "Cannot login", "Password reset email not received", "Profile update issue", "Avatar upload fails",
+            "Privacy settings question", "Account locked", "Wrong name on profile", "Two-factor authentication",
+            "Change email address", "Delete my account", "Invoice request", "Page loads slowly"
+    };
+
+    private static final String[] TICKET_DESCRIPTIONS = {
+            "I tried several times and it still does not work.",
+            "This started happening after the last update.",
+            "Could you please look into this as soon as possible?",
+            "Steps to reproduce: log in, open the profile page, click save.",
+            "The error message says something went wrong, nothing else."
+    };
+
+    // Weighted status mix - most historical tickets are closed
+    private static final SupportTicket.TicketStatus[] STATUS_WEIGHTS = {
+            SupportTicket.TicketStatus.OPEN, SupportTicket.TicketStatus.OPEN,
+            SupportTicket.TicketStatus.IN_PROGRESS,
+            SupportTicket.TicketStatus.RESOLVED, SupportTicket.TicketStatus.RESOLVED,
+            SupportTicket.TicketStatus.CLOSED, SupportTicket.TicketStatus.CLOSED,
+            SupportTicket.TicketStatus.CLOSED, SupportTicket.TicketStatus.CLOSED, SupportTicket.TicketStatus.CLOSED
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final int userCount;
+    private final long seed;
+    private final int batchSize;
+    private final int maxTicketsPerUser;
+    private final LocalDateTime baseTime;
+    private final Path avatarDirectory;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  PasswordEncoder passwordEncoder,
+                                  @Value("${perf.data.users:100000}") int userCount,
+                                  @Value("${perf.data.seed:42}") long seed,
+                                  @Value("${perf.data.batch-size:1000}") int batchSize,
+                                  @Value("${perf.data.max-tickets-per-user:200}") int maxTicketsPerUser,
+                                  @Value("${perf.data.base-time:2025-01-01T00:00:00}") String baseTime,
+                                  @Value("${file.upload-dir:uploads}") String uploadDir) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordEncoder = passwordEncoder;
+        this.userCount = userCount;
+        this.seed = seed;
+        this.batchSize = batchSize;
+        this.maxTicketsPerUser = maxTicketsPerUser;
+        // Fixed reference time instead of now() so timestamps are reproducible too
+        this.baseTime = LocalDateTime.parse(baseTime);
+        this.avatarDirectory = Paths.get(uploadDir).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE email LIKE ?", Integer.class, "%" + EMAIL_DOMAIN);
+        if (existing != null && existing > 0) {
+            return; // Synthetic data already generated
+        }
+
+        long startNanos = System.nanoTime();
+        long[] totals = generate();
+        long millis = (System.nanoTime() - startNanos) / 1_000_000;
+
+        System.out.println("Synthetic data generated: " + totals[0] + " users, " + totals[1]
+                + " tickets in " + millis + " ms (seed " + seed + ")");
+    }
+
+    /**
+     * Generates userCount users with roles and tickets.
+     *
+     * @return {users, tickets}
+     */
+    long[] generate() throws IOException {
+        Long userRoleId = roleId(Role.RoleName.USER);
+        Long adminRoleId = roleId(Role.RoleName.ADMIN);
+
+        writeAvatars();
+
+        List<String> passwordHashes = new ArrayList<>(PASSWORD_HASH_POOL);
+        for (int i = 0; i < PASSWORD_HASH_POOL; i++) {
+            passwordHashes.add(passwordEncoder.encode(PASSWORD));
+        }
+
+        // Explicit ids let roles and tickets reference users without reading generated keys back
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM users", Long.class);
+        long firstId = maxId + 1;
+
+        Random random = new Random(seed);
+        long tickets = 0;
+
+        for (int offset = 0; offset < userCount; offset += batchSize) {
+            int count = Math.min(batchSize, userCount - offset);
+            Batch batch = generateBatch(random, firstId + offset, offset, count,
+                    passwordHashes, userRoleId, adminRoleId);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate("INSERT INTO users (id, email, password, first_name, last_name, phone, " +
+                        "is_privacy_enabled, avatar_filename, created_at, updated_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", batch.users);
+                jdbcTemplate.batchUpdate("INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)", batch.userRoles);
+                jdbcTemplate.batchUpdate("INSERT INTO support_tickets (subject, description, status, user_id, " +
+                        "created_at, status_changed_at) VALUES (?, ?, ?, ?, ?, ?)", batch.tickets);
+            });
+            linkAvatars(batch.avatars);
+            tickets += batch.tickets.size();
+        }
+
+        // Move the identity past the explicit ids so regular inserts keep working
+        jdbcTemplate.execute("ALTER TABLE users ALTER COLUMN id RESTART WITH " + (firstId + userCount));
+
+        return new long[]{userCount, tickets};
+    }
+
+    // ==================== ROW GENERATION ====================
+
+    Batch generateBatch(Random random, long firstId, int firstIndex, int count,
+                        List<String> passwordHashes, Long userRoleId, Long adminRoleId) {
+        Batch batch = new Batch();
+
+        for (int i = 0; i < count; i++) {
+            long id = firstId + i;
+            int index = firstIndex + i;
+
+            String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            // Index keeps emails unique however many users share a name
+            String email = (firstName + "." + lastName + "." + index).toLowerCase() + EMAIL_DOMAIN;
+            String phone = random.nextInt(10) < 6 ? String.valueOf(500_000_000 + random.nextInt(300_000_000)) : null;
+            boolean privacyEnabled = random.nextInt(10) < 3;
+            String avatar = null;
+            if (random.nextInt(10) < 2) {
+                avatar = avatarFilename(id);
+                batch.avatars.add(new Object[]{avatar, random.nextInt(AVATAR_POOL)});
+            }
+
+            // Spread registrations over the two years before the base time
+            LocalDateTime createdAt = baseTime.minusMinutes(random.nextInt(2 * 365 * 24 * 60));
+            LocalDateTime updatedAt = createdAt.plusMinutes(random.nextInt(30 * 24 * 60));
+
+            batch.users.add(new Object[]{id, email, passwordHashes.get(random.nextInt(passwordHashes.size())),
+                    firstName, lastName, phone, privacyEnabled, avatar,
+                    Timestamp.valueOf(createdAt), Timestamp.valueOf(updatedAt)});
+
+            batch.userRoles.add(new Object[]{id, userRoleId});
+            if (random.nextInt(1000) < 5) {
+                batch.userRoles.add(new Object[]{id, adminRoleId});
+            }
+
+            int ticketCount = ticketCount(random);
+            for (int t = 0; t < ticketCount; t++) {
+                // Status last changed when the ticket was written
+                Timestamp ticketCreatedAt = Timestamp.valueOf(createdAt.plusMinutes(random.nextInt(365 * 24 * 60)));
+                batch.tickets.add(new Object[]{
+                        TICKET_SUBJECTS[random.nextInt(TICKET_SUBJECTS.length)],
+                        TICKET_DESCRIPTIONS[random.nextInt(TICKET_DESCRIPTIONS.length)],
+                        STATUS_WEIGHTS[random.nextInt(STATUS_WEIGHTS.length)].name(),
+                        id,
+                        ticketCreatedAt,
+                        ticketCreatedAt
+                });
+            }
+        }
+        return batch;
+    }
+
+    // Pareto-distributed ticket count (alpha 1.5): ~65% of users have none,
+    // a long tail of heavy users has dozens, capped at maxTicketsPerUser
+    int ticketCount(Random random) {
+        double pareto = Math.pow(1.0 - random.nextDouble(), -1.0 / 1.5);
+        return (int) Math.min(maxTicketsPerUser, Math.floor(pareto) - 1);
+    }
+
+    // ==================== HELPERS ====================
+
+    private Long roleId(Role.RoleName name) {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM roles WHERE name = ?", Long.class, name.name());
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("Role " + name + " not found - roles must exist before generating data");
+        }
+        return ids.get(0);
+    }
+
+    // Small solid-colour PNGs, one per pool slot (hue derived from the slot, so also deterministic).
+    // No user references these - they are only link targets.
+    private void writeAvatars() throws IOException {
+        Files.createDirectories(avatarDirectory);
+        for (int i = 0; i < AVATAR_POOL; i++) {
+            Path file = avatarDirectory.resolve(poolAvatarFilename(i));
+            if (Files.exists(file)) {
+                continue;
+            }
+            BufferedImage image = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+            int rgb = Color.HSBtoRGB(i / (float) AVATAR_POOL, 0.5f, 0.9f);
+            for (int x = 0; x < 64; x++) {
+                for (int y = 0; y < 64; y++) {
+                    image.setRGB(x, y, rgb);
+                }
+            }
+            ImageIO.write(image, "png", file.toFile());
+        }
+    }
+
+    // One file per user: a hard link costs a directory entry, not another copy of the image
+    private void linkAvatars(List<Object[]> avatars) throws IOException {
+        for (Object[] avatar : avatars) {
+            Path file = avatarDirectory.resolve((String) avatar[0]);
+            if (Files.exists(file)) {
+                continue;
+            }
+            Path pooled = avatarDirectory.resolve(poolAvatarFilename((Integer) avatar[1]));
+            try {
+                Files.createLink(file, pooled);
+            } catch (UnsupportedOperationException | IOException e) {
+                // File system without hard links
+                Files.copy(pooled, file);
+            }
+        }
+    }
+
+    // Owner-prefixed like uploaded avatars, so the versioned avatar URL accepts it
+    static String avatarFilename(long userId) {
+        return FileStorageService.ownerPrefix(userId) + "perf-avatar.png";
+    }
+
+    static String poolAvatarFilename(int slot) {
+        return "perf-avatar-pool-" + slot + ".png";
+    }
+
+    // Parameter rows for one JDBC batch of each table
+    static final class Batch {
+        final List<Object[]> users = new ArrayList<>();
+        final List<Object[]> userRoles = new ArrayList<>();
+        final List<Object[]> tickets = new ArrayList<>();
+        final List<Object[]> avatars = new ArrayList<>();  // {file name, pool slot}
+    }
+}
@@ -1,16 +1,19 @@
 package com.example.identitymanager.controller;
 
+import com.example.identitymanager.dto.AvatarCacheStatsDTO;
+import com.example.identitymanager.dto.ImportJobDTO;
 import com.example.identitymanager.dto.UserDTO;
 import com.example.identitymanager.dto.UserRegistrationDTO;
-import com.example.identitymanager.model.Role;
 import com.example.identitymanager.model.User;
-import com.example.identitymanager.repository.RoleRepository;
-import com.example.identitymanager.repository.UserDao;
 import com.example.identitymanager.repository.UserRepository;
 import com.example.identitymanager.service.UserService;
+import com.example.identitymanager.service.AvatarCache;
 import com.example.identitymanager.service.FileStorageService;
-import com.opencsv.CSVReader;
-import com.opencsv.CSVWriter;
+import com.example.identitymanager.service.ImportJobService;
+import com.example.identitymanager.service.SupportTicketService;
+import com.example.identitymanager.service.UserExportService;
+import com.example.identitymanager.service.UserImportService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -19,7 +22,6 @@ import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.validation.Valid;
@@ -30,7 +32,13 @@ import java.util.List;
 
 import org.springframework.web.multipart.MultipartFile;
 import jakarta.servlet.http.HttpServletResponse;
-import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.zip.GZIPOutputStream;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Set;
@@ -41,25 +49,30 @@ import java.util.*;
 @RequestMapping("/admin/users")
 public class AdminController {
 
+    static final String EXPORT_WATERMARK_HEADER = "X-Export-Watermark";
+
     private final UserService userService;
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
-    private final PasswordEncoder passwordEncoder;
-    private final UserDao userDao;
     private final FileStorageService fileStorageService;  // ADDED for avatar support
+    private final AvatarCache avatarCache;
+    private final ImportJobService importJobService;
+    private final UserExportService userExportService;
+    private final SupportTicketService ticketService;
 
     public AdminController(UserService userService,
                            UserRepository userRepository,
-                           RoleRepository roleRepository,
-                           PasswordEncoder passwordEncoder,
-                           UserDao userDao,
-                           FileStorageService fileStorageService) {
+                           FileStorageService fileStorageService,
+                           AvatarCache avatarCache,
+                           ImportJobService importJobService,
+                           UserExportService userExportService,
+                           SupportTicketService ticketService) {
         this.userService = userService;
         this.userRepository = userRepository;
-        this.roleRepository = roleRepository;
-        this.passwordEncoder = passwordEncoder;
-        this.userDao = userDao;
         this.fileStorageService = fileStorageService;  // ADDED
+        this.avatarCache = avatarCache;
+        this.importJobService = importJobService;
+        this.userExportService = userExportService;
+        this.ticketService = ticketService;
     }
 
     // GET /admin/users - List all users with REAL pagination
@@ -75,11 +88,15 @@ public class AdminController {
         // ADDED: Add avatar URL to each user
         userPage.getContent().forEach(user -> {
             if (user.getAvatarFilename() != null) {
-                user.setAvatarUrl("/api/users/" + user.getId() + "/avatar");
+                user.setAvatarUrl(UserController.avatarUrl(user.getId(), user.getAvatarFilename()));
             }
         });
 
+        // Ticket counts for the whole page from the counter table - one lookup, no per-user COUNT
+        List<Long> userIds = userPage.getContent().stream().map(UserDTO::getId).toList();
+
         model.addAttribute("users", userPage.getContent());
+        model.addAttribute("ticketCounts", ticketService.getTicketCounts(userIds));
         model.addAttribute("currentPage", userPage.getNumber());
         model.addAttribute("totalPages", userPage.getTotalPages());
         model.addAttribute("pageSize", size);
@@ -124,7 +141,7 @@ public class AdminController {
                         throw new IllegalArgumentException("Only image files are allowed");
                     }
 
-                    String filename = fileStorageService.storeFile(avatarFile);
+                    String filename = fileStorageService.storeFile(avatarFile, user.getId());
                     user.setAvatarFilename(filename);
                     userRepository.save(user);
                 } catch (Exception e) {
@@ -152,6 +169,9 @@ public class AdminController {
             return "redirect:/admin/users";
         }
 
+        if (user.getAvatarFilename() != null) {
+            user.setAvatarUrl(UserController.avatarUrl(id, user.getAvatarFilename()));
+        }
         model.addAttribute("user", user);
         model.addAttribute("userId", id);  // ADDED for avatar display
         model.addAttribute("isEdit", true);
@@ -195,9 +215,10 @@ public class AdminController {
                     // Delete old avatar if exists
                     if (user.getAvatarFilename() != null) {
                         fileStorageService.deleteFile(user.getAvatarFilename());
+                        avatarCache.evict(user.getAvatarFilename());
                     }
 
-                    String filename = fileStorageService.storeFile(avatarFile);
+                    String filename = fileStorageService.storeFile(avatarFile, id);
                     user.setAvatarFilename(filename);
                 } catch (Exception e) {
                     model.addAttribute("error", "Error uploading avatar: " + e.getMessage());
@@ -230,6 +251,7 @@ public class AdminController {
                 // Delete avatar file if exists
                 if (user.getAvatarFilename() != null) {
                     fileStorageService.deleteFile(user.getAvatarFilename());
+                    avatarCache.evict(user.getAvatarFilename());
                 }
 
                 // Delete user with all related data (delegated to service layer)
@@ -254,6 +276,7 @@ public class AdminController {
 
             if (user.getAvatarFilename() != null) {
                 fileStorageService.deleteFile(user.getAvatarFilename());
+                avatarCache.evict(user.getAvatarFilename());
                 user.setAvatarFilename(null);
                 userRepository.save(user);
                 redirectAttributes.addFlashAttribute("success", "Avatar deleted successfully!");
@@ -274,104 +297,174 @@ public class AdminController {
         return "admin/import-csv";
     }
 
-    // POST /admin/users/import - Import users from CSV using JDBC
+    // POST /admin/users/import - Start a background CSV import job
+    // mode=insert (default) creates new users only, mode=upsert inserts or updates by email (MERGE)
+    // The file is spooled to disk and imported in committed chunks; the admin is sent to the job page
     @PostMapping("/import")
     public String importUsers(@RequestParam("file") MultipartFile file,
+                              @RequestParam(value = "mode", defaultValue = "insert") String mode,
                               RedirectAttributes redirectAttributes) {
         if (file.isEmpty()) {
             redirectAttributes.addFlashAttribute("error", "Please select a CSV file");
             return "redirect:/admin/users/import";
         }
 
+        UserImportService.Mode importMode;
         try {
-            List<User> users = parseCsvFile(file);
+            importMode = UserImportService.Mode.valueOf(mode.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("error", "Invalid import mode: " + mode);
+            return "redirect:/admin/users/import";
+        }
 
-            Role userRole = roleRepository.findByName(Role.RoleName.USER)
-                    .orElseThrow(() -> new RuntimeException("USER role not found"));
+        try {
+            ImportJobDTO job = importJobService.submit(file, importMode);
+            redirectAttributes.addFlashAttribute("success", "Import started: " + file.getOriginalFilename());
+            return "redirect:/admin/users/import/jobs/" + job.getId();
 
-            int importedCount = 0;
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", "Error importing CSV: " + e.getMessage());
+            return "redirect:/admin/users/import";
+        }
+    }
 
-            // FIXED: Use JdbcTemplate for bulk insert instead of JPA
-            for (User user : users) {
-                // Insert user via JDBC
-                int rowsAffected = userDao.insertUser(user);
+    // GET /admin/users/import/jobs/{id} - Import job progress page
+    @GetMapping("/import/jobs/{id}")
+    public String showImportJob(@PathVariable String id, Model model, RedirectAttributes redirectAttributes) {
+        try {
+            model.addAttribute("job", importJobService.getJob(id));
+            return "admin/import-job";
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", "Import job not found: " + e.getMessage());
+            return "redirect:/admin/users/import";
+        }
+    }
 
-                if (rowsAffected > 0 && user.getId() != null) {
-                    // Assign USER role via JPA (relation table)
-                    Set<Role> roles = new HashSet<>();
-                    roles.add(userRole);
-                    user.setRoles(roles);
-                    userRepository.save(user); // Only to update roles relation
-                    importedCount++;
-                }
-            }
+    // GET /admin/users/avatar-cache/stats - Hit ratio and size of the in-memory avatar cache
+    @GetMapping("/avatar-cache/stats")
+    @ResponseBody
+    public AvatarCacheStatsDTO avatarCacheStats() {
+        return avatarCache.getStats();
+    }
 
-            redirectAttributes.addFlashAttribute("success",
-                    "Successfully imported " + importedCount + " users via JdbcTemplate");
-            return "redirect:/admin/users";
+    // GET /admin/users/import/jobs/{id}/progress - Progress snapshot polled by the job page
+    @GetMapping("/import/jobs/{id}/progress")
+    @ResponseBody
+    public ImportJobDTO importJobProgress(@PathVariable String id) {
+        return importJobService.getJob(id);
+    }
 
+    // POST /admin/users/import/jobs/{id}/cancel - Stop the job after its current chunk
+    @PostMapping("/import/jobs/{id}/cancel")
+    public String cancelImportJob(@PathVariable String id, RedirectAttributes redirectAttributes) {
+        try {
+            importJobService.cancel(id);
+            redirectAttributes.addFlashAttribute("success", "Cancellation requested");
         } catch (Exception e) {
-            redirectAttributes.addFlashAttribute("error", "Error importing CSV: " + e.getMessage());
-            return "redirect:/admin/users/import";
+            redirectAttributes.addFlashAttribute("error", "Error cancelling import: " + e.getMessage());
         }
+        return "redirect:/admin/users/import/jobs/" + id;
     }
 
-    // GET /admin/users/export - Export users to CSV using OpenCSV
-    @GetMapping("/export")
-    public void exportUsers(HttpServletResponse response) throws Exception {
-        response.setContentType("text/csv");
-        response.setHeader("Content-Disposition", "attachment; filename=\"users_export.csv\"");
-
-        List<User> users = userRepository.findAll();
-
-        try (CSVWriter csvWriter = new CSVWriter(response.getWriter())) {
-            // CSV Header
-            String[] header = {"email", "firstName", "lastName", "phone", "isPrivacyEnabled"};
-            csvWriter.writeNext(header);
-
-            // CSV Data
-            for (User user : users) {
-                String[] data = {
-                        user.getEmail(),
-                        user.getFirstName(),
-                        user.getLastName(),
-                        user.getPhone() != null ? user.getPhone() : "",
-                        String.valueOf(user.getIsPrivacyEnabled())
-                };
-                csvWriter.writeNext(data);
-            }
+    // POST /admin/users/import/jobs/{id}/resume - Continue a failed/cancelled job from its checkpoint
+    @PostMapping("/import/jobs/{id}/resume")
+    public String resumeImportJob(@PathVariable String id, RedirectAttributes redirectAttributes) {
+        try {
+            importJobService.resume(id);
+            redirectAttributes.addFlashAttribute("success", "Import resumed");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", "Error resuming import: " + e.getMessage());
         }
+        return "redirect:/admin/users/import/jobs/" + id;
     }
 
-    // Helper method to parse CSV file using OpenCSV library
-    private List<User> parseCsvFile(MultipartFile file) throws Exception {
-        List<User> users = new ArrayList<>();
-
-        try (CSVReader csvReader = new CSVReader(new InputStreamReader(file.getInputStream()))) {
-            // Read all rows
-            List<String[]> allRows = csvReader.readAll();
+    // GET /admin/users/export - Export users to CSV, streamed from a database cursor
+    // format=csv.gz downloads a .csv.gz file; otherwise the CSV is gzip-encoded when the client accepts it
+    // since=<ISO timestamp> exports only users changed (or deleted) after it; every export returns
+    // the X-Export-Watermark header to pass as "since" on the next run
+    @GetMapping("/export")
+    public void exportUsers(@RequestParam(value = "format", defaultValue = "csv") String format,
+                            @RequestParam(value = "since", required = false) String since,
+                            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                            HttpServletResponse response) throws Exception {
+        LocalDateTime sinceTime = parseSince(since);
+        LocalDateTime watermark = userExportService.currentWatermark();
+        if (sinceTime != null && sinceTime.isAfter(watermark)) {
+            watermark = sinceTime; // Never hand out a watermark older than the client's
+        }
 
-            // Skip header row (first row)
-            for (int i = 1; i < allRows.size(); i++) {
-                String[] fields = allRows.get(i);
+        boolean gzipFile = "csv.gz".equalsIgnoreCase(format);
+        boolean gzipEncoding = !gzipFile && acceptsGzip(acceptEncoding);
+        String filename = sinceTime != null ? "users_delta.csv" : "users_export.csv";
+
+        if (gzipFile) {
+            response.setContentType("application/gzip");
+            response.setHeader("Content-Disposition", "attachment; filename=\"" + filename + ".gz\"");
+        } else {
+            response.setContentType("text/csv");
+            response.setHeader("Content-Disposition", "attachment; filename=\"" + filename + "\"");
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (gzipEncoding) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+        }
+        response.setHeader(EXPORT_WATERMARK_HEADER, watermark.toString());
 
-                // Validate row has minimum required fields
-                if (fields.length < 5) {
-                    continue; // Skip invalid lines
-                }
+        OutputStream output = response.getOutputStream();
+        if (gzipFile || gzipEncoding) {
+            // syncFlush so periodic flushes reach the client instead of waiting in the deflater
+            output = new GZIPOutputStream(output, 8192, true);
+        }
 
-                User user = new User();
-                user.setEmail(fields[0].trim());
-                user.setFirstName(fields[1].trim());
-                user.setLastName(fields[2].trim());
-                user.setPhone(fields[3].trim().isEmpty() ? null : fields[3].trim());
-                user.setIsPrivacyEnabled(Boolean.parseBoolean(fields[4].trim()));
-                user.setPassword(passwordEncoder.encode("password123")); // Hash default password
+        try (Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8)) {
+            if (sinceTime != null) {
+                userExportService.writeDeltaCsv(writer, sinceTime, watermark);
+            } else {
+                userExportService.writeCsv(writer);
+            }
+        }
+    }
 
-                users.add(user);
+    // Accept-Encoding per RFC 9110: comma-separated codings with optional q-values; q=0 means "not acceptable".
+    // gzip (or x-gzip) by name wins over the * wildcard; a missing header or unreadable q-value is a no.
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase();
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=") || param.startsWith("Q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQuality = gzipQuality == null ? quality : Math.max(gzipQuality, quality);
+            } else if (coding.equals("*")) {
+                wildcardQuality = quality;
             }
         }
+        Double quality = gzipQuality != null ? gzipQuality : wildcardQuality;
+        return quality != null && quality > 0;
+    }
 
-        return users;
+    private LocalDateTime parseSince(String since) {
+        if (since == null || since.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(since);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid since timestamp (expected ISO-8601, e.g. 2024-01-31T23:59:59): " + since);
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,39 +1,133 @@
 package com.example.identitymanager.controller;
 
+import com.example.identitymanager.dto.BulkStatusUpdateResult;
+import com.example.identitymanager.dto.ImportResult;
 import com.example.identitymanager.dto.SupportTicketDTO;
-import com.example.identitymanager.dto.UserDTO;
+import com.example.identitymanager.dto.SupportTicketSummaryDTO;
+import com.example.identitymanager.dto.TicketFilter;
+import com.example.identitymanager.dto.TicketPageDTO;
+import com.example.identitymanager.dto.UserOptionDTO;
+import com.example.identitymanager.exception.ResourceNotFoundException;
 import com.example.identitymanager.model.SupportTicket;
 import com.example.identitymanager.service.SupportTicketService;
+import com.example.identitymanager.service.TicketEventBroadcaster;
+import com.example.identitymanager.service.TicketImportService;
 import com.example.identitymanager.service.UserService;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Controller
 @RequestMapping("/admin/tickets")
 public class AdminTicketController {
 
+    private static final int PAGE_SIZE = 25;
+    private static final int USER_OPTIONS_LIMIT = 20;
+
     private final SupportTicketService ticketService;
     private final UserService userService;
+    private final TicketImportService ticketImportService;
+    private final TicketEventBroadcaster ticketEventBroadcaster;
 
-    public AdminTicketController(SupportTicketService ticketService, UserService userService) {
+    public AdminTicketController(SupportTicketService ticketService, UserService userService,
+                                 TicketImportService ticketImportService,
+                                 TicketEventBroadcaster ticketEventBroadcaster) {
         this.ticketService = ticketService;
         this.userService = userService;
+        this.ticketImportService = ticketImportService;
+        this.ticketEventBroadcaster = ticketEventBroadcaster;
     }
 
-    // GET /admin/tickets - List all support tickets
+    // GET /admin/tickets - List support tickets, one keyset page at a time (newest first)
+    // Optional filters: status, email (ticket owner); cursor = nextCursor of the previous page
     @GetMapping
-    public String listTickets(Model model) {
-        List<SupportTicketDTO> tickets = ticketService.getAllTickets();
-        List<UserDTO> users = userService.getAllUsers();
-        model.addAttribute("tickets", tickets);
-        model.addAttribute("users", users);
+    public String listTickets(@RequestParam(required = false) String status,
+                              @RequestParam(required = false) String email,
+                              @RequestParam(required = false) String cursor,
+                              Model model) {
+        TicketFilter filter = new TicketFilter();
+        TicketPageDTO<SupportTicketSummaryDTO> page;
+        try {
+            if (status != null && !status.isBlank()) {
+                filter.setStatus(SupportTicket.TicketStatus.valueOf(status.toUpperCase()));
+            }
+            if (email != null && !email.isBlank()) {
+                filter.setUserEmail(email.trim());
+            }
+            // The list shows no descriptions, so it does not fetch them
+            page = ticketService.getTicketSummaryPage(filter, cursor, PAGE_SIZE);
+        } catch (IllegalArgumentException | ResourceNotFoundException e) {
+            model.addAttribute("error", "Invalid filter: " + e.getMessage());
+            page = new TicketPageDTO<>(List.of(), null);
+        }
+
+        model.addAttribute("tickets", page.getItems());
+        model.addAttribute("nextCursor", page.getNextCursor());
+        model.addAttribute("status", status);
+        model.addAttribute("email", email);
+        model.addAttribute("firstPage", cursor == null || cursor.isBlank());
+        model.addAttribute("statuses", SupportTicket.TicketStatus.values());
         return "admin/tickets-list";
     }
 
+    // GET /admin/tickets/user-options?q= - id/email picker for the new ticket form
+    // Bounded prefix lookup, so the form never loads the whole user table
+    @GetMapping("/user-options")
+    @ResponseBody
+    public List<UserOptionDTO> userOptions(@RequestParam(value = "q", defaultValue = "") String query) {
+        return userService.findUserOptions(query, USER_OPTIONS_LIMIT);
+    }
+
+    // GET /admin/tickets/stream - Server-Sent Events for all tickets (created, status-changed)
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter streamTicketEvents() {
+        return ticketEventBroadcaster.subscribe(null);
+    }
+
+    // GET /admin/tickets/import - Show ticket CSV import form
+    @GetMapping("/import")
+    public String showImportForm() {
+        return "admin/import-tickets-csv";
+    }
+
+    // POST /admin/tickets/import - Import tickets from CSV keyed by user email
+    // Streamed row by row; emails resolved per chunk with one IN query, tickets written as JDBC batches
+    @PostMapping("/import")
+    public String importTickets(@RequestParam("file") MultipartFile file,
+                                RedirectAttributes redirectAttributes) {
+        if (file.isEmpty()) {
+            redirectAttributes.addFlashAttribute("error", "Please select a CSV file");
+            return "redirect:/admin/tickets/import";
+        }
+
+        try (InputStream input = file.getInputStream()) {
+            ImportResult result = ticketImportService.importCsv(input);
+
+            redirectAttributes.addFlashAttribute("success", "Import finished: " + result.getInserted()
+                    + " tickets created, " + result.getFailed() + " failed (" + result.getRowsRead()
+                    + " rows in " + result.getDurationMillis() + " ms)");
+            if (!result.getErrors().isEmpty()) {
+                redirectAttributes.addFlashAttribute("importErrors", result.getErrors());
+            }
+            return "redirect:/admin/tickets";
+
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", "Error importing CSV: " + e.getMessage());
+            return "redirect:/admin/tickets/import";
+        }
+    }
+
     // GET /admin/tickets/{id} - View ticket details
     @GetMapping("/{id}")
     public String viewTicket(@PathVariable Long id, Model model, RedirectAttributes redirectAttributes) {
@@ -74,6 +168,52 @@ public class AdminTicketController {
         return "redirect:/admin/tickets";
     }
 
+    // POST /admin/tickets/claim - Take the oldest OPEN ticket and open it (agents never collide)
+    @PostMapping("/claim")
+    public String claimNextTicket(Authentication authentication, RedirectAttributes redirectAttributes) {
+        try {
+            Optional<SupportTicketDTO> claimed = ticketService.claimNextTicket(authentication.getName());
+            if (claimed.isEmpty()) {
+                redirectAttributes.addFlashAttribute("success", "No open tickets left to claim");
+                return "redirect:/admin/tickets";
+            }
+            redirectAttributes.addFlashAttribute("success", "Ticket #" + claimed.get().getId() + " claimed - it is now IN_PROGRESS and assigned to you");
+            return "redirect:/admin/tickets/" + claimed.get().getId();
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", "Failed to claim ticket: " + e.getMessage());
+            return "redirect:/admin/tickets";
+        }
+    }
+
+    // POST /admin/tickets/bulk-status - Move every ticket in fromStatus (optionally older than N days) to status
+    // e.g. close all RESOLVED tickets older than 14 days in one statement instead of one click per ticket
+    @PostMapping("/bulk-status")
+    public String bulkUpdateStatus(@RequestParam("fromStatus") String fromStatus,
+                                   @RequestParam("status") String status,
+                                   @RequestParam(value = "olderThanDays", required = false) Integer olderThanDays,
+                                   RedirectAttributes redirectAttributes) {
+        try {
+            if (olderThanDays != null && olderThanDays < 1) {
+                throw new IllegalArgumentException("olderThanDays must be positive");
+            }
+            TicketFilter filter = new TicketFilter();
+            filter.setStatus(SupportTicket.TicketStatus.valueOf(fromStatus.toUpperCase()));
+            if (olderThanDays != null) {
+                filter.setCreatedTo(LocalDateTime.now().minusDays(olderThanDays));
+            }
+            SupportTicket.TicketStatus newStatus = SupportTicket.TicketStatus.valueOf(status.toUpperCase());
+
+            BulkStatusUpdateResult result = ticketService.bulkUpdateStatus(null, filter, newStatus);
+            redirectAttributes.addFlashAttribute("success", result.getUpdated() + " ticket(s) moved from "
+                    + filter.getStatus() + " to " + result.getStatus());
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("error", "Invalid bulk update: " + e.getMessage());
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", "Bulk update failed: " + e.getMessage());
+        }
+        return "redirect:/admin/tickets";
+    }
+
     // POST /admin/tickets/{id}/status - Update ticket status
     @PostMapping("/{id}/status")
     public String updateTicketStatus(
@@ -1,20 +1,32 @@
 package com.example.identitymanager.controller;
 
+import com.example.identitymanager.dto.BulkStatusUpdateRequest;
+import com.example.identitymanager.dto.BulkStatusUpdateResult;
 import com.example.identitymanager.dto.CreateTicketRequest;
 import com.example.identitymanager.dto.CreateTicketRequestUser;
 import com.example.identitymanager.dto.SupportTicketDTO;
+import com.example.identitymanager.dto.TicketFilter;
+import com.example.identitymanager.dto.TicketPageDTO;
 import com.example.identitymanager.dto.UpdateTicketStatusRequest;
+import com.example.identitymanager.dto.WriteBehindStatsDTO;
 import com.example.identitymanager.model.SupportTicket;
 import com.example.identitymanager.service.SupportTicketService;
+import com.example.identitymanager.service.TicketEventBroadcaster;
+import com.example.identitymanager.service.TicketWriteBehindService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 @RestController
@@ -22,35 +34,102 @@ import java.util.List;
 @Tag(name = "Support Tickets", description = "APIs for managing support tickets")
 public class SupportTicketController {
 
+    // ?view= on the listings: full rows, or summary rows without the description
+    static final String VIEW_FULL = "full";
+    static final String VIEW_SUMMARY = "summary";
+
     private final SupportTicketService ticketService;
+    private final TicketEventBroadcaster ticketEventBroadcaster;
+    private final TicketWriteBehindService writeBehindService;
 
-    public SupportTicketController(SupportTicketService ticketService) {
+    public SupportTicketController(SupportTicketService ticketService,
+                                   TicketEventBroadcaster ticketEventBroadcaster,
+                                   TicketWriteBehindService writeBehindService) {
         this.ticketService = ticketService;
+        this.ticketEventBroadcaster = ticketEventBroadcaster;
+        this.writeBehindService = writeBehindService;
     }
 
     // GET /api/tickets - ADMIN gets all tickets, USER gets only their own
+    // Listings are cursor-paginated: filters status, createdFrom (inclusive), createdTo (exclusive),
+    // sort=desc|asc on created_at, and nextCursor from the previous page as ?cursor=
+    // view=summary leaves out descriptions (fetch one ticket via GET /api/tickets/{id} for the full text)
     @GetMapping
-    @Operation(summary = "Get tickets", description = "ADMIN gets all tickets, USER gets only their own tickets")
-    public ResponseEntity<List<SupportTicketDTO>> getTickets(Authentication authentication) {
+    @Operation(summary = "Get tickets", description = "ADMIN gets all tickets (optionally filtered by userId), USER gets only their own tickets. Cursor-paginated; view=summary omits descriptions.")
+    public ResponseEntity<TicketPageDTO<?>> getTickets(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String createdFrom,
+            @RequestParam(required = false) String createdTo,
+            @RequestParam(defaultValue = "desc") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + SupportTicketService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(defaultValue = VIEW_FULL) String view,
+            Authentication authentication) {
+
+        TicketFilter filter = buildFilter(status, createdFrom, createdTo, sort);
         if (isAdmin(authentication)) {
             // Admin widzi wszystkie tickety
-            List<SupportTicketDTO> tickets = ticketService.getAllTickets();
-            return ResponseEntity.ok(tickets);
+            filter.setUserId(userId);
+        } else if (userId != null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         } else {
             // User widzi tylko swoje tickety
-            String email = authentication.getName();
-            List<SupportTicketDTO> tickets = ticketService.getTicketsByUserEmail(email);
-            return ResponseEntity.ok(tickets);
+            filter.setUserEmail(authentication.getName());
         }
+        return ResponseEntity.ok(getPage(filter, cursor, limit, view));
     }
 
     // GET /api/tickets/my - Get current user's tickets
     @GetMapping("/my")
-    @Operation(summary = "Get my tickets", description = "Retrieves all tickets for the currently logged-in user")
-    public ResponseEntity<List<SupportTicketDTO>> getMyTickets(Authentication authentication) {
-        String email = authentication.getName();
-        List<SupportTicketDTO> tickets = ticketService.getTicketsByUserEmail(email);
-        return ResponseEntity.ok(tickets);
+    @Operation(summary = "Get my tickets", description = "Retrieves the currently logged-in user's tickets. Cursor-paginated; view=summary omits descriptions.")
+    public ResponseEntity<TicketPageDTO<?>> getMyTickets(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String createdFrom,
+            @RequestParam(required = false) String createdTo,
+            @RequestParam(defaultValue = "desc") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + SupportTicketService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(defaultValue = VIEW_FULL) String view,
+            Authentication authentication) {
+
+        TicketFilter filter = buildFilter(status, createdFrom, createdTo, sort);
+        filter.setUserEmail(authentication.getName());
+        return ResponseEntity.ok(getPage(filter, cursor, limit, view));
+    }
+
+    // GET /api/tickets/search?q= - Full-text search (all terms must match), best match first
+    @GetMapping("/search")
+    @Operation(summary = "Search tickets", description = "Full-text search over subject and description; every term must match. ADMIN searches all tickets, USER only their own.")
+    public ResponseEntity<List<SupportTicketDTO>> searchTickets(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "20") int limit,
+            Authentication authentication) {
+
+        SupportTicket.TicketStatus statusFilter = status == null || status.isBlank() ? null : parseStatus(status);
+        String owner = isAdmin(authentication) ? null : authentication.getName();
+        return ResponseEntity.ok(ticketService.searchTickets(query, statusFilter, owner, limit));
+    }
+
+    // GET /api/tickets/archive/search?q= - Search archived (old closed) tickets, newest first
+    @GetMapping("/archive/search")
+    @Operation(summary = "Search archived tickets", description = "Searches closed tickets moved to the archive; every term must match, newest first. ADMIN searches all tickets, USER only their own.")
+    public ResponseEntity<List<SupportTicketDTO>> searchArchivedTickets(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit,
+            Authentication authentication) {
+
+        String owner = isAdmin(authentication) ? null : authentication.getName();
+        return ResponseEntity.ok(ticketService.searchArchivedTickets(query, owner, limit));
+    }
+
+    // GET /api/tickets/stream - Server-Sent Events (created, status-changed) after each commit
+    // ADMIN receives all tickets, USER only their own; slow clients are disconnected and should reconnect
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream ticket changes", description = "Server-Sent Events with created and status-changed tickets. ADMIN receives all tickets, USER only their own.")
+    public SseEmitter streamTicketEvents(Authentication authentication) {
+        return ticketEventBroadcaster.subscribe(isAdmin(authentication) ? null : authentication.getName());
     }
 
     // GET /api/tickets/{id} - Get ticket by ID
@@ -69,28 +148,45 @@ public class SupportTicketController {
 
     // GET /api/tickets/user/{userId} - Get tickets by user (ADMIN only)
     @GetMapping("/user/{userId}")
-    @Operation(summary = "Get tickets by user (ADMIN only)", description = "Retrieves all tickets for a specific user - requires ADMIN role")
-    public ResponseEntity<List<SupportTicketDTO>> getTicketsByUserId(
+    @Operation(summary = "Get tickets by user (ADMIN only)", description = "Retrieves tickets for a specific user - requires ADMIN role. Cursor-paginated; view=summary omits descriptions.")
+    public ResponseEntity<TicketPageDTO<?>> getTicketsByUserId(
             @PathVariable Long userId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String createdFrom,
+            @RequestParam(required = false) String createdTo,
+            @RequestParam(defaultValue = "desc") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + SupportTicketService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(defaultValue = VIEW_FULL) String view,
             Authentication authentication) {
 
         if (!isAdmin(authentication)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        List<SupportTicketDTO> tickets = ticketService.getTicketsByUserId(userId);
-        return ResponseEntity.ok(tickets);
+        TicketFilter filter = buildFilter(status, createdFrom, createdTo, sort);
+        filter.setUserId(userId);
+        return ResponseEntity.ok(getPage(filter, cursor, limit, view));
     }
 
     // POST /api/tickets - Create new ticket (USER creates for self, ADMIN can specify userId)
+    // With tickets.write-behind.enabled the ticket is queued: 202 + receipt, or 503 when the queue is full
     @PostMapping
-    @Operation(summary = "Create a new support ticket", description = "USER creates ticket for themselves, ADMIN can create for any user")
-    public ResponseEntity<SupportTicketDTO> createTicket(
+    @Operation(summary = "Create a new support ticket", description = "USER creates ticket for themselves, ADMIN can create for any user. In write-behind mode answers 202 with a provisional id (503 when the queue is full).")
+    public ResponseEntity<?> createTicket(
             @Valid @RequestBody CreateTicketRequestUser request,
             Authentication authentication) {
 
         // User tworzy ticket tylko na siebie
         String email = authentication.getName();
+        if (writeBehindService.isEnabled()) {
+            return writeBehindService.submit(email, request.getSubject(), request.getDescription())
+                    .<ResponseEntity<?>>map(queued -> ResponseEntity.status(HttpStatus.ACCEPTED).body(queued))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                            .header(HttpHeaders.RETRY_AFTER, "1")
+                            .build());
+        }
+
         SupportTicketDTO createdTicket = ticketService.createTicketForCurrentUser(
                 email,
                 request.getSubject(),
@@ -130,17 +226,100 @@ public class SupportTicketController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        // Convert string to enum
-        SupportTicket.TicketStatus newStatus;
+        SupportTicket.TicketStatus newStatus = parseStatus(request.getStatus());
+
+        SupportTicketDTO updatedTicket = ticketService.updateTicketStatus(id, newStatus);
+        return ResponseEntity.ok(updatedTicket);
+    }
+
+    // PATCH /api/tickets/status - Bulk status transition (ADMIN only), one set-based UPDATE
+    // Body: status + ids and/or fromStatus (+ olderThanDays); returns how many tickets changed
+    @PatchMapping("/status")
+    @Operation(summary = "Bulk update ticket status (ADMIN only)", description = "Moves tickets selected by id list and/or filter (fromStatus, olderThanDays) to a new status in a single UPDATE. Returns affected counts.")
+    public ResponseEntity<BulkStatusUpdateResult> bulkUpdateStatus(
+            @Valid @RequestBody BulkStatusUpdateRequest request,
+            Authentication authentication) {
+
+        if (!isAdmin(authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        TicketFilter filter = new TicketFilter();
+        if (request.getFromStatus() != null && !request.getFromStatus().isBlank()) {
+            filter.setStatus(parseStatus(request.getFromStatus()));
+        }
+        if (request.getOlderThanDays() != null) {
+            filter.setCreatedTo(LocalDateTime.now().minusDays(request.getOlderThanDays()));
+        }
+        return ResponseEntity.ok(ticketService.bulkUpdateStatus(request.getIds(), filter, parseStatus(request.getStatus())));
+    }
+
+    // GET /api/tickets/write-behind/stats - Queue depth and durability counters (ADMIN only)
+    @GetMapping("/write-behind/stats")
+    @Operation(summary = "Write-behind queue metrics", description = "Queue depth, accepted/rejected/committed/failed counters and tickets acknowledged but not yet durable (ADMIN only)")
+    public ResponseEntity<WriteBehindStatsDTO> getWriteBehindStats(Authentication authentication) {
+        if (!isAdmin(authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(writeBehindService.getStats());
+    }
+
+    // POST /api/tickets/claim - Take the oldest OPEN ticket off the queue (ADMIN only)
+    // 200 with the ticket (now IN_PROGRESS, assigned to the caller), 204 when no OPEN ticket is left to claim
+    @PostMapping("/claim")
+    @Operation(summary = "Claim next open ticket (ADMIN only)", description = "Atomically moves the oldest OPEN ticket to IN_PROGRESS and assigns it to the caller. Concurrent callers never receive the same ticket and never wait on one another - a ticket another caller is claiming is skipped for the next oldest. 204 when no OPEN ticket is left.")
+    public ResponseEntity<SupportTicketDTO> claimNextTicket(Authentication authentication) {
+        if (!isAdmin(authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        return ticketService.claimNextTicket(authentication.getName())
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    // Helper methods for the listing query parameters (invalid values -> 400 via IllegalArgumentException)
+    private TicketPageDTO<?> getPage(TicketFilter filter, String cursor, int limit, String view) {
+        if (VIEW_SUMMARY.equalsIgnoreCase(view)) {
+            return ticketService.getTicketSummaryPage(filter, cursor, limit);
+        }
+        if (VIEW_FULL.equalsIgnoreCase(view)) {
+            return ticketService.getTicketPage(filter, cursor, limit);
+        }
+        throw new IllegalArgumentException("Invalid view: " + view + " (expected full or summary)");
+    }
+
+    private TicketFilter buildFilter(String status, String createdFrom, String createdTo, String sort) {
+        TicketFilter filter = new TicketFilter();
+        filter.setStatus(status == null || status.isBlank() ? null : parseStatus(status));
+        filter.setCreatedFrom(parseTimestamp("createdFrom", createdFrom));
+        filter.setCreatedTo(parseTimestamp("createdTo", createdTo));
+        if (!sort.equalsIgnoreCase("asc") && !sort.equalsIgnoreCase("desc")) {
+            throw new IllegalArgumentException("Invalid sort. Allowed values: asc, desc");
+        }
+        filter.setAscending(sort.equalsIgnoreCase("asc"));
+        return filter;
+    }
+
+    // Convert string to enum
+    private SupportTicket.TicketStatus parseStatus(String status) {
         try {
-            newStatus = SupportTicket.TicketStatus.valueOf(request.getStatus().toUpperCase());
+            return SupportTicket.TicketStatus.valueOf(status.toUpperCase());
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException(
                     "Invalid status. Allowed values: OPEN, IN_PROGRESS, RESOLVED, CLOSED");
         }
+    }
 
-        SupportTicketDTO updatedTicket = ticketService.updateTicketStatus(id, newStatus);
-        return ResponseEntity.ok(updatedTicket);
+    private LocalDateTime parseTimestamp(String name, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + name + " timestamp (expected ISO-8601, e.g. 2024-01-31T23:59:59): " + value);
+        }
     }
 
     // Helper method to check if user has ADMIN role
@@ -6,16 +6,20 @@ import com.example.identitymanager.dto.UserUpdateDTO;
 import com.example.identitymanager.exception.ResourceNotFoundException;
 import com.example.identitymanager.model.User;
 import com.example.identitymanager.repository.UserRepository;
+import com.example.identitymanager.service.AvatarCache;
 import com.example.identitymanager.service.FileStorageService;
+import com.example.identitymanager.service.FileStreamingService;
 import com.example.identitymanager.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
-import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -23,24 +27,39 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/users")
 @Tag(name = "User Management", description = "APIs for managing users")
 public class UserController {
 
+    // Versioned avatar URLs never change content, so caches may keep them for a year
+    private static final Duration AVATAR_MAX_AGE = Duration.ofDays(365);
+
     private final UserService userService;
     private final FileStorageService fileStorageService;
+    private final FileStreamingService fileStreamingService;
+    private final AvatarCache avatarCache;
     private final UserRepository userRepository;
 
     public UserController(UserService userService,
                           FileStorageService fileStorageService,
+                          FileStreamingService fileStreamingService,
+                          AvatarCache avatarCache,
                           UserRepository userRepository) {
         this.userService = userService;
         this.fileStorageService = fileStorageService;
+        this.fileStreamingService = fileStreamingService;
+        this.avatarCache = avatarCache;
         this.userRepository = userRepository;
     }
 
@@ -184,10 +203,11 @@ public class UserController {
         // Delete old avatar if exists
         if (user.getAvatarFilename() != null) {
             fileStorageService.deleteFile(user.getAvatarFilename());
+            avatarCache.evict(user.getAvatarFilename());
         }
 
         // Store new file using Files.copy()
-        String filename = fileStorageService.storeFile(file);
+        String filename = fileStorageService.storeFile(file, id);
         user.setAvatarFilename(filename);
         userRepository.save(user);
 
@@ -198,10 +218,12 @@ public class UserController {
         return ResponseEntity.ok(response);
     }
 
-    // GET /api/users/{id}/avatar - Download avatar
+    // GET /api/users/{id}/avatar - Download the current avatar (may change, so caches must revalidate)
     @GetMapping("/{id}/avatar")
-    @Operation(summary = "Download user avatar", description = "Download user's avatar image")
-    public ResponseEntity<Resource> downloadAvatar(@PathVariable Long id) {
+    @Operation(summary = "Download user avatar", description = "Download user's current avatar image. Pages should link the versioned URL instead.")
+    public void downloadAvatar(@PathVariable Long id,
+                               HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
 
@@ -209,14 +231,61 @@ public class UserController {
             throw new ResourceNotFoundException("Avatar not found for user with id: " + id);
         }
 
-        // Load file as Resource (ResponseEntity<Resource> = ResponseEntity<byte[]> equivalent)
-        Resource resource = fileStorageService.loadFileAsResource(user.getAvatarFilename());
+        String filename = user.getAvatarFilename();
+        sendAvatar(filename, () -> fileStorageService.findFile(filename)
+                        .orElseThrow(() -> new ResourceNotFoundException("Avatar not found for user with id: " + id)),
+                CacheControl.noCache(), request, response);
+    }
+
+    // GET /api/users/{id}/avatar/{filename} - Versioned avatar URL (see avatarUrl)
+    // Stored files are UUID-named and never rewritten - a new upload gets a new name, hence a new URL -
+    // so the response can be cached forever. Avatar names start with the owner's id, so checking
+    // the file against {id} needs no user lookup either.
+    @GetMapping("/{id}/avatar/{filename:.+}")
+    @Operation(summary = "Download avatar by versioned URL", description = "Immutable, cacheable avatar URL; supports ETag (304) and Range requests")
+    public void downloadVersionedAvatar(@PathVariable Long id,
+                                        @PathVariable String filename,
+                                        HttpServletRequest request,
+                                        HttpServletResponse response) throws IOException {
+        if (!FileStorageService.isOwnedBy(filename, id)) {
+            throw new ResourceNotFoundException("Avatar not found: " + filename);
+        }
+        sendAvatar(filename, () -> fileStorageService.findFile(filename)
+                        .orElseThrow(() -> new ResourceNotFoundException("Avatar not found: " + filename)),
+                CacheControl.maxAge(AVATAR_MAX_AGE).cachePublic().immutable(), request, response);
+    }
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.IMAGE_JPEG)
-                .header(HttpHeaders.CONTENT_DISPOSITION,
-                        "inline; filename=\"" + user.getAvatarFilename() + "\"")
-                .body(resource);
+    // Link used by the pages - changes whenever the avatar does.
+    // Files stored before names carried the owner fall back to the revalidated URL.
+    public static String avatarUrl(Long userId, String avatarFilename) {
+        if (!FileStorageService.isOwnedBy(avatarFilename, userId)) {
+            return "/api/users/" + userId + "/avatar";
+        }
+        return "/api/users/" + userId + "/avatar/" + avatarFilename;
+    }
+
+    // The file name is the version, so it doubles as a strong ETag.
+    // Hot avatars come from AvatarCache without touching the disk; the rest are streamed zero-copy.
+    // FileStreamingService answers 304 and Range requests either way.
+    private void sendAvatar(String filename, Supplier<Path> locateFile, CacheControl cacheControl,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<ByteBuffer> cached = avatarCache.get(filename);
+        Path file = null;
+        if (cached.isEmpty()) {
+            file = locateFile.get();
+            cached = avatarCache.load(filename, file);
+        }
+
+        response.setContentType(fileStorageService.getContentType(filename).toString());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"");
+        // Never let a browser guess a type other than the one detected at upload
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        if (cached.isPresent()) {
+            fileStreamingService.send(cached.get(), filename, request, response);
+        } else {
+            fileStreamingService.send(file, filename, request, response);
+        }
     }
 
     // DELETE /api/users/{id}/avatar - Delete avatar
@@ -231,6 +300,7 @@ public class UserController {
         }
 
         fileStorageService.deleteFile(user.getAvatarFilename());
+        avatarCache.evict(user.getAvatarFilename());
         user.setAvatarFilename(null);
         userRepository.save(user);
 
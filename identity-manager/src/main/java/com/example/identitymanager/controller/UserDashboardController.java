@@ -1,12 +1,15 @@
 package com.example.identitymanager.controller;
 
-import com.example.identitymanager.dto.SupportTicketDTO;
+import com.example.identitymanager.dto.SupportTicketSummaryDTO;
 import com.example.identitymanager.dto.UserDTO;
 import com.example.identitymanager.dto.UserUpdateDTO;
+import com.example.identitymanager.service.AvatarCache;
 import com.example.identitymanager.service.FileStorageService;
 import com.example.identitymanager.service.SupportTicketService;
+import com.example.identitymanager.service.TicketEventBroadcaster;
 import com.example.identitymanager.service.UserService;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -15,7 +18,9 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.List;
@@ -26,14 +31,20 @@ public class UserDashboardController {
 
     private final UserService userService;
     private final FileStorageService fileStorageService;
+    private final AvatarCache avatarCache;
     private final SupportTicketService ticketService;
+    private final TicketEventBroadcaster ticketEventBroadcaster;
 
     public UserDashboardController(UserService userService,
                                    FileStorageService fileStorageService,
-                                   SupportTicketService ticketService) {
+                                   AvatarCache avatarCache,
+                                   SupportTicketService ticketService,
+                                   TicketEventBroadcaster ticketEventBroadcaster) {
         this.userService = userService;
         this.fileStorageService = fileStorageService;
+        this.avatarCache = avatarCache;
         this.ticketService = ticketService;
+        this.ticketEventBroadcaster = ticketEventBroadcaster;
     }
 
     @GetMapping("/dashboard")
@@ -44,14 +55,15 @@ public class UserDashboardController {
 
         // Generate avatar URL if user has avatar
         if (user.getAvatarFilename() != null) {
-            user.setAvatarUrl("/api/users/" + user.getId() + "/avatar");
+            user.setAvatarUrl(UserController.avatarUrl(user.getId(), user.getAvatarFilename()));
         }
 
-        // Pobierz tickety użytkownika
-        List<SupportTicketDTO> tickets = ticketService.getTicketsByUserEmail(email);
+        // Pobierz tickety użytkownika (bez opisów - tabela ich nie pokazuje)
+        List<SupportTicketSummaryDTO> tickets = ticketService.getTicketSummariesByUserEmail(email);
 
         model.addAttribute("user", user);
         model.addAttribute("tickets", tickets);
+        model.addAttribute("ticketCounts", ticketService.getTicketCounts(user.getId()));
         return "user/dashboard";
     }
 
@@ -88,10 +100,11 @@ public class UserDashboardController {
                 // Delete old avatar if exists
                 if (currentUser.getAvatarFilename() != null) {
                     fileStorageService.deleteFile(currentUser.getAvatarFilename());
+                    avatarCache.evict(currentUser.getAvatarFilename());
                 }
 
                 // Save new avatar
-                String filename = fileStorageService.storeFile(avatar);
+                String filename = fileStorageService.storeFile(avatar, currentUser.getId());
 
                 // Update user with new avatar filename
                 userService.updateUserAvatar(email, filename);
@@ -126,6 +139,7 @@ public class UserDashboardController {
         if (currentUser.getAvatarFilename() != null) {
             try {
                 fileStorageService.deleteFile(currentUser.getAvatarFilename());
+                avatarCache.evict(currentUser.getAvatarFilename());
                 userService.updateUserAvatar(email, null);
 
                 redirectAttributes.addAttribute("success", "true");
@@ -165,4 +179,12 @@ public class UserDashboardController {
 
         return "redirect:/user/dashboard";
     }
-}
\ No newline at end of file
+
+    // GET /user/tickets/stream - Server-Sent Events for the current user's tickets (created, status-changed)
+    // Lets the dashboard update in place instead of reloading the whole ticket list
+    @GetMapping(value = "/tickets/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter streamTicketEvents(Authentication authentication) {
+        return ticketEventBroadcaster.subscribe(authentication.getName());
+    }
+}
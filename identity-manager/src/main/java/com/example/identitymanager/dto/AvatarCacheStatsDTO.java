@@ -0,0 +1,24 @@
+package com.example.identitymanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Avatar content cache metrics. Counters are since application start.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvatarCacheStatsDTO {
+
+    private long maxBytes;
+    private long maxEntryBytes;     // Larger files are always served from disk
+    private long bytes;             // Off-heap bytes held by cached entries
+    private int entries;
+    private long hits;
+    private long misses;
+    private double hitRatio;        // hits / (hits + misses)
+    private long loads;             // Files read into the cache after a miss
+    private long evictions;         // Dropped to stay within maxBytes (least recently used first)
+    private long invalidations;     // Evict calls for replaced or deleted avatars
+    private long uncacheable;       // Misses over maxEntryBytes
+}
@@ -0,0 +1,25 @@
+package com.example.identitymanager.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateRequest {
+
+    @NotBlank(message = "Status is required")
+    private String status;         // Target status
+
+    // Either an id list, or a filter with at least fromStatus - criteria are combined with AND
+    private List<Long> ids;
+    private String fromStatus;     // Only tickets currently in this status
+
+    @Positive(message = "olderThanDays must be positive")
+    private Integer olderThanDays; // Only tickets created more than this many days ago
+}
@@ -0,0 +1,15 @@
+package com.example.identitymanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateResult {
+
+    private String status;      // Target status
+    private Integer requested;  // Ids sent by the caller (null for a filter-only update)
+    private int updated;        // Tickets actually changed (already in the target status or not matching = skipped)
+}
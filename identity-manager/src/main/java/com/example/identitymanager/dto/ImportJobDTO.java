@@ -0,0 +1,32 @@
+package com.example.identitymanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobDTO {
+
+    private String id;
+    private String mode;
+    private String status;
+    private String originalFilename;
+    private long rowsRead;
+    private long inserted;
+    private long updated;
+    private long unchanged;
+    private long failed;
+    private long rowsPerSecond;   // Throughput since the job (last) started
+    private long lastLine;        // Checkpoint the job resumes from
+    private boolean resumable;
+    private List<String> errors;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
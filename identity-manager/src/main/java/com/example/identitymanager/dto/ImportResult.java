@@ -0,0 +1,48 @@
+package com.example.identitymanager.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class ImportResult {
+
+    // Only the first errors are kept so a bad file cannot grow the result without bound
+    public static final int MAX_REPORTED_ERRORS = 100;
+
+    private long rowsRead;     // Data rows read from the file (header excluded)
+    private long inserted;     // New users created
+    private long updated;      // Existing users (matched by email) with changed data
+    private long unchanged;    // Existing users whose data already matched the file
+    private long failed;       // Rows rejected by validation or conflicts
+    private List<String> errors = new ArrayList<>();
+    private long durationMillis;   // Wall-clock time of the import
+    private long rowsPerSecond;    // Throughput (rows read per second)
+
+    public ImportResult(long inserted, long updated, long unchanged) {
+        this.inserted = inserted;
+        this.updated = updated;
+        this.unchanged = unchanged;
+    }
+
+    public void addError(long line, String message) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add("Line " + line + ": " + message);
+        }
+    }
+
+    // rows = rows processed during the measured run (a resumed job only counts its own run)
+    public void recordDuration(long rows, long elapsedNanos) {
+        durationMillis = elapsedNanos / 1_000_000;
+        rowsPerSecond = elapsedNanos > 0 ? rows * 1_000_000_000L / elapsedNanos : 0;
+    }
+
+    public String toSummary() {
+        return inserted + " inserted, " + updated + " updated, " + unchanged + " unchanged, " + failed + " failed"
+                + " (" + rowsRead + " rows in " + durationMillis + " ms, " + rowsPerSecond + " rows/s)";
+    }
+}
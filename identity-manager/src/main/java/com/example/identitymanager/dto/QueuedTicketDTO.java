@@ -0,0 +1,19 @@
+package com.example.identitymanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Receipt for a ticket accepted by the write-behind queue (202) - not yet committed
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueuedTicketDTO {
+
+    private String provisionalId;   // Request id, the ticket id is assigned when the batch is written
+    private String subject;
+    private LocalDateTime acceptedAt;   // Also becomes the ticket's created_at
+    private int queueDepth;         // Tickets waiting for the writer right after this one was queued
+}
@@ -1,5 +1,6 @@
 package com.example.identitymanager.dto;
 
+import com.example.identitymanager.model.SupportTicket;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -18,4 +19,10 @@ public class SupportTicketDTO {
     private Long userId;
     private String userEmail;
     private LocalDateTime createdAt;
+
+    // Used by the JPQL constructor expressions in SupportTicketRepository
+    public SupportTicketDTO(Long id, String subject, String description, SupportTicket.TicketStatus status,
+                            Long userId, String userEmail, LocalDateTime createdAt) {
+        this(id, subject, description, status.name(), userId, userEmail, createdAt);
+    }
 }
\ No newline at end of file
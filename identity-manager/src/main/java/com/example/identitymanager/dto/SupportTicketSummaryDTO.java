@@ -0,0 +1,29 @@
+package com.example.identitymanager.dto;
+
+import com.example.identitymanager.model.SupportTicket;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// List row of a ticket - everything SupportTicketDTO has except the description,
+// which only the detail views need (up to 1000 chars that lists never show)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SupportTicketSummaryDTO {
+
+    private Long id;
+    private String subject;
+    private String status;
+    private Long userId;
+    private String userEmail;
+    private LocalDateTime createdAt;
+
+    // Used by the JPQL constructor expressions in SupportTicketRepository
+    public SupportTicketSummaryDTO(Long id, String subject, SupportTicket.TicketStatus status,
+                                   Long userId, String userEmail, LocalDateTime createdAt) {
+        this(id, subject, status.name(), userId, userEmail, createdAt);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.identitymanager.dto;
+
+import com.example.identitymanager.model.SupportTicket;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketFilter {
+
+    // Every criterion is optional - null means "no restriction"
+    private SupportTicket.TicketStatus status;
+    private Long userId;
+    private String userEmail;
+    private LocalDateTime createdFrom;   // Inclusive
+    private LocalDateTime createdTo;     // Exclusive
+    private LocalDateTime statusChangedBefore; // Exclusive - last status change strictly before
+    private boolean ascending;           // Order by created_at (then id); newest first by default
+}
@@ -0,0 +1,17 @@
+package com.example.identitymanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// T = SupportTicketDTO (full view) or SupportTicketSummaryDTO (view=summary)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketPageDTO<T> {
+
+    private List<T> items;
+    private String nextCursor;   // Pass back as ?cursor= for the next page; null on the last page
+}
@@ -0,0 +1,15 @@
+package com.example.identitymanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Minimal user reference for pickers - no roles, no profile data
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserOptionDTO {
+
+    private Long id;
+    private String email;
+}
@@ -0,0 +1,22 @@
+package com.example.identitymanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One user's ticket counts by status (read from the user_ticket_counts counters, not aggregated)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserTicketCountsDTO {
+
+    private Long userId;
+    private long open;
+    private long inProgress;
+    private long resolved;
+    private long closed;
+
+    public long getTotal() {
+        return open + inProgress + resolved + closed;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.identitymanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Write-behind ticket queue metrics. Counters are since application start.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WriteBehindStatsDTO {
+
+    private boolean enabled;
+    private int capacity;
+    private int queueDepth;
+    private long accepted;          // Acknowledged with 202
+    private long rejected;          // Refused with 503 because the queue was full
+    private long committed;         // Durable - written and committed
+    private long failed;            // Acknowledged but never written (unknown user, write error)
+    private long pending;           // Acknowledged, not yet durable - lost if the process dies now
+    private long batches;           // Commits; committed / batches = average group size
+    private int largestBatch;
+    private LocalDateTime lastCommitAt;
+}
@@ -0,0 +1,87 @@
+package com.example.identitymanager.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "import_jobs")
+@Data
+@NoArgsConstructor
+public class ImportJob {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    // UserImportService.Mode name (INSERT / UPSERT)
+    @Column(nullable = false, length = 20)
+    private String mode;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private JobStatus status = JobStatus.QUEUED;
+
+    @Column(name = "original_filename")
+    private String originalFilename;
+
+    // Spooled copy of the uploaded file (kept until the job completes so it can be resumed)
+    @Column(name = "file_path", nullable = false, length = 500)
+    private String filePath;
+
+    // Checkpoint - last CSV line committed by a finished chunk
+    @Column(name = "last_line", nullable = false)
+    private long lastLine;
+
+    @Column(name = "rows_read", nullable = false)
+    private long rowsRead;
+
+    @Column(nullable = false)
+    private long inserted;
+
+    @Column(nullable = false)
+    private long updated;
+
+    @Column(nullable = false)
+    private long unchanged;
+
+    @Column(nullable = false)
+    private long failed;
+
+    // Reported row errors, one per line
+    @Lob
+    @Column(name = "error_report")
+    private String errorReport;
+
+    // Reason the job failed (not row errors)
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public enum JobStatus {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        CANCELLED
+    }
+
+    public boolean isResumable() {
+        return status == JobStatus.FAILED || status == JobStatus.CANCELLED;
+    }
+}
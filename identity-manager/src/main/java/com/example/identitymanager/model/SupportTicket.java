@@ -35,9 +35,14 @@ public class SupportTicket {
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    // Last status change - auto-close and archival count a ticket's age from here
+    @Column(nullable = false)
+    private LocalDateTime statusChangedAt;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        statusChangedAt = createdAt;
     }
 
     public enum TicketStatus {
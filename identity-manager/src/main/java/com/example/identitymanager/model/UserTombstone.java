@@ -0,0 +1,38 @@
+package com.example.identitymanager.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Record of a deleted user - lets delta exports propagate deletions
+@Entity
+@Table(name = "user_tombstones")
+@Data
+@NoArgsConstructor
+public class UserTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 100)
+    private String email;
+
+    @Column(name = "deleted_at", nullable = false, updatable = false)
+    private LocalDateTime deletedAt;
+
+    public UserTombstone(Long userId, String email) {
+        this.userId = userId;
+        this.email = email;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        deletedAt = LocalDateTime.now();
+    }
+}
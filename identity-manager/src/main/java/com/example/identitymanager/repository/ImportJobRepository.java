@@ -0,0 +1,13 @@
+package com.example.identitymanager.repository;
+
+import com.example.identitymanager.model.ImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, String> {
+
+    List<ImportJob> findTop10ByOrderByCreatedAtDesc();
+}
@@ -0,0 +1,337 @@
+package com.example.identitymanager.repository;
+
+import com.example.identitymanager.dto.SupportTicketDTO;
+import com.example.identitymanager.dto.SupportTicketSummaryDTO;
+import com.example.identitymanager.dto.TicketFilter;
+import com.example.identitymanager.dto.UserTicketCountsDTO;
+import com.example.identitymanager.model.SupportTicket;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Repository
+public class JdbcTicketDao implements TicketDao {
+
+    // Ticket columns plus the owner's email - order must match TICKET_DTO_MAPPER indexes
+    private static final String TICKET_DTO_COLUMNS =
+            "t.id, t.subject, t.description, t.status, t.user_id, u.email, t.created_at";
+
+    private static final RowMapper<SupportTicketDTO> TICKET_DTO_MAPPER = (rs, rowNum) -> new SupportTicketDTO(
+            rs.getLong(1),
+            rs.getString(2),
+            rs.getString(3),
+            rs.getString(4),
+            rs.getLong(5),
+            rs.getString(6),
+            rs.getTimestamp(7).toLocalDateTime());
+
+    // List columns - no description, so listings never read or ship it
+    private static final String TICKET_SUMMARY_COLUMNS =
+            "t.id, t.subject, t.status, t.user_id, u.email, t.created_at";
+
+    private static final RowMapper<SupportTicketSummaryDTO> TICKET_SUMMARY_MAPPER = (rs, rowNum) ->
+            new SupportTicketSummaryDTO(
+                    rs.getLong(1),
+                    rs.getString(2),
+                    rs.getString(3),
+                    rs.getLong(4),
+                    rs.getString(5),
+                    rs.getTimestamp(6).toLocalDateTime());
+
+    private static final String COUNTS_COLUMNS =
+            "c.user_id, c.open_count, c.in_progress_count, c.resolved_count, c.closed_count";
+
+    private static final RowMapper<UserTicketCountsDTO> COUNTS_MAPPER = (rs, rowNum) -> new UserTicketCountsDTO(
+            rs.getLong(1),
+            rs.getLong(2),
+            rs.getLong(3),
+            rs.getLong(4),
+            rs.getLong(5));
+
+    // INSERT ... SELECT from users, so an unknown owner inserts nothing instead of failing the FK;
+    // FINAL TABLE returns the inserted row (generated id, defaulted created_at) joined to the owner's email
+    private static final String INSERT_FOR_OWNER_SQL = "SELECT " + TICKET_DTO_COLUMNS +
+            " FROM FINAL TABLE (INSERT INTO support_tickets (subject, description, status, user_id) " +
+            "SELECT ?, ?, 'OPEN', id FROM users WHERE %s = ?) t JOIN users u ON u.id = t.user_id";
+
+    // Candidates read per round trip - well above the number of agents claiming at once
+    private static final int CLAIM_WINDOW = 64;
+
+    // Claim candidates: the oldest OPEN tickets (after a (created_at, id) cursor), read without locks.
+    // Served by the (status, created_at, id) index.
+    private static final String CLAIM_WINDOW_SQL = "SELECT id, created_at FROM support_tickets WHERE status = 'OPEN' %s" +
+            "ORDER BY created_at, id LIMIT " + CLAIM_WINDOW;
+
+    // Locks one candidate, or nothing if another claimer holds it. H2 applies LIMIT before SKIP LOCKED,
+    // so the skip has to be per row - a locked LIMIT 1 over the queue would find nothing behind one held row.
+    private static final String CLAIM_LOCK_SQL = "SELECT id FROM support_tickets WHERE id = ? AND status = 'OPEN' " +
+            "FOR UPDATE SKIP LOCKED";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcTicketDao(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // ==================== INSERT OPERATION ====================
+
+    @Override
+    public List<Long> insertTickets(List<SupportTicket> tickets) {
+        // One JDBC batch - no per-row IDENTITY round trip and no User entity loading
+        // A written row's status is as old as the row itself (imports may carry historic created_at)
+        String sql = "INSERT INTO support_tickets (subject, description, status, user_id, created_at, status_changed_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?)";
+
+        // Generated keys come back with the batch, so callers can name exactly the rows they wrote
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(sql, new String[]{"id"}), new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                SupportTicket ticket = tickets.get(i);
+                ps.setString(1, ticket.getSubject());
+                ps.setString(2, ticket.getDescription());
+                ps.setString(3, ticket.getStatus().name());
+                ps.setLong(4, ticket.getUser().getId());
+                Timestamp createdAt = Timestamp.valueOf(
+                        ticket.getCreatedAt() != null ? ticket.getCreatedAt() : LocalDateTime.now());
+                ps.setTimestamp(5, createdAt);
+                ps.setTimestamp(6, createdAt);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return tickets.size();
+            }
+        }, keyHolder);
+
+        return keyHolder.getKeyList().stream()
+                .map(keys -> ((Number) keys.values().iterator().next()).longValue())
+                .toList();
+    }
+
+    @Override
+    public Optional<SupportTicketDTO> insertOpenTicketForUserId(Long userId, String subject, String description) {
+        return jdbcTemplate.query(INSERT_FOR_OWNER_SQL.formatted("id"), TICKET_DTO_MAPPER,
+                subject, description, userId).stream().findFirst();
+    }
+
+    @Override
+    public Optional<SupportTicketDTO> insertOpenTicketForUserEmail(String email, String subject, String description) {
+        return jdbcTemplate.query(INSERT_FOR_OWNER_SQL.formatted("email"), TICKET_DTO_MAPPER,
+                subject, description, email).stream().findFirst();
+    }
+
+    // ==================== KEYSET PAGINATION ====================
+
+    @Override
+    public List<SupportTicketDTO> findTicketPage(TicketFilter filter, LocalDateTime afterCreatedAt,
+                                                 Long afterId, int limit) {
+        return queryTicketPage(TICKET_DTO_COLUMNS, TICKET_DTO_MAPPER, filter, afterCreatedAt, afterId, limit);
+    }
+
+    @Override
+    public List<SupportTicketSummaryDTO> findTicketSummaryPage(TicketFilter filter, LocalDateTime afterCreatedAt,
+                                                               Long afterId, int limit) {
+        return queryTicketPage(TICKET_SUMMARY_COLUMNS, TICKET_SUMMARY_MAPPER, filter, afterCreatedAt, afterId, limit);
+    }
+
+    private <T> List<T> queryTicketPage(String columns, RowMapper<T> mapper, TicketFilter filter,
+                                        LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT " + columns +
+                " FROM support_tickets t JOIN users u ON u.id = t.user_id WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+        appendFilter(sql, params, filter);
+
+        // Seek past the previous page instead of OFFSET - every page costs one index range scan.
+        // The outer created_at bound keeps the predicate sargable; the OR breaks created_at ties by id.
+        String direction = filter.isAscending() ? "ASC" : "DESC";
+        if (afterCreatedAt != null) {
+            String cmp = filter.isAscending() ? ">" : "<";
+            Timestamp after = Timestamp.valueOf(afterCreatedAt);
+            sql.append(" AND t.created_at ").append(cmp).append("= ?")
+                    .append(" AND (t.created_at ").append(cmp).append(" ? OR t.id ").append(cmp).append(" ?)");
+            params.add(after);
+            params.add(after);
+            params.add(afterId);
+        }
+
+        sql.append(" ORDER BY t.created_at ").append(direction).append(", t.id ").append(direction)
+                .append(" LIMIT ?");
+        params.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), mapper, params.toArray());
+    }
+
+    // Filter criteria as predicates on alias t.
+    // Equality filters first so the matching (status|user_id, created_at, id) index can serve
+    // both the filter and the ORDER BY without a sort step
+    private void appendFilter(StringBuilder sql, List<Object> params, TicketFilter filter) {
+        if (filter.getStatus() != null) {
+            sql.append(" AND t.status = ?");
+            params.add(filter.getStatus().name());
+        }
+        if (filter.getUserId() != null) {
+            sql.append(" AND t.user_id = ?");
+            params.add(filter.getUserId());
+        }
+        if (filter.getUserEmail() != null) {
+            // Resolve the email once so the user_id index is used instead of filtering joined rows
+            sql.append(" AND t.user_id = (SELECT id FROM users WHERE email = ?)");
+            params.add(filter.getUserEmail());
+        }
+        if (filter.getCreatedFrom() != null) {
+            sql.append(" AND t.created_at >= ?");
+            params.add(Timestamp.valueOf(filter.getCreatedFrom()));
+        }
+        if (filter.getCreatedTo() != null) {
+            sql.append(" AND t.created_at < ?");
+            params.add(Timestamp.valueOf(filter.getCreatedTo()));
+        }
+        if (filter.getStatusChangedBefore() != null) {
+            sql.append(" AND t.status_changed_at < ?");
+            params.add(Timestamp.valueOf(filter.getStatusChangedBefore()));
+        }
+    }
+
+    // ==================== BULK STATUS UPDATE ====================
+
+    @Override
+    public List<SupportTicketSummaryDTO> updateStatus(TicketFilter filter, List<Long> ids,
+                                                      SupportTicket.TicketStatus newStatus, int limit) {
+        StringBuilder select = new StringBuilder("SELECT t.id FROM support_tickets t WHERE t.status <> ?");
+        List<Object> params = new ArrayList<>();
+        params.add(newStatus.name());
+        appendFilter(select, params, filter);
+        if (ids != null && !ids.isEmpty()) {
+            select.append(" AND t.id IN (")
+                    .append(String.join(", ", Collections.nCopies(ids.size(), "?")))
+                    .append(")");
+            params.addAll(ids);
+        }
+        if (limit > 0) {
+            // Oldest ids first, so repeated batches walk the table in a stable order
+            select.append(" ORDER BY t.id LIMIT ?");
+            params.add(limit);
+        }
+
+        // One UPDATE statement for the whole set. FINAL TABLE is H2's UPDATE ... RETURNING: it yields
+        // exactly the rows this statement changed, joined to their owners, so listeners can be told
+        // (and owners notified) without a second query.
+        String sql = "SELECT " + TICKET_SUMMARY_COLUMNS + " FROM FINAL TABLE (UPDATE support_tickets SET status = ?, " +
+                "status_changed_at = CURRENT_TIMESTAMP WHERE id IN (" + select + ")) t JOIN users u ON u.id = t.user_id";
+        params.add(0, newStatus.name());
+        return jdbcTemplate.query(sql, TICKET_SUMMARY_MAPPER, params.toArray());
+    }
+
+    // ==================== WORK QUEUE ====================
+
+    @Override
+    public Optional<SupportTicketDTO> claimNextOpenTicket(Long assigneeId) {
+        // Walk the queue oldest first, skipping rows other claimers hold; only an exhausted walk is empty
+        RowMapper<Object[]> candidateMapper = (rs, rowNum) -> new Object[]{rs.getLong("id"), rs.getTimestamp("created_at")};
+        List<Object[]> window = jdbcTemplate.query(CLAIM_WINDOW_SQL.formatted(""), candidateMapper);
+        while (true) {
+            for (Object[] candidate : window) {
+                Long id = (Long) candidate[0];
+                if (jdbcTemplate.queryForList(CLAIM_LOCK_SQL, Long.class, id).isEmpty()) {
+                    continue;
+                }
+                // A claim committed between our read and the lock fails the status guard
+                int updated = jdbcTemplate.update("UPDATE support_tickets SET status = 'IN_PROGRESS', " +
+                        "status_changed_at = CURRENT_TIMESTAMP, assignee_id = ? WHERE id = ? AND status = 'OPEN'", assigneeId, id);
+                if (updated == 1) {
+                    return Optional.of(jdbcTemplate.queryForObject("SELECT " + TICKET_DTO_COLUMNS +
+                            " FROM support_tickets t JOIN users u ON u.id = t.user_id WHERE t.id = ?", TICKET_DTO_MAPPER, id));
+                }
+            }
+            if (window.size() < CLAIM_WINDOW) {
+                return Optional.empty();
+            }
+            Object[] last = window.get(window.size() - 1);
+            window = jdbcTemplate.query(CLAIM_WINDOW_SQL.formatted("AND (created_at, id) > (?, ?) "), candidateMapper,
+                    last[1], last[0]);
+        }
+    }
+
+    // ==================== ARCHIVE ====================
+
+    @Override
+    public List<Long> archiveClosedTickets(LocalDateTime closedBefore, int limit) {
+        // Lock the batch first so a concurrent reopen cannot slip between the copy and the delete.
+        // For a CLOSED row the last status change is the close - served by (status, status_changed_at, id)
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM support_tickets " +
+                        "WHERE status = 'CLOSED' AND status_changed_at < ? ORDER BY id LIMIT ? FOR UPDATE",
+                Long.class, Timestamp.valueOf(closedBefore), limit);
+        if (ids.isEmpty()) {
+            return ids;
+        }
+
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        Object[] params = ids.toArray();
+        jdbcTemplate.update("INSERT INTO support_tickets_archive " +
+                "(id, subject, description, status, user_id, assignee_id, created_at, status_changed_at) " +
+                "SELECT id, subject, description, status, user_id, assignee_id, created_at, status_changed_at " +
+                "FROM support_tickets WHERE id IN (" + placeholders + ")", params);
+        jdbcTemplate.update("DELETE FROM support_tickets WHERE id IN (" + placeholders + ")", params);
+        return ids;
+    }
+
+    @Override
+    public Optional<SupportTicketDTO> findArchivedById(Long id) {
+        return jdbcTemplate.query("SELECT " + TICKET_DTO_COLUMNS +
+                        " FROM support_tickets_archive t JOIN users u ON u.id = t.user_id WHERE t.id = ?",
+                TICKET_DTO_MAPPER, id).stream().findFirst();
+    }
+
+    @Override
+    public List<SupportTicketDTO> searchArchive(List<String> terms, Long userId, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT " + TICKET_DTO_COLUMNS +
+                " FROM support_tickets_archive t JOIN users u ON u.id = t.user_id WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+        if (userId != null) {
+            sql.append(" AND t.user_id = ?");
+            params.add(userId);
+        }
+        // The archive is cold and rarely searched - a scan in (created_at, id) order that stops
+        // at the limit is cheaper than keeping a second inverted index in memory
+        for (String term : terms) {
+            sql.append(" AND (LOWER(t.subject) LIKE ? OR LOWER(t.description) LIKE ?)");
+            String pattern = "%" + term + "%";
+            params.add(pattern);
+            params.add(pattern);
+        }
+        sql.append(" ORDER BY t.created_at DESC, t.id DESC LIMIT ?");
+        params.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), TICKET_DTO_MAPPER, params.toArray());
+    }
+
+    // ==================== COUNTERS ====================
+
+    @Override
+    public Map<Long, UserTicketCountsDTO> findTicketCounts(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(userIds.size(), "?"));
+        return jdbcTemplate.query("SELECT " + COUNTS_COLUMNS + " FROM user_ticket_counts c " +
+                        "WHERE c.user_id IN (" + placeholders + ")", COUNTS_MAPPER, userIds.toArray()).stream()
+                .collect(Collectors.toMap(UserTicketCountsDTO::getUserId, Function.identity()));
+    }
+}
@@ -1,7 +1,16 @@
 package com.example.identitymanager.repository;
 
+import com.example.identitymanager.model.Role;
 import com.example.identitymanager.model.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
@@ -13,13 +22,49 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Repository
 public class JdbcUserDao implements UserDao {
 
+    // Explicit column list shared by every user SELECT - order must match UserRowMapper indexes
+    private static final String USER_TABLE_COLUMNS =
+            "id, email, password, first_name, last_name, phone, " +
+            "is_privacy_enabled, avatar_filename, created_at, updated_at";
+
+    private static final String USER_COLUMNS = "u." + USER_TABLE_COLUMNS.replace(", ", ", u.");
+
+    // Role columns appended after USER_COLUMNS in the LEFT JOIN reads
+    private static final String ROLE_COLUMNS = "r.id, r.name";
+
+    private static final String ROLES_JOIN =
+            " LEFT JOIN user_roles ur ON ur.user_id = u.id" +
+            " LEFT JOIN roles r ON r.id = ur.role_id";
+
+    // Whitelisted Pageable sort properties (entity field name -> column)
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "id",
+            "email", "email",
+            "firstName", "first_name",
+            "lastName", "last_name",
+            "createdAt", "created_at",
+            "updatedAt", "updated_at"
+    );
+
+    // Rows fetched per round trip by the streaming reads (keeps heap flat on large scans)
+    static final int STREAM_FETCH_SIZE = 500;
+
     private final JdbcTemplate jdbcTemplate;
 
     public JdbcUserDao(JdbcTemplate jdbcTemplate) {
@@ -30,20 +75,20 @@ public class JdbcUserDao implements UserDao {
 
     @Override
     public List<User> findAllUsers() {
-        String sql = "SELECT * FROM users";
+        String sql = "SELECT " + USER_COLUMNS + " FROM users u";
         return jdbcTemplate.query(sql, new UserRowMapper());
     }
 
     @Override
     public Optional<User> findUserById(Long id) {
-        String sql = "SELECT * FROM users WHERE id = ?";
+        String sql = "SELECT " + USER_COLUMNS + " FROM users u WHERE u.id = ?";
         List<User> users = jdbcTemplate.query(sql, new UserRowMapper(), id);
         return users.isEmpty() ? Optional.empty() : Optional.of(users.get(0));
     }
 
     @Override
     public Optional<User> findUserByEmail(String email) {
-        String sql = "SELECT * FROM users WHERE email = ?";
+        String sql = "SELECT " + USER_COLUMNS + " FROM users u WHERE u.email = ?";
         List<User> users = jdbcTemplate.query(sql, new UserRowMapper(), email);
         return users.isEmpty() ? Optional.empty() : Optional.of(users.get(0));
     }
@@ -57,10 +102,162 @@ public class JdbcUserDao implements UserDao {
 
     @Override
     public List<User> findUsersByPrivacyEnabled(boolean privacyEnabled) {
-        String sql = "SELECT * FROM users WHERE is_privacy_enabled = ?";
+        String sql = "SELECT " + USER_COLUMNS + " FROM users u WHERE u.is_privacy_enabled = ?";
         return jdbcTemplate.query(sql, new UserRowMapper(), privacyEnabled);
     }
 
+    // ==================== STREAMING (CURSOR) OPERATIONS ====================
+
+    @Override
+    public void forEachUser(Consumer<User> action) {
+        String sql = "SELECT " + USER_COLUMNS + " FROM users u ORDER BY u.id";
+        UserRowMapper rowMapper = new UserRowMapper();
+
+        // JdbcTemplate closes statement and result set as soon as the scan ends
+        jdbcTemplate.query(forwardOnly(sql), (ResultSetExtractor<Void>) rs -> {
+            int rowNum = 0;
+            while (rs.next()) {
+                action.accept(rowMapper.mapRow(rs, rowNum++));
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void forEachUserUpdatedBetween(LocalDateTime since, LocalDateTime until, Consumer<User> action) {
+        // Range scan on idx_users_updated_at; (since, until] so consecutive windows never overlap
+        String sql = "SELECT " + USER_COLUMNS + " FROM users u " +
+                "WHERE u.updated_at > ? AND u.updated_at <= ? ORDER BY u.updated_at, u.id";
+        UserRowMapper rowMapper = new UserRowMapper();
+
+        jdbcTemplate.query(forwardOnly(sql, Timestamp.valueOf(since), Timestamp.valueOf(until)),
+                (ResultSetExtractor<Void>) rs -> {
+                    int rowNum = 0;
+                    while (rs.next()) {
+                        action.accept(rowMapper.mapRow(rs, rowNum++));
+                    }
+                    return null;
+                });
+    }
+
+    @Override
+    public List<String> findDeletedEmailsBetween(LocalDateTime since, LocalDateTime until) {
+        // Skip emails that were re-registered after deletion - the live row wins
+        String sql = "SELECT DISTINCT t.email FROM user_tombstones t " +
+                "WHERE t.deleted_at > ? AND t.deleted_at <= ? " +
+                "AND NOT EXISTS (SELECT 1 FROM users u WHERE u.email = t.email) ORDER BY t.email";
+        return jdbcTemplate.queryForList(sql, String.class, Timestamp.valueOf(since), Timestamp.valueOf(until));
+    }
+
+    @Override
+    public Stream<User> streamUsers() {
+        String sql = "SELECT " + USER_COLUMNS + " FROM users u ORDER BY u.id";
+        return jdbcTemplate.queryForStream(forwardOnly(sql), new UserRowMapper());
+    }
+
+    @Override
+    public Stream<User> streamUsersByPrivacyEnabled(boolean privacyEnabled) {
+        String sql = "SELECT " + USER_COLUMNS + " FROM users u WHERE u.is_privacy_enabled = ? ORDER BY u.id";
+        return jdbcTemplate.queryForStream(forwardOnly(sql, privacyEnabled), new UserRowMapper());
+    }
+
+    // Forward-only, read-only statement with a bounded fetch size so the driver
+    // pulls rows in chunks instead of materializing the whole result
+    private PreparedStatementCreator forwardOnly(String sql, Object... params) {
+        return connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 1, params[i]);
+            }
+            return ps;
+        };
+    }
+
+    // ==================== SELECT WITH ROLES (single LEFT JOIN) ====================
+
+    @Override
+    public List<User> findAllUsersWithRoles() {
+        String sql = "SELECT " + USER_COLUMNS + ", " + ROLE_COLUMNS + " FROM users u" + ROLES_JOIN +
+                " ORDER BY u.id";
+        return jdbcTemplate.query(sql, new UserWithRolesExtractor());
+    }
+
+    @Override
+    public Optional<User> findUserWithRolesById(Long id) {
+        String sql = "SELECT " + USER_COLUMNS + ", " + ROLE_COLUMNS + " FROM users u" + ROLES_JOIN +
+                " WHERE u.id = ?";
+        List<User> users = jdbcTemplate.query(sql, new UserWithRolesExtractor(), id);
+        return users.isEmpty() ? Optional.empty() : Optional.of(users.get(0));
+    }
+
+    @Override
+    public Optional<User> findUserWithRolesByEmail(String email) {
+        String sql = "SELECT " + USER_COLUMNS + ", " + ROLE_COLUMNS + " FROM users u" + ROLES_JOIN +
+                " WHERE u.email = ?";
+        List<User> users = jdbcTemplate.query(sql, new UserWithRolesExtractor(), email);
+        return users.isEmpty() ? Optional.empty() : Optional.of(users.get(0));
+    }
+
+    @Override
+    public Page<User> findUsersWithRoles(Pageable pageable) {
+        // Page over users first (derived table), then join roles - LIMIT on the joined
+        // rows would cut a user's roles in half at the page boundary
+        String sql = "SELECT " + USER_COLUMNS + ", " + ROLE_COLUMNS +
+                " FROM (SELECT " + USER_TABLE_COLUMNS + " FROM users" +
+                buildOrderBy(pageable.getSort(), "") + " LIMIT ? OFFSET ?) u" +
+                ROLES_JOIN + buildOrderBy(pageable.getSort(), "u.");
+
+        List<User> users = jdbcTemplate.query(sql, new UserWithRolesExtractor(),
+                pageable.getPageSize(), pageable.getOffset());
+
+        return new PageImpl<>(users, pageable, countUsers());
+    }
+
+    // Translate Pageable sort into ORDER BY, always ending with u.id for a stable order
+    private String buildOrderBy(Sort sort, String alias) {
+        StringBuilder orderBy = new StringBuilder(" ORDER BY ");
+        boolean hasId = false;
+
+        for (Sort.Order order : sort) {
+            String column = SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+            }
+            orderBy.append(alias).append(column).append(order.isDescending() ? " DESC" : " ASC").append(", ");
+            hasId |= column.equals("id");
+        }
+
+        if (hasId) {
+            orderBy.setLength(orderBy.length() - 2);
+        } else {
+            orderBy.append(alias).append("id ASC");
+        }
+        return orderBy.toString();
+    }
+
+    @Override
+    public List<User> findUsersByEmails(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String sql = "SELECT " + USER_COLUMNS + " FROM users u WHERE u.email IN (" + placeholders(emails.size()) + ")";
+        return jdbcTemplate.query(sql, new UserRowMapper(), emails.toArray());
+    }
+
+    @Override
+    public Map<String, Long> findUserIdsByEmails(Collection<String> emails) {
+        Map<String, Long> ids = new HashMap<>();
+        if (emails.isEmpty()) {
+            return ids;
+        }
+        // Only the two columns needed to resolve references - served from the email unique index
+        String sql = "SELECT email, id FROM users WHERE email IN (" + placeholders(emails.size()) + ")";
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> ids.put(rs.getString(1), rs.getLong(2)), emails.toArray());
+        return ids;
+    }
+
     // ==================== INSERT OPERATION ====================
 
     @Override
@@ -91,6 +288,84 @@ public class JdbcUserDao implements UserDao {
         return rowsAffected;
     }
 
+    @Override
+    public int[] insertUsers(List<User> users) {
+        // Multi-row insert as one JDBC batch - ids are not returned, callers key on email
+        String sql = "INSERT INTO users (email, password, first_name, last_name, phone, is_privacy_enabled, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
+
+        return jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                User user = users.get(i);
+                ps.setString(1, user.getEmail());
+                ps.setString(2, user.getPassword());
+                ps.setString(3, user.getFirstName());
+                ps.setString(4, user.getLastName());
+                ps.setString(5, user.getPhone());
+                ps.setBoolean(6, user.getIsPrivacyEnabled() != null ? user.getIsPrivacyEnabled() : false);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return users.size();
+            }
+        });
+    }
+
+    // ==================== UPSERT OPERATIONS ====================
+
+    @Override
+    public int[] mergeUsers(List<User> users) {
+        // Insert-or-update keyed on email in one JDBC batch. Password and created_at
+        // are only written for new rows - re-imports never reset existing credentials.
+        String sql = "MERGE INTO users u " +
+                "USING (VALUES (CAST(? AS VARCHAR(100)), CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(50)), " +
+                "CAST(? AS VARCHAR(50)), CAST(? AS VARCHAR(20)), CAST(? AS BOOLEAN))) " +
+                "AS s(email, password, first_name, last_name, phone, is_privacy_enabled) " +
+                "ON u.email = s.email " +
+                "WHEN MATCHED THEN UPDATE SET first_name = s.first_name, last_name = s.last_name, " +
+                "phone = s.phone, is_privacy_enabled = s.is_privacy_enabled, updated_at = CURRENT_TIMESTAMP " +
+                "WHEN NOT MATCHED THEN INSERT (email, password, first_name, last_name, phone, is_privacy_enabled, " +
+                "created_at, updated_at) VALUES (s.email, s.password, s.first_name, s.last_name, s.phone, " +
+                "s.is_privacy_enabled, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
+
+        return jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                User user = users.get(i);
+                ps.setString(1, user.getEmail());
+                ps.setString(2, user.getPassword());
+                ps.setString(3, user.getFirstName());
+                ps.setString(4, user.getLastName());
+                ps.setString(5, user.getPhone());
+                ps.setBoolean(6, user.getIsPrivacyEnabled() != null ? user.getIsPrivacyEnabled() : false);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return users.size();
+            }
+        });
+    }
+
+    @Override
+    public int assignRoleByEmails(Collection<String> emails, Long roleId) {
+        if (emails.isEmpty()) {
+            return 0;
+        }
+        // Set-based role assignment - skips users that already have the role
+        String sql = "INSERT INTO user_roles (user_id, role_id) " +
+                "SELECT u.id, ? FROM users u WHERE u.email IN (" + placeholders(emails.size()) + ") " +
+                "AND NOT EXISTS (SELECT 1 FROM user_roles ur WHERE ur.user_id = u.id AND ur.role_id = ?)";
+
+        List<Object> params = new ArrayList<>(emails.size() + 2);
+        params.add(roleId);
+        params.addAll(emails);
+        params.add(roleId);
+        return jdbcTemplate.update(sql, params.toArray());
+    }
+
     // ==================== UPDATE OPERATION ====================
 
     @Override
@@ -112,6 +387,10 @@ public class JdbcUserDao implements UserDao {
 
     @Override
     public int deleteUserById(Long id) {
+        // Leave a tombstone so delta exports can propagate the deletion
+        jdbcTemplate.update("INSERT INTO user_tombstones (user_id, email, deleted_at) " +
+                "SELECT id, email, CURRENT_TIMESTAMP FROM users WHERE id = ?", id);
+
         // First delete from user_roles junction table (foreign key constraint)
         String deleteMappingSql = "DELETE FROM user_roles WHERE user_id = ?";
         jdbcTemplate.update(deleteMappingSql, id);
@@ -126,26 +405,70 @@ public class JdbcUserDao implements UserDao {
         jdbcTemplate.update(sql, params);
     }
 
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
     // ==================== ROW MAPPER ====================
 
+    // Index-based access in USER_COLUMNS order (avoids column-name lookups per row)
     private static class UserRowMapper implements RowMapper<User> {
         @Override
         public User mapRow(ResultSet rs, int rowNum) throws SQLException {
             User user = new User();
-            user.setId(rs.getLong("id"));
-            user.setEmail(rs.getString("email"));
-            user.setPassword(rs.getString("password"));
-            user.setFirstName(rs.getString("first_name"));
-            user.setLastName(rs.getString("last_name"));
-            user.setPhone(rs.getString("phone"));
-            user.setIsPrivacyEnabled(rs.getBoolean("is_privacy_enabled"));
-            user.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
-            user.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
-
-            // Initialize empty roles set (we don't load roles in JDBC for simplicity)
+            user.setId(rs.getLong(1));
+            user.setEmail(rs.getString(2));
+            user.setPassword(rs.getString(3));
+            user.setFirstName(rs.getString(4));
+            user.setLastName(rs.getString(5));
+            user.setPhone(rs.getString(6));
+            user.setIsPrivacyEnabled(rs.getBoolean(7));
+            user.setAvatarFilename(rs.getString(8));
+            user.setCreatedAt(rs.getTimestamp(9).toLocalDateTime());
+            user.setUpdatedAt(rs.getTimestamp(10).toLocalDateTime());
+
+            // Initialize empty roles set (plain reads don't join roles - use the *WithRoles methods)
             user.setRoles(new HashSet<>());
 
             return user;
         }
     }
+
+    // Groups LEFT JOIN rows (one per user-role pair) into users with their roles.
+    // Relies on rows of the same user being adjacent, which the ORDER BY / single-user WHERE guarantees.
+    private static class UserWithRolesExtractor implements ResultSetExtractor<List<User>> {
+
+        private static final int ROLE_ID_INDEX = 11;
+        private static final int ROLE_NAME_INDEX = 12;
+
+        private final UserRowMapper userRowMapper = new UserRowMapper();
+
+        @Override
+        public List<User> extractData(ResultSet rs) throws SQLException {
+            Map<Long, User> users = new LinkedHashMap<>();
+            Map<Role.RoleName, Role> roles = new EnumMap<>(Role.RoleName.class);
+            int rowNum = 0;
+
+            while (rs.next()) {
+                long userId = rs.getLong(1);
+                User user = users.get(userId);
+                if (user == null) {
+                    user = userRowMapper.mapRow(rs, rowNum);
+                    users.put(userId, user);
+                }
+
+                String roleName = rs.getString(ROLE_NAME_INDEX);
+                if (roleName != null) {
+                    long roleId = rs.getLong(ROLE_ID_INDEX);
+                    // Share one Role instance per name across all users in the result
+                    Role role = roles.computeIfAbsent(Role.RoleName.valueOf(roleName),
+                            name -> new Role(roleId, name));
+                    user.getRoles().add(role);
+                }
+                rowNum++;
+            }
+
+            return new ArrayList<>(users.values());
+        }
+    }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.example.identitymanager.repository;
 
+import com.example.identitymanager.dto.SupportTicketDTO;
+import com.example.identitymanager.dto.SupportTicketSummaryDTO;
 import com.example.identitymanager.model.SupportTicket;
 import com.example.identitymanager.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -7,11 +9,23 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface SupportTicketRepository extends JpaRepository<SupportTicket, Long> {
 
+    // Constructor expression shared by the DTO listings - ticket columns plus the owner's id and email
+    // in one statement, so listings never load User entities (no N+1 on the LAZY user)
+    String TICKET_DTO_SELECT = "SELECT new com.example.identitymanager.dto.SupportTicketDTO(" +
+            "t.id, t.subject, t.description, t.status, u.id, u.email, t.createdAt) " +
+            "FROM SupportTicket t JOIN t.user u";
+
+    // Same without the description, for list views
+    String TICKET_SUMMARY_SELECT = "SELECT new com.example.identitymanager.dto.SupportTicketSummaryDTO(" +
+            "t.id, t.subject, t.status, u.id, u.email, t.createdAt) " +
+            "FROM SupportTicket t JOIN t.user u";
+
     // Derived query methods
     List<SupportTicket> findByUser(User user);
 
@@ -21,14 +35,34 @@ public interface SupportTicketRepository extends JpaRepository<SupportTicket, Lo
     @Query("SELECT t FROM SupportTicket t JOIN FETCH t.user WHERE t.status = :status")
     List<SupportTicket> findByStatusWithUser(@Param("status") SupportTicket.TicketStatus status);
 
-    // Custom @Query - count tickets by user and status
-    @Query("SELECT COUNT(t) FROM SupportTicket t WHERE t.user.id = :userId AND t.status = :status")
+    // Count tickets by user and status - reads the trigger-maintained counter row instead of
+    // aggregating support_tickets (a user without a counter row has no tickets)
+    @Query(value = "SELECT COALESCE(MAX(CASE :#{#status.name()} " +
+            "WHEN 'OPEN' THEN open_count WHEN 'IN_PROGRESS' THEN in_progress_count " +
+            "WHEN 'RESOLVED' THEN resolved_count WHEN 'CLOSED' THEN closed_count END), 0) " +
+            "FROM user_ticket_counts WHERE user_id = :userId", nativeQuery = true)
     long countByUserIdAndStatus(@Param("userId") Long userId, @Param("status") SupportTicket.TicketStatus status);
 
     // Custom @Query - find all tickets with user data (avoids N+1 problem)
     @Query("SELECT t FROM SupportTicket t JOIN FETCH t.user")
     List<SupportTicket> findAllWithUser();
 
+    // DTO listings (single query each)
+    @Query(TICKET_DTO_SELECT + " ORDER BY t.id")
+    List<SupportTicketDTO> findAllTicketDTOs();
+
+    @Query(TICKET_DTO_SELECT + " WHERE u.id = :userId ORDER BY t.id")
+    List<SupportTicketDTO> findTicketDTOsByUserId(@Param("userId") Long userId);
+
+    @Query(TICKET_DTO_SELECT + " WHERE u.email = :email ORDER BY t.id")
+    List<SupportTicketDTO> findTicketDTOsByUserEmail(@Param("email") String email);
+
+    @Query(TICKET_SUMMARY_SELECT + " WHERE u.email = :email ORDER BY t.id")
+    List<SupportTicketSummaryDTO> findTicketSummariesByUserEmail(@Param("email") String email);
+
+    @Query(TICKET_DTO_SELECT + " WHERE t.id IN :ids")
+    List<SupportTicketDTO> findTicketDTOsByIds(@Param("ids") Collection<Long> ids);
+
     // Custom @Query - search tickets by subject pattern (case insensitive)
     @Query("SELECT t FROM SupportTicket t JOIN FETCH t.user WHERE LOWER(t.subject) LIKE LOWER(CONCAT('%', :pattern, '%'))")
     List<SupportTicket> searchBySubject(@Param("pattern") String pattern);
@@ -0,0 +1,96 @@
+package com.example.identitymanager.repository;
+
+import org.h2.api.Trigger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Keeps user_ticket_counts in step with support_tickets (see schema.sql).
+ * Runs as a row trigger inside the writing statement, so every path - JPA, JDBC batches, imports,
+ * archive moves, cascades - adjusts the counters in the same transaction as the ticket change.
+ * On users it creates the zero row, so ticket triggers only ever UPDATE an existing counter row.
+ */
+public class TicketCountTrigger implements Trigger {
+
+    // Ticket status -> counter column
+    private static final Map<String, String> COUNT_COLUMNS = Map.of(
+            "OPEN", "open_count",
+            "IN_PROGRESS", "in_progress_count",
+            "RESOLVED", "resolved_count",
+            "CLOSED", "closed_count");
+
+    private boolean usersTable;
+    // Positions in the trigger row arrays, looked up once so column order in schema.sql does not matter
+    private int statusIndex;
+    private int userIdIndex;
+
+    @Override
+    public void init(Connection conn, String schemaName, String triggerName, String tableName,
+                     boolean before, int type) throws SQLException {
+        usersTable = "USERS".equalsIgnoreCase(tableName);
+        if (usersTable) {
+            return;
+        }
+        try (ResultSet columns = conn.getMetaData().getColumns(null, schemaName, tableName, null)) {
+            while (columns.next()) {
+                String name = columns.getString("COLUMN_NAME");
+                int index = columns.getInt("ORDINAL_POSITION") - 1;
+                if ("STATUS".equalsIgnoreCase(name)) {
+                    statusIndex = index;
+                } else if ("USER_ID".equalsIgnoreCase(name)) {
+                    userIdIndex = index;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+        if (usersTable) {
+            try (PreparedStatement insert = conn.prepareStatement(
+                    "INSERT INTO user_ticket_counts (user_id) VALUES (?)")) {
+                insert.setObject(1, newRow[0]);
+                insert.executeUpdate();
+            }
+            return;
+        }
+
+        // Updates that keep owner and status (e.g. assigning) leave the counters alone
+        if (oldRow != null && newRow != null
+                && oldRow[statusIndex].equals(newRow[statusIndex])
+                && oldRow[userIdIndex].equals(newRow[userIdIndex])) {
+            return;
+        }
+        if (oldRow != null) {
+            adjust(conn, oldRow, -1);
+        }
+        if (newRow != null) {
+            adjust(conn, newRow, 1);
+        }
+    }
+
+    private void adjust(Connection conn, Object[] row, int delta) throws SQLException {
+        String column = COUNT_COLUMNS.get(String.valueOf(row[statusIndex]));
+        if (column == null) {
+            return;
+        }
+        try (PreparedStatement update = conn.prepareStatement(
+                "UPDATE user_ticket_counts SET " + column + " = " + column + " + ? WHERE user_id = ?")) {
+            update.setInt(1, delta);
+            update.setObject(2, row[userIdIndex]);
+            update.executeUpdate();
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void remove() {
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.identitymanager.repository;
+
+import com.example.identitymanager.dto.SupportTicketDTO;
+import com.example.identitymanager.dto.SupportTicketSummaryDTO;
+import com.example.identitymanager.dto.TicketFilter;
+import com.example.identitymanager.dto.UserTicketCountsDTO;
+import com.example.identitymanager.model.SupportTicket;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface TicketDao {
+
+    // Batched multi-row insert - each ticket's user must carry its id.
+    // Returns the generated ids in input order.
+    List<Long> insertTickets(List<SupportTicket> tickets);
+
+    // Single-statement create of an OPEN ticket: the owner is resolved inside the INSERT (no User load)
+    // and the new row comes back with its generated id and created_at. Empty when no such user exists.
+    Optional<SupportTicketDTO> insertOpenTicketForUserId(Long userId, String subject, String description);
+
+    Optional<SupportTicketDTO> insertOpenTicketForUserEmail(String email, String subject, String description);
+
+    // Keyset page ordered by (created_at, id) - rows strictly after the given position,
+    // or from the start when afterCreatedAt is null
+    List<SupportTicketDTO> findTicketPage(TicketFilter filter, LocalDateTime afterCreatedAt, Long afterId, int limit);
+
+    // Same page without the description column (list views)
+    List<SupportTicketSummaryDTO> findTicketSummaryPage(TicketFilter filter, LocalDateTime afterCreatedAt,
+                                                        Long afterId, int limit);
+
+    // Set-based status change of the tickets matching the filter (and the id list, when not empty) that are
+    // not already in newStatus. limit > 0 caps the rows changed, lowest ids first.
+    // Returns the changed tickets as they are now, with their owners.
+    List<SupportTicketSummaryDTO> updateStatus(TicketFilter filter, List<Long> ids, SupportTicket.TicketStatus newStatus, int limit);
+
+    // Moves the oldest OPEN ticket to IN_PROGRESS and assigns it - must run inside a transaction,
+    // the row lock is held until commit. Rows held by concurrent claimers are skipped, so this is
+    // empty only when every OPEN ticket is taken.
+    Optional<SupportTicketDTO> claimNextOpenTicket(Long assigneeId);
+
+    // ==================== ARCHIVE ====================
+
+    // Moves up to limit tickets CLOSED before the cutoff (last status change, lowest ids first) into
+    // support_tickets_archive, keeping their ids. Must run inside a transaction. Returns the moved ids.
+    List<Long> archiveClosedTickets(LocalDateTime closedBefore, int limit);
+
+    Optional<SupportTicketDTO> findArchivedById(Long id);
+
+    // Archived tickets whose subject or description contains every term (lower-cased word tokens,
+    // no LIKE wildcards), newest first.
+    // userId scopes the search to one owner (null = all owners).
+    List<SupportTicketDTO> searchArchive(List<String> terms, Long userId, int limit);
+
+    // ==================== COUNTERS ====================
+
+    // Per-user counts by status from the trigger-maintained user_ticket_counts table - primary key
+    // lookups, no aggregation over support_tickets. Archived tickets are not counted.
+    Map<Long, UserTicketCountsDTO> findTicketCounts(Collection<Long> userIds);
+}
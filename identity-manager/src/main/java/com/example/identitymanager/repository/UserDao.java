@@ -1,9 +1,16 @@
 package com.example.identitymanager.repository;
 
 import com.example.identitymanager.model.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public interface UserDao {
 
@@ -18,11 +25,47 @@ public interface UserDao {
 
     List<User> findUsersByPrivacyEnabled(boolean privacyEnabled);
 
+    List<User> findUsersByEmails(Collection<String> emails);
+
+    // email -> id for the given emails (unknown emails are absent)
+    Map<String, Long> findUserIdsByEmails(Collection<String> emails);
+
+    // Streaming SELECT operations (forward-only cursor, constant heap)
+    void forEachUser(Consumer<User> action);
+
+    // Delta export: users with updated_at in (since, until]
+    void forEachUserUpdatedBetween(LocalDateTime since, LocalDateTime until, Consumer<User> action);
+
+    // Emails of users deleted in (since, until] that have not been re-created
+    List<String> findDeletedEmailsBetween(LocalDateTime since, LocalDateTime until);
+
+    // Stream holds an open connection - callers must close it (try-with-resources)
+    Stream<User> streamUsers();
+
+    Stream<User> streamUsersByPrivacyEnabled(boolean privacyEnabled);
+
+    // SELECT operations with roles (single LEFT JOIN query)
+    List<User> findAllUsersWithRoles();
+
+    Optional<User> findUserWithRolesById(Long id);
+
+    Optional<User> findUserWithRolesByEmail(String email);
+
+    Page<User> findUsersWithRoles(Pageable pageable);
+
     // INSERT operation
     int insertUser(User user);
 
     void executeUpdate(String sql, Object... params);
 
+    // Batched multi-row insert
+    int[] insertUsers(List<User> users);
+
+    // UPSERT operations (keyed on email)
+    int[] mergeUsers(List<User> users);
+
+    int assignRoleByEmails(Collection<String> emails, Long roleId);
+
     // UPDATE operation
     int updateUser(User user);
 
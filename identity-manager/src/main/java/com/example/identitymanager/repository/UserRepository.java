@@ -1,5 +1,6 @@
 package com.example.identitymanager.repository;
 
+import com.example.identitymanager.dto.UserOptionDTO;
 import com.example.identitymanager.model.Role;
 import com.example.identitymanager.model.User;
 import org.springframework.data.domain.Page;
@@ -20,6 +21,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByEmail(String email);
 
+    // Id-only lookup for principal-scoped queries - no User entity (and no EAGER roles) is loaded
+    @Query("SELECT u.id FROM User u WHERE u.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+
     // Pageable support - returns Page with pagination metadata
     Page<User> findAll(Pageable pageable);
 
@@ -41,4 +46,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
             "OR LOWER(u.firstName) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
             "OR LOWER(u.lastName) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     Page<User> searchUsers(@Param("keyword") String keyword, Pageable pageable);
-}
\ No newline at end of file
+
+    // Custom @Query - id/email options by email prefix, served from the unique email index.
+    // The Pageable only bounds the result (no count query); the prefix must have LIKE wildcards escaped.
+    @Query("SELECT new com.example.identitymanager.dto.UserOptionDTO(u.id, u.email) FROM User u " +
+            "WHERE u.email LIKE CONCAT(:prefix, '%') ESCAPE '\\' ORDER BY u.email")
+    List<UserOptionDTO> findUserOptionsByEmailPrefix(@Param("prefix") String prefix, Pageable pageable);
+}
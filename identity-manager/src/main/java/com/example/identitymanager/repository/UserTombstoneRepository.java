@@ -0,0 +1,9 @@
+package com.example.identitymanager.repository;
+
+import com.example.identitymanager.model.UserTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserTombstoneRepository extends JpaRepository<UserTombstone, Long> {
+}
@@ -0,0 +1,136 @@
+package com.example.identitymanager.service;
+
+import com.example.identitymanager.dto.AvatarCacheStatsDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Byte-budgeted LRU cache of avatar file contents, keyed by stored file name.
+ * Contents live in direct buffers, so a full cache adds nothing for the GC to trace or copy;
+ * a buffer's native memory is released when its (small) heap handle is collected after eviction.
+ * Stored avatars are never rewritten, so an entry only goes stale when its file is deleted -
+ * callers evict on every avatar replace / delete.
+ */
+@Service
+public class AvatarCache {
+
+    private final long maxBytes;
+    private final long maxEntryBytes;
+
+    // Access-ordered: iteration starts at the least recently used entry
+    private final LinkedHashMap<String, ByteBuffer> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+
+    private long hits;
+    private long misses;
+    private long loads;
+    private long evictions;
+    private long invalidations;
+    private long uncacheable;
+
+    public AvatarCache(@Value("${file.avatar-cache.max-bytes:67108864}") long maxBytes,
+                       @Value("${file.avatar-cache.max-entry-bytes:1048576}") long maxEntryBytes) {
+        this.maxBytes = maxBytes;
+        // A direct buffer holds at most Integer.MAX_VALUE bytes
+        this.maxEntryBytes = Math.min(Math.min(maxEntryBytes, maxBytes), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Cached contents (read-only, position 0) - empty on a miss
+     */
+    public synchronized Optional<ByteBuffer> get(String filename) {
+        ByteBuffer content = entries.get(filename);
+        if (content == null) {
+            misses++;
+            return Optional.empty();
+        }
+        hits++;
+        return Optional.of(content.duplicate());
+    }
+
+    /**
+     * Read a file into the cache after a miss. Empty when the file is over the per-entry limit
+     * (or the cache is disabled) - serve it from disk then.
+     */
+    public Optional<ByteBuffer> load(String filename, Path file) throws IOException {
+        if (maxBytes <= 0) {
+            return Optional.empty();
+        }
+        long seenInvalidations;
+        synchronized (this) {
+            seenInvalidations = invalidations;
+        }
+
+        // Read outside the lock so a slow disk does not stall hits; concurrent misses may both read
+        ByteBuffer content;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > maxEntryBytes) {
+                synchronized (this) {
+                    uncacheable++;
+                }
+                return Optional.empty();
+            }
+            content = ByteBuffer.allocateDirect((int) size);
+            while (content.hasRemaining() && channel.read(content) >= 0) {
+                // FileChannel.read may return short counts
+            }
+            content.flip();
+        }
+        ByteBuffer readOnly = content.asReadOnlyBuffer();
+
+        synchronized (this) {
+            loads++;
+            // An evict() while we were reading may have been for this file - serve it, don't keep it
+            if (invalidations == seenInvalidations) {
+                ByteBuffer previous = entries.put(filename, readOnly);
+                if (previous != null) {
+                    bytes -= previous.capacity();
+                }
+                bytes += readOnly.capacity();
+                evictOverBudget();
+            }
+        }
+        return Optional.of(readOnly.duplicate());
+    }
+
+    /**
+     * Drop a file's entry - call when the avatar is replaced or deleted
+     */
+    public synchronized void evict(String filename) {
+        if (filename == null) {
+            return;
+        }
+        invalidations++;
+        ByteBuffer removed = entries.remove(filename);
+        if (removed != null) {
+            bytes -= removed.capacity();
+        }
+    }
+
+    public synchronized AvatarCacheStatsDTO getStats() {
+        long lookups = hits + misses;
+        return new AvatarCacheStatsDTO(maxBytes, maxEntryBytes, bytes, entries.size(),
+                hits, misses, lookups == 0 ? 0.0 : (double) hits / lookups,
+                loads, evictions, invalidations, uncacheable);
+    }
+
+    private void evictOverBudget() {
+        Iterator<Map.Entry<String, ByteBuffer>> eldest = entries.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().getValue().capacity();
+            eldest.remove();
+            evictions++;
+        }
+    }
+}
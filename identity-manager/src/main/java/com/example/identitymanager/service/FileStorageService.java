@@ -3,19 +3,31 @@ package com.example.identitymanager.service;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
 @Service
 public class FileStorageService {
 
+    // Magic bytes read at upload time - enough for the longest signature (WebP: RIFF????WEBP)
+    private static final int SIGNATURE_LENGTH = 12;
+
+    // Stored names are generated here (UUID + extension) or by the synthetic data generator -
+    // anything else (path separators, "..", hidden files) is never looked up on disk
+    private static final Pattern STORED_FILENAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9_-]*(\\.[A-Za-z0-9]{1,10})?");
+
     private final Path fileStorageLocation;
 
     public FileStorageService(@Value("${file.upload-dir:uploads}") String uploadDir) {
@@ -33,6 +45,13 @@ public class FileStorageService {
      * Returns the generated filename
      */
     public String storeFile(MultipartFile file) {
+        return storeFile(file, null);
+    }
+
+    /**
+     * Store a file belonging to a user - the name starts with the owner's id (see isOwnedBy)
+     */
+    public String storeFile(MultipartFile file, Long ownerId) {
         if (file.isEmpty()) {
             throw new IllegalArgumentException("Cannot store empty file");
         }
@@ -44,8 +63,16 @@ public class FileStorageService {
             fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
         }
 
+        // The real image type is detected once here and kept as the extension,
+        // so serving never has to sniff the file or trust the client's name
+        byte[] signature = readSignature(file);
+        Optional<String> detected = detectImageExtension(signature);
+        if (detected.isPresent()) {
+            fileExtension = detected.get();
+        }
+
         // Generate unique filename
-        String filename = UUID.randomUUID().toString() + fileExtension;
+        String filename = (ownerId != null ? ownerPrefix(ownerId) : "") + UUID.randomUUID() + fileExtension;
 
         try {
             Path targetLocation = this.fileStorageLocation.resolve(filename);
@@ -56,6 +83,17 @@ public class FileStorageService {
         }
     }
 
+    /**
+     * Whether a stored name was generated for this owner - lets a URL carrying both be checked without a lookup
+     */
+    public static boolean isOwnedBy(String filename, Long ownerId) {
+        return filename != null && ownerId != null && filename.startsWith(ownerPrefix(ownerId));
+    }
+
+    public static String ownerPrefix(Long ownerId) {
+        return ownerId + "-";
+    }
+
     /**
      * Load file as Resource for download
      */
@@ -74,6 +112,30 @@ public class FileStorageService {
         }
     }
 
+    /**
+     * Find a stored file by name - empty for names this service never generates or files that are gone
+     */
+    public Optional<Path> findFile(String filename) {
+        if (filename == null || !STORED_FILENAME.matcher(filename).matches()) {
+            return Optional.empty();
+        }
+        Path filePath = this.fileStorageLocation.resolve(filename).normalize();
+        if (!filePath.startsWith(this.fileStorageLocation) || !Files.isRegularFile(filePath)) {
+            return Optional.empty();
+        }
+        return Optional.of(filePath);
+    }
+
+    /**
+     * Content type of a stored file, from the extension chosen at upload time.
+     * Only images are served as what they are - anything else is a download (octet-stream)
+     */
+    public MediaType getContentType(String filename) {
+        return MediaTypeFactory.getMediaType(filename)
+                .filter(type -> "image".equals(type.getType()) && !"svg+xml".equals(type.getSubtype()))
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+    }
+
     /**
      * Delete file from disk
      */
@@ -85,4 +147,43 @@ public class FileStorageService {
             throw new RuntimeException("Could not delete file: " + filename, ex);
         }
     }
-}
\ No newline at end of file
+
+    private byte[] readSignature(MultipartFile file) {
+        try (InputStream in = file.getInputStream()) {
+            return in.readNBytes(SIGNATURE_LENGTH);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not read file " + file.getOriginalFilename(), ex);
+        }
+    }
+
+    /**
+     * Extension for the image type identified by the file's magic bytes (JPEG, PNG, GIF, WebP)
+     */
+    static Optional<String> detectImageExtension(byte[] header) {
+        if (startsWith(header, 0, 0xFF, 0xD8, 0xFF)) {
+            return Optional.of(".jpg");
+        }
+        if (startsWith(header, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return Optional.of(".png");
+        }
+        if (startsWith(header, 0, 'G', 'I', 'F', '8')) {
+            return Optional.of(".gif");
+        }
+        if (startsWith(header, 0, 'R', 'I', 'F', 'F') && startsWith(header, 8, 'W', 'E', 'B', 'P')) {
+            return Optional.of(".webp");
+        }
+        return Optional.empty();
+    }
+
+    private static boolean startsWith(byte[] header, int offset, int... signature) {
+        if (header.length < offset + signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((header[offset + i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
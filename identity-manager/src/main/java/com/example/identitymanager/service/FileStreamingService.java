@@ -0,0 +1,180 @@
+package com.example.identitymanager.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Writes a stored file to the HTTP response without copying it through the heap.
+ * On Tomcat's NIO connector the file is handed to the connector as a sendfile request, so the kernel
+ * moves it from the page cache to the socket after the handler returns. Elsewhere (MockMvc, other
+ * containers) the bytes go through FileChannel.transferTo into the response channel.
+ * Cached contents (direct buffers) are written through the response channel the same way.
+ * Handles what Spring would otherwise do for a Resource body: ETag / If-None-Match (304),
+ * a single byte range (206, 416) with If-Range, and HEAD.
+ */
+@Service
+public class FileStreamingService {
+
+    // Tomcat's sendfile contract (org.apache.catalina.Globals) - plain strings keep us off Tomcat internals
+    static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final boolean zeroCopy;
+
+    public FileStreamingService(@Value("${file.zero-copy:true}") boolean zeroCopy) {
+        this.zeroCopy = zeroCopy;
+    }
+
+    /**
+     * Send the file with the given entity tag (unquoted).
+     * Content type and caching headers are the caller's - set them before calling.
+     */
+    public void send(Path file, String eTag, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ByteSpan span = prepare(Files.size(file), eTag, request, response);
+        if (span == null) {
+            return;
+        }
+
+        if (!zeroCopy) {
+            // Heap-buffered copy - what ResourceHttpMessageConverter / ResourceRegionHttpMessageConverter do
+            try (InputStream in = Files.newInputStream(file)) {
+                StreamUtils.copyRange(in, response.getOutputStream(), span.start(), span.end());
+            }
+        } else if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // End is exclusive; the connector writes the file once this request's handler has returned
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, span.start());
+            request.setAttribute(SENDFILE_END, span.end() + 1);
+        } else {
+            transfer(file, span.start(), span.count(), Channels.newChannel(response.getOutputStream()));
+        }
+    }
+
+    /**
+     * Send in-memory contents (e.g. a cached direct buffer, position 0) - same headers and ranges as for a file
+     */
+    public void send(ByteBuffer content, String eTag, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ByteSpan span = prepare(content.remaining(), eTag, request, response);
+        if (span == null) {
+            return;
+        }
+        ByteBuffer body = content.duplicate();
+        body.position((int) span.start()).limit((int) span.end() + 1);
+        WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+        while (body.hasRemaining()) {
+            target.write(body);
+        }
+    }
+
+    // Sets status and headers; returns the bytes to write, or null when the response is already complete
+    private ByteSpan prepare(long length, String eTag, HttpServletRequest request, HttpServletResponse response) {
+        String quotedETag = "\"" + eTag + "\"";
+
+        response.setHeader(HttpHeaders.ETAG, quotedETag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), quotedETag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return null;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        HttpRange range = singleRange(request, quotedETag);
+        if (range != null) {
+            // A first byte past the end cannot be served - anything else is clamped to the file
+            if (length == 0 || range.getRangeStart(length) >= length) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return null;
+            }
+            start = range.getRangeStart(length);
+            end = range.getRangeEnd(length);
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return null;
+        }
+        return new ByteSpan(start, end);
+    }
+
+    private void transfer(Path file, long start, long count, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long position = start;
+            long end = start + count;
+            while (position < end) {
+                long sent = channel.transferTo(position, end - position, target);
+                if (sent <= 0) {
+                    // File shrank under us - stored files are never rewritten, so stop instead of spinning
+                    break;
+                }
+                position += sent;
+            }
+        }
+    }
+
+    // Multi-range requests are answered with the whole file (allowed by RFC 9110) - nothing here asks for them
+    private HttpRange singleRange(HttpServletRequest request, String quotedETag) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.trim().equals(quotedETag)) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException ex) {
+            // Malformed Range is ignored, as the spec requires
+            return null;
+        }
+    }
+
+    // Weak comparison, as If-None-Match requires
+    private boolean matches(String ifNoneMatch, String quotedETag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(quotedETag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Inclusive byte positions, as in Content-Range
+    private record ByteSpan(long start, long end) {
+        long count() {
+            return end - start + 1;
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package com.example.identitymanager.service;
+
+import com.example.identitymanager.dto.ImportJobDTO;
+import com.example.identitymanager.dto.ImportResult;
+import com.example.identitymanager.exception.ResourceNotFoundException;
+import com.example.identitymanager.model.ImportJob;
+import com.example.identitymanager.repository.ImportJobRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs CSV user imports as background jobs on virtual threads.
+ * Each committed chunk checkpoints the job row in the same transaction,
+ * so a failed or cancelled job resumes after the last committed line.
+ * Jobs live in the (in-memory) database, so resume works within one run of the application only;
+ * spool files of finished jobs expire after import.spool-retention-hours.
+ */
+@Service
+public class ImportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportJobService.class);
+
+    private final ImportJobRepository jobRepository;
+    private final UserImportService userImportService;
+    private final Path spoolDirectory;
+    private final Duration spoolRetention;
+    private final Executor executor;
+
+    // Cancellation flags of jobs currently running in this instance
+    private final Map<String, AtomicBoolean> runningJobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ImportJobService(ImportJobRepository jobRepository,
+                            UserImportService userImportService,
+                            @Value("${import.spool-dir:${java.io.tmpdir}/identity-manager-imports}") String spoolDir,
+                            @Value("${import.spool-retention-hours:24}") long spoolRetentionHours) {
+        this(jobRepository, userImportService, spoolDir, Duration.ofHours(spoolRetentionHours),
+                Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    ImportJobService(ImportJobRepository jobRepository,
+                     UserImportService userImportService,
+                     String spoolDir,
+                     Duration spoolRetention,
+                     Executor executor) {
+        this.jobRepository = jobRepository;
+        this.userImportService = userImportService;
+        this.spoolDirectory = Paths.get(spoolDir).toAbsolutePath().normalize();
+        this.spoolRetention = spoolRetention;
+        this.executor = executor;
+
+        try {
+            Files.createDirectories(this.spoolDirectory);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not create import spool directory!", ex);
+        }
+    }
+
+    /**
+     * Spool the upload to disk (the multipart temp file dies with the request) and start the job.
+     */
+    public ImportJobDTO submit(MultipartFile file, UserImportService.Mode mode) throws IOException {
+        String id = UUID.randomUUID().toString();
+        Path spoolFile = spoolDirectory.resolve(id + ".csv");
+
+        try (InputStream input = file.getInputStream()) {
+            Files.copy(input, spoolFile);
+        }
+
+        ImportJob job = new ImportJob();
+        job.setId(id);
+        job.setMode(mode.name());
+        job.setOriginalFilename(file.getOriginalFilename());
+        job.setFilePath(spoolFile.toString());
+        job.setStatus(ImportJob.JobStatus.QUEUED);
+        ImportJob saved = jobRepository.save(job);
+
+        start(saved.getId());
+        return convertToDTO(saved);
+    }
+
+    public ImportJobDTO getJob(String id) {
+        return convertToDTO(findJob(id));
+    }
+
+    public List<ImportJobDTO> getRecentJobs() {
+        return jobRepository.findTop10ByOrderByCreatedAtDesc().stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Request cancellation - a running job stops after its current chunk commits.
+     */
+    public ImportJobDTO cancel(String id) {
+        ImportJob job = findJob(id);
+
+        AtomicBoolean cancelFlag = runningJobs.get(id);
+        if (cancelFlag != null) {
+            cancelFlag.set(true);
+        } else if (job.getStatus() == ImportJob.JobStatus.QUEUED) {
+            job.setStatus(ImportJob.JobStatus.CANCELLED);
+            job.setFinishedAt(LocalDateTime.now());
+            job = jobRepository.save(job);
+        } else {
+            throw new IllegalArgumentException("Import job is not running: " + id);
+        }
+        return convertToDTO(job);
+    }
+
+    /**
+     * Restart a failed or cancelled job from its last checkpoint.
+     */
+    public ImportJobDTO resume(String id) {
+        ImportJob job = findJob(id);
+        if (!job.isResumable()) {
+            throw new IllegalArgumentException("Only failed or cancelled import jobs can be resumed");
+        }
+        if (!Files.exists(Paths.get(job.getFilePath()))) {
+            throw new IllegalArgumentException("Import file for job " + id + " no longer exists");
+        }
+
+        job.setStatus(ImportJob.JobStatus.QUEUED);
+        job.setErrorMessage(null);
+        job.setFinishedAt(null);
+        ImportJob saved = jobRepository.save(job);
+
+        start(saved.getId());
+        return convertToDTO(saved);
+    }
+
+    // Hourly by default (import.spool-cleanup.cron)
+    @Scheduled(cron = "${import.spool-cleanup.cron:0 30 * * * *}")
+    public void expireSpoolFiles() {
+        expireSpoolFiles(LocalDateTime.now().minus(spoolRetention));
+    }
+
+    /**
+     * Delete spool files of jobs that finished before the cutoff (their jobs are no longer resumable),
+     * and files no job owns - left by an earlier run, whose jobs died with the database - last written
+     * before it. Returns the number of files deleted.
+     */
+    public int expireSpoolFiles(LocalDateTime cutoff) {
+        int deleted = 0;
+        try (Stream<Path> files = Files.list(spoolDirectory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                LocalDateTime idleSince = spoolFileIdleSince(file);
+                if (idleSince != null && idleSince.isBefore(cutoff) && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not clean up import spool directory {}: {}", spoolDirectory, e.getMessage());
+        }
+
+        if (deleted > 0) {
+            log.info("Deleted {} import spool files idle since before {}", deleted, cutoff);
+        }
+        return deleted;
+    }
+
+    // Null while a job still needs the file
+    private LocalDateTime spoolFileIdleSince(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        String id = name.endsWith(".csv") ? name.substring(0, name.length() - ".csv".length()) : name;
+        if (runningJobs.containsKey(id)) {
+            return null;
+        }
+        Optional<ImportJob> job = jobRepository.findById(id);
+        if (job.isPresent()) {
+            return job.get().getFinishedAt();
+        }
+        return LocalDateTime.ofInstant(Files.getLastModifiedTime(file).toInstant(), ZoneId.systemDefault());
+    }
+
+    // Stop running jobs at the next chunk boundary so their checkpoints stay consistent
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        runningJobs.values().forEach(flag -> flag.set(true));
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+            executorService.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+
+    // ==================== JOB EXECUTION ====================
+
+    private void start(String id) {
+        AtomicBoolean cancelFlag = new AtomicBoolean(false);
+        runningJobs.put(id, cancelFlag);
+        executor.execute(() -> run(id, cancelFlag));
+    }
+
+    void run(String id, AtomicBoolean cancelFlag) {
+        try {
+            ImportJob job = findJob(id);
+            job.setStatus(ImportJob.JobStatus.RUNNING);
+            job.setStartedAt(LocalDateTime.now());
+            job = jobRepository.save(job);
+
+            ImportResult result;
+            try (InputStream input = Files.newInputStream(Paths.get(job.getFilePath()))) {
+                result = userImportService.importCsv(
+                        input,
+                        UserImportService.Mode.valueOf(job.getMode()),
+                        toResult(job),
+                        job.getLastLine(),
+                        new CheckpointListener(id, cancelFlag));
+            }
+
+            finish(id, ImportJob.JobStatus.COMPLETED, result, null);
+            Files.deleteIfExists(Paths.get(job.getFilePath()));
+
+        } catch (CancellationException e) {
+            finish(id, ImportJob.JobStatus.CANCELLED, null, null);
+        } catch (Exception e) {
+            finish(id, ImportJob.JobStatus.FAILED, null, e.getMessage());
+        } finally {
+            runningJobs.remove(id);
+        }
+    }
+
+    // Final counts come from the result on success; otherwise the last checkpoint stands
+    private void finish(String id, ImportJob.JobStatus status, ImportResult result, String errorMessage) {
+        ImportJob job = findJob(id);
+        if (result != null) {
+            applyResult(job, result);
+        }
+        job.setStatus(status);
+        job.setErrorMessage(errorMessage);
+        job.setFinishedAt(LocalDateTime.now());
+        jobRepository.save(job);
+    }
+
+    // Writes the checkpoint inside each chunk transaction
+    private class CheckpointListener implements ImportListener {
+
+        private final String jobId;
+        private final AtomicBoolean cancelFlag;
+
+        private CheckpointListener(String jobId, AtomicBoolean cancelFlag) {
+            this.jobId = jobId;
+            this.cancelFlag = cancelFlag;
+        }
+
+        @Override
+        public void onChunkWritten(long lastLine, ImportResult result) {
+            ImportJob job = findJob(jobId);
+            job.setLastLine(lastLine);
+            applyResult(job, result);
+            jobRepository.save(job);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelFlag.get();
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    private ImportJob findJob(String id) {
+        return jobRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Import job", "id", id));
+    }
+
+    private void applyResult(ImportJob job, ImportResult result) {
+        job.setRowsRead(result.getRowsRead());
+        job.setInserted(result.getInserted());
+        job.setUpdated(result.getUpdated());
+        job.setUnchanged(result.getUnchanged());
+        job.setFailed(result.getFailed());
+        job.setErrorReport(result.getErrors().isEmpty() ? null : String.join("\n", result.getErrors()));
+    }
+
+    // Rebuild the counters of an interrupted run so a resumed import continues from them
+    private ImportResult toResult(ImportJob job) {
+        ImportResult result = new ImportResult(job.getInserted(), job.getUpdated(), job.getUnchanged());
+        result.setRowsRead(job.getRowsRead());
+        result.setFailed(job.getFailed());
+        result.setErrors(errorsOf(job));
+        return result;
+    }
+
+    private List<String> errorsOf(ImportJob job) {
+        return job.getErrorReport() == null
+                ? new ArrayList<>()
+                : new ArrayList<>(Arrays.asList(job.getErrorReport().split("\n")));
+    }
+
+    private ImportJobDTO convertToDTO(ImportJob job) {
+        long rowsPerSecond = 0;
+        if (job.getStartedAt() != null) {
+            LocalDateTime end = job.getFinishedAt() != null ? job.getFinishedAt() : LocalDateTime.now();
+            long millis = Duration.between(job.getStartedAt(), end).toMillis();
+            rowsPerSecond = millis > 0 ? job.getRowsRead() * 1000 / millis : 0;
+        }
+
+        return new ImportJobDTO(
+                job.getId(),
+                job.getMode(),
+                job.getStatus().name(),
+                job.getOriginalFilename(),
+                job.getRowsRead(),
+                job.getInserted(),
+                job.getUpdated(),
+                job.getUnchanged(),
+                job.getFailed(),
+                rowsPerSecond,
+                job.getLastLine(),
+                job.isResumable() && Files.exists(Paths.get(job.getFilePath())),
+                errorsOf(job),
+                job.getErrorMessage(),
+                job.getCreatedAt(),
+                job.getStartedAt(),
+                job.getFinishedAt()
+        );
+    }
+}
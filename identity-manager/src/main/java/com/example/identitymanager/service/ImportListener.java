@@ -0,0 +1,26 @@
+package com.example.identitymanager.service;
+
+import com.example.identitymanager.dto.ImportResult;
+
+/**
+ * Hooks into a running CSV import (used by background import jobs).
+ */
+public interface ImportListener {
+
+    ImportListener NONE = new ImportListener() {
+    };
+
+    /**
+     * Called inside the chunk transaction after the chunk has been written.
+     * Everything up to lastLine is accounted for in the result.
+     */
+    default void onChunkWritten(long lastLine, ImportResult result) {
+    }
+
+    /**
+     * Checked after each committed chunk - returning true stops the import.
+     */
+    default boolean isCancelled() {
+        return false;
+    }
+}
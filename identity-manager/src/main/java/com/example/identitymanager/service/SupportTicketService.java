@@ -1,70 +1,95 @@
 package com.example.identitymanager.service;
 
+import com.example.identitymanager.dto.BulkStatusUpdateResult;
 import com.example.identitymanager.dto.SupportTicketDTO;
+import com.example.identitymanager.dto.SupportTicketSummaryDTO;
+import com.example.identitymanager.dto.TicketFilter;
+import com.example.identitymanager.dto.TicketPageDTO;
+import com.example.identitymanager.dto.UserTicketCountsDTO;
 import com.example.identitymanager.exception.ResourceNotFoundException;
 import com.example.identitymanager.model.SupportTicket;
-import com.example.identitymanager.model.User;
 import com.example.identitymanager.repository.SupportTicketRepository;
+import com.example.identitymanager.repository.TicketDao;
 import com.example.identitymanager.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class SupportTicketService {
 
+    // Page size bounds for the paginated ticket API
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_SEARCH_RESULTS = 100;
+    // Upper bound for an explicit id list in one bulk status update
+    public static final int MAX_BULK_IDS = 1000;
+
     private final SupportTicketRepository ticketRepository;
     private final UserRepository userRepository;
+    private final TicketDao ticketDao;
+    private final TicketSearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     public SupportTicketService(SupportTicketRepository ticketRepository,
-                                UserRepository userRepository) {
+                                UserRepository userRepository,
+                                TicketDao ticketDao,
+                                TicketSearchIndex searchIndex,
+                                ApplicationEventPublisher eventPublisher) {
         this.ticketRepository = ticketRepository;
         this.userRepository = userRepository;
+        this.ticketDao = ticketDao;
+        this.searchIndex = searchIndex;
+        this.eventPublisher = eventPublisher;
     }
 
     // Get all tickets
     @Transactional(readOnly = true)
     public List<SupportTicketDTO> getAllTickets() {
-        return ticketRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return ticketRepository.findAllTicketDTOs();
     }
 
-    // Get ticket by ID
+    // Get ticket by ID - archived tickets keep their id and are still found here (read-only)
     @Transactional(readOnly = true)
     public SupportTicketDTO getTicketById(Long id) {
-        SupportTicket ticket = ticketRepository.findById(id)
+        return ticketRepository.findById(id)
+                .map(this::convertToDTO)
+                .or(() -> ticketDao.findArchivedById(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Ticket", "id", id));
-        return convertToDTO(ticket);
     }
 
     // Get tickets by user ID
     @Transactional(readOnly = true)
     public List<SupportTicketDTO> getTicketsByUserId(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+        List<SupportTicketDTO> tickets = ticketRepository.findTicketDTOsByUserId(userId);
 
-        return ticketRepository.findByUser(user).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        // An empty result is ambiguous - only then check that the user exists
+        if (tickets.isEmpty() && !userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
+        return tickets;
     }
 
-    // Create new ticket
+    // Create new ticket - one INSERT that resolves the owner by id (no User entity load)
     public SupportTicketDTO createTicket(Long userId, String subject, String description) {
-        User user = userRepository.findById(userId)
+        SupportTicketDTO created = ticketDao.insertOpenTicketForUserId(userId, subject, description)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
-
-        SupportTicket ticket = new SupportTicket();
-        ticket.setSubject(subject);
-        ticket.setDescription(description);
-        ticket.setStatus(SupportTicket.TicketStatus.OPEN);
-        ticket.setUser(user);
-
-        SupportTicket savedTicket = ticketRepository.save(ticket);
-        return convertToDTO(savedTicket);
+        eventPublisher.publishEvent(TicketChangedEvent.created(created));
+        return created;
     }
 
     // Update ticket status
@@ -72,9 +97,108 @@ public class SupportTicketService {
         SupportTicket ticket = ticketRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Ticket", "id", id));
 
+        // Setting the current status again is a no-op - no new change time, no event
+        if (ticket.getStatus() == newStatus) {
+            return convertToDTO(ticket);
+        }
         ticket.setStatus(newStatus);
-        SupportTicket updatedTicket = ticketRepository.save(ticket);
-        return convertToDTO(updatedTicket);
+        ticket.setStatusChangedAt(LocalDateTime.now());
+        SupportTicketDTO updated = convertToDTO(ticketRepository.save(ticket));
+        eventPublisher.publishEvent(TicketChangedEvent.statusChanged(updated));
+        return updated;
+    }
+
+    // Bulk status transition in one set-based UPDATE: by id list and/or filter (status, created range).
+    // A filter-only update must name the source status, so it can never sweep the whole table.
+    public BulkStatusUpdateResult bulkUpdateStatus(List<Long> ids, TicketFilter filter,
+                                                   SupportTicket.TicketStatus newStatus) {
+        boolean byIds = ids != null && !ids.isEmpty();
+        if (byIds && ids.size() > MAX_BULK_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_IDS + " ids per bulk update");
+        }
+        if (!byIds && filter.getStatus() == null) {
+            throw new IllegalArgumentException("Bulk update needs ids or a fromStatus filter");
+        }
+
+        List<SupportTicketSummaryDTO> changed = ticketDao.updateStatus(filter, ids, newStatus, 0);
+        publishBulkStatusChange(changed, newStatus);
+        return new BulkStatusUpdateResult(newStatus.name(), byIds ? ids.size() : null, changed.size());
+    }
+
+    // One bounded batch of a filter-based transition, committed on its own so row locks are held only
+    // for this batch. Callers repeat until fewer than batchSize rows come back.
+    public int transitionBatch(TicketFilter filter, SupportTicket.TicketStatus newStatus, int batchSize) {
+        List<SupportTicketSummaryDTO> changed = ticketDao.updateStatus(filter, null, newStatus, batchSize);
+        publishBulkStatusChange(changed, newStatus);
+        return changed.size();
+    }
+
+    private void publishBulkStatusChange(List<SupportTicketSummaryDTO> changed, SupportTicket.TicketStatus newStatus) {
+        if (!changed.isEmpty()) {
+            eventPublisher.publishEvent(TicketChangedEvent.bulkStatusChanged(changed, newStatus));
+        }
+    }
+
+    // ==================== ARCHIVE ====================
+
+    // One bounded batch of archival (tickets CLOSED before the cutoff), committed on its own.
+    // Callers repeat until fewer than batchSize tickets come back.
+    public int archiveBatch(LocalDateTime closedBefore, int batchSize) {
+        List<Long> archived = ticketDao.archiveClosedTickets(closedBefore, batchSize);
+        if (!archived.isEmpty()) {
+            eventPublisher.publishEvent(TicketChangedEvent.archived(archived));
+        }
+        return archived.size();
+    }
+
+    // Search the archive (all terms must match), newest first. userEmail scopes it to one owner (null = all).
+    @Transactional(readOnly = true)
+    public List<SupportTicketDTO> searchArchivedTickets(String query, String userEmail, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_SEARCH_RESULTS);
+        }
+
+        // Same tokens as the live index, so a query behaves alike in both searches
+        List<String> terms = TicketSearchIndex.tokenize(query).stream().distinct().toList();
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        Long userId = null;
+        if (userEmail != null) {
+            userId = userRepository.findIdByEmail(userEmail)
+                    .orElseThrow(() -> new ResourceNotFoundException("User", "email", userEmail));
+        }
+        return ticketDao.searchArchive(terms, userId, limit);
+    }
+
+    // ==================== COUNTS ====================
+
+    // Ticket counts by status for a page of users in one primary key lookup; users missing from
+    // the map have no counter row (not a user any more)
+    @Transactional(readOnly = true)
+    public Map<Long, UserTicketCountsDTO> getTicketCounts(Collection<Long> userIds) {
+        return ticketDao.findTicketCounts(userIds);
+    }
+
+    @Transactional(readOnly = true)
+    public UserTicketCountsDTO getTicketCounts(Long userId) {
+        UserTicketCountsDTO counts = ticketDao.findTicketCounts(List.of(userId)).get(userId);
+        return counts != null ? counts : new UserTicketCountsDTO(userId, 0, 0, 0, 0);
+    }
+
+    // Claim the oldest OPEN ticket for an agent: moved to IN_PROGRESS and assigned in one transaction.
+    // Concurrent agents never get the same ticket - each skips rows the others hold; empty when no OPEN ticket is left.
+    public Optional<SupportTicketDTO> claimNextTicket(String agentEmail) {
+        Long agentId = userRepository.findIdByEmail(agentEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", agentEmail));
+
+        Optional<SupportTicketDTO> claimed = ticketDao.claimNextOpenTicket(agentId);
+        claimed.ifPresent(ticket -> eventPublisher.publishEvent(TicketChangedEvent.statusChanged(ticket)));
+        return claimed;
     }
 
     // Convert entity to DTO
@@ -93,27 +217,138 @@ public class SupportTicketService {
     // Get tickets by user email (for current logged-in user)
     @Transactional(readOnly = true)
     public List<SupportTicketDTO> getTicketsByUserEmail(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
+        List<SupportTicketDTO> tickets = ticketRepository.findTicketDTOsByUserEmail(email);
 
-        return ticketRepository.findByUser(user).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        // An empty result is ambiguous - only then check that the user exists
+        if (tickets.isEmpty() && !userRepository.existsByEmail(email)) {
+            throw new ResourceNotFoundException("User", "email", email);
+        }
+        return tickets;
     }
 
-    // Create ticket for current logged-in user (without userId in request)
-    public SupportTicketDTO createTicketForCurrentUser(String email, String subject, String description) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
+    // Same list without descriptions (user dashboard)
+    @Transactional(readOnly = true)
+    public List<SupportTicketSummaryDTO> getTicketSummariesByUserEmail(String email) {
+        List<SupportTicketSummaryDTO> tickets = ticketRepository.findTicketSummariesByUserEmail(email);
+
+        if (tickets.isEmpty() && !userRepository.existsByEmail(email)) {
+            throw new ResourceNotFoundException("User", "email", email);
+        }
+        return tickets;
+    }
+
+    // Get one page of tickets matching the filter (cursor = null for the first page)
+    @Transactional(readOnly = true)
+    public TicketPageDTO<SupportTicketDTO> getTicketPage(TicketFilter filter, String cursor, int limit) {
+        return getPage(filter, cursor, limit, ticketDao::findTicketPage,
+                SupportTicketDTO::getCreatedAt, SupportTicketDTO::getId);
+    }
+
+    // Same page without descriptions - for list views that only show subject, status and date
+    @Transactional(readOnly = true)
+    public TicketPageDTO<SupportTicketSummaryDTO> getTicketSummaryPage(TicketFilter filter, String cursor, int limit) {
+        return getPage(filter, cursor, limit, ticketDao::findTicketSummaryPage,
+                SupportTicketSummaryDTO::getCreatedAt, SupportTicketSummaryDTO::getId);
+    }
+
+    private <T> TicketPageDTO<T> getPage(TicketFilter filter, String cursor, int limit, PageQuery<T> query,
+                                         Function<T, LocalDateTime> createdAtOf, Function<T, Long> idOf) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (filter.getCreatedFrom() != null && filter.getCreatedTo() != null
+                && !filter.getCreatedFrom().isBefore(filter.getCreatedTo())) {
+            throw new IllegalArgumentException("createdFrom must be before createdTo");
+        }
+
+        CursorPosition after = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor);
+
+        // One extra row tells whether another page exists - no COUNT over the whole match
+        List<T> rows = after == null
+                ? query.find(filter, null, null, limit + 1)
+                : query.find(filter, after.createdAt, after.id, limit + 1);
 
-        SupportTicket ticket = new SupportTicket();
-        ticket.setSubject(subject);
-        ticket.setDescription(description);
-        ticket.setStatus(SupportTicket.TicketStatus.OPEN);
-        ticket.setUser(user);
+        if (rows.isEmpty() && after == null) {
+            requireUserExists(filter);
+        }
+        if (rows.size() <= limit) {
+            return new TicketPageDTO<>(rows, null);
+        }
+
+        List<T> items = new ArrayList<>(rows.subList(0, limit));
+        T last = items.get(limit - 1);
+        return new TicketPageDTO<>(items, encodeCursor(createdAtOf.apply(last), idOf.apply(last)));
+    }
+
+    // An empty first page is ambiguous - tell "no tickets" apart from "no such user"
+    private void requireUserExists(TicketFilter filter) {
+        if (filter.getUserId() != null && !userRepository.existsById(filter.getUserId())) {
+            throw new ResourceNotFoundException("User", "id", filter.getUserId());
+        }
+        if (filter.getUserEmail() != null && !userRepository.existsByEmail(filter.getUserEmail())) {
+            throw new ResourceNotFoundException("User", "email", filter.getUserEmail());
+        }
+    }
 
-        SupportTicket savedTicket = ticketRepository.save(ticket);
-        return convertToDTO(savedTicket);
+    // Opaque cursor: position (created_at, id) of the last row on the page, URL-safe Base64
+    private String encodeCursor(LocalDateTime createdAt, Long id) {
+        String position = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private CursorPosition decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new CursorPosition(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // Covers bad Base64 and NumberFormatException too
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    // Full-text search over subject + description (all terms must match), best match first.
+    // userEmail scopes the search to one owner (null = all tickets).
+    @Transactional(readOnly = true)
+    public List<SupportTicketDTO> searchTickets(String query, SupportTicket.TicketStatus status,
+                                                String userEmail, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_SEARCH_RESULTS);
+        }
+
+        Long userId = null;
+        if (userEmail != null) {
+            userId = userRepository.findIdByEmail(userEmail)
+                    .orElseThrow(() -> new ResourceNotFoundException("User", "email", userEmail));
+        }
+
+        List<Long> rankedIds = searchIndex.search(query, status, userId, limit);
+        if (rankedIds.isEmpty()) {
+            return List.of();
+        }
+
+        // One query for the hits, then restore the index's relevance order
+        Map<Long, SupportTicketDTO> byId = ticketRepository.findTicketDTOsByIds(rankedIds).stream()
+                .collect(Collectors.toMap(SupportTicketDTO::getId, Function.identity()));
+        List<Long> stale = rankedIds.stream().filter(id -> !byId.containsKey(id)).toList();
+        if (!stale.isEmpty()) {
+            // Rows deleted without an event (e.g. cascade from a user delete)
+            searchIndex.removeAll(stale);
+        }
+        return rankedIds.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    // Create ticket for current logged-in user (without userId in request) - one INSERT joined on the email
+    public SupportTicketDTO createTicketForCurrentUser(String email, String subject, String description) {
+        SupportTicketDTO created = ticketDao.insertOpenTicketForUserEmail(email, subject, description)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
+        eventPublisher.publishEvent(TicketChangedEvent.created(created));
+        return created;
     }
 
     // Delete ticket by ID
@@ -121,5 +356,23 @@ public class SupportTicketService {
         SupportTicket ticket = ticketRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Ticket", "id", id));
         ticketRepository.delete(ticket);
+        eventPublisher.publishEvent(TicketChangedEvent.deleted(id));
+    }
+
+    // One keyset page query of the DAO (full or summary rows)
+    @FunctionalInterface
+    private interface PageQuery<T> {
+        List<T> find(TicketFilter filter, LocalDateTime afterCreatedAt, Long afterId, int limit);
+    }
+
+    // Decoded keyset position of the last row a client has seen
+    private static final class CursorPosition {
+        private final LocalDateTime createdAt;
+        private final long id;
+
+        private CursorPosition(LocalDateTime createdAt, long id) {
+            this.createdAt = createdAt;
+            this.id = id;
+        }
     }
-}
\ No newline at end of file
+}
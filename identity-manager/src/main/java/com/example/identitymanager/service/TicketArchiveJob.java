@@ -0,0 +1,57 @@
+package com.example.identitymanager.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Moves tickets CLOSED for longer than tickets.archive.after-days (counted from the close) into
+ * support_tickets_archive, so the hot table - and every listing, scan and count on it - stays
+ * about the size of the active working set. Works in bounded batches, each its own transaction.
+ */
+@Component
+@ConditionalOnProperty(name = "tickets.archive.enabled", havingValue = "true", matchIfMissing = true)
+public class TicketArchiveJob {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketArchiveJob.class);
+
+    private final SupportTicketService ticketService;
+    private final int afterDays;
+    private final int batchSize;
+
+    public TicketArchiveJob(SupportTicketService ticketService,
+                            @Value("${tickets.archive.after-days:90}") int afterDays,
+                            @Value("${tickets.archive.batch-size:500}") int batchSize) {
+        this.ticketService = ticketService;
+        this.afterDays = afterDays;
+        this.batchSize = batchSize;
+    }
+
+    // Nightly by default, after the auto-close job (tickets.archive.cron)
+    @Scheduled(cron = "${tickets.archive.cron:0 45 3 * * *}")
+    public void run() {
+        archiveClosedBefore(LocalDateTime.now().minusDays(afterDays));
+    }
+
+    // Returns the number of tickets archived
+    public int archiveClosedBefore(LocalDateTime cutoff) {
+        int total = 0;
+        int batches = 0;
+        int archived;
+        do {
+            archived = ticketService.archiveBatch(cutoff, batchSize);
+            total += archived;
+            batches++;
+        } while (archived == batchSize);
+
+        if (total > 0) {
+            log.info("Archived {} tickets closed before {} in {} batches", total, cutoff, batches);
+        }
+        return total;
+    }
+}
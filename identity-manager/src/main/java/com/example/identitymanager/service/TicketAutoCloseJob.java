@@ -0,0 +1,63 @@
+package com.example.identitymanager.service;
+
+import com.example.identitymanager.dto.TicketFilter;
+import com.example.identitymanager.model.SupportTicket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Closes tickets that have stayed RESOLVED for tickets.auto-close.after-days (counted from the status change).
+ * Works in bounded batches, each its own short transaction, so a large backlog never holds
+ * locks on many rows at once or blocks agents working the queue.
+ */
+@Component
+@ConditionalOnProperty(name = "tickets.auto-close.enabled", havingValue = "true", matchIfMissing = true)
+public class TicketAutoCloseJob {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketAutoCloseJob.class);
+
+    private final SupportTicketService ticketService;
+    private final int afterDays;
+    private final int batchSize;
+
+    public TicketAutoCloseJob(SupportTicketService ticketService,
+                              @Value("${tickets.auto-close.after-days:14}") int afterDays,
+                              @Value("${tickets.auto-close.batch-size:500}") int batchSize) {
+        this.ticketService = ticketService;
+        this.afterDays = afterDays;
+        this.batchSize = batchSize;
+    }
+
+    // Nightly by default (tickets.auto-close.cron)
+    @Scheduled(cron = "${tickets.auto-close.cron:0 15 3 * * *}")
+    public void run() {
+        closeResolvedBefore(LocalDateTime.now().minusDays(afterDays));
+    }
+
+    // Returns the number of tickets closed
+    public int closeResolvedBefore(LocalDateTime cutoff) {
+        TicketFilter filter = new TicketFilter();
+        filter.setStatus(SupportTicket.TicketStatus.RESOLVED);
+        filter.setStatusChangedBefore(cutoff);
+
+        int total = 0;
+        int batches = 0;
+        int closed;
+        do {
+            closed = ticketService.transitionBatch(filter, SupportTicket.TicketStatus.CLOSED, batchSize);
+            total += closed;
+            batches++;
+        } while (closed == batchSize);
+
+        if (total > 0) {
+            log.info("Auto-closed {} tickets resolved before {} in {} batches", total, cutoff, batches);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.identitymanager.service;
+
+import com.example.identitymanager.dto.SupportTicketDTO;
+import com.example.identitymanager.dto.SupportTicketSummaryDTO;
+import com.example.identitymanager.model.SupportTicket;
+
+import java.util.List;
+
+/**
+ * Published by the ticket services whenever tickets change.
+ * Listeners that keep derived state (e.g. the search index) should react after commit.
+ */
+public class TicketChangedEvent {
+
+    public enum Type {
+        CREATED,
+        STATUS_CHANGED,
+        DELETED,
+        BULK_INSERTED,        // Many rows written directly (CSV import) - only the generated ids
+        BULK_STATUS_CHANGED,  // Set-based status update - the affected tickets (no description) and the new status
+        ARCHIVED              // Moved to the archive table - gone from the hot table, still readable by id
+    }
+
+    private final Type type;
+    private final Long ticketId;
+    private final SupportTicketDTO ticket;
+    private final List<Long> ticketIds;
+    private final List<SupportTicketSummaryDTO> tickets;
+    private final SupportTicket.TicketStatus status;
+
+    private TicketChangedEvent(Type type, Long ticketId, SupportTicketDTO ticket, List<Long> ticketIds,
+                               List<SupportTicketSummaryDTO> tickets, SupportTicket.TicketStatus status) {
+        this.type = type;
+        this.ticketId = ticketId;
+        this.ticket = ticket;
+        this.ticketIds = ticketIds;
+        this.tickets = tickets;
+        this.status = status;
+    }
+
+    public static TicketChangedEvent created(SupportTicketDTO ticket) {
+        return new TicketChangedEvent(Type.CREATED, ticket.getId(), ticket, null, null, null);
+    }
+
+    public static TicketChangedEvent statusChanged(SupportTicketDTO ticket) {
+        return new TicketChangedEvent(Type.STATUS_CHANGED, ticket.getId(), ticket, null, null, null);
+    }
+
+    public static TicketChangedEvent deleted(Long ticketId) {
+        return new TicketChangedEvent(Type.DELETED, ticketId, null, null, null, null);
+    }
+
+    public static TicketChangedEvent bulkInserted(List<Long> ticketIds) {
+        return new TicketChangedEvent(Type.BULK_INSERTED, null, null, List.copyOf(ticketIds), null, null);
+    }
+
+    public static TicketChangedEvent bulkStatusChanged(List<SupportTicketSummaryDTO> tickets,
+                                                       SupportTicket.TicketStatus status) {
+        return new TicketChangedEvent(Type.BULK_STATUS_CHANGED, null, null,
+                tickets.stream().map(SupportTicketSummaryDTO::getId).toList(), List.copyOf(tickets), status);
+    }
+
+    public static TicketChangedEvent archived(List<Long> ticketIds) {
+        return new TicketChangedEvent(Type.ARCHIVED, null, null, List.copyOf(ticketIds), null, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getTicketId() {
+        return ticketId;
+    }
+
+    // Ticket state after the change; null for DELETED and the bulk types
+    public SupportTicketDTO getTicket() {
+        return ticket;
+    }
+
+    // BULK_INSERTED, BULK_STATUS_CHANGED and ARCHIVED only
+    public List<Long> getTicketIds() {
+        return ticketIds;
+    }
+
+    // BULK_STATUS_CHANGED only - the changed tickets with their owners
+    public List<SupportTicketSummaryDTO> getTickets() {
+        return tickets;
+    }
+
+    // BULK_STATUS_CHANGED only - the status every listed ticket now has
+    public SupportTicket.TicketStatus getStatus() {
+        return status;
+    }
+}
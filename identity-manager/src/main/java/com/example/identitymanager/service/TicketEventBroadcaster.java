@@ -0,0 +1,205 @@
+package com.example.identitymanager.service;
+
+import com.example.identitymanager.dto.SupportTicketDTO;
+import com.example.identitymanager.dto.SupportTicketSummaryDTO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans committed ticket changes out to Server-Sent Events subscribers (dashboards).
+ * Owners receive their own tickets, admins (owner = null) receive everything.
+ * Publishing never blocks: each subscriber has a bounded buffer drained on its own virtual thread,
+ * and a subscriber whose buffer overflows is disconnected - the browser reconnects and reloads.
+ */
+@Component
+public class TicketEventBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketEventBroadcaster.class);
+
+    static final int DEFAULT_BUFFER_SIZE = 64;
+    // Idle streams are closed after this long; EventSource reconnects on its own
+    static final long DEFAULT_TIMEOUT_MILLIS = 30 * 60 * 1000L;
+
+    private final Executor executor;
+    private final int bufferSize;
+    private final long timeoutMillis;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicLong droppedSubscribers = new AtomicLong();
+
+    @Autowired
+    public TicketEventBroadcaster() {
+        this(Executors.newVirtualThreadPerTaskExecutor(), DEFAULT_BUFFER_SIZE, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    TicketEventBroadcaster(Executor executor, int bufferSize, long timeoutMillis) {
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    // ==================== SUBSCRIPTIONS ====================
+
+    // ownerEmail = null subscribes to all tickets (admin view)
+    public SseEmitter subscribe(String ownerEmail) {
+        return subscribe(ownerEmail, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(String ownerEmail, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(ownerEmail, emitter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    // Subscribers disconnected because they could not keep up
+    public long getDroppedSubscriberCount() {
+        return droppedSubscribers.get();
+    }
+
+    // ==================== PUBLISHING ====================
+
+    // After commit so rolled-back changes are never announced; runs on the committing thread, so it only enqueues
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketChanged(TicketChangedEvent event) {
+        if (event.getType() != TicketChangedEvent.Type.CREATED
+                && event.getType() != TicketChangedEvent.Type.STATUS_CHANGED
+                && event.getType() != TicketChangedEvent.Type.BULK_STATUS_CHANGED) {
+            return;
+        }
+
+        // A bulk change is split once per owner, so each owner's stream gets only its own tickets
+        Map<String, TicketChangedEvent> byOwner = event.getType() == TicketChangedEvent.Type.BULK_STATUS_CHANGED
+                ? splitByOwner(event) : null;
+        for (Subscriber subscriber : subscribers) {
+            TicketChangedEvent visible = visibleTo(subscriber, event, byOwner);
+            if (visible == null) {
+                continue;
+            }
+            if (!subscriber.buffer.offer(visible)) {
+                // Slow consumer - cut it loose instead of buffering without bound or blocking the publisher
+                drop(subscriber);
+                continue;
+            }
+            scheduleDrain(subscriber);
+        }
+    }
+
+    // The event (or the owner's part of a bulk change) this subscriber may see - null for none
+    private TicketChangedEvent visibleTo(Subscriber subscriber, TicketChangedEvent event,
+                                         Map<String, TicketChangedEvent> byOwner) {
+        if (subscriber.ownerEmail == null) {
+            return event;
+        }
+        if (byOwner != null) {
+            return byOwner.get(subscriber.ownerEmail);
+        }
+        SupportTicketDTO ticket = event.getTicket();
+        return ticket != null && subscriber.ownerEmail.equals(ticket.getUserEmail()) ? event : null;
+    }
+
+    private static Map<String, TicketChangedEvent> splitByOwner(TicketChangedEvent event) {
+        Map<String, List<SupportTicketSummaryDTO>> tickets = new HashMap<>();
+        for (SupportTicketSummaryDTO ticket : event.getTickets()) {
+            tickets.computeIfAbsent(ticket.getUserEmail(), email -> new ArrayList<>()).add(ticket);
+        }
+        Map<String, TicketChangedEvent> byOwner = new HashMap<>();
+        tickets.forEach((email, owned) -> byOwner.put(email, TicketChangedEvent.bulkStatusChanged(owned, event.getStatus())));
+        return byOwner;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    // ==================== DELIVERY ====================
+
+    // At most one drain task per subscriber, so its events stay in order
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            executor.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            TicketChangedEvent event;
+            while ((event = subscriber.buffer.poll()) != null) {
+                try {
+                    subscriber.emitter.send(toSse(event));
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away (or the emitter already completed)
+                    subscribers.remove(subscriber);
+                    subscriber.buffer.clear();
+                    return;
+                }
+            }
+            subscriber.draining.set(false);
+            // An event offered after the last poll but before the flag was cleared still needs a drain
+        } while (!subscriber.buffer.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private void drop(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            droppedSubscribers.incrementAndGet();
+            log.debug("Dropping slow ticket event subscriber (owner={})", subscriber.ownerEmail);
+            subscriber.buffer.clear();
+            subscriber.emitter.complete();
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder toSse(TicketChangedEvent event) {
+        if (event.getType() == TicketChangedEvent.Type.BULK_STATUS_CHANGED) {
+            return SseEmitter.event()
+                    .name("bulk-status-changed")
+                    .data(Map.of("status", event.getStatus().name(), "ticketIds", event.getTicketIds()));
+        }
+        return SseEmitter.event()
+                .name(event.getType() == TicketChangedEvent.Type.CREATED ? "created" : "status-changed")
+                .id(String.valueOf(event.getTicketId()))
+                .data(event.getTicket());
+    }
+
+    private static final class Subscriber {
+        private final String ownerEmail;
+        private final SseEmitter emitter;
+        private final BlockingQueue<TicketChangedEvent> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+
+        private Subscriber(String ownerEmail, SseEmitter emitter, BlockingQueue<TicketChangedEvent> buffer) {
+            this.ownerEmail = ownerEmail;
+            this.emitter = emitter;
+            this.buffer = buffer;
+        }
+    }
+}
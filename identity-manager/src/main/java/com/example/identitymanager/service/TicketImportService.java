@@ -0,0 +1,207 @@
+package com.example.identitymanager.service;
+
+import com.example.identitymanager.dto.ImportResult;
+import com.example.identitymanager.model.SupportTicket;
+import com.example.identitymanager.model.User;
+import com.example.identitymanager.repository.TicketDao;
+import com.example.identitymanager.repository.UserDao;
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class TicketImportService {
+
+    // Rows per committed chunk (one email lookup + one JDBC batch per chunk)
+    static final int CHUNK_SIZE = 500;
+
+    private final UserDao userDao;
+    private final TicketDao ticketDao;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public TicketImportService(UserDao userDao,
+                               TicketDao ticketDao,
+                               PlatformTransactionManager transactionManager,
+                               ApplicationEventPublisher eventPublisher) {
+        this.userDao = userDao;
+        this.ticketDao = ticketDao;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Streaming CSV import of tickets keyed by user email.
+     * Columns: email, subject, description, status (optional, default OPEN),
+     * createdAt (optional ISO-8601, default now).
+     * Rows are written in chunks of CHUNK_SIZE, each in its own transaction;
+     * invalid rows and unknown emails are reported per line and skipped.
+     */
+    public ImportResult importCsv(InputStream input) throws IOException {
+        long startNanos = System.nanoTime();
+        ImportResult result = new ImportResult();
+        List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        try (CSVReader csvReader = new CSVReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            // Skip header row (first row)
+            if (csvReader.readNext() == null) {
+                result.recordDuration(0, System.nanoTime() - startNanos);
+                return result;
+            }
+
+            String[] fields;
+            while ((fields = csvReader.readNext()) != null) {
+                long line = csvReader.getLinesRead();
+                result.setRowsRead(result.getRowsRead() + 1);
+
+                String error = validate(fields);
+                if (error != null) {
+                    result.addError(line, error);
+                    continue;
+                }
+
+                chunk.add(new ImportRow(line, fields[0].trim(), toTicket(fields)));
+                if (chunk.size() == CHUNK_SIZE) {
+                    writeChunk(chunk, result);
+                    chunk.clear();
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                writeChunk(chunk, result);
+            }
+        } catch (CsvValidationException e) {
+            throw new IOException("Malformed CSV: " + e.getMessage(), e);
+        }
+
+        result.recordDuration(result.getRowsRead(), System.nanoTime() - startNanos);
+        return result;
+    }
+
+    // ==================== CHUNK WRITER ====================
+
+    private void writeChunk(List<ImportRow> chunk, ImportResult result) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // One IN query resolves every email in the chunk to a user id
+            Set<String> emails = new LinkedHashSet<>();
+            chunk.forEach(row -> emails.add(row.email));
+            Map<String, Long> userIds = userDao.findUserIdsByEmails(emails);
+
+            List<SupportTicket> toInsert = new ArrayList<>(chunk.size());
+            for (ImportRow row : chunk) {
+                Long userId = userIds.get(row.email);
+                if (userId == null) {
+                    result.addError(row.line, "User not found with email: " + row.email);
+                    continue;
+                }
+                User user = new User();
+                user.setId(userId); // Reference only - insert needs just the id
+                row.ticket.setUser(user);
+                toInsert.add(row.ticket);
+            }
+
+            if (!toInsert.isEmpty()) {
+                List<Long> ids = ticketDao.insertTickets(toInsert);
+                result.setInserted(result.getInserted() + toInsert.size());
+                // Delivered when this chunk commits - listeners index exactly these rows
+                eventPublisher.publishEvent(TicketChangedEvent.bulkInserted(ids));
+            }
+        });
+    }
+
+    // ==================== HELPERS ====================
+
+    private String validate(String[] fields) {
+        if (fields.length < 3) {
+            return "Expected at least 3 columns but found " + fields.length;
+        }
+
+        String email = fields[0].trim();
+        if (email.isEmpty() || !email.contains("@")) {
+            return "Invalid email: '" + email + "'";
+        }
+
+        String subject = fields[1].trim();
+        if (subject.isEmpty()) {
+            return "Subject is required";
+        }
+        if (subject.length() > 200) {
+            return "Subject must be at most 200 characters";
+        }
+
+        String description = fields[2].trim();
+        if (description.isEmpty()) {
+            return "Description is required";
+        }
+        if (description.length() > 1000) {
+            return "Description must be at most 1000 characters";
+        }
+
+        String status = column(fields, 3);
+        if (!status.isEmpty()) {
+            try {
+                SupportTicket.TicketStatus.valueOf(status.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return "Invalid status: '" + status + "'";
+            }
+        }
+
+        String createdAt = column(fields, 4);
+        if (!createdAt.isEmpty()) {
+            try {
+                LocalDateTime.parse(createdAt);
+            } catch (DateTimeParseException e) {
+                return "Invalid createdAt: '" + createdAt + "' (expected e.g. 2024-01-31T14:30:00)";
+            }
+        }
+        return null;
+    }
+
+    private SupportTicket toTicket(String[] fields) {
+        SupportTicket ticket = new SupportTicket();
+        ticket.setSubject(fields[1].trim());
+        ticket.setDescription(fields[2].trim());
+
+        String status = column(fields, 3);
+        ticket.setStatus(status.isEmpty()
+                ? SupportTicket.TicketStatus.OPEN
+                : SupportTicket.TicketStatus.valueOf(status.toUpperCase()));
+
+        // Keep the original creation time when migrating from another helpdesk
+        String createdAt = column(fields, 4);
+        ticket.setCreatedAt(createdAt.isEmpty() ? LocalDateTime.now() : LocalDateTime.parse(createdAt));
+        return ticket;
+    }
+
+    private String column(String[] fields, int index) {
+        return fields.length > index ? fields[index].trim() : "";
+    }
+
+    // Parsed row together with its source line (for per-row error reporting)
+    private static final class ImportRow {
+        private final long line;
+        private final String email;
+        private final SupportTicket ticket;
+
+        private ImportRow(long line, String email, SupportTicket ticket) {
+            this.line = line;
+            this.email = email;
+            this.ticket = ticket;
+        }
+    }
+}
@@ -0,0 +1,531 @@
+package com.example.identitymanager.service;
+
+import com.example.identitymanager.dto.SupportTicketDTO;
+import com.example.identitymanager.model.SupportTicket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over ticket subject + description.
+ * Each term maps to a postings list of ticket ids (sorted int array) with parallel term frequencies.
+ * Queries are AND over all terms, optionally filtered by status/owner, ranked with BM25.
+ * Kept current from TicketChangedEvent after commit; rebuilt in parallel id ranges at startup.
+ */
+@Component
+public class TicketSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketSearchIndex.class);
+
+    static final int MIN_TOKEN_LENGTH = 2;
+    // Subject terms count this many times - a match in the title is a stronger signal
+    static final int SUBJECT_WEIGHT = 2;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final double BM25_K1 = 1.2;
+    private static final double BM25_B = 0.75;
+
+    // Ids per IN list when indexing bulk-inserted tickets
+    private static final int ID_BATCH_SIZE = 500;
+
+    private static final String TICKET_SQL =
+            "SELECT id, subject, description, status, user_id FROM support_tickets";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int parallelism;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private Map<String, Postings> postings = new HashMap<>();
+    private Map<Integer, Doc> docs = new HashMap<>();
+    private long totalLength;
+    // Changes seen while a rebuild is scanning the table - replayed onto the new index
+    private List<Runnable> pendingDuringRebuild;
+
+    @Autowired
+    public TicketSearchIndex(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, Runtime.getRuntime().availableProcessors());
+    }
+
+    TicketSearchIndex(JdbcTemplate jdbcTemplate, int parallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    // ==================== QUERY ====================
+
+    /**
+     * Ticket ids containing every term of the query, best match first.
+     * status and userId are optional filters; at most limit ids are returned.
+     */
+    public List<Long> search(String query, SupportTicket.TicketStatus status, Long userId, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty() || limit < 1) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    return List.of(); // AND semantics - one unknown term means no match
+                }
+                lists.add(list);
+            }
+            // Intersect starting from the rarest term so the candidate set only shrinks
+            lists.sort((a, b) -> Integer.compare(a.size, b.size));
+
+            double avgLength = docs.isEmpty() ? 1 : (double) totalLength / docs.size();
+            Postings first = lists.get(0);
+            int[] candidates = new int[first.size];
+            double[] scores = new double[first.size];
+            int count = 0;
+            for (int i = 0; i < first.size; i++) {
+                Doc doc = docs.get(first.ids[i]);
+                if (matches(doc, status, userId)) {
+                    candidates[count] = first.ids[i];
+                    scores[count] = bm25(first.freqs[i], first.size, doc.length, avgLength);
+                    count++;
+                }
+            }
+
+            for (int t = 1; t < lists.size() && count > 0; t++) {
+                Postings list = lists.get(t);
+                int kept = 0;
+                int from = 0;
+                for (int i = 0; i < count; i++) {
+                    int pos = Arrays.binarySearch(list.ids, from, list.size, candidates[i]);
+                    if (pos >= 0) {
+                        candidates[kept] = candidates[i];
+                        scores[kept] = scores[i] + bm25(list.freqs[pos], list.size,
+                                docs.get(candidates[i]).length, avgLength);
+                        kept++;
+                        from = pos + 1;
+                    } else {
+                        from = -pos - 1; // Candidates are ascending - never search below this again
+                    }
+                }
+                count = kept;
+            }
+
+            return topK(candidates, scores, count, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean matches(Doc doc, SupportTicket.TicketStatus status, Long userId) {
+        return doc != null
+                && (status == null || doc.status == status.ordinal())
+                && (userId == null || doc.userId == userId);
+    }
+
+    // Okapi BM25 contribution of one term to one document
+    private double bm25(int tf, int df, int length, double avgLength) {
+        int n = docs.size();
+        double idf = Math.log(1 + (n - df + 0.5) / (df + 0.5));
+        double norm = tf + BM25_K1 * (1 - BM25_B + BM25_B * length / avgLength);
+        return idf * tf * (BM25_K1 + 1) / norm;
+    }
+
+    // Highest scores first, newer ticket (higher id) first on ties
+    private List<Long> topK(int[] ids, double[] scores, int count, int limit) {
+        PriorityQueue<Integer> heap = new PriorityQueue<>((a, b) -> scores[a] != scores[b]
+                ? Double.compare(scores[a], scores[b])
+                : Integer.compare(ids[a], ids[b]));
+        for (int i = 0; i < count; i++) {
+            heap.add(i);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        Long[] ranked = new Long[heap.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = (long) ids[heap.poll()];
+        }
+        return Arrays.asList(ranked);
+    }
+
+    // ==================== INCREMENTAL UPDATES ====================
+
+    // After commit so rolled-back changes never reach the index; runs immediately outside a transaction
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketChanged(TicketChangedEvent event) {
+        if (event.getType() == TicketChangedEvent.Type.BULK_INSERTED) {
+            index(event.getTicketIds());
+            return;
+        }
+        applyAndRecord(() -> apply(event));
+    }
+
+    // Index tickets written behind the services' back (bulk inserts) - read back by id, since the event has no rows
+    public void index(List<Long> ticketIds) {
+        for (int from = 0; from < ticketIds.size(); from += ID_BATCH_SIZE) {
+            List<Long> slice = ticketIds.subList(from, Math.min(from + ID_BATCH_SIZE, ticketIds.size()));
+            String placeholders = String.join(",", Collections.nCopies(slice.size(), "?"));
+            Partial partial = scan(TICKET_SQL + " WHERE id IN (" + placeholders + ") ORDER BY id", slice.toArray());
+            applyAndRecord(() -> partial.docs.forEach((id, doc) -> {
+                removeDoc(id);
+                addDoc(id, doc);
+            }));
+        }
+    }
+
+    // Drop ids the caller found missing in the database (e.g. tickets removed by a user cascade delete)
+    public void removeAll(List<Long> ticketIds) {
+        lock.writeLock().lock();
+        try {
+            ticketIds.forEach(id -> removeDoc(toDocId(id)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Run a change against the live index; during a rebuild also queue it for the new one
+    private void applyAndRecord(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(TicketChangedEvent event) {
+        if (event.getType() == TicketChangedEvent.Type.BULK_STATUS_CHANGED) {
+            int status = event.getStatus().ordinal();
+            for (Long ticketId : event.getTicketIds()) {
+                Doc doc = docs.get(toDocId(ticketId));
+                if (doc != null) {
+                    doc.status = status;
+                }
+            }
+            return;
+        }
+        if (event.getType() == TicketChangedEvent.Type.ARCHIVED) {
+            // The index covers the hot table only; the archive has its own search
+            event.getTicketIds().forEach(ticketId -> removeDoc(toDocId(ticketId)));
+            return;
+        }
+
+        int id = toDocId(event.getTicketId());
+        switch (event.getType()) {
+            case CREATED -> {
+                removeDoc(id);
+                addDoc(id, Doc.of(event.getTicket()));
+            }
+            case STATUS_CHANGED -> {
+                Doc doc = docs.get(id);
+                if (doc != null) {
+                    doc.status = SupportTicket.TicketStatus.valueOf(event.getTicket().getStatus()).ordinal();
+                } else {
+                    addDoc(id, Doc.of(event.getTicket()));
+                }
+            }
+            case DELETED -> removeDoc(id);
+            default -> {
+            }
+        }
+    }
+
+    private void addDoc(int id, Doc doc) {
+        docs.put(id, doc);
+        totalLength += doc.length;
+        for (int i = 0; i < doc.terms.length; i++) {
+            postings.computeIfAbsent(doc.terms[i], term -> new Postings()).add(id, doc.freqs[i]);
+        }
+    }
+
+    private void removeDoc(int id) {
+        Doc doc = docs.remove(id);
+        if (doc == null) {
+            return;
+        }
+        totalLength -= doc.length;
+        for (String term : doc.terms) {
+            Postings list = postings.get(term);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    // ==================== PARALLEL REBUILD ====================
+
+    /**
+     * Rebuilds the whole index: the id space is split into one range per worker, each worker
+     * scans and tokenizes its range into a partial index, and the partials are concatenated
+     * in range order (postings stay sorted without a merge sort).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long startNanos = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<Partial> partials;
+        try {
+            partials = scanInParallel();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        Map<String, Postings> newPostings = new HashMap<>();
+        Map<Integer, Doc> newDocs = new HashMap<>();
+        long newTotalLength = 0;
+        for (Partial partial : partials) {
+            partial.postings.forEach((term, list) ->
+                    newPostings.computeIfAbsent(term, t -> new Postings()).append(list));
+            newDocs.putAll(partial.docs);
+            newTotalLength += partial.totalLength;
+        }
+
+        lock.writeLock().lock();
+        try {
+            postings = newPostings;
+            docs = newDocs;
+            totalLength = newTotalLength;
+            pendingDuringRebuild.forEach(Runnable::run);
+            pendingDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Ticket search index rebuilt: {} tickets, {} terms in {} ms ({} workers)",
+                newDocs.size(), newPostings.size(), (System.nanoTime() - startNanos) / 1_000_000, partials.size());
+    }
+
+    private List<Partial> scanInParallel() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM support_tickets", Long.class);
+        if (maxId == null) {
+            return List.of();
+        }
+        toDocId(maxId);
+
+        int workers = (int) Math.min(parallelism, maxId);
+        long step = maxId / workers + 1;
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<Partial>> futures = new ArrayList<>(workers);
+            for (int w = 0; w < workers; w++) {
+                long from = w * step;
+                long to = from + step;
+                futures.add(executor.submit(() ->
+                        scan(TICKET_SQL + " WHERE id > ? AND id <= ? ORDER BY id", from, to)));
+            }
+
+            List<Partial> partials = new ArrayList<>(workers);
+            for (Future<Partial> future : futures) {
+                partials.add(future.get());
+            }
+            return partials;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ticket index rebuild interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Ticket index rebuild failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Tokenize a slice of the table into a private partial index (ids arrive in ascending order)
+    private Partial scan(String sql, Object... params) {
+        Partial partial = new Partial();
+        jdbcTemplate.query(sql, rs -> {
+            int id = toDocId(rs.getLong(1));
+            Doc doc = Doc.of(rs.getString(2), rs.getString(3),
+                    SupportTicket.TicketStatus.valueOf(rs.getString(4)), rs.getLong(5));
+            partial.docs.put(id, doc);
+            partial.totalLength += doc.length;
+            for (int i = 0; i < doc.terms.length; i++) {
+                partial.postings.computeIfAbsent(doc.terms[i], term -> new Postings()).append(id, doc.freqs[i]);
+            }
+        }, params);
+        return partial;
+    }
+
+    // ==================== TOKENIZER ====================
+
+    // Lower-cased runs of letters/digits (Unicode aware), shorter than MIN_TOKEN_LENGTH dropped
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+            if (token.length() >= MIN_TOKEN_LENGTH) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static int toDocId(long ticketId) {
+        if (ticketId > Integer.MAX_VALUE || ticketId < 0) {
+            throw new IllegalStateException("Ticket id out of int range for the search index: " + ticketId);
+        }
+        return (int) ticketId;
+    }
+
+    // ==================== DATA STRUCTURES ====================
+
+    // Sorted ticket ids with parallel term frequencies, grown by doubling
+    static final class Postings {
+        private int[] ids = new int[4];
+        private int[] freqs = new int[4];
+        private int size;
+
+        // Append for the common case (new tickets have the highest id), sorted insert otherwise
+        void add(int id, int freq) {
+            if (size == 0 || ids[size - 1] < id) {
+                append(id, freq);
+                return;
+            }
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                freqs[pos] = freq;
+                return;
+            }
+            pos = -pos - 1;
+            ensureCapacity(size + 1);
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            System.arraycopy(freqs, pos, freqs, pos + 1, size - pos);
+            ids[pos] = id;
+            freqs[pos] = freq;
+            size++;
+        }
+
+        void append(int id, int freq) {
+            ensureCapacity(size + 1);
+            ids[size] = id;
+            freqs[size] = freq;
+            size++;
+        }
+
+        // Concatenate a list whose ids are all greater than ours (partials of a rebuild)
+        void append(Postings other) {
+            ensureCapacity(size + other.size);
+            System.arraycopy(other.ids, 0, ids, size, other.size);
+            System.arraycopy(other.freqs, 0, freqs, size, other.size);
+            size += other.size;
+        }
+
+        boolean remove(int id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            System.arraycopy(freqs, pos + 1, freqs, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > ids.length) {
+                int newLength = Math.max(capacity, ids.length * 2);
+                ids = Arrays.copyOf(ids, newLength);
+                freqs = Arrays.copyOf(freqs, newLength);
+            }
+        }
+    }
+
+    // Per-ticket data needed to filter, score and later un-index the ticket
+    private static final class Doc {
+        private final String[] terms;   // Distinct terms
+        private final int[] freqs;      // Weighted frequency of each term
+        private final int length;       // Weighted token count (BM25 length normalization)
+        private final long userId;
+        private int status;             // TicketStatus ordinal
+
+        private Doc(String[] terms, int[] freqs, int length, long userId, int status) {
+            this.terms = terms;
+            this.freqs = freqs;
+            this.length = length;
+            this.userId = userId;
+            this.status = status;
+        }
+
+        static Doc of(SupportTicketDTO ticket) {
+            return of(ticket.getSubject(), ticket.getDescription(),
+                    SupportTicket.TicketStatus.valueOf(ticket.getStatus()), ticket.getUserId());
+        }
+
+        static Doc of(String subject, String description, SupportTicket.TicketStatus status, long userId) {
+            Map<String, Integer> counts = new HashMap<>();
+            int length = 0;
+            for (String token : tokenize(subject)) {
+                counts.merge(token, SUBJECT_WEIGHT, Integer::sum);
+                length += SUBJECT_WEIGHT;
+            }
+            for (String token : tokenize(description)) {
+                counts.merge(token, 1, Integer::sum);
+                length++;
+            }
+
+            String[] terms = new String[counts.size()];
+            int[] freqs = new int[counts.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+                terms[i] = entry.getKey();
+                freqs[i] = entry.getValue();
+                i++;
+            }
+            return new Doc(terms, freqs, Math.max(length, 1), userId, status.ordinal());
+        }
+    }
+
+    // Result of scanning a slice of the table - one id range of a rebuild, or a set of bulk-inserted ids
+    private static final class Partial {
+        private final Map<String, Postings> postings = new HashMap<>();
+        private final Map<Integer, Doc> docs = new HashMap<>();
+        private long totalLength;
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.identitymanager.service;
+
+import com.example.identitymanager.dto.QueuedTicketDTO;
+import com.example.identitymanager.dto.SupportTicketDTO;
+import com.example.identitymanager.dto.WriteBehindStatsDTO;
+import com.example.identitymanager.model.SupportTicket;
+import com.example.identitymanager.model.User;
+import com.example.identitymanager.repository.TicketDao;
+import com.example.identitymanager.repository.UserDao;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Opt-in write-behind for user ticket creation (tickets.write-behind.enabled).
+ * Requests are acknowledged as soon as they are queued; one writer thread drains the bounded queue
+ * and writes each group in a single transaction (one email lookup, one JDBC batch, one commit).
+ * Acknowledged tickets live only in memory until their group commits - see getStats().pending.
+ */
+@Service
+public class TicketWriteBehindService {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketWriteBehindService.class);
+
+    // Idle wake-up of the writer, so shutdown is noticed without interrupting a write
+    private static final long IDLE_POLL_MILLIS = 200;
+
+    private final UserDao userDao;
+    private final TicketDao ticketDao;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int capacity;
+    private final int maxBatch;
+    private final long maxDelayNanos;
+
+    private final BlockingQueue<PendingTicket> queue;
+    // Submitters hold the read lock from the accepting check through the offer; shutdown takes the
+    // write lock to stop accepting, so no ticket can be acknowledged after the writer's last drain
+    private final ReentrantReadWriteLock acceptLock = new ReentrantReadWriteLock();
+    private volatile boolean accepting = true;
+    private Thread writer;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong committed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicInteger largestBatch = new AtomicInteger();
+    private final AtomicReference<LocalDateTime> lastCommitAt = new AtomicReference<>();
+
+    public TicketWriteBehindService(UserDao userDao,
+                                    TicketDao ticketDao,
+                                    PlatformTransactionManager transactionManager,
+                                    ApplicationEventPublisher eventPublisher,
+                                    @Value("${tickets.write-behind.enabled:false}") boolean enabled,
+                                    @Value("${tickets.write-behind.capacity:10000}") int capacity,
+                                    @Value("${tickets.write-behind.max-batch:500}") int maxBatch,
+                                    @Value("${tickets.write-behind.max-delay-ms:20}") long maxDelayMillis) {
+        this.userDao = userDao;
+        this.ticketDao = ticketDao;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.maxBatch = maxBatch;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled || writer != null) {
+            return;
+        }
+        writer = Thread.ofPlatform().name("ticket-write-behind").daemon().start(this::runWriter);
+    }
+
+    // Stop accepting, then let the writer commit everything already acknowledged
+    @PreDestroy
+    public void shutdown() {
+        acceptLock.writeLock().lock();
+        try {
+            accepting = false;
+        } finally {
+            acceptLock.writeLock().unlock();
+        }
+
+        if (writer != null) {
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Whatever the writer did not get to is lost - count it, so pending drops to zero
+        List<PendingTicket> leftovers = new ArrayList<>();
+        queue.drainTo(leftovers);
+        if (!leftovers.isEmpty()) {
+            failed.addAndGet(leftovers.size());
+            log.warn("Write-behind stopped with {} acknowledged tickets not written", leftovers.size());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // ==================== ACCEPT ====================
+
+    /**
+     * Queue a ticket for the owner. Empty when the queue is full - the caller should answer 503
+     * rather than block a request thread.
+     */
+    public Optional<QueuedTicketDTO> submit(String ownerEmail, String subject, String description) {
+        PendingTicket pending = new PendingTicket(UUID.randomUUID().toString(), ownerEmail, subject,
+                description, LocalDateTime.now());
+
+        acceptLock.readLock().lock();
+        try {
+            if (!enabled || !accepting) {
+                throw new IllegalStateException("Write-behind ticket creation is not accepting tickets");
+            }
+            if (!queue.offer(pending)) {
+                rejected.incrementAndGet();
+                return Optional.empty();
+            }
+            accepted.incrementAndGet();
+        } finally {
+            acceptLock.readLock().unlock();
+        }
+        return Optional.of(new QueuedTicketDTO(pending.id, subject, pending.acceptedAt, queue.size()));
+    }
+
+    public WriteBehindStatsDTO getStats() {
+        long acceptedCount = accepted.get();
+        long committedCount = committed.get();
+        long failedCount = failed.get();
+        return new WriteBehindStatsDTO(enabled, capacity, queue.size(), acceptedCount, rejected.get(),
+                committedCount, failedCount, acceptedCount - committedCount - failedCount, batches.get(),
+                largestBatch.get(), lastCommitAt.get());
+    }
+
+    // ==================== WRITER ====================
+
+    private void runWriter() {
+        List<PendingTicket> batch = new ArrayList<>(maxBatch);
+        while (accepting || !queue.isEmpty()) {
+            try {
+                PendingTicket first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collectGroup(batch);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Group commit window: requests arriving within max-delay of the first one share its transaction
+    private void collectGroup(List<PendingTicket> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < maxBatch) {
+            queue.drainTo(batch, maxBatch - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatch || remaining <= 0) {
+                return;
+            }
+            PendingTicket next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    // Writes whatever is queued right now as one group, without waiting - returns the tickets written
+    int flush() {
+        List<PendingTicket> batch = new ArrayList<>(maxBatch);
+        queue.drainTo(batch, maxBatch);
+        return batch.isEmpty() ? 0 : writeBatch(batch);
+    }
+
+    private int writeBatch(List<PendingTicket> batch) {
+        int written;
+        try {
+            written = transactionTemplate.execute(status -> insert(batch));
+        } catch (RuntimeException e) {
+            // The whole group rolled back - these acknowledgements are lost
+            log.error("Write-behind batch of {} tickets failed", batch.size(), e);
+            failed.addAndGet(batch.size());
+            return 0;
+        }
+
+        committed.addAndGet(written);
+        failed.addAndGet(batch.size() - written);
+        batches.incrementAndGet();
+        largestBatch.accumulateAndGet(batch.size(), Math::max);
+        lastCommitAt.set(LocalDateTime.now());
+        return written;
+    }
+
+    private int insert(List<PendingTicket> batch) {
+        // One IN query resolves every owner in the group
+        Set<String> emails = new LinkedHashSet<>();
+        batch.forEach(pending -> emails.add(pending.ownerEmail));
+        Map<String, Long> userIds = userDao.findUserIdsByEmails(emails);
+
+        List<PendingTicket> written = new ArrayList<>(batch.size());
+        List<SupportTicket> toInsert = new ArrayList<>(batch.size());
+        for (PendingTicket pending : batch) {
+            Long userId = userIds.get(pending.ownerEmail);
+            if (userId == null) {
+                // Owner deleted after the ticket was acknowledged
+                log.warn("Dropping queued ticket {} - user not found: {}", pending.id, pending.ownerEmail);
+                continue;
+            }
+            written.add(pending);
+            toInsert.add(pending.toTicket(userId));
+        }
+
+        if (!toInsert.isEmpty()) {
+            List<Long> ids = ticketDao.insertTickets(toInsert);
+            // Delivered when the group commits - the same CREATED events a direct create publishes,
+            // so the search index and SSE dashboards see queued tickets like any other
+            for (int i = 0; i < ids.size(); i++) {
+                eventPublisher.publishEvent(TicketChangedEvent.created(
+                        written.get(i).toDTO(ids.get(i), toInsert.get(i).getUser().getId())));
+            }
+        }
+        return toInsert.size();
+    }
+
+    private static final class PendingTicket {
+        private final String id;
+        private final String ownerEmail;
+        private final String subject;
+        private final String description;
+        private final LocalDateTime acceptedAt;
+
+        private PendingTicket(String id, String ownerEmail, String subject, String description,
+                              LocalDateTime acceptedAt) {
+            this.id = id;
+            this.ownerEmail = ownerEmail;
+            this.subject = subject;
+            this.description = description;
+            this.acceptedAt = acceptedAt;
+        }
+
+        private SupportTicketDTO toDTO(Long ticketId, Long userId) {
+            return new SupportTicketDTO(ticketId, subject, description, SupportTicket.TicketStatus.OPEN,
+                    userId, ownerEmail, acceptedAt);
+        }
+
+        private SupportTicket toTicket(Long userId) {
+            User user = new User();
+            user.setId(userId); // Reference only - insert needs just the id
+
+            SupportTicket ticket = new SupportTicket();
+            ticket.setSubject(subject);
+            ticket.setDescription(description);
+            ticket.setStatus(SupportTicket.TicketStatus.OPEN);
+            ticket.setUser(user);
+            ticket.setCreatedAt(acceptedAt);
+            return ticket;
+        }
+    }
+}
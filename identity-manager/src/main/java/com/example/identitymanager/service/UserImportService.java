@@ -0,0 +1,272 @@
+package com.example.identitymanager.service;
+
+import com.example.identitymanager.dto.ImportResult;
+import com.example.identitymanager.model.Role;
+import com.example.identitymanager.model.User;
+import com.example.identitymanager.repository.RoleRepository;
+import com.example.identitymanager.repository.UserDao;
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class UserImportService {
+
+    // Rows per committed chunk (one lookup query + one JDBC batch per chunk)
+    static final int CHUNK_SIZE = 500;
+
+    static final String DEFAULT_PASSWORD = "password123";
+
+    private final UserDao userDao;
+    private final RoleRepository roleRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserImportService(UserDao userDao,
+                             RoleRepository roleRepository,
+                             PasswordEncoder passwordEncoder,
+                             PlatformTransactionManager transactionManager) {
+        this.userDao = userDao;
+        this.roleRepository = roleRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public enum Mode {
+        INSERT,   // Create new users only - existing emails are reported as row errors
+        UPSERT    // Insert or update by email - safe to re-run
+    }
+
+    /**
+     * Streaming CSV import: rows are read one at a time, validated, and written
+     * in chunks of CHUNK_SIZE, each chunk in its own transaction.
+     * Memory use is bounded by the chunk size, not by the file size.
+     */
+    public ImportResult importCsv(InputStream input, Mode mode) throws IOException {
+        return importCsv(input, mode, new ImportResult(), 0, ImportListener.NONE);
+    }
+
+    /**
+     * Resumable variant used by background import jobs.
+     * Rows up to resumeAfterLine were already committed by an earlier run and are skipped;
+     * their counts are carried in the given result. The listener is called inside each
+     * chunk transaction (so a checkpoint commits atomically with the chunk) and is asked
+     * between chunks whether the import should stop.
+     *
+     * @throws CancellationException when the listener requests cancellation
+     */
+    public ImportResult importCsv(InputStream input, Mode mode, ImportResult result,
+                                  long resumeAfterLine, ImportListener listener) throws IOException {
+        Role userRole = roleRepository.findByName(Role.RoleName.USER)
+                .orElseThrow(() -> new RuntimeException("USER role not found"));
+
+        // All imported users share the default password, so one bcrypt hash per import
+        // is enough (bcrypt is ~100 ms of CPU per call - per-row hashing dominated import time)
+        String passwordHash = passwordEncoder.encode(DEFAULT_PASSWORD);
+
+        long startNanos = System.nanoTime();
+        long rowsAtStart = result.getRowsRead();
+        List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        try (CSVReader csvReader = new CSVReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            // Skip header row (first row)
+            if (csvReader.readNext() == null) {
+                result.recordDuration(0, System.nanoTime() - startNanos);
+                return result;
+            }
+
+            String[] fields;
+            while ((fields = csvReader.readNext()) != null) {
+                long line = csvReader.getLinesRead();
+                if (line <= resumeAfterLine) {
+                    continue; // Already committed before the checkpoint
+                }
+                result.setRowsRead(result.getRowsRead() + 1);
+
+                String error = validate(fields);
+                if (error != null) {
+                    result.addError(line, error);
+                    continue;
+                }
+
+                chunk.add(new ImportRow(line, toUser(fields, passwordHash)));
+                if (chunk.size() == CHUNK_SIZE) {
+                    writeChunk(chunk, mode, userRole.getId(), result, line, listener);
+                    chunk.clear();
+
+                    if (listener.isCancelled()) {
+                        throw new CancellationException("Import cancelled after line " + line);
+                    }
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                writeChunk(chunk, mode, userRole.getId(), result, csvReader.getLinesRead(), listener);
+            }
+        } catch (CsvValidationException e) {
+            throw new IOException("Malformed CSV: " + e.getMessage(), e);
+        }
+
+        result.recordDuration(result.getRowsRead() - rowsAtStart, System.nanoTime() - startNanos);
+        return result;
+    }
+
+    // ==================== CHUNK WRITERS ====================
+
+    private void writeChunk(List<ImportRow> chunk, Mode mode, Long roleId, ImportResult result,
+                            long lastLine, ImportListener listener) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (mode == Mode.UPSERT) {
+                upsertChunk(chunk, roleId, result);
+            } else {
+                insertChunk(chunk, roleId, result);
+            }
+            listener.onChunkWritten(lastLine, result);
+        });
+    }
+
+    private void insertChunk(List<ImportRow> chunk, Long roleId, ImportResult result) {
+        Set<String> existing = userDao.findUsersByEmails(emailsOf(chunk)).stream()
+                .map(User::getEmail)
+                .collect(Collectors.toSet());
+
+        // Existing and duplicate emails become row errors instead of aborting the whole batch
+        Map<String, User> toInsert = new LinkedHashMap<>();
+        for (ImportRow row : chunk) {
+            String email = row.user.getEmail();
+            if (existing.contains(email)) {
+                result.addError(row.line, "User already exists with email: " + email);
+            } else if (toInsert.putIfAbsent(email, row.user) != null) {
+                result.addError(row.line, "Duplicate email in file: " + email);
+            }
+        }
+
+        if (!toInsert.isEmpty()) {
+            userDao.insertUsers(new ArrayList<>(toInsert.values()));
+            userDao.assignRoleByEmails(toInsert.keySet(), roleId);
+            result.setInserted(result.getInserted() + toInsert.size());
+        }
+    }
+
+    private void upsertChunk(List<ImportRow> chunk, Long roleId, ImportResult result) {
+        // Collapse duplicate emails inside the chunk - the last row wins
+        Map<String, User> byEmail = new LinkedHashMap<>();
+        for (ImportRow row : chunk) {
+            User previous = byEmail.put(row.user.getEmail(), row.user);
+            if (previous != null) {
+                if (sameData(previous, row.user)) {
+                    result.setUnchanged(result.getUnchanged() + 1);
+                } else {
+                    result.setUpdated(result.getUpdated() + 1);
+                }
+            }
+        }
+
+        // One lookup per chunk to classify rows as new / changed / unchanged
+        Map<String, User> existing = userDao.findUsersByEmails(byEmail.keySet()).stream()
+                .collect(Collectors.toMap(User::getEmail, Function.identity()));
+
+        List<User> toWrite = new ArrayList<>();
+        List<String> newEmails = new ArrayList<>();
+
+        for (User user : byEmail.values()) {
+            User current = existing.get(user.getEmail());
+            if (current == null) {
+                toWrite.add(user);
+                newEmails.add(user.getEmail());
+                result.setInserted(result.getInserted() + 1);
+            } else if (!sameData(current, user)) {
+                toWrite.add(user);
+                result.setUpdated(result.getUpdated() + 1);
+            } else {
+                result.setUnchanged(result.getUnchanged() + 1);
+            }
+        }
+
+        if (!toWrite.isEmpty()) {
+            userDao.mergeUsers(toWrite);
+            userDao.assignRoleByEmails(newEmails, roleId);
+        }
+    }
+
+    // ==================== ROW HANDLING ====================
+
+    // Returns an error message, or null when the row is valid
+    private String validate(String[] fields) {
+        if (fields.length < 5) {
+            return "Expected 5 columns but found " + fields.length;
+        }
+
+        String email = fields[0].trim();
+        if (email.isEmpty() || !email.contains("@")) {
+            return "Invalid email: '" + email + "'";
+        }
+        if (email.length() > 100) {
+            return "Email must be at most 100 characters";
+        }
+
+        String firstName = fields[1].trim();
+        String lastName = fields[2].trim();
+        if (firstName.isEmpty() || lastName.isEmpty()) {
+            return "First name and last name are required";
+        }
+        if (firstName.length() > 50 || lastName.length() > 50) {
+            return "First name and last name must be at most 50 characters";
+        }
+        if (fields[3].trim().length() > 20) {
+            return "Phone must be at most 20 characters";
+        }
+        return null;
+    }
+
+    private User toUser(String[] fields, String passwordHash) {
+        User user = new User();
+        user.setEmail(fields[0].trim());
+        user.setFirstName(fields[1].trim());
+        user.setLastName(fields[2].trim());
+        user.setPhone(fields[3].trim().isEmpty() ? null : fields[3].trim());
+        user.setIsPrivacyEnabled(Boolean.parseBoolean(fields[4].trim()));
+        user.setPassword(passwordHash); // Pre-hashed default password
+        return user;
+    }
+
+    private List<String> emailsOf(List<ImportRow> chunk) {
+        return chunk.stream().map(row -> row.user.getEmail()).collect(Collectors.toList());
+    }
+
+    // Compares the fields an import row can change
+    private boolean sameData(User a, User b) {
+        return Objects.equals(a.getFirstName(), b.getFirstName())
+                && Objects.equals(a.getLastName(), b.getLastName())
+                && Objects.equals(a.getPhone(), b.getPhone())
+                && Objects.equals(a.getIsPrivacyEnabled(), b.getIsPrivacyEnabled());
+    }
+
+    // Parsed row together with its source line (for per-row error reporting)
+    private static final class ImportRow {
+        private final long line;
+        private final User user;
+
+        private ImportRow(long line, User user) {
+            this.line = line;
+            this.user = user;
+        }
+    }
+}
@@ -1,15 +1,18 @@
 package com.example.identitymanager.service;
 
 import com.example.identitymanager.dto.UserDTO;
+import com.example.identitymanager.dto.UserOptionDTO;
 import com.example.identitymanager.dto.UserRegistrationDTO;
 import com.example.identitymanager.dto.UserUpdateDTO;
 import com.example.identitymanager.exception.ResourceNotFoundException;
 import com.example.identitymanager.model.Role;
 import com.example.identitymanager.model.User;
+import com.example.identitymanager.model.UserTombstone;
 import com.example.identitymanager.repository.RoleRepository;
 import com.example.identitymanager.repository.UserRepository;
 import com.example.identitymanager.exception.DuplicateResourceException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,6 +23,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import com.example.identitymanager.repository.SupportTicketRepository;
+import com.example.identitymanager.repository.UserTombstoneRepository;
 
 @Service
 @Transactional
@@ -29,13 +33,16 @@ public class UserService {
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
     private final SupportTicketRepository supportTicketRepository;
+    private final UserTombstoneRepository userTombstoneRepository;
 
     public UserService(UserRepository userRepository, RoleRepository roleRepository,
-                       PasswordEncoder passwordEncoder, SupportTicketRepository supportTicketRepository) {
+                       PasswordEncoder passwordEncoder, SupportTicketRepository supportTicketRepository,
+                       UserTombstoneRepository userTombstoneRepository) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
         this.supportTicketRepository = supportTicketRepository;
+        this.userTombstoneRepository = userTombstoneRepository;
     }
 
     // Create new user
@@ -99,6 +106,16 @@ public class UserService {
         }
     }
 
+    // Id/email options for user pickers - bounded, no entity or role loading
+    @Transactional(readOnly = true)
+    public List<UserOptionDTO> findUserOptions(String emailPrefix, int limit) {
+        String prefix = emailPrefix == null ? "" : emailPrefix.trim()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return userRepository.findUserOptionsByEmailPrefix(prefix, PageRequest.of(0, limit));
+    }
+
     // Get count of users with privacy enabled (using custom @Query)
     @Transactional(readOnly = true)
     public long countUsersWithPrivacyEnabled() {
@@ -159,6 +176,7 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
 
         userRepository.delete(user);
+        userTombstoneRepository.save(new UserTombstone(user.getId(), user.getEmail()));
     }
 
     // Update privacy settings
@@ -220,7 +238,8 @@ public class UserService {
         user.getRoles().clear();
         userRepository.save(user);
 
-        // Delete the user
+        // Delete the user (tombstone lets delta exports propagate the deletion)
         userRepository.delete(user);
+        userTombstoneRepository.save(new UserTombstone(user.getId(), user.getEmail()));
     }
 }
\ No newline at end of file
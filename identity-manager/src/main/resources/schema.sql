@@ -1,5 +1,9 @@
 -- Drop tables if they exist
+DROP TABLE IF EXISTS import_jobs;
+DROP TABLE IF EXISTS user_tombstones;
 DROP TABLE IF EXISTS user_roles;
+DROP TABLE IF EXISTS user_ticket_counts;
+DROP TABLE IF EXISTS support_tickets_archive;
 DROP TABLE IF EXISTS support_tickets;
 DROP TABLE IF EXISTS users;
 DROP TABLE IF EXISTS roles;
@@ -24,6 +28,19 @@ CREATE TABLE users (
                        updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
 
+-- Delta export scans users by modification time
+CREATE INDEX idx_users_updated_at ON users(updated_at);
+
+-- Create user_tombstones table (deleted users, read by delta exports)
+CREATE TABLE user_tombstones (
+                                 id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                                 user_id BIGINT NOT NULL,
+                                 email VARCHAR(100) NOT NULL,
+                                 deleted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_user_tombstones_deleted_at ON user_tombstones(deleted_at);
+
 -- Create user_roles junction table
 CREATE TABLE user_roles (
                             user_id BIGINT NOT NULL,
@@ -40,6 +57,74 @@ CREATE TABLE support_tickets (
                                  description VARCHAR(1000) NOT NULL,
                                  status VARCHAR(20) NOT NULL DEFAULT 'OPEN',
                                  user_id BIGINT NOT NULL,
+                                 assignee_id BIGINT,
                                  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
-                                 FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+                                 status_changed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                 FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+                                 FOREIGN KEY (assignee_id) REFERENCES users(id) ON DELETE SET NULL
+);
+
+-- Keyset pagination indexes: (created_at, id) matches the API sort, the leading equality
+-- column lets status/user filters seek straight to their slice in the same order.
+-- The status index is also the claim queue: oldest OPEN ticket = first entry of the OPEN slice
+CREATE INDEX idx_support_tickets_created_at ON support_tickets(created_at, id);
+CREATE INDEX idx_support_tickets_status_created_at ON support_tickets(status, created_at, id);
+CREATE INDEX idx_support_tickets_user_created_at ON support_tickets(user_id, created_at, id);
+-- Auto-close and archival age tickets by their last status change, within one status
+CREATE INDEX idx_support_tickets_status_changed_at ON support_tickets(status, status_changed_at, id);
+
+-- Create user_ticket_counts table (denormalized per-user ticket counts by status, one row per user;
+-- maintained by TicketCountTrigger on every ticket insert/update/delete, so it never needs a rebuild)
+CREATE TABLE user_ticket_counts (
+                                    user_id BIGINT PRIMARY KEY,
+                                    open_count BIGINT NOT NULL DEFAULT 0,
+                                    in_progress_count BIGINT NOT NULL DEFAULT 0,
+                                    resolved_count BIGINT NOT NULL DEFAULT 0,
+                                    closed_count BIGINT NOT NULL DEFAULT 0,
+                                    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE TRIGGER trg_users_ticket_counts AFTER INSERT ON users
+    FOR EACH ROW CALL 'com.example.identitymanager.repository.TicketCountTrigger';
+CREATE TRIGGER trg_support_tickets_counts AFTER INSERT, UPDATE, DELETE ON support_tickets
+    FOR EACH ROW CALL 'com.example.identitymanager.repository.TicketCountTrigger';
+
+-- Create support_tickets_archive table (tickets CLOSED for long moved out of the hot table in batches;
+-- ids are kept, so an archived ticket is still found by its original id)
+CREATE TABLE support_tickets_archive (
+                                         id BIGINT PRIMARY KEY,
+                                         subject VARCHAR(200) NOT NULL,
+                                         description VARCHAR(1000) NOT NULL,
+                                         status VARCHAR(20) NOT NULL,
+                                         user_id BIGINT NOT NULL,
+                                         assignee_id BIGINT,
+                                         created_at TIMESTAMP NOT NULL,
+                                         status_changed_at TIMESTAMP NOT NULL,
+                                         archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                         FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+                                         FOREIGN KEY (assignee_id) REFERENCES users(id) ON DELETE SET NULL
+);
+
+-- Archive search is always newest first, optionally scoped to one owner
+CREATE INDEX idx_support_tickets_archive_created_at ON support_tickets_archive(created_at, id);
+CREATE INDEX idx_support_tickets_archive_user_created_at ON support_tickets_archive(user_id, created_at, id);
+
+-- Create import_jobs table (background CSV imports with chunk checkpoints)
+CREATE TABLE import_jobs (
+                             id VARCHAR(36) PRIMARY KEY,
+                             mode VARCHAR(20) NOT NULL,
+                             status VARCHAR(20) NOT NULL,
+                             original_filename VARCHAR(255),
+                             file_path VARCHAR(500) NOT NULL,
+                             last_line BIGINT NOT NULL DEFAULT 0,
+                             rows_read BIGINT NOT NULL DEFAULT 0,
+                             inserted BIGINT NOT NULL DEFAULT 0,
+                             updated BIGINT NOT NULL DEFAULT 0,
+                             unchanged BIGINT NOT NULL DEFAULT 0,
+                             failed BIGINT NOT NULL DEFAULT 0,
+                             error_report CLOB,
+                             error_message VARCHAR(1000),
+                             created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                             started_at TIMESTAMP,
+                             finished_at TIMESTAMP
 );
\ No newline at end of file
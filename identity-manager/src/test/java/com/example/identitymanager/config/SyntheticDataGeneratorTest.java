@@ -0,0 +1,117 @@
+package com.example.identitymanager.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JdbcTest
+@Sql(scripts = "/test-schema.sql")
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Generator commits its own batches
+class SyntheticDataGeneratorTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path uploadDir;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO roles (id, name) VALUES (1, 'USER'), (2, 'ADMIN')");
+    }
+
+    @Test
+    void shouldGenerateUsersRolesTicketsAndAvatars() throws Exception {
+        // Given
+        SyntheticDataGenerator generator = generator(2_500, 42);
+
+        // When
+        long[] totals = generator.generate();
+
+        // Then
+        assertThat(totals[0]).isEqualTo(2_500);
+        assertThat(count("SELECT COUNT(*) FROM users")).isEqualTo(2_500);
+        assertThat(count("SELECT COUNT(*) FROM user_roles WHERE role_id = 1")).isEqualTo(2_500);
+        assertThat(count("SELECT COUNT(*) FROM support_tickets")).isEqualTo(totals[1]);
+        assertThat(count("SELECT COUNT(DISTINCT password) FROM users"))
+                .isEqualTo(SyntheticDataGenerator.PASSWORD_HASH_POOL);
+        assertThat(count("SELECT COUNT(*) FROM users WHERE avatar_filename IS NOT NULL")).isPositive();
+        assertThat(count("SELECT COUNT(DISTINCT avatar_filename) FROM users"))
+                .isEqualTo(count("SELECT COUNT(*) FROM users WHERE avatar_filename IS NOT NULL"));
+
+        // Every user owns its avatar file - deleting one (avatar replace / delete) leaves the others intact
+        List<String> avatars = jdbcTemplate.queryForList(
+                "SELECT avatar_filename FROM users WHERE avatar_filename IS NOT NULL ORDER BY id", String.class);
+        Files.delete(uploadDir.resolve(avatars.get(0)));
+        assertThat(avatars.subList(1, avatars.size())).allMatch(avatar -> Files.exists(uploadDir.resolve(avatar)));
+
+        // Identity continues after the explicit ids
+        jdbcTemplate.update("INSERT INTO users (email, password, first_name, last_name) VALUES ('next@test.com', 'x', 'N', 'U')");
+        assertThat(count("SELECT id FROM users WHERE email = 'next@test.com'")).isEqualTo(2_501);
+    }
+
+    @Test
+    void shouldGenerateSameRowsForSameSeed() {
+        // Given
+        SyntheticDataGenerator generator = generator(0, 42);
+
+        // When
+        SyntheticDataGenerator.Batch first = generator.generateBatch(new Random(7), 1, 0, 200, List.of("hash"), 1L, 2L);
+        SyntheticDataGenerator.Batch second = generator.generateBatch(new Random(7), 1, 0, 200, List.of("hash"), 1L, 2L);
+
+        // Then
+        assertThat(second.users).containsExactlyElementsOf(first.users);
+        assertThat(second.userRoles).containsExactlyElementsOf(first.userRoles);
+        assertThat(second.tickets).containsExactlyElementsOf(first.tickets);
+    }
+
+    @Test
+    void shouldSkewTicketsTowardsFewHeavyUsers() {
+        // Given
+        SyntheticDataGenerator generator = generator(0, 42);
+        Random random = new Random(42);
+
+        // When
+        int draws = 100_000;
+        int withoutTickets = 0;
+        int max = 0;
+        for (int i = 0; i < draws; i++) {
+            int tickets = generator.ticketCount(random);
+            if (tickets == 0) {
+                withoutTickets++;
+            }
+            max = Math.max(max, tickets);
+        }
+
+        // Then - most users have no tickets, the tail reaches the cap
+        assertThat(withoutTickets / (double) draws).isBetween(0.6, 0.7);
+        assertThat(max).isEqualTo(200);
+    }
+
+    private SyntheticDataGenerator generator(int users, long seed) {
+        return new SyntheticDataGenerator(jdbcTemplate, transactionManager, new BCryptPasswordEncoder(4),
+                users, seed, 1000, 200, "2025-01-01T00:00:00", uploadDir.toString());
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
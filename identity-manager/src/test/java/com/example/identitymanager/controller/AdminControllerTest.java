@@ -1,13 +1,21 @@
 package com.example.identitymanager.controller;
 
+import com.example.identitymanager.dto.AvatarCacheStatsDTO;
+import com.example.identitymanager.dto.ImportJobDTO;
 import com.example.identitymanager.dto.UserDTO;
 import com.example.identitymanager.dto.UserRegistrationDTO;
+import com.example.identitymanager.dto.UserTicketCountsDTO;
 import com.example.identitymanager.model.Role;
 import com.example.identitymanager.model.User;
 import com.example.identitymanager.repository.RoleRepository;
 import com.example.identitymanager.repository.UserDao;
 import com.example.identitymanager.repository.UserRepository;
+import com.example.identitymanager.service.AvatarCache;
 import com.example.identitymanager.service.FileStorageService;
+import com.example.identitymanager.service.ImportJobService;
+import com.example.identitymanager.service.SupportTicketService;
+import com.example.identitymanager.service.UserExportService;
+import com.example.identitymanager.service.UserImportService;
 import com.example.identitymanager.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -22,9 +30,15 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayInputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -56,6 +70,18 @@ class AdminControllerTest {
     @MockBean
     private FileStorageService fileStorageService;
 
+    @MockBean
+    private AvatarCache avatarCache;
+
+    @MockBean
+    private ImportJobService importJobService;
+
+    @MockBean
+    private UserExportService userExportService;
+
+    @MockBean
+    private SupportTicketService ticketService;
+
     // Required for Spring Security context
     @MockBean
     private com.example.identitymanager.service.CustomUserDetailsService customUserDetailsService;
@@ -114,6 +140,24 @@ class AdminControllerTest {
         verify(userService).getAllUsers(any(Pageable.class));
     }
 
+    @Test
+    void shouldShowTicketCountsForThePageInOneLookup() throws Exception {
+        // Given
+        Page<UserDTO> userPage = new PageImpl<>(Collections.singletonList(testUserDTO));
+        when(userService.getAllUsers(any(Pageable.class))).thenReturn(userPage);
+        when(ticketService.getTicketCounts(List.of(1L)))
+                .thenReturn(Map.of(1L, new UserTicketCountsDTO(1L, 3, 1, 2, 5)));
+
+        // When & Then
+        mockMvc.perform(get("/admin/users"))
+                .andExpect(status().isOk())
+                .andExpect(model().attributeExists("ticketCounts"))
+                .andExpect(content().string(containsString("3 / 1 / 2")));
+
+        verify(ticketService).getTicketCounts(List.of(1L));
+        verifyNoMoreInteractions(ticketService);
+    }
+
     @Test
     void shouldShowUsersListWithPagination() throws Exception {
         // Given
@@ -161,6 +205,18 @@ class AdminControllerTest {
         verify(userService).getUserById(1L);
     }
 
+    @Test
+    void shouldShowCurrentAvatarByVersionedUrlOnEditForm() throws Exception {
+        // Given
+        testUserDTO.setAvatarFilename("1-avatar.jpg");
+        when(userService.getUserById(1L)).thenReturn(Optional.of(testUserDTO));
+
+        // When & Then
+        mockMvc.perform(get("/admin/users/edit/1"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("src=\"/api/users/1/avatar/1-avatar.jpg\"")));
+    }
+
     @Test
     void shouldRedirectWhenEditingNonExistentUser() throws Exception {
         // Given - controller redirects when user not found
@@ -256,7 +312,7 @@ class AdminControllerTest {
         // Given
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(userRepository.save(any(User.class))).thenReturn(testUser);
-        when(fileStorageService.storeFile(any())).thenReturn("avatar.jpg");
+        when(fileStorageService.storeFile(any(), eq(1L))).thenReturn("1-avatar.jpg");
 
         MockMultipartFile avatarFile = new MockMultipartFile(
                 "avatarFile",
@@ -274,7 +330,7 @@ class AdminControllerTest {
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/admin/users"));
 
-        verify(fileStorageService).storeFile(any());
+        verify(fileStorageService).storeFile(any(), eq(1L));
         verify(userRepository).save(any(User.class));
     }
 
@@ -361,6 +417,7 @@ class AdminControllerTest {
                 .andExpect(flash().attributeExists("success"));
 
         verify(fileStorageService).deleteFile("avatar.jpg");
+        verify(avatarCache).evict("avatar.jpg");
         verify(userRepository).save(any(User.class));
     }
 
@@ -379,6 +436,20 @@ class AdminControllerTest {
         verify(fileStorageService, never()).deleteFile(any());
     }
 
+    @Test
+    void shouldReturnAvatarCacheStats() throws Exception {
+        // Given
+        when(avatarCache.getStats()).thenReturn(
+                new AvatarCacheStatsDTO(1024, 256, 300, 2, 9, 1, 0.9, 1, 0, 0, 0));
+
+        // When & Then
+        mockMvc.perform(get("/admin/users/avatar-cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hitRatio").value(0.9))
+                .andExpect(jsonPath("$.entries").value(2))
+                .andExpect(jsonPath("$.bytes").value(300));
+    }
+
     // ==================== CSV IMPORT/EXPORT TESTS ====================
 
     @Test
@@ -390,7 +461,7 @@ class AdminControllerTest {
     }
 
     @Test
-    void shouldImportUsersFromCsv() throws Exception {
+    void shouldStartImportJobFromCsv() throws Exception {
         // Given
         String csvContent = "email,firstName,lastName,phone,isPrivacyEnabled\n" +
                 "test1@example.com,Test1,User1,123,false\n" +
@@ -403,26 +474,119 @@ class AdminControllerTest {
                 csvContent.getBytes()
         );
 
-        when(roleRepository.findByName(Role.RoleName.USER)).thenReturn(Optional.of(userRole));
-        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
-        // Controller uses userDao.insertUser() for each user
-        when(userDao.insertUser(any(User.class))).thenAnswer(invocation -> {
-            User user = invocation.getArgument(0);
-            user.setId(1L);  // Simulate ID assignment
-            return 1;
-        });
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        // Controller hands the file to a background job (default mode = INSERT)
+        when(importJobService.submit(any(), eq(UserImportService.Mode.INSERT)))
+                .thenReturn(importJob("job-1", "QUEUED"));
 
         // When & Then
         mockMvc.perform(multipart("/admin/users/import")
                         .file(csvFile)
                         .with(csrf()))
                 .andExpect(status().is3xxRedirection())
-                .andExpect(redirectedUrl("/admin/users"))
-                .andExpect(flash().attributeExists("success"));
+                .andExpect(redirectedUrl("/admin/users/import/jobs/job-1"))
+                .andExpect(flash().attribute("success", "Import started: users.csv"));
+
+        verify(importJobService).submit(any(), eq(UserImportService.Mode.INSERT));
+    }
+
+    @Test
+    void shouldStartImportJobInUpsertMode() throws Exception {
+        // Given
+        MockMultipartFile csvFile = new MockMultipartFile(
+                "file",
+                "users.csv",
+                "text/csv",
+                "email,firstName,lastName,phone,isPrivacyEnabled\ntest1@example.com,Test1,User1,123,false".getBytes()
+        );
+
+        when(importJobService.submit(any(), eq(UserImportService.Mode.UPSERT)))
+                .thenReturn(importJob("job-2", "QUEUED"));
+
+        // When & Then
+        mockMvc.perform(multipart("/admin/users/import")
+                        .file(csvFile)
+                        .param("mode", "upsert")
+                        .with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/admin/users/import/jobs/job-2"));
+    }
+
+    @Test
+    void shouldShowImportJobPage() throws Exception {
+        // Given
+        ImportJobDTO job = importJob("job-1", "FAILED");
+        job.setResumable(true);
+        job.setErrors(List.of("Line 2: Expected 5 columns but found 2"));
+        when(importJobService.getJob("job-1")).thenReturn(job);
+
+        // When & Then
+        mockMvc.perform(get("/admin/users/import/jobs/job-1"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("admin/import-job"))
+                .andExpect(model().attribute("job", job));
+    }
+
+    @Test
+    void shouldReturnImportJobProgressAsJson() throws Exception {
+        // Given
+        ImportJobDTO job = importJob("job-1", "RUNNING");
+        job.setRowsRead(1500);
+        job.setInserted(1500);
+        job.setLastLine(1501);
+        when(importJobService.getJob("job-1")).thenReturn(job);
+
+        // When & Then
+        mockMvc.perform(get("/admin/users/import/jobs/job-1/progress"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("RUNNING"))
+                .andExpect(jsonPath("$.rowsRead").value(1500))
+                .andExpect(jsonPath("$.lastLine").value(1501));
+    }
+
+    @Test
+    void shouldCancelImportJob() throws Exception {
+        // Given
+        when(importJobService.cancel("job-1")).thenReturn(importJob("job-1", "RUNNING"));
+
+        // When & Then
+        mockMvc.perform(post("/admin/users/import/jobs/job-1/cancel").with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/admin/users/import/jobs/job-1"))
+                .andExpect(flash().attribute("success", "Cancellation requested"));
 
-        // Verify insertUser was called for each CSV row
-        verify(userDao, times(2)).insertUser(any(User.class));
+        verify(importJobService).cancel("job-1");
+    }
+
+    @Test
+    void shouldReportErrorWhenResumingCompletedJob() throws Exception {
+        // Given
+        when(importJobService.resume("job-1"))
+                .thenThrow(new IllegalArgumentException("Only failed or cancelled import jobs can be resumed"));
+
+        // When & Then
+        mockMvc.perform(post("/admin/users/import/jobs/job-1/resume").with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/admin/users/import/jobs/job-1"))
+                .andExpect(flash().attribute("error",
+                        "Error resuming import: Only failed or cancelled import jobs can be resumed"));
+    }
+
+    @Test
+    void shouldRejectUnknownImportMode() throws Exception {
+        // Given
+        MockMultipartFile csvFile = new MockMultipartFile(
+                "file", "users.csv", "text/csv", "email\nx@example.com".getBytes());
+
+        // When & Then
+        mockMvc.perform(multipart("/admin/users/import")
+                        .file(csvFile)
+                        .param("mode", "replace")
+                        .with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/admin/users/import"))
+                .andExpect(flash().attribute("error", "Invalid import mode: replace"));
+
+        verifyNoInteractions(importJobService);
     }
 
     @Test
@@ -447,15 +611,148 @@ class AdminControllerTest {
     @Test
     void shouldExportUsersToCsv() throws Exception {
         // Given
-        when(userRepository.findAll()).thenReturn(Collections.singletonList(testUser));
+        stubExport("email,firstName\ntest@example.com,Test\n");
 
         // When & Then
         mockMvc.perform(get("/admin/users/export"))
                 .andExpect(status().isOk())
                 .andExpect(header().string("Content-Type", "text/csv"))
                 .andExpect(header().string("Content-Disposition",
-                        "attachment; filename=\"users_export.csv\""));
+                        "attachment; filename=\"users_export.csv\""))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().string("email,firstName\ntest@example.com,Test\n"));
+
+        verify(userExportService).writeCsv(any());
+        verify(userRepository, never()).findAll();
+    }
+
+    @Test
+    void shouldGzipEncodeExportWhenClientAcceptsIt() throws Exception {
+        // Given
+        stubExport("email,firstName\ntest@example.com,Test\n");
+
+        // When
+        byte[] body = mockMvc.perform(get("/admin/users/export")
+                        .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        assertThat(gunzip(body)).isEqualTo("email,firstName\ntest@example.com,Test\n");
+    }
+
+    @Test
+    void shouldNotGzipEncodeExportWhenClientRefusesGzip() throws Exception {
+        // Given
+        stubExport("email,firstName\ntest@example.com,Test\n");
+
+        // When & Then - q=0 is an explicit "not acceptable"
+        mockMvc.perform(get("/admin/users/export")
+                        .header("Accept-Encoding", "gzip;q=0, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().string("email,firstName\ntest@example.com,Test\n"));
+    }
+
+    @Test
+    void shouldReadAcceptEncodingCodingsAndQualities() {
+        // When & Then
+        assertThat(AdminController.acceptsGzip("gzip")).isTrue();
+        assertThat(AdminController.acceptsGzip("deflate, GZIP;q=0.5")).isTrue();
+        assertThat(AdminController.acceptsGzip("br, *")).isTrue();
+        assertThat(AdminController.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(AdminController.acceptsGzip("gzip; q=0.0, *")).isFalse();
+        assertThat(AdminController.acceptsGzip("*;q=0")).isFalse();
+        assertThat(AdminController.acceptsGzip("x-gzipped, deflate")).isFalse();
+        assertThat(AdminController.acceptsGzip("identity")).isFalse();
+        assertThat(AdminController.acceptsGzip(null)).isFalse();
+    }
+
+    @Test
+    void shouldExportGzipFileWhenRequested() throws Exception {
+        // Given
+        stubExport("email,firstName\ntest@example.com,Test\n");
+
+        // When
+        byte[] body = mockMvc.perform(get("/admin/users/export").param("format", "csv.gz"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/gzip"))
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"users_export.csv.gz\""))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        assertThat(gunzip(body)).isEqualTo("email,firstName\ntest@example.com,Test\n");
+    }
+
+    @Test
+    void shouldReturnWatermarkWithFullExport() throws Exception {
+        // Given
+        stubExport("email\n");
+        when(userExportService.currentWatermark()).thenReturn(LocalDateTime.parse("2024-01-02T10:00:00.123"));
+
+        // When & Then
+        mockMvc.perform(get("/admin/users/export"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Export-Watermark", "2024-01-02T10:00:00.123"));
+    }
+
+    @Test
+    void shouldExportDeltaSinceTimestampUpToWatermark() throws Exception {
+        // Given
+        LocalDateTime since = LocalDateTime.parse("2024-01-01T10:00:00");
+        LocalDateTime watermark = LocalDateTime.parse("2024-01-02T10:00:00.123");
+        when(userExportService.currentWatermark()).thenReturn(watermark);
+        when(userExportService.writeDeltaCsv(any(), eq(since), eq(watermark))).thenAnswer(invocation -> {
+            invocation.<Writer>getArgument(0).write("email,deleted\ngone@example.com,true\n");
+            return 1L;
+        });
+
+        // When & Then
+        mockMvc.perform(get("/admin/users/export").param("since", "2024-01-01T10:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"users_delta.csv\""))
+                .andExpect(header().string("X-Export-Watermark", "2024-01-02T10:00:00.123"))
+                .andExpect(content().string("email,deleted\ngone@example.com,true\n"));
+
+        verify(userExportService, never()).writeCsv(any());
+    }
+
+    @Test
+    void shouldRejectInvalidSinceTimestamp() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/admin/users/export").param("since", "yesterday"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userExportService);
+    }
+
+    private void stubExport(String csv) throws Exception {
+        lenient().when(userExportService.currentWatermark()).thenReturn(LocalDateTime.parse("2024-01-02T10:00:00"));
+        when(userExportService.writeCsv(any())).thenAnswer(invocation -> {
+            invocation.<Writer>getArgument(0).write(csv);
+            return 1L;
+        });
+    }
+
+    private String gunzip(byte[] body) throws Exception {
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
 
-        verify(userRepository).findAll();
+    private ImportJobDTO importJob(String id, String status) {
+        ImportJobDTO job = new ImportJobDTO();
+        job.setId(id);
+        job.setMode("INSERT");
+        job.setStatus(status);
+        job.setOriginalFilename("users.csv");
+        job.setErrors(List.of());
+        return job;
     }
-}
\ No newline at end of file
+}
@@ -1,29 +1,40 @@
 package com.example.identitymanager.controller;
 
+import com.example.identitymanager.dto.BulkStatusUpdateResult;
+import com.example.identitymanager.dto.ImportResult;
 import com.example.identitymanager.dto.SupportTicketDTO;
-import com.example.identitymanager.dto.UserDTO;
+import com.example.identitymanager.dto.SupportTicketSummaryDTO;
+import com.example.identitymanager.dto.TicketFilter;
+import com.example.identitymanager.dto.TicketPageDTO;
+import com.example.identitymanager.dto.UserOptionDTO;
 import com.example.identitymanager.exception.ResourceNotFoundException;
 import com.example.identitymanager.model.SupportTicket;
 import com.example.identitymanager.service.SupportTicketService;
+import com.example.identitymanager.service.TicketEventBroadcaster;
+import com.example.identitymanager.service.TicketImportService;
 import com.example.identitymanager.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Set;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -37,14 +48,20 @@ class AdminTicketControllerTest {
     @MockBean
     private SupportTicketService ticketService;
 
+    @MockBean
+    private TicketEventBroadcaster ticketEventBroadcaster;
+
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private TicketImportService ticketImportService;
+
     @MockBean
     private com.example.identitymanager.service.CustomUserDetailsService customUserDetailsService;
 
     private SupportTicketDTO testTicketDTO;
-    private UserDTO testUserDTO;
+    private SupportTicketSummaryDTO testTicketSummary;
 
     @BeforeEach
     void setUp() {
@@ -58,19 +75,8 @@ class AdminTicketControllerTest {
                 LocalDateTime.now()
         );
 
-        testUserDTO = new UserDTO(
-                1L,
-                "user@example.com",
-                "Test",
-                "User",
-                "123456789",
-                false,
-                Set.of("USER"),
-                LocalDateTime.now(),
-                LocalDateTime.now(),
-                null,
-                null
-        );
+        testTicketSummary = new SupportTicketSummaryDTO(1L, "Test Issue", "OPEN", 1L, "user@example.com",
+                LocalDateTime.now());
     }
 
     // ==================== LIST TICKETS TESTS ====================
@@ -78,27 +84,29 @@ class AdminTicketControllerTest {
     @Test
     void shouldShowTicketsList() throws Exception {
         // Given
-        List<SupportTicketDTO> tickets = Collections.singletonList(testTicketDTO);
-        List<UserDTO> users = Collections.singletonList(testUserDTO);
-        when(ticketService.getAllTickets()).thenReturn(tickets);
-        when(userService.getAllUsers()).thenReturn(users);
+        List<SupportTicketSummaryDTO> tickets = Collections.singletonList(testTicketSummary);
+        when(ticketService.getTicketSummaryPage(any(TicketFilter.class), isNull(), anyInt()))
+                .thenReturn(new TicketPageDTO<>(tickets, "next-cursor"));
 
         // When & Then
         mockMvc.perform(get("/admin/tickets"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("admin/tickets-list"))
-                .andExpect(model().attributeExists("tickets"))
-                .andExpect(model().attributeExists("users"));
-
-        verify(ticketService).getAllTickets();
-        verify(userService).getAllUsers();
+                .andExpect(model().attribute("tickets", tickets))
+                .andExpect(model().attribute("nextCursor", "next-cursor"))
+                .andExpect(model().attributeDoesNotExist("users"));
+
+        // Neither the full ticket list nor the full user list is loaded
+        verify(ticketService, never()).getAllTickets();
+        verify(ticketService, never()).getTicketPage(any(), any(), anyInt());
+        verify(userService, never()).getAllUsers();
     }
 
     @Test
     void shouldShowEmptyTicketsList() throws Exception {
         // Given
-        when(ticketService.getAllTickets()).thenReturn(Collections.emptyList());
-        when(userService.getAllUsers()).thenReturn(Collections.singletonList(testUserDTO));
+        when(ticketService.getTicketSummaryPage(any(TicketFilter.class), isNull(), anyInt()))
+                .thenReturn(new TicketPageDTO<>(Collections.emptyList(), null));
 
         // When & Then
         mockMvc.perform(get("/admin/tickets"))
@@ -106,7 +114,66 @@ class AdminTicketControllerTest {
                 .andExpect(view().name("admin/tickets-list"))
                 .andExpect(model().attributeExists("tickets"));
 
-        verify(ticketService).getAllTickets();
+        verify(ticketService).getTicketSummaryPage(any(TicketFilter.class), isNull(), anyInt());
+    }
+
+    @Test
+    void shouldFilterAndPageTicketsList() throws Exception {
+        // Given
+        when(ticketService.getTicketSummaryPage(argThat(filter -> filter.getStatus() == SupportTicket.TicketStatus.OPEN
+                        && "user@example.com".equals(filter.getUserEmail())), eq("abc"), anyInt()))
+                .thenReturn(new TicketPageDTO<>(Collections.singletonList(testTicketSummary), null));
+
+        // When & Then
+        mockMvc.perform(get("/admin/tickets")
+                        .param("status", "open")
+                        .param("email", "user@example.com")
+                        .param("cursor", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("tickets", Collections.singletonList(testTicketSummary)))
+                .andExpect(model().attribute("firstPage", false));
+    }
+
+    @Test
+    void shouldShowErrorForInvalidTicketFilter() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/admin/tickets").param("status", "BOGUS"))
+                .andExpect(status().isOk())
+                .andExpect(model().attributeExists("error"))
+                .andExpect(model().attribute("tickets", Collections.emptyList()));
+
+        verify(ticketService, never()).getTicketSummaryPage(any(), any(), anyInt());
+    }
+
+    // ==================== USER PICKER TESTS ====================
+
+    @Test
+    void shouldReturnBoundedUserOptions() throws Exception {
+        // Given
+        when(userService.findUserOptions(eq("us"), anyInt()))
+                .thenReturn(Collections.singletonList(new UserOptionDTO(1L, "user@example.com")));
+
+        // When & Then
+        mockMvc.perform(get("/admin/tickets/user-options").param("q", "us"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].email").value("user@example.com"));
+
+        verify(userService).findUserOptions(eq("us"), intThat(limit -> limit > 0 && limit <= 50));
+    }
+
+    // ==================== EVENT STREAM TESTS ====================
+
+    @Test
+    void shouldStreamAllTicketEvents() throws Exception {
+        // Given
+        when(ticketEventBroadcaster.subscribe(isNull())).thenReturn(new SseEmitter());
+
+        // When & Then
+        mockMvc.perform(get("/admin/tickets/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(ticketEventBroadcaster).subscribe(null);
     }
 
     // ==================== VIEW TICKET DETAIL TESTS ====================
@@ -206,6 +273,69 @@ class AdminTicketControllerTest {
                 .andExpect(flash().attributeExists("error"));
     }
 
+    // ==================== CLAIM NEXT TICKET TESTS ====================
+
+    @Test
+    void shouldClaimNextTicketAndOpenIt() throws Exception {
+        // Given
+        when(ticketService.claimNextTicket("admin@example.com")).thenReturn(Optional.of(testTicketDTO));
+
+        // When & Then
+        mockMvc.perform(post("/admin/tickets/claim").with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/admin/tickets/1"))
+                .andExpect(flash().attributeExists("success"));
+    }
+
+    @Test
+    void shouldReturnToListWhenNothingToClaim() throws Exception {
+        // Given
+        when(ticketService.claimNextTicket("admin@example.com")).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(post("/admin/tickets/claim").with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/admin/tickets"))
+                .andExpect(flash().attribute("success", "No open tickets left to claim"));
+    }
+
+    // ==================== BULK STATUS TESTS ====================
+
+    @Test
+    void shouldBulkCloseOldResolvedTickets() throws Exception {
+        // Given
+        when(ticketService.bulkUpdateStatus(isNull(), any(TicketFilter.class), eq(SupportTicket.TicketStatus.CLOSED)))
+                .thenReturn(new BulkStatusUpdateResult("CLOSED", null, 12));
+
+        // When & Then
+        mockMvc.perform(post("/admin/tickets/bulk-status")
+                        .with(csrf())
+                        .param("fromStatus", "RESOLVED")
+                        .param("status", "CLOSED")
+                        .param("olderThanDays", "14"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/admin/tickets"))
+                .andExpect(flash().attribute("success", "12 ticket(s) moved from RESOLVED to CLOSED"));
+
+        verify(ticketService).bulkUpdateStatus(isNull(),
+                argThat(filter -> filter.getStatus() == SupportTicket.TicketStatus.RESOLVED
+                        && filter.getCreatedTo() != null),
+                eq(SupportTicket.TicketStatus.CLOSED));
+    }
+
+    @Test
+    void shouldRejectBulkUpdateWithInvalidStatus() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/admin/tickets/bulk-status")
+                        .with(csrf())
+                        .param("fromStatus", "RESOLVED")
+                        .param("status", "ARCHIVED"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(flash().attributeExists("error"));
+
+        verify(ticketService, never()).bulkUpdateStatus(any(), any(), any());
+    }
+
     // ==================== UPDATE TICKET STATUS TESTS ====================
 
     @Test
@@ -283,4 +413,53 @@ class AdminTicketControllerTest {
                 .andExpect(redirectedUrl("/admin/tickets"))
                 .andExpect(flash().attributeExists("error"));
     }
-}
\ No newline at end of file
+
+    // ==================== CSV IMPORT TESTS ====================
+
+    @Test
+    void shouldShowImportTicketsPage() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/admin/tickets/import"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("admin/import-tickets-csv"));
+    }
+
+    @Test
+    void shouldImportTicketsFromCsv() throws Exception {
+        // Given
+        MockMultipartFile csvFile = new MockMultipartFile("file", "tickets.csv", "text/csv",
+                "email,subject,description\nuser@example.com,Issue,Details".getBytes());
+
+        ImportResult result = new ImportResult(1, 0, 0);
+        result.setRowsRead(2);
+        result.addError(3, "User not found with email: ghost@example.com");
+        when(ticketImportService.importCsv(any())).thenReturn(result);
+
+        // When & Then
+        mockMvc.perform(multipart("/admin/tickets/import")
+                        .file(csvFile)
+                        .with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/admin/tickets"))
+                .andExpect(flash().attribute("success",
+                        "Import finished: 1 tickets created, 1 failed (2 rows in 0 ms)"))
+                .andExpect(flash().attribute("importErrors",
+                        List.of("Line 3: User not found with email: ghost@example.com")));
+    }
+
+    @Test
+    void shouldRejectEmptyTicketImportFile() throws Exception {
+        // Given
+        MockMultipartFile emptyFile = new MockMultipartFile("file", "tickets.csv", "text/csv", new byte[0]);
+
+        // When & Then
+        mockMvc.perform(multipart("/admin/tickets/import")
+                        .file(emptyFile)
+                        .with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/admin/tickets/import"))
+                .andExpect(flash().attribute("error", "Please select a CSV file"));
+
+        verifyNoInteractions(ticketImportService);
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.identitymanager.controller;
+
+import com.example.identitymanager.IdentityManagerApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Throughput benchmark: avatar downloads over real HTTP (embedded Tomcat) at high concurrency,
+// heap-buffered stream copy (file.zero-copy=false, the former Resource path) vs sendfile / transferTo
+// vs contents served from AvatarCache.
+// Opt-in, it takes a while: ./mvnw test -Dtest=AvatarServingBenchmarkTest -Dbenchmark=true
+// Tunables: -Dbenchmark.requests=20000 -Dbenchmark.concurrency=256 -Dbenchmark.avatar-kb=256
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class AvatarServingBenchmarkTest {
+
+    private static final String AVATAR = "1-bench-avatar.png";
+
+    private final int requests = Integer.getInteger("benchmark.requests", 20_000);
+    private final int concurrency = Integer.getInteger("benchmark.concurrency", 256);
+    private final int avatarBytes = Integer.getInteger("benchmark.avatar-kb", 256) * 1024;
+
+    @TempDir
+    Path uploadDir;
+
+    @Test
+    void compareHeapCopyWithZeroCopy() throws Exception {
+        // Given
+        byte[] avatar = new byte[avatarBytes];
+        new Random(42).nextBytes(avatar);
+        Files.write(uploadDir.resolve(AVATAR), avatar);
+
+        // When - same JVM, one server at a time, each warmed up before it is measured
+        Result heapCopy = run(false, false);
+        Result zeroCopy = run(true, false);
+        Result cached = run(true, true);
+
+        // Then
+        System.out.printf("%nAvatar serving: %d requests, %d concurrent, %d KB file%n",
+                requests, concurrency, avatarBytes / 1024);
+        System.out.printf("%-10s %10s %10s %12s %20s%n", "mode", "req/s", "MB/s", "CPU us/req", "server alloc KB/req");
+        heapCopy.print("heap-copy");
+        zeroCopy.print("zero-copy");
+        cached.print("cached");
+
+        assertThat(heapCopy.failures).isZero();
+        assertThat(zeroCopy.failures).isZero();
+        assertThat(cached.failures).isZero();
+    }
+
+    private Result run(boolean zeroCopy, boolean cache) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(IdentityManagerApplication.class)
+                .properties(
+                        "server.port=0",
+                        "file.upload-dir=" + uploadDir,
+                        "file.zero-copy=" + zeroCopy,
+                        "file.avatar-cache.max-bytes=" + (cache ? 64 * 1024 * 1024 : 0),
+                        "file.avatar-cache.max-entry-bytes=" + avatarBytes,
+                        "spring.datasource.url=jdbc:h2:mem:avatar-bench-" + zeroCopy + "-" + cache,
+                        "spring.jpa.show-sql=false",
+                        "logging.level.com.example.identitymanager=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "logging.level.org.springframework.jdbc.datasource.init=WARN")
+                .run();
+             HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+
+            URI uri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + UserController.avatarUrl(1L, AVATAR));
+
+            load(client, uri, Math.max(requests / 10, concurrency));
+
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            com.sun.management.OperatingSystemMXBean os =
+                    (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+            Map<Long, Long> allocatedBefore = serverThreadAllocations(threads);
+            long cpuBefore = os.getProcessCpuTime();
+            long start = System.nanoTime();
+
+            long failures = load(client, uri, requests);
+
+            return new Result(requests, System.nanoTime() - start, os.getProcessCpuTime() - cpuBefore,
+                    allocatedSince(threads, allocatedBefore), failures, avatarBytes);
+        }
+    }
+
+    // Heap allocated by Tomcat's connector threads (http-nio-*) only - the client shares this JVM
+    private Map<Long, Long> serverThreadAllocations(com.sun.management.ThreadMXBean threads) {
+        Map<Long, Long> allocations = new HashMap<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("http-nio-")) {
+                allocations.put(thread.threadId(), threads.getThreadAllocatedBytes(thread.threadId()));
+            }
+        }
+        return allocations;
+    }
+
+    private long allocatedSince(com.sun.management.ThreadMXBean threads, Map<Long, Long> before) {
+        long total = 0;
+        for (Map.Entry<Long, Long> after : serverThreadAllocations(threads).entrySet()) {
+            total += after.getValue() - before.getOrDefault(after.getKey(), 0L);
+        }
+        return total;
+    }
+
+    // Keeps `concurrency` downloads in flight; a response counts as a failure unless it is a full 200
+    private long load(HttpClient client, URI uri, int count) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        Semaphore inFlight = new Semaphore(concurrency);
+        AtomicLong failures = new AtomicLong();
+        List<Future<?>> pending = new ArrayList<>(count);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < count; i++) {
+                inFlight.acquire();
+                pending.add(executor.submit(() -> {
+                    try {
+                        // Discarding keeps client-side allocation out of the numbers; a short body fails the send
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200
+                                || response.headers().firstValueAsLong("Content-Length").orElse(-1) != avatarBytes) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (Exception ex) {
+                        failures.incrementAndGet();
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+            for (Future<?> future : pending) {
+                future.get();
+            }
+        }
+        return failures.get();
+    }
+
+    private record Result(int requests, long elapsedNanos, long cpuNanos, long allocatedBytes, long failures,
+                          int avatarBytes) {
+
+        void print(String mode) {
+            double seconds = elapsedNanos / 1e9;
+            System.out.printf("%-10s %10.0f %10.1f %12.1f %20.1f%n", mode,
+                    requests / seconds,
+                    (double) requests * avatarBytes / seconds / (1024 * 1024),
+                    cpuNanos / 1e3 / requests,
+                    allocatedBytes / 1024.0 / requests);
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.example.identitymanager.controller;
 
 import com.example.identitymanager.dto.SupportTicketDTO;
+import com.example.identitymanager.dto.TicketPageDTO;
 import com.example.identitymanager.model.SupportTicket;
 import com.example.identitymanager.service.SupportTicketService;
+import com.example.identitymanager.service.TicketEventBroadcaster;
+import com.example.identitymanager.service.TicketWriteBehindService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,6 +33,12 @@ class SupportTicketControllerSecurityTest {
     @MockBean
     private SupportTicketService ticketService;
 
+    @MockBean
+    private TicketEventBroadcaster ticketEventBroadcaster;
+
+    @MockBean
+    private TicketWriteBehindService writeBehindService;
+
     @MockBean
     private com.example.identitymanager.service.CustomUserDetailsService customUserDetailsService;
 
@@ -54,26 +63,27 @@ class SupportTicketControllerSecurityTest {
     @WithMockUser(username = "john@example.com", roles = {"USER"})
     void shouldGetTicketsWhenAuthenticatedAsUser() throws Exception {
         // Given - USER gets only their own tickets
-        when(ticketService.getTicketsByUserEmail("john@example.com"))
-                .thenReturn(Collections.singletonList(testTicketDTO));
+        when(ticketService.getTicketPage(argThat(filter -> "john@example.com".equals(filter.getUserEmail())),
+                isNull(), anyInt()))
+                .thenReturn(new TicketPageDTO<>(Collections.singletonList(testTicketDTO), null));
 
         // When & Then
         mockMvc.perform(get("/api/tickets"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].subject").value("Test Issue"));
+                .andExpect(jsonPath("$.items[0].subject").value("Test Issue"));
     }
 
     @Test
     @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
     void shouldGetAllTicketsWhenAuthenticatedAsAdmin() throws Exception {
         // Given - ADMIN gets all tickets
-        when(ticketService.getAllTickets())
-                .thenReturn(Collections.singletonList(testTicketDTO));
+        when(ticketService.getTicketPage(argThat(filter -> filter.getUserEmail() == null), isNull(), anyInt()))
+                .thenReturn(new TicketPageDTO<>(Collections.singletonList(testTicketDTO), null));
 
         // When & Then
         mockMvc.perform(get("/api/tickets"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].subject").value("Test Issue"));
+                .andExpect(jsonPath("$.items[0].subject").value("Test Issue"));
     }
 
     @Test
@@ -1,30 +1,45 @@
 package com.example.identitymanager.controller;
 
+import com.example.identitymanager.dto.BulkStatusUpdateRequest;
+import com.example.identitymanager.dto.BulkStatusUpdateResult;
 import com.example.identitymanager.dto.CreateTicketRequest;
 import com.example.identitymanager.dto.CreateTicketRequestUser;
+import com.example.identitymanager.dto.QueuedTicketDTO;
 import com.example.identitymanager.dto.SupportTicketDTO;
+import com.example.identitymanager.dto.SupportTicketSummaryDTO;
+import com.example.identitymanager.dto.TicketFilter;
+import com.example.identitymanager.dto.TicketPageDTO;
 import com.example.identitymanager.dto.UpdateTicketStatusRequest;
+import com.example.identitymanager.dto.WriteBehindStatsDTO;
 import com.example.identitymanager.exception.ResourceNotFoundException;
 import com.example.identitymanager.model.SupportTicket;
 import com.example.identitymanager.service.SupportTicketService;
+import com.example.identitymanager.service.TicketEventBroadcaster;
+import com.example.identitymanager.service.TicketWriteBehindService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -42,6 +57,12 @@ class SupportTicketControllerTest {
     @MockBean
     private SupportTicketService ticketService;
 
+    @MockBean
+    private TicketEventBroadcaster ticketEventBroadcaster;
+
+    @MockBean
+    private TicketWriteBehindService writeBehindService;
+
     @MockBean
     private com.example.identitymanager.service.CustomUserDetailsService customUserDetailsService;
 
@@ -77,34 +98,122 @@ class SupportTicketControllerTest {
     @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
     void shouldGetAllTicketsWhenAdmin() throws Exception {
         // Given
-        when(ticketService.getAllTickets()).thenReturn(Arrays.asList(ticketDTO, ticketDTO2));
+        when(ticketService.getTicketPage(any(), isNull(), eq(SupportTicketService.DEFAULT_PAGE_SIZE)))
+                .thenReturn(new TicketPageDTO<>(Arrays.asList(ticketDTO, ticketDTO2), null));
 
         // When & Then
         mockMvc.perform(get("/api/tickets"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(2)))
-                .andExpect(jsonPath("$[0].subject", is("Test Issue")))
-                .andExpect(jsonPath("$[1].subject", is("Another Issue")));
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].subject", is("Test Issue")))
+                .andExpect(jsonPath("$.items[1].subject", is("Another Issue")))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        // Admin is not scoped to any user
+        TicketFilter filter = captureFilter();
+        assertThat(filter.getUserId()).isNull();
+        assertThat(filter.getUserEmail()).isNull();
+        assertThat(filter.isAscending()).isFalse();
+    }
+
+    @Test
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    void shouldPassFiltersCursorAndLimitToService() throws Exception {
+        // Given
+        when(ticketService.getTicketPage(any(), eq("abc"), eq(10)))
+                .thenReturn(new TicketPageDTO<>(Collections.singletonList(ticketDTO), "next"));
+
+        // When & Then
+        mockMvc.perform(get("/api/tickets")
+                        .param("status", "open")
+                        .param("userId", "1")
+                        .param("createdFrom", "2024-01-01T00:00:00")
+                        .param("createdTo", "2024-02-01T00:00:00")
+                        .param("sort", "asc")
+                        .param("cursor", "abc")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor", is("next")));
+
+        TicketFilter filter = captureFilter();
+        assertThat(filter.getStatus()).isEqualTo(SupportTicket.TicketStatus.OPEN);
+        assertThat(filter.getUserId()).isEqualTo(1L);
+        assertThat(filter.getCreatedFrom()).isEqualTo(LocalDateTime.of(2024, 1, 1, 0, 0));
+        assertThat(filter.getCreatedTo()).isEqualTo(LocalDateTime.of(2024, 2, 1, 0, 0));
+        assertThat(filter.isAscending()).isTrue();
+    }
+
+    @Test
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    void shouldReturnBadRequestForInvalidListingParameters() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/tickets").param("status", "BOGUS"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tickets").param("createdFrom", "yesterday"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tickets").param("sort", "sideways"))
+                .andExpect(status().isBadRequest());
+
+        verify(ticketService, never()).getTicketPage(any(), any(), anyInt());
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com", roles = {"USER"})
+    void shouldReturn403WhenUserFiltersByUserId() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/tickets").param("userId", "2"))
+                .andExpect(status().isForbidden());
 
-        verify(ticketService).getAllTickets();
-        verify(ticketService, never()).getTicketsByUserEmail(any());
+        verify(ticketService, never()).getTicketPage(any(), any(), anyInt());
     }
 
     @Test
     @WithMockUser(username = "user@example.com", roles = {"USER"})
     void shouldGetOnlyOwnTicketsWhenUser() throws Exception {
         // Given
-        when(ticketService.getTicketsByUserEmail("user@example.com"))
-                .thenReturn(Collections.singletonList(ticketDTO));
+        when(ticketService.getTicketPage(any(), isNull(), anyInt()))
+                .thenReturn(new TicketPageDTO<>(Collections.singletonList(ticketDTO), null));
 
         // When & Then
         mockMvc.perform(get("/api/tickets"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].userEmail", is("user@example.com")));
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].userEmail", is("user@example.com")));
+
+        assertThat(captureFilter().getUserEmail()).isEqualTo("user@example.com");
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com", roles = {"USER"})
+    void shouldReturnSummaryRowsWithoutDescriptionsWhenRequested() throws Exception {
+        // Given
+        SupportTicketSummaryDTO summary = new SupportTicketSummaryDTO(1L, "Test Issue", "OPEN", 1L,
+                "user@example.com", LocalDateTime.now());
+        when(ticketService.getTicketSummaryPage(any(), isNull(), eq(SupportTicketService.DEFAULT_PAGE_SIZE)))
+                .thenReturn(new TicketPageDTO<>(Collections.singletonList(summary), null));
 
-        verify(ticketService).getTicketsByUserEmail("user@example.com");
-        verify(ticketService, never()).getAllTickets();
+        // When & Then
+        mockMvc.perform(get("/api/tickets").param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].subject", is("Test Issue")))
+                .andExpect(jsonPath("$.items[0].status", is("OPEN")))
+                .andExpect(jsonPath("$.items[0].description").doesNotExist());
+
+        ArgumentCaptor<TicketFilter> captor = ArgumentCaptor.forClass(TicketFilter.class);
+        verify(ticketService).getTicketSummaryPage(captor.capture(), isNull(), anyInt());
+        assertThat(captor.getValue().getUserEmail()).isEqualTo("user@example.com");
+        verify(ticketService, never()).getTicketPage(any(), any(), anyInt());
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com", roles = {"USER"})
+    void shouldRejectUnknownView() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/tickets/my").param("view", "compact"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(ticketService);
     }
 
     // ==================== GET /api/tickets/my TESTS ====================
@@ -113,16 +222,76 @@ class SupportTicketControllerTest {
     @WithMockUser(username = "user@example.com", roles = {"USER"})
     void shouldGetMyTickets() throws Exception {
         // Given
-        when(ticketService.getTicketsByUserEmail("user@example.com"))
-                .thenReturn(Collections.singletonList(ticketDTO));
+        when(ticketService.getTicketPage(any(), isNull(), anyInt()))
+                .thenReturn(new TicketPageDTO<>(Collections.singletonList(ticketDTO), null));
 
         // When & Then
         mockMvc.perform(get("/api/tickets/my"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].subject", is("Test Issue")));
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].subject", is("Test Issue")));
+
+        assertThat(captureFilter().getUserEmail()).isEqualTo("user@example.com");
+    }
+
+    // ==================== GET /api/tickets/search TESTS ====================
+
+    @Test
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    void shouldSearchAllTicketsWhenAdmin() throws Exception {
+        // Given
+        when(ticketService.searchTickets("login issue", SupportTicket.TicketStatus.OPEN, null, 20))
+                .thenReturn(Arrays.asList(ticketDTO2, ticketDTO));
+
+        // When & Then
+        mockMvc.perform(get("/api/tickets/search").param("q", "login issue").param("status", "open"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(2)));
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com", roles = {"USER"})
+    void shouldScopeSearchToOwnTicketsWhenUser() throws Exception {
+        // Given
+        when(ticketService.searchTickets("issue", null, "user@example.com", 5))
+                .thenReturn(Collections.singletonList(ticketDTO));
+
+        // When & Then
+        mockMvc.perform(get("/api/tickets/search").param("q", "issue").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].userEmail", is("user@example.com")));
+
+        verify(ticketService).searchTickets("issue", null, "user@example.com", 5);
+    }
 
-        verify(ticketService).getTicketsByUserEmail("user@example.com");
+    // ==================== GET /api/tickets/archive/search TESTS ====================
+
+    @Test
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    void shouldSearchWholeArchiveWhenAdmin() throws Exception {
+        // Given
+        when(ticketService.searchArchivedTickets("printer", null, 20)).thenReturn(Arrays.asList(ticketDTO2, ticketDTO));
+
+        // When & Then
+        mockMvc.perform(get("/api/tickets/archive/search").param("q", "printer"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com", roles = {"USER"})
+    void shouldScopeArchiveSearchToOwnTicketsWhenUser() throws Exception {
+        // Given
+        when(ticketService.searchArchivedTickets("printer", "user@example.com", 5))
+                .thenReturn(Collections.singletonList(ticketDTO));
+
+        // When & Then
+        mockMvc.perform(get("/api/tickets/archive/search").param("q", "printer").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].userEmail", is("user@example.com")));
+
+        verify(ticketService).searchArchivedTickets("printer", "user@example.com", 5);
     }
 
     // ==================== GET /api/tickets/{id} TESTS ====================
@@ -182,15 +351,15 @@ class SupportTicketControllerTest {
     @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
     void shouldGetTicketsByUserIdWhenAdmin() throws Exception {
         // Given
-        when(ticketService.getTicketsByUserId(1L))
-                .thenReturn(Collections.singletonList(ticketDTO));
+        when(ticketService.getTicketPage(any(), isNull(), anyInt()))
+                .thenReturn(new TicketPageDTO<>(Collections.singletonList(ticketDTO), null));
 
         // When & Then
         mockMvc.perform(get("/api/tickets/user/1"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)));
+                .andExpect(jsonPath("$.items", hasSize(1)));
 
-        verify(ticketService).getTicketsByUserId(1L);
+        assertThat(captureFilter().getUserId()).isEqualTo(1L);
     }
 
     @Test
@@ -200,7 +369,7 @@ class SupportTicketControllerTest {
         mockMvc.perform(get("/api/tickets/user/1"))
                 .andExpect(status().isForbidden());
 
-        verify(ticketService, never()).getTicketsByUserId(any());
+        verify(ticketService, never()).getTicketPage(any(), any(), anyInt());
     }
 
     // ==================== POST /api/tickets TESTS ====================
@@ -224,6 +393,44 @@ class SupportTicketControllerTest {
         verify(ticketService).createTicketForCurrentUser("user@example.com", "New Issue", "Description");
     }
 
+    @Test
+    @WithMockUser(username = "user@example.com", roles = {"USER"})
+    void shouldQueueTicketWhenWriteBehindEnabled() throws Exception {
+        // Given
+        CreateTicketRequestUser request = new CreateTicketRequestUser("New Issue", "Description");
+        when(writeBehindService.isEnabled()).thenReturn(true);
+        when(writeBehindService.submit("user@example.com", "New Issue", "Description"))
+                .thenReturn(Optional.of(new QueuedTicketDTO("req-1", "New Issue", LocalDateTime.now(), 3)));
+
+        // When & Then
+        mockMvc.perform(post("/api/tickets")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.provisionalId", is("req-1")))
+                .andExpect(jsonPath("$.queueDepth", is(3)));
+
+        verify(ticketService, never()).createTicketForCurrentUser(any(), any(), any());
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com", roles = {"USER"})
+    void shouldReturn503WhenWriteBehindQueueIsFull() throws Exception {
+        // Given
+        CreateTicketRequestUser request = new CreateTicketRequestUser("New Issue", "Description");
+        when(writeBehindService.isEnabled()).thenReturn(true);
+        when(writeBehindService.submit(any(), any(), any())).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(post("/api/tickets")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
     @Test
     @WithMockUser(username = "user@example.com", roles = {"USER"})
     void shouldReturnValidationErrorWhenSubjectIsBlank() throws Exception {
@@ -346,4 +553,175 @@ class SupportTicketControllerTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    // ==================== PATCH /api/tickets/status (BULK) TESTS ====================
+
+    @Test
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    void shouldBulkUpdateStatusByFilterWhenAdmin() throws Exception {
+        // Given
+        BulkStatusUpdateRequest request = new BulkStatusUpdateRequest("CLOSED", null, "resolved", 14);
+        when(ticketService.bulkUpdateStatus(isNull(), any(TicketFilter.class), eq(SupportTicket.TicketStatus.CLOSED)))
+                .thenReturn(new BulkStatusUpdateResult("CLOSED", null, 42));
+
+        // When & Then
+        mockMvc.perform(patch("/api/tickets/status")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated", is(42)));
+
+        ArgumentCaptor<TicketFilter> filter = ArgumentCaptor.forClass(TicketFilter.class);
+        verify(ticketService).bulkUpdateStatus(isNull(), filter.capture(), eq(SupportTicket.TicketStatus.CLOSED));
+        assertThat(filter.getValue().getStatus()).isEqualTo(SupportTicket.TicketStatus.RESOLVED);
+        assertThat(filter.getValue().getCreatedTo()).isBefore(LocalDateTime.now().minusDays(13));
+    }
+
+    @Test
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    void shouldBulkUpdateStatusByIdsWhenAdmin() throws Exception {
+        // Given
+        BulkStatusUpdateRequest request = new BulkStatusUpdateRequest("IN_PROGRESS", List.of(1L, 2L), null, null);
+        when(ticketService.bulkUpdateStatus(eq(List.of(1L, 2L)), any(TicketFilter.class),
+                eq(SupportTicket.TicketStatus.IN_PROGRESS)))
+                .thenReturn(new BulkStatusUpdateResult("IN_PROGRESS", 2, 1));
+
+        // When & Then
+        mockMvc.perform(patch("/api/tickets/status")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested", is(2)))
+                .andExpect(jsonPath("$.updated", is(1)));
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com", roles = {"USER"})
+    void shouldReturn403WhenUserTriesBulkUpdate() throws Exception {
+        // Given
+        BulkStatusUpdateRequest request = new BulkStatusUpdateRequest("CLOSED", List.of(1L), null, null);
+
+        // When & Then
+        mockMvc.perform(patch("/api/tickets/status")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isForbidden());
+
+        verify(ticketService, never()).bulkUpdateStatus(any(), any(), any());
+    }
+
+    @Test
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    void shouldReturnBadRequestForInvalidBulkSourceStatus() throws Exception {
+        // Given
+        BulkStatusUpdateRequest request = new BulkStatusUpdateRequest("CLOSED", null, "STALE", null);
+
+        // When & Then
+        mockMvc.perform(patch("/api/tickets/status")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    // ==================== GET /api/tickets/write-behind/stats TESTS ====================
+
+    @Test
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    void shouldReturnWriteBehindStatsWhenAdmin() throws Exception {
+        // Given
+        when(writeBehindService.getStats()).thenReturn(
+                new WriteBehindStatsDTO(true, 10000, 12, 500, 0, 480, 2, 18, 9, 120, LocalDateTime.now()));
+
+        // When & Then
+        mockMvc.perform(get("/api/tickets/write-behind/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.queueDepth", is(12)))
+                .andExpect(jsonPath("$.pending", is(18)));
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com", roles = {"USER"})
+    void shouldReturn403ForWriteBehindStatsWhenUser() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/tickets/write-behind/stats"))
+                .andExpect(status().isForbidden());
+    }
+
+    // ==================== POST /api/tickets/claim TESTS ====================
+
+    @Test
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    void shouldClaimNextTicketForCallingAdmin() throws Exception {
+        // Given
+        SupportTicketDTO claimed = new SupportTicketDTO(
+                1L, "Test Issue", "Description", "IN_PROGRESS",
+                1L, "user@example.com", LocalDateTime.now()
+        );
+        when(ticketService.claimNextTicket("admin@example.com")).thenReturn(Optional.of(claimed));
+
+        // When & Then
+        mockMvc.perform(post("/api/tickets/claim").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.status", is("IN_PROGRESS")));
+    }
+
+    @Test
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    void shouldReturnNoContentWhenQueueIsEmpty() throws Exception {
+        // Given
+        when(ticketService.claimNextTicket("admin@example.com")).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(post("/api/tickets/claim").with(csrf()))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com", roles = {"USER"})
+    void shouldReturn403WhenUserTriesToClaim() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/tickets/claim").with(csrf()))
+                .andExpect(status().isForbidden());
+
+        verify(ticketService, never()).claimNextTicket(any());
+    }
+
+    // ==================== GET /api/tickets/stream TESTS ====================
+
+    @Test
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    void shouldStreamAllTicketEventsToAdmin() throws Exception {
+        // Given
+        when(ticketEventBroadcaster.subscribe(isNull())).thenReturn(new SseEmitter());
+
+        // When & Then
+        mockMvc.perform(get("/api/tickets/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(ticketEventBroadcaster).subscribe(null);
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com", roles = {"USER"})
+    void shouldStreamOnlyOwnTicketEventsToUser() throws Exception {
+        // Given
+        when(ticketEventBroadcaster.subscribe("user@example.com")).thenReturn(new SseEmitter());
+
+        // When & Then
+        mockMvc.perform(get("/api/tickets/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(ticketEventBroadcaster).subscribe("user@example.com");
+    }
+
+    private TicketFilter captureFilter() {
+        ArgumentCaptor<TicketFilter> captor = ArgumentCaptor.forClass(TicketFilter.class);
+        verify(ticketService).getTicketPage(captor.capture(), any(), anyInt());
+        return captor.getValue();
+    }
+}
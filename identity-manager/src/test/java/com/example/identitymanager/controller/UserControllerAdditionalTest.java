@@ -5,16 +5,18 @@ import com.example.identitymanager.dto.UserUpdateDTO;
 import com.example.identitymanager.exception.ResourceNotFoundException;
 import com.example.identitymanager.model.User;
 import com.example.identitymanager.repository.UserRepository;
+import com.example.identitymanager.service.AvatarCache;
 import com.example.identitymanager.service.FileStorageService;
+import com.example.identitymanager.service.FileStreamingService;
 import com.example.identitymanager.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -23,9 +25,14 @@ import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.*;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -35,6 +42,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 
 @WebMvcTest(UserController.class)
 @AutoConfigureMockMvc(addFilters = false)
+@Import(FileStreamingService.class)
 class UserControllerAdditionalTest {
 
     @Autowired
@@ -49,6 +57,9 @@ class UserControllerAdditionalTest {
     @MockBean
     private FileStorageService fileStorageService;
 
+    @MockBean
+    private AvatarCache avatarCache;
+
     @MockBean
     private UserRepository userRepository;
 
@@ -56,6 +67,9 @@ class UserControllerAdditionalTest {
     @MockBean
     private com.example.identitymanager.service.CustomUserDetailsService customUserDetailsService;
 
+    @TempDir
+    Path tempDir;
+
     private UserDTO userDTO;
     private User user;
 
@@ -289,7 +303,7 @@ class UserControllerAdditionalTest {
         );
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(fileStorageService.storeFile(any())).thenReturn("avatar.jpg");
+        when(fileStorageService.storeFile(any(), eq(1L))).thenReturn("1-avatar.jpg");
         when(userRepository.save(any(User.class))).thenReturn(user);
 
         // When & Then
@@ -297,9 +311,9 @@ class UserControllerAdditionalTest {
                         .file(file))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.message", is("Avatar uploaded successfully")))
-                .andExpect(jsonPath("$.filename", is("avatar.jpg")));
+                .andExpect(jsonPath("$.filename", is("1-avatar.jpg")));
 
-        verify(fileStorageService).storeFile(any());
+        verify(fileStorageService).storeFile(any(), eq(1L));
         verify(userRepository).save(any(User.class));
     }
 
@@ -319,7 +333,7 @@ class UserControllerAdditionalTest {
                         .file(emptyFile))
                 .andExpect(status().isBadRequest());
 
-        verify(fileStorageService, never()).storeFile(any());
+        verify(fileStorageService, never()).storeFile(any(), any());
     }
 
     @Test
@@ -338,7 +352,7 @@ class UserControllerAdditionalTest {
                         .file(textFile))
                 .andExpect(status().isBadRequest());
 
-        verify(fileStorageService, never()).storeFile(any());
+        verify(fileStorageService, never()).storeFile(any(), any());
     }
 
     @Test
@@ -354,7 +368,7 @@ class UserControllerAdditionalTest {
         );
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(fileStorageService.storeFile(any())).thenReturn("new-avatar.jpg");
+        when(fileStorageService.storeFile(any(), eq(1L))).thenReturn("1-new-avatar.jpg");
         doNothing().when(fileStorageService).deleteFile("old-avatar.jpg");
         when(userRepository.save(any(User.class))).thenReturn(user);
 
@@ -362,10 +376,11 @@ class UserControllerAdditionalTest {
         mockMvc.perform(multipart("/api/users/1/avatar")
                         .file(file))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.filename", is("new-avatar.jpg")));
+                .andExpect(jsonPath("$.filename", is("1-new-avatar.jpg")));
 
         verify(fileStorageService).deleteFile("old-avatar.jpg");
-        verify(fileStorageService).storeFile(any());
+        verify(avatarCache).evict("old-avatar.jpg");
+        verify(fileStorageService).storeFile(any(), eq(1L));
     }
 
     // ==================== AVATAR DOWNLOAD TESTS ====================
@@ -375,18 +390,21 @@ class UserControllerAdditionalTest {
     void shouldGetAvatar() throws Exception {
         // Given
         byte[] imageBytes = "test image".getBytes();
-        Resource resource = new ByteArrayResource(imageBytes);
+        Path file = storedFile("avatar.jpg", imageBytes);
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(fileStorageService.loadFileAsResource("avatar.jpg")).thenReturn(resource);
+        when(fileStorageService.findFile("avatar.jpg")).thenReturn(Optional.of(file));
+        when(fileStorageService.getContentType("avatar.jpg")).thenReturn(MediaType.IMAGE_JPEG);
 
         // When & Then
         mockMvc.perform(get("/api/users/1/avatar"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.IMAGE_JPEG))
-                .andExpect(content().bytes(imageBytes));
+                .andExpect(content().bytes(imageBytes))
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andExpect(header().string("ETag", "\"avatar.jpg\""));
 
-        verify(fileStorageService).loadFileAsResource("avatar.jpg");
+        verify(fileStorageService).findFile("avatar.jpg");
     }
 
     @Test
@@ -400,7 +418,7 @@ class UserControllerAdditionalTest {
         mockMvc.perform(get("/api/users/1/avatar"))
                 .andExpect(status().isNotFound());
 
-        verify(fileStorageService, never()).loadFileAsResource(any());
+        verify(fileStorageService, never()).findFile(any());
     }
 
     @Test
@@ -414,6 +432,126 @@ class UserControllerAdditionalTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void shouldServeVersionedAvatarAsImmutableWithoutUserLookup() throws Exception {
+        // Given
+        byte[] imageBytes = "png image bytes".getBytes();
+        when(fileStorageService.findFile("1-abc.png")).thenReturn(Optional.of(storedFile("1-abc.png", imageBytes)));
+        when(fileStorageService.getContentType("1-abc.png")).thenReturn(MediaType.IMAGE_PNG);
+
+        // When & Then
+        mockMvc.perform(get("/api/users/1/avatar/1-abc.png"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(content().bytes(imageBytes))
+                .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"))
+                .andExpect(header().string("ETag", "\"1-abc.png\""))
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(header().string("X-Content-Type-Options", "nosniff"));
+
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void shouldServeCachedAvatarWithoutTouchingDisk() throws Exception {
+        // Given
+        ByteBuffer cached = ByteBuffer.allocateDirect(10).put("0123456789".getBytes()).flip();
+        when(avatarCache.get("1-abc.png")).thenReturn(Optional.of(cached));
+        when(fileStorageService.getContentType("1-abc.png")).thenReturn(MediaType.IMAGE_PNG);
+
+        // When & Then
+        mockMvc.perform(get("/api/users/1/avatar/1-abc.png").header("Range", "bytes=4-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(content().bytes("456789".getBytes()));
+
+        verify(fileStorageService, never()).findFile(any());
+    }
+
+    @Test
+    void shouldServeAvatarLoadedIntoCacheOnMiss() throws Exception {
+        // Given
+        Path file = storedFile("1-abc.png", "png image bytes".getBytes());
+        when(fileStorageService.findFile("1-abc.png")).thenReturn(Optional.of(file));
+        when(avatarCache.load("1-abc.png", file))
+                .thenReturn(Optional.of(ByteBuffer.wrap("png image bytes".getBytes())));
+        when(fileStorageService.getContentType("1-abc.png")).thenReturn(MediaType.IMAGE_PNG);
+
+        // When & Then
+        mockMvc.perform(get("/api/users/1/avatar/1-abc.png"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes("png image bytes".getBytes()));
+
+        verify(avatarCache).load("1-abc.png", file);
+    }
+
+    @Test
+    void shouldReturn304ForMatchingAvatarETag() throws Exception {
+        // Given
+        when(fileStorageService.findFile("1-abc.png"))
+                .thenReturn(Optional.of(storedFile("1-abc.png", "png image bytes".getBytes())));
+        when(fileStorageService.getContentType("1-abc.png")).thenReturn(MediaType.IMAGE_PNG);
+
+        // When & Then
+        mockMvc.perform(get("/api/users/1/avatar/1-abc.png").header("If-None-Match", "\"1-abc.png\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void shouldServeAvatarByteRange() throws Exception {
+        // Given
+        when(fileStorageService.findFile("1-abc.png"))
+                .thenReturn(Optional.of(storedFile("1-abc.png", "0123456789".getBytes())));
+        when(fileStorageService.getContentType("1-abc.png")).thenReturn(MediaType.IMAGE_PNG);
+
+        // When & Then
+        mockMvc.perform(get("/api/users/1/avatar/1-abc.png").header("Range", "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 2-5/10"))
+                .andExpect(content().bytes("2345".getBytes()));
+    }
+
+    @Test
+    void shouldReturn404ForUnknownVersionedAvatar() throws Exception {
+        // Given
+        when(fileStorageService.findFile("1-gone.png")).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(get("/api/users/1/avatar/1-gone.png"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldNotServeAnotherUsersAvatarUnderVersionedUrl() throws Exception {
+        // When & Then - the file exists, but belongs to user 2
+        mockMvc.perform(get("/api/users/1/avatar/2-abc.png"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/users/1/avatar/11-abc.png"))
+                .andExpect(status().isNotFound());
+
+        verify(fileStorageService, never()).findFile(any());
+        verify(avatarCache, never()).get(any());
+    }
+
+    @Test
+    void shouldLinkFilesWithoutOwnerToRevalidatedAvatarUrl() {
+        // When & Then
+        assertThat(UserController.avatarUrl(1L, "1-abc.png")).isEqualTo("/api/users/1/avatar/1-abc.png");
+        assertThat(UserController.avatarUrl(1L, "abc.png")).isEqualTo("/api/users/1/avatar");
+    }
+
+    @Test
+    void shouldReturn404WhenAvatarFileIsMissing() throws Exception {
+        // Given - user row points at a file that is gone from disk
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(fileStorageService.findFile("avatar.jpg")).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(get("/api/users/1/avatar"))
+                .andExpect(status().isNotFound());
+    }
+
     // ==================== AVATAR DELETE TESTS ====================
 
     @Test
@@ -430,6 +568,7 @@ class UserControllerAdditionalTest {
                 .andExpect(jsonPath("$.message", is("Avatar deleted successfully")));
 
         verify(fileStorageService).deleteFile("avatar.jpg");
+        verify(avatarCache).evict("avatar.jpg");
         verify(userRepository).save(any(User.class));
     }
 
@@ -446,4 +585,10 @@ class UserControllerAdditionalTest {
 
         verify(fileStorageService, never()).deleteFile(any());
     }
-}
\ No newline at end of file
+
+    // ==================== HELPERS ====================
+
+    private Path storedFile(String filename, byte[] content) throws IOException {
+        return Files.write(tempDir.resolve(filename), content);
+    }
+}
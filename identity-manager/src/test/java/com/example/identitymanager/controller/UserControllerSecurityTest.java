@@ -2,7 +2,9 @@ package com.example.identitymanager.controller;
 
 import com.example.identitymanager.dto.UserDTO;
 import com.example.identitymanager.service.UserService;
+import com.example.identitymanager.service.AvatarCache;
 import com.example.identitymanager.service.FileStorageService;
+import com.example.identitymanager.service.FileStreamingService;
 import com.example.identitymanager.repository.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -38,6 +40,12 @@ class UserControllerSecurityTest {
     @MockBean
     private FileStorageService fileStorageService;
 
+    @MockBean
+    private AvatarCache avatarCache;
+
+    @MockBean
+    private FileStreamingService fileStreamingService;
+
     @MockBean
     private UserRepository userRepository;
 
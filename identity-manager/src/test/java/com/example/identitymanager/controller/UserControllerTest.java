@@ -5,7 +5,9 @@ import com.example.identitymanager.dto.UserRegistrationDTO;
 import com.example.identitymanager.exception.DuplicateResourceException;
 import com.example.identitymanager.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.identitymanager.service.AvatarCache;
 import com.example.identitymanager.service.FileStorageService;
+import com.example.identitymanager.service.FileStreamingService;
 import com.example.identitymanager.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -47,6 +49,12 @@ class UserControllerTest {
     @MockBean
     private FileStorageService fileStorageService;
 
+    @MockBean
+    private AvatarCache avatarCache;
+
+    @MockBean
+    private FileStreamingService fileStreamingService;
+
     @MockBean
     private UserRepository userRepository;
 
@@ -1,19 +1,25 @@
 package com.example.identitymanager.controller;
 
 import com.example.identitymanager.dto.SupportTicketDTO;
+import com.example.identitymanager.dto.SupportTicketSummaryDTO;
 import com.example.identitymanager.dto.UserDTO;
+import com.example.identitymanager.dto.UserTicketCountsDTO;
 import com.example.identitymanager.dto.UserUpdateDTO;
+import com.example.identitymanager.service.AvatarCache;
 import com.example.identitymanager.service.FileStorageService;
 import com.example.identitymanager.service.SupportTicketService;
+import com.example.identitymanager.service.TicketEventBroadcaster;
 import com.example.identitymanager.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -21,6 +27,7 @@ import java.util.Collections;
 import java.util.Optional;
 import java.util.Set;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -40,14 +47,21 @@ class UserDashboardControllerTest {
     @MockBean
     private FileStorageService fileStorageService;
 
+    @MockBean
+    private AvatarCache avatarCache;
+
     @MockBean
     private SupportTicketService ticketService;
 
+    @MockBean
+    private TicketEventBroadcaster ticketEventBroadcaster;
+
     @MockBean
     private com.example.identitymanager.service.CustomUserDetailsService customUserDetailsService;
 
     private UserDTO testUserDTO;
     private SupportTicketDTO testTicketDTO;
+    private SupportTicketSummaryDTO testTicketSummary;
 
     @BeforeEach
     void setUp() {
@@ -74,6 +88,9 @@ class UserDashboardControllerTest {
                 "user@example.com",
                 LocalDateTime.now()
         );
+
+        testTicketSummary = new SupportTicketSummaryDTO(1L, "Test Issue", "OPEN", 1L, "user@example.com",
+                LocalDateTime.now());
     }
 
     // ==================== DASHBOARD TESTS ====================
@@ -82,7 +99,7 @@ class UserDashboardControllerTest {
     void shouldShowDashboard() throws Exception {
         // Given
         when(userService.getUserByEmail("user@example.com")).thenReturn(Optional.of(testUserDTO));
-        when(ticketService.getTicketsByUserEmail("user@example.com")).thenReturn(Collections.emptyList());
+        when(ticketService.getTicketSummariesByUserEmail("user@example.com")).thenReturn(Collections.emptyList());
 
         // When & Then
         mockMvc.perform(get("/user/dashboard"))
@@ -92,15 +109,15 @@ class UserDashboardControllerTest {
                 .andExpect(model().attributeExists("tickets"));
 
         verify(userService).getUserByEmail("user@example.com");
-        verify(ticketService).getTicketsByUserEmail("user@example.com");
+        verify(ticketService).getTicketSummariesByUserEmail("user@example.com");
     }
 
     @Test
     void shouldShowDashboardWithTickets() throws Exception {
         // Given
         when(userService.getUserByEmail("user@example.com")).thenReturn(Optional.of(testUserDTO));
-        when(ticketService.getTicketsByUserEmail("user@example.com"))
-                .thenReturn(Arrays.asList(testTicketDTO));
+        when(ticketService.getTicketSummariesByUserEmail("user@example.com"))
+                .thenReturn(Arrays.asList(testTicketSummary));
 
         // When & Then
         mockMvc.perform(get("/user/dashboard"))
@@ -109,7 +126,24 @@ class UserDashboardControllerTest {
                 .andExpect(model().attributeExists("user"))
                 .andExpect(model().attributeExists("tickets"));
 
-        verify(ticketService).getTicketsByUserEmail("user@example.com");
+        verify(ticketService).getTicketSummariesByUserEmail("user@example.com");
+        // The table shows no descriptions, so the full DTO listing is never used
+        verify(ticketService, never()).getTicketsByUserEmail(any());
+    }
+
+    @Test
+    void shouldShowTicketCountsOnDashboard() throws Exception {
+        // Given
+        when(userService.getUserByEmail("user@example.com")).thenReturn(Optional.of(testUserDTO));
+        when(ticketService.getTicketSummariesByUserEmail("user@example.com")).thenReturn(Arrays.asList(testTicketSummary));
+        UserTicketCountsDTO counts = new UserTicketCountsDTO(testUserDTO.getId(), 1, 4, 2, 0);
+        when(ticketService.getTicketCounts(testUserDTO.getId())).thenReturn(counts);
+
+        // When & Then
+        mockMvc.perform(get("/user/dashboard"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("ticketCounts", counts))
+                .andExpect(content().string(containsString("in progress: <strong>4</strong>")));
     }
 
     @Test
@@ -117,7 +151,7 @@ class UserDashboardControllerTest {
         // Given
         testUserDTO.setAvatarFilename("avatar.jpg");
         when(userService.getUserByEmail("user@example.com")).thenReturn(Optional.of(testUserDTO));
-        when(ticketService.getTicketsByUserEmail("user@example.com")).thenReturn(Collections.emptyList());
+        when(ticketService.getTicketSummariesByUserEmail("user@example.com")).thenReturn(Collections.emptyList());
 
         // When & Then
         mockMvc.perform(get("/user/dashboard"))
@@ -162,7 +196,7 @@ class UserDashboardControllerTest {
         );
 
         when(userService.getUserByEmail("user@example.com")).thenReturn(Optional.of(testUserDTO));
-        when(fileStorageService.storeFile(any())).thenReturn("new-avatar.jpg");
+        when(fileStorageService.storeFile(any(), eq(1L))).thenReturn("1-new-avatar.jpg");
         when(userService.updateUserProfile(anyString(), any(UserUpdateDTO.class))).thenReturn(testUserDTO);
         when(userService.updatePrivacySettings(anyString(), anyBoolean())).thenReturn(testUserDTO);
 
@@ -176,8 +210,8 @@ class UserDashboardControllerTest {
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/user/dashboard?success=true"));
 
-        verify(fileStorageService).storeFile(any());
-        verify(userService).updateUserAvatar("user@example.com", "new-avatar.jpg");
+        verify(fileStorageService).storeFile(any(), eq(1L));
+        verify(userService).updateUserAvatar("user@example.com", "1-new-avatar.jpg");
     }
 
     @Test
@@ -192,7 +226,7 @@ class UserDashboardControllerTest {
         );
 
         when(userService.getUserByEmail("user@example.com")).thenReturn(Optional.of(testUserDTO));
-        when(fileStorageService.storeFile(any())).thenReturn("new-avatar.jpg");
+        when(fileStorageService.storeFile(any(), eq(1L))).thenReturn("1-new-avatar.jpg");
         when(userService.updateUserProfile(anyString(), any(UserUpdateDTO.class))).thenReturn(testUserDTO);
         when(userService.updatePrivacySettings(anyString(), anyBoolean())).thenReturn(testUserDTO);
 
@@ -207,7 +241,7 @@ class UserDashboardControllerTest {
                 .andExpect(redirectedUrl("/user/dashboard?success=true"));
 
         verify(fileStorageService).deleteFile("old-avatar.jpg");
-        verify(fileStorageService).storeFile(any());
+        verify(fileStorageService).storeFile(any(), eq(1L));
     }
 
     @Test
@@ -242,6 +276,7 @@ class UserDashboardControllerTest {
                 .andExpect(redirectedUrl("/user/dashboard?success=true"));
 
         verify(fileStorageService).deleteFile("avatar.jpg");
+        verify(avatarCache).evict("avatar.jpg");
         verify(userService).updateUserAvatar("user@example.com", null);
     }
 
@@ -350,4 +385,18 @@ class UserDashboardControllerTest {
                 .andExpect(redirectedUrl("/user/dashboard"))
                 .andExpect(flash().attributeExists("ticketError"));
     }
-}
\ No newline at end of file
+
+    // ==================== EVENT STREAM TESTS ====================
+
+    @Test
+    void shouldStreamOwnTicketEvents() throws Exception {
+        // Given
+        when(ticketEventBroadcaster.subscribe("user@example.com")).thenReturn(new SseEmitter());
+
+        // When & Then
+        mockMvc.perform(get("/user/tickets/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(ticketEventBroadcaster).subscribe("user@example.com");
+    }
+}
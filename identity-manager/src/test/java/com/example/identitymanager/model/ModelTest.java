@@ -281,7 +281,7 @@ class ModelTest {
         // When
         SupportTicket ticket = new SupportTicket(
                 1L, "Subject", "Description",
-                SupportTicket.TicketStatus.IN_PROGRESS, user, now
+                SupportTicket.TicketStatus.IN_PROGRESS, user, now, now
         );
 
         // Then
@@ -291,6 +291,7 @@ class ModelTest {
         assertThat(ticket.getStatus()).isEqualTo(SupportTicket.TicketStatus.IN_PROGRESS);
         assertThat(ticket.getUser()).isSameAs(user);
         assertThat(ticket.getCreatedAt()).isEqualTo(now);
+        assertThat(ticket.getStatusChangedAt()).isEqualTo(now);
     }
 
     @Test
@@ -327,6 +328,7 @@ class ModelTest {
 
         // Then
         assertThat(ticket.getCreatedAt()).isNotNull();
+        assertThat(ticket.getStatusChangedAt()).isEqualTo(ticket.getCreatedAt());
     }
 
     @Test
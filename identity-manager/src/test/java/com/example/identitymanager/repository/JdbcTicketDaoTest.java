@@ -0,0 +1,486 @@
+package com.example.identitymanager.repository;
+
+import com.example.identitymanager.dto.SupportTicketDTO;
+import com.example.identitymanager.dto.SupportTicketSummaryDTO;
+import com.example.identitymanager.dto.TicketFilter;
+import com.example.identitymanager.dto.UserTicketCountsDTO;
+import com.example.identitymanager.model.SupportTicket;
+import com.example.identitymanager.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JdbcTest
+@Import(JdbcTicketDao.class)
+@Sql(scripts = "/test-schema.sql")
+class JdbcTicketDaoTest {
+
+    @Autowired
+    private JdbcTicketDao jdbcTicketDao;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // ==================== INSERT OPERATION TESTS ====================
+
+    @Test
+    void shouldInsertTicketsInBatch() {
+        // Given
+        Long userId = insertTestUser("owner@test.com");
+        LocalDateTime migratedAt = LocalDateTime.parse("2023-06-01T09:30:00");
+
+        // When
+        List<Long> ids = jdbcTicketDao.insertTickets(List.of(
+                ticket(userId, "First", SupportTicket.TicketStatus.OPEN, null),
+                ticket(userId, "Second", SupportTicket.TicketStatus.CLOSED, migratedAt)));
+
+        // Then
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT id, subject, status, user_id, created_at FROM support_tickets ORDER BY id");
+        assertThat(ids).containsExactly(
+                ((Number) rows.get(0).get("ID")).longValue(), ((Number) rows.get(1).get("ID")).longValue());
+        assertThat(rows).extracting(row -> row.get("SUBJECT")).containsExactly("First", "Second");
+        assertThat(rows).extracting(row -> row.get("STATUS")).containsExactly("OPEN", "CLOSED");
+        assertThat(rows).extracting(row -> row.get("USER_ID")).containsOnly(userId);
+        assertThat(rows.get(0).get("CREATED_AT")).isNotNull();
+        assertThat(((Timestamp) rows.get(1).get("CREATED_AT")).toLocalDateTime()).isEqualTo(migratedAt);
+    }
+
+    @Test
+    void shouldInsertOpenTicketForOwnerResolvedInTheStatement() {
+        // Given
+        Long owner = insertTestUser("owner@test.com");
+
+        // When
+        Optional<SupportTicketDTO> byId = jdbcTicketDao.insertOpenTicketForUserId(owner, "By id", "Desc 1");
+        Optional<SupportTicketDTO> byEmail = jdbcTicketDao.insertOpenTicketForUserEmail("owner@test.com", "By email", "Desc 2");
+
+        // Then
+        assertThat(byId).get().satisfies(ticket -> {
+            assertThat(ticket.getId()).isNotNull();
+            assertThat(ticket.getSubject()).isEqualTo("By id");
+            assertThat(ticket.getDescription()).isEqualTo("Desc 1");
+            assertThat(ticket.getStatus()).isEqualTo("OPEN");
+            assertThat(ticket.getUserId()).isEqualTo(owner);
+            assertThat(ticket.getUserEmail()).isEqualTo("owner@test.com");
+            assertThat(ticket.getCreatedAt()).isNotNull();
+        });
+        assertThat(byEmail).get().extracting(SupportTicketDTO::getUserId).isEqualTo(owner);
+        assertThat(byEmail.get().getId()).isGreaterThan(byId.get().getId());
+        assertThat(statusOf(byEmail.get().getId())).isEqualTo("OPEN");
+    }
+
+    @Test
+    void shouldInsertNothingForUnknownOwner() {
+        // When
+        Optional<SupportTicketDTO> byId = jdbcTicketDao.insertOpenTicketForUserId(999L, "Lost", "Desc");
+        Optional<SupportTicketDTO> byEmail = jdbcTicketDao.insertOpenTicketForUserEmail("nobody@test.com", "Lost", "Desc");
+
+        // Then
+        assertThat(byId).isEmpty();
+        assertThat(byEmail).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM support_tickets", Integer.class)).isZero();
+    }
+
+    // ==================== KEYSET PAGINATION TESTS ====================
+
+    @Test
+    void shouldWalkAllPagesNewestFirstWithTiesBrokenById() {
+        // Given - several tickets share a created_at so the id tie-breaker matters
+        Long userId = insertTestUser("owner@test.com");
+        LocalDateTime base = LocalDateTime.parse("2024-01-01T10:00:00");
+        List<SupportTicket> tickets = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            tickets.add(ticket(userId, "T" + i, SupportTicket.TicketStatus.OPEN, base.plusMinutes(i / 3)));
+        }
+        jdbcTicketDao.insertTickets(tickets);
+
+        // When - page through 3 at a time, seeking from the last row of each page
+        List<String> seen = new ArrayList<>();
+        List<SupportTicketDTO> page = jdbcTicketDao.findTicketPage(new TicketFilter(), null, null, 3);
+        while (!page.isEmpty()) {
+            page.forEach(t -> seen.add(t.getSubject()));
+            SupportTicketDTO last = page.get(page.size() - 1);
+            page = jdbcTicketDao.findTicketPage(new TicketFilter(), last.getCreatedAt(), last.getId(), 3);
+        }
+
+        // Then - every ticket exactly once, newest first, higher id first within a timestamp
+        assertThat(seen).containsExactly("T6", "T5", "T4", "T3", "T2", "T1", "T0");
+    }
+
+    @Test
+    void shouldPageAscendingWhenRequested() {
+        // Given
+        Long userId = insertTestUser("owner@test.com");
+        LocalDateTime base = LocalDateTime.parse("2024-01-01T10:00:00");
+        jdbcTicketDao.insertTickets(List.of(
+                ticket(userId, "Old", SupportTicket.TicketStatus.OPEN, base),
+                ticket(userId, "Mid", SupportTicket.TicketStatus.OPEN, base.plusHours(1)),
+                ticket(userId, "New", SupportTicket.TicketStatus.OPEN, base.plusHours(2))));
+        TicketFilter filter = new TicketFilter();
+        filter.setAscending(true);
+
+        // When
+        List<SupportTicketDTO> first = jdbcTicketDao.findTicketPage(filter, null, null, 2);
+        SupportTicketDTO last = first.get(1);
+        List<SupportTicketDTO> second = jdbcTicketDao.findTicketPage(filter, last.getCreatedAt(), last.getId(), 2);
+
+        // Then
+        assertThat(first).extracting(SupportTicketDTO::getSubject).containsExactly("Old", "Mid");
+        assertThat(second).extracting(SupportTicketDTO::getSubject).containsExactly("New");
+    }
+
+    @Test
+    void shouldApplyStatusUserAndCreatedAtFilters() {
+        // Given
+        Long owner = insertTestUser("owner@test.com");
+        Long other = insertTestUser("other@test.com");
+        LocalDateTime base = LocalDateTime.parse("2024-01-01T10:00:00");
+        jdbcTicketDao.insertTickets(List.of(
+                ticket(owner, "Match", SupportTicket.TicketStatus.OPEN, base.plusDays(1)),
+                ticket(owner, "Closed", SupportTicket.TicketStatus.CLOSED, base.plusDays(1)),
+                ticket(owner, "TooEarly", SupportTicket.TicketStatus.OPEN, base.minusDays(1)),
+                ticket(owner, "AtUpperBound", SupportTicket.TicketStatus.OPEN, base.plusDays(2)),
+                ticket(other, "OtherUser", SupportTicket.TicketStatus.OPEN, base.plusDays(1))));
+
+        TicketFilter byId = new TicketFilter(SupportTicket.TicketStatus.OPEN, owner, null,
+                base, base.plusDays(2), null, false);
+        TicketFilter byEmail = new TicketFilter(SupportTicket.TicketStatus.OPEN, null, "owner@test.com",
+                base, base.plusDays(2), null, false);
+
+        // When
+        List<SupportTicketDTO> resultById = jdbcTicketDao.findTicketPage(byId, null, null, 10);
+        List<SupportTicketDTO> resultByEmail = jdbcTicketDao.findTicketPage(byEmail, null, null, 10);
+
+        // Then - createdFrom inclusive, createdTo exclusive
+        assertThat(resultById).extracting(SupportTicketDTO::getSubject).containsExactly("Match");
+        assertThat(resultByEmail).extracting(SupportTicketDTO::getSubject).containsExactly("Match");
+        assertThat(resultById.get(0).getUserEmail()).isEqualTo("owner@test.com");
+        assertThat(resultById.get(0).getUserId()).isEqualTo(owner);
+    }
+
+    @Test
+    void shouldReturnSummaryPageWithSameRowsAndOrderAsFullPage() {
+        // Given
+        Long owner = insertTestUser("owner@test.com");
+        LocalDateTime base = LocalDateTime.parse("2024-03-01T10:00:00");
+        jdbcTicketDao.insertTickets(List.of(
+                ticket(owner, "Oldest", SupportTicket.TicketStatus.OPEN, base),
+                ticket(owner, "Middle", SupportTicket.TicketStatus.CLOSED, base.plusHours(1)),
+                ticket(owner, "Newest", SupportTicket.TicketStatus.OPEN, base.plusHours(2))));
+        TicketFilter filter = new TicketFilter();
+        filter.setUserId(owner);
+
+        // When
+        List<SupportTicketDTO> full = jdbcTicketDao.findTicketPage(filter, base.plusHours(2), Long.MAX_VALUE, 10);
+        List<SupportTicketSummaryDTO> summaries =
+                jdbcTicketDao.findTicketSummaryPage(filter, base.plusHours(2), Long.MAX_VALUE, 10);
+
+        // Then
+        assertThat(summaries).extracting(SupportTicketSummaryDTO::getId)
+                .containsExactlyElementsOf(full.stream().map(SupportTicketDTO::getId).toList());
+        assertThat(summaries.get(0)).isEqualTo(new SupportTicketSummaryDTO(full.get(0).getId(), "Newest", "OPEN",
+                owner, "owner@test.com", base.plusHours(2)));
+        assertThat(summaries).extracting(SupportTicketSummaryDTO::getSubject).containsExactly("Newest", "Middle", "Oldest");
+    }
+
+    // ==================== BULK STATUS UPDATE TESTS ====================
+
+    @Test
+    void shouldUpdateStatusByFilterInOneStatementAndReturnChangedIds() {
+        // Given
+        Long owner = insertTestUser("owner@test.com");
+        LocalDateTime cutoff = LocalDateTime.parse("2024-01-10T00:00:00");
+        jdbcTicketDao.insertTickets(List.of(
+                ticket(owner, "OldResolved", SupportTicket.TicketStatus.RESOLVED, cutoff.minusDays(5)),
+                ticket(owner, "NewResolved", SupportTicket.TicketStatus.RESOLVED, cutoff.plusDays(1)),
+                ticket(owner, "OldOpen", SupportTicket.TicketStatus.OPEN, cutoff.minusDays(5))));
+        TicketFilter filter = new TicketFilter();
+        filter.setStatus(SupportTicket.TicketStatus.RESOLVED);
+        filter.setCreatedTo(cutoff);
+
+        // When
+        List<SupportTicketSummaryDTO> changed = jdbcTicketDao.updateStatus(filter, null, SupportTicket.TicketStatus.CLOSED, 0);
+
+        // Then - the changed rows come back as they are now, with their owner
+        assertThat(changed).hasSize(1);
+        assertThat(changed.get(0).getStatus()).isEqualTo("CLOSED");
+        assertThat(changed.get(0).getUserEmail()).isEqualTo("owner@test.com");
+        assertThat(statusOf(changed.get(0).getId())).isEqualTo("CLOSED");
+        assertThat(jdbcTemplate.queryForList("SELECT subject FROM support_tickets WHERE status = 'CLOSED'", String.class))
+                .containsExactly("OldResolved");
+    }
+
+    @Test
+    void shouldUpdateOnlyListedIdsThatAreNotAlreadyInTargetStatus() {
+        // Given
+        Long owner = insertTestUser("owner@test.com");
+        LocalDateTime now = LocalDateTime.parse("2024-01-01T10:00:00");
+        jdbcTicketDao.insertTickets(List.of(
+                ticket(owner, "A", SupportTicket.TicketStatus.OPEN, now),
+                ticket(owner, "B", SupportTicket.TicketStatus.CLOSED, now),
+                ticket(owner, "C", SupportTicket.TicketStatus.OPEN, now)));
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM support_tickets ORDER BY id", Long.class);
+
+        // When - A and B requested, B is already CLOSED, C not requested
+        List<SupportTicketSummaryDTO> changed = jdbcTicketDao.updateStatus(new TicketFilter(), List.of(ids.get(0), ids.get(1)),
+                SupportTicket.TicketStatus.CLOSED, 0);
+
+        // Then
+        assertThat(changed).extracting(SupportTicketSummaryDTO::getId).containsExactly(ids.get(0));
+        assertThat(statusOf(ids.get(2))).isEqualTo("OPEN");
+    }
+
+    @Test
+    void shouldCapBatchAtLimitLowestIdsFirst() {
+        // Given
+        Long owner = insertTestUser("owner@test.com");
+        LocalDateTime now = LocalDateTime.parse("2024-01-01T10:00:00");
+        List<SupportTicket> tickets = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tickets.add(ticket(owner, "R" + i, SupportTicket.TicketStatus.RESOLVED, now));
+        }
+        jdbcTicketDao.insertTickets(tickets);
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM support_tickets ORDER BY id", Long.class);
+        TicketFilter filter = new TicketFilter();
+        filter.setStatus(SupportTicket.TicketStatus.RESOLVED);
+
+        // When
+        List<SupportTicketSummaryDTO> first = jdbcTicketDao.updateStatus(filter, null, SupportTicket.TicketStatus.CLOSED, 2);
+        List<SupportTicketSummaryDTO> second = jdbcTicketDao.updateStatus(filter, null, SupportTicket.TicketStatus.CLOSED, 2);
+        List<SupportTicketSummaryDTO> third = jdbcTicketDao.updateStatus(filter, null, SupportTicket.TicketStatus.CLOSED, 2);
+
+        // Then
+        assertThat(first).extracting(SupportTicketSummaryDTO::getId).containsExactlyInAnyOrder(ids.get(0), ids.get(1));
+        assertThat(second).extracting(SupportTicketSummaryDTO::getId).containsExactlyInAnyOrder(ids.get(2), ids.get(3));
+        assertThat(third).extracting(SupportTicketSummaryDTO::getId).containsExactly(ids.get(4));
+    }
+
+    @Test
+    void shouldStampStatusChangesAndFilterOnThem() {
+        // Given - both resolved long ago by creation date, one of them resolved only just now
+        Long owner = insertTestUser("owner@test.com");
+        LocalDateTime longAgo = LocalDateTime.now().minusDays(30);
+        List<Long> ids = jdbcTicketDao.insertTickets(List.of(
+                ticket(owner, "ResolvedLongAgo", SupportTicket.TicketStatus.RESOLVED, longAgo),
+                ticket(owner, "ResolvedJustNow", SupportTicket.TicketStatus.OPEN, longAgo)));
+        jdbcTicketDao.updateStatus(new TicketFilter(), List.of(ids.get(1)), SupportTicket.TicketStatus.RESOLVED, 0);
+        TicketFilter filter = new TicketFilter();
+        filter.setStatus(SupportTicket.TicketStatus.RESOLVED);
+        filter.setStatusChangedBefore(LocalDateTime.now().minusDays(14));
+
+        // When
+        List<SupportTicketSummaryDTO> closed = jdbcTicketDao.updateStatus(filter, null, SupportTicket.TicketStatus.CLOSED, 0);
+
+        // Then - only the ticket that has been RESOLVED for long is closed
+        assertThat(closed).extracting(SupportTicketSummaryDTO::getId).containsExactly(ids.get(0));
+        assertThat(statusChangedAt(ids.get(0))).isAfter(longAgo);
+        assertThat(statusChangedAt(ids.get(1))).isAfter(longAgo);
+    }
+
+    // ==================== WORK QUEUE TESTS ====================
+
+    @Test
+    void shouldClaimOldestOpenTicketAndAssignIt() {
+        // Given
+        Long owner = insertTestUser("owner@test.com");
+        Long agent = insertTestUser("agent@test.com");
+        LocalDateTime base = LocalDateTime.parse("2024-01-01T10:00:00");
+        jdbcTicketDao.insertTickets(List.of(
+                ticket(owner, "Newer", SupportTicket.TicketStatus.OPEN, base.plusHours(1)),
+                ticket(owner, "OldestButClosed", SupportTicket.TicketStatus.CLOSED, base.minusHours(1)),
+                ticket(owner, "Oldest", SupportTicket.TicketStatus.OPEN, base)));
+
+        // When
+        Optional<SupportTicketDTO> first = jdbcTicketDao.claimNextOpenTicket(agent);
+        Optional<SupportTicketDTO> second = jdbcTicketDao.claimNextOpenTicket(agent);
+        Optional<SupportTicketDTO> none = jdbcTicketDao.claimNextOpenTicket(agent);
+
+        // Then
+        assertThat(first).get().extracting(SupportTicketDTO::getSubject).isEqualTo("Oldest");
+        assertThat(first.get().getStatus()).isEqualTo("IN_PROGRESS");
+        assertThat(first.get().getUserEmail()).isEqualTo("owner@test.com");
+        assertThat(second).get().extracting(SupportTicketDTO::getSubject).isEqualTo("Newer");
+        assertThat(none).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("SELECT assignee_id FROM support_tickets WHERE id = ?",
+                Long.class, first.get().getId())).isEqualTo(agent);
+        assertThat(statusChangedAt(first.get().getId())).isAfter(base);
+    }
+
+    // ==================== ARCHIVE TESTS ====================
+
+    @Test
+    void shouldMoveOldClosedTicketsToArchiveKeepingIds() {
+        // Given
+        Long owner = insertTestUser("owner@test.com");
+        LocalDateTime cutoff = LocalDateTime.parse("2024-01-01T00:00:00");
+        jdbcTicketDao.insertTickets(List.of(
+                ticket(owner, "Old closed 1", SupportTicket.TicketStatus.CLOSED, cutoff.minusDays(30)),
+                ticket(owner, "Old resolved", SupportTicket.TicketStatus.RESOLVED, cutoff.minusDays(30)),
+                ticket(owner, "Recent closed", SupportTicket.TicketStatus.CLOSED, cutoff.plusDays(1)),
+                ticket(owner, "Old closed 2", SupportTicket.TicketStatus.CLOSED, cutoff.minusDays(10))));
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM support_tickets ORDER BY id", Long.class);
+
+        // When
+        List<Long> first = jdbcTicketDao.archiveClosedTickets(cutoff, 1);
+        List<Long> second = jdbcTicketDao.archiveClosedTickets(cutoff, 1);
+        List<Long> none = jdbcTicketDao.archiveClosedTickets(cutoff, 1);
+
+        // Then
+        assertThat(first).containsExactly(ids.get(0));
+        assertThat(second).containsExactly(ids.get(3));
+        assertThat(none).isEmpty();
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM support_tickets ORDER BY id", Long.class))
+                .containsExactly(ids.get(1), ids.get(2));
+
+        Optional<SupportTicketDTO> archived = jdbcTicketDao.findArchivedById(ids.get(0));
+        assertThat(archived).get().extracting(SupportTicketDTO::getSubject).isEqualTo("Old closed 1");
+        assertThat(archived.get().getStatus()).isEqualTo("CLOSED");
+        assertThat(archived.get().getUserEmail()).isEqualTo("owner@test.com");
+        assertThat(archived.get().getCreatedAt()).isEqualTo(cutoff.minusDays(30));
+        assertThat(jdbcTicketDao.findArchivedById(ids.get(1))).isEmpty();
+    }
+
+    @Test
+    void shouldNotArchiveOldTicketClosedRecently() {
+        // Given - created long ago, closed only now
+        Long owner = insertTestUser("owner@test.com");
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(90);
+        List<Long> ids = jdbcTicketDao.insertTickets(List.of(
+                ticket(owner, "Closed long ago", SupportTicket.TicketStatus.CLOSED, cutoff.minusDays(30)),
+                ticket(owner, "Closed just now", SupportTicket.TicketStatus.RESOLVED, cutoff.minusDays(30))));
+        jdbcTicketDao.updateStatus(new TicketFilter(), List.of(ids.get(1)), SupportTicket.TicketStatus.CLOSED, 0);
+
+        // When
+        List<Long> archived = jdbcTicketDao.archiveClosedTickets(cutoff, 10);
+
+        // Then
+        assertThat(archived).containsExactly(ids.get(0));
+        assertThat(statusOf(ids.get(1))).isEqualTo("CLOSED");
+    }
+
+    @Test
+    void shouldSearchArchiveByAllTermsNewestFirstAndScopedToOwner() {
+        // Given
+        Long owner = insertTestUser("owner@test.com");
+        Long other = insertTestUser("other@test.com");
+        LocalDateTime base = LocalDateTime.parse("2023-01-01T10:00:00");
+        jdbcTicketDao.insertTickets(List.of(
+                ticket(owner, "Printer jam", SupportTicket.TicketStatus.CLOSED, base),
+                ticket(owner, "Printer toner jam", SupportTicket.TicketStatus.CLOSED, base.plusDays(1)),
+                ticket(owner, "Printer offline", SupportTicket.TicketStatus.CLOSED, base.plusDays(2)),
+                ticket(other, "Printer jam again", SupportTicket.TicketStatus.CLOSED, base.plusDays(3))));
+        jdbcTicketDao.archiveClosedTickets(base.plusYears(1), 10);
+
+        // When
+        List<SupportTicketDTO> all = jdbcTicketDao.searchArchive(List.of("printer", "jam"), null, 10);
+        List<SupportTicketDTO> own = jdbcTicketDao.searchArchive(List.of("printer", "jam"), owner, 10);
+        List<SupportTicketDTO> limited = jdbcTicketDao.searchArchive(List.of("printer"), null, 2);
+
+        // Then
+        assertThat(all).extracting(SupportTicketDTO::getSubject)
+                .containsExactly("Printer jam again", "Printer toner jam", "Printer jam");
+        assertThat(own).extracting(SupportTicketDTO::getSubject).containsExactly("Printer toner jam", "Printer jam");
+        assertThat(limited).extracting(SupportTicketDTO::getSubject)
+                .containsExactly("Printer jam again", "Printer offline");
+    }
+
+    // ==================== COUNTER TESTS ====================
+
+    @Test
+    void shouldKeepTicketCountersInStepWithEveryKindOfWrite() {
+        // Given
+        Long owner = insertTestUser("owner@test.com");
+        Long other = insertTestUser("other@test.com");
+        Long agent = insertTestUser("agent@test.com");
+        jdbcTicketDao.insertTickets(List.of(
+                ticket(owner, "Batch open", SupportTicket.TicketStatus.OPEN, LocalDateTime.now().minusDays(1)),
+                ticket(owner, "Batch closed", SupportTicket.TicketStatus.CLOSED, LocalDateTime.now().minusDays(200)),
+                ticket(other, "Other open", SupportTicket.TicketStatus.OPEN, null)));
+        Long single = jdbcTicketDao.insertOpenTicketForUserId(owner, "Single", "Desc").orElseThrow().getId();
+
+        // When - claim, a plain status change, an assignee-only change, a delete, an archive move
+        jdbcTicketDao.claimNextOpenTicket(agent);
+        jdbcTemplate.update("UPDATE support_tickets SET status = 'RESOLVED' WHERE id = ?", single);
+        jdbcTemplate.update("UPDATE support_tickets SET assignee_id = ? WHERE id = ?", agent, single);
+        jdbcTemplate.update("DELETE FROM support_tickets WHERE user_id = ?", other);
+        jdbcTicketDao.archiveClosedTickets(LocalDateTime.now().minusDays(90), 10);
+
+        // Then - counters match a fresh aggregate over the live table
+        Map<Long, UserTicketCountsDTO> counts = jdbcTicketDao.findTicketCounts(List.of(owner, other, agent));
+        assertThat(counts.get(owner)).isEqualTo(new UserTicketCountsDTO(owner, 0, 1, 1, 0));
+        assertThat(counts.get(other)).isEqualTo(new UserTicketCountsDTO(other, 0, 0, 0, 0));
+        assertThat(counts.get(agent).getTotal()).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM support_tickets WHERE user_id = ? AND status = 'IN_PROGRESS'",
+                Long.class, owner)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldMoveCountsWithBulkStatusUpdateAndDropThemWithTheUser() {
+        // Given
+        Long owner = insertTestUser("owner@test.com");
+        jdbcTicketDao.insertTickets(List.of(
+                ticket(owner, "One", SupportTicket.TicketStatus.RESOLVED, null),
+                ticket(owner, "Two", SupportTicket.TicketStatus.RESOLVED, null),
+                ticket(owner, "Three", SupportTicket.TicketStatus.OPEN, null)));
+        TicketFilter resolved = new TicketFilter();
+        resolved.setStatus(SupportTicket.TicketStatus.RESOLVED);
+
+        // When
+        jdbcTicketDao.updateStatus(resolved, null, SupportTicket.TicketStatus.CLOSED, 0);
+
+        // Then
+        assertThat(jdbcTicketDao.findTicketCounts(List.of(owner)).get(owner))
+                .isEqualTo(new UserTicketCountsDTO(owner, 1, 0, 0, 2));
+
+        // The counter row goes with its user
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", owner);
+        assertThat(jdbcTicketDao.findTicketCounts(List.of(owner))).isEmpty();
+        assertThat(jdbcTicketDao.findTicketCounts(List.of())).isEmpty();
+    }
+
+    // ==================== HELPERS ====================
+
+    private SupportTicket ticket(Long userId, String subject, SupportTicket.TicketStatus status,
+                                 LocalDateTime createdAt) {
+        User user = new User();
+        user.setId(userId);
+
+        SupportTicket ticket = new SupportTicket();
+        ticket.setSubject(subject);
+        ticket.setDescription(subject + " description");
+        ticket.setStatus(status);
+        ticket.setUser(user);
+        ticket.setCreatedAt(createdAt);
+        return ticket;
+    }
+
+    private String statusOf(Long ticketId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM support_tickets WHERE id = ?", String.class, ticketId);
+    }
+
+    private LocalDateTime statusChangedAt(Long ticketId) {
+        return jdbcTemplate.queryForObject("SELECT status_changed_at FROM support_tickets WHERE id = ?",
+                Timestamp.class, ticketId).toLocalDateTime();
+    }
+
+    private Long insertTestUser(String email) {
+        jdbcTemplate.update(
+                "INSERT INTO users (email, password, first_name, last_name, is_privacy_enabled) VALUES (?, ?, ?, ?, ?)",
+                email, "password123", "Ticket", "Owner", false);
+        return jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, email);
+    }
+}
@@ -1,17 +1,27 @@
 package com.example.identitymanager.repository;
 
+import com.example.identitymanager.model.Role;
 import com.example.identitymanager.model.User;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.jdbc.Sql;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @JdbcTest
 @Import(JdbcUserDao.class)
@@ -155,6 +165,214 @@ class JdbcUserDaoTest {
         assertThat(privateUsers).isEmpty();
     }
 
+    // ==================== STREAMING OPERATIONS TESTS ====================
+
+    @Test
+    void shouldVisitEveryUserWithForEachUser() {
+        // Given
+        insertTestUser("each1@test.com", "Each", "One", "111");
+        insertTestUser("each2@test.com", "Each", "Two", "222");
+        insertTestUser("each3@test.com", "Each", "Three", "333");
+
+        // When
+        List<String> visited = new ArrayList<>();
+        jdbcUserDao.forEachUser(user -> visited.add(user.getEmail()));
+
+        // Then - rows arrive in id order
+        assertThat(visited).containsExactly("each1@test.com", "each2@test.com", "each3@test.com");
+    }
+
+    @Test
+    void shouldStreamUsersPastFetchSize() {
+        // Given - more rows than a single fetch
+        int total = JdbcUserDao.STREAM_FETCH_SIZE + 25;
+        jdbcTemplate.update(
+                "INSERT INTO users (email, password, first_name, last_name, is_privacy_enabled) " +
+                        "SELECT 'bulk' || x || '@test.com', 'password123', 'Bulk', 'User', FALSE " +
+                        "FROM SYSTEM_RANGE(1, " + total + ")");
+
+        // When
+        long count;
+        try (Stream<User> users = jdbcUserDao.streamUsers()) {
+            count = users.filter(user -> user.getEmail().startsWith("bulk")).count();
+        }
+
+        // Then
+        assertThat(count).isEqualTo(total);
+    }
+
+    @Test
+    void shouldStreamUsersByPrivacyEnabled() {
+        // Given
+        Long privateUser = insertTestUser("private@test.com", "Private", "User", "111");
+        insertTestUser("public@test.com", "Public", "User", "222");
+        jdbcTemplate.update("UPDATE users SET is_privacy_enabled = true WHERE id = ?", privateUser);
+
+        // When
+        List<String> privateEmails;
+        try (Stream<User> users = jdbcUserDao.streamUsersByPrivacyEnabled(true)) {
+            privateEmails = users.map(User::getEmail).toList();
+        }
+
+        // Then
+        assertThat(privateEmails).containsExactly("private@test.com");
+    }
+
+    @Test
+    void shouldVisitOnlyUsersUpdatedInWindow() {
+        // Given
+        Long before = insertTestUser("before@test.com", "Before", "Window", "111");
+        Long inside = insertTestUser("inside@test.com", "Inside", "Window", "222");
+        Long boundary = insertTestUser("boundary@test.com", "Boundary", "Window", "333");
+        Long after = insertTestUser("after@test.com", "After", "Window", "444");
+        setUpdatedAt(before, "2024-01-01T10:00:00");
+        setUpdatedAt(inside, "2024-01-01T11:00:00");
+        setUpdatedAt(boundary, "2024-01-01T12:00:00");
+        setUpdatedAt(after, "2024-01-01T12:00:01");
+
+        // When - window is (since, until]
+        List<String> visited = new ArrayList<>();
+        jdbcUserDao.forEachUserUpdatedBetween(
+                LocalDateTime.parse("2024-01-01T10:00:00"),
+                LocalDateTime.parse("2024-01-01T12:00:00"),
+                user -> visited.add(user.getEmail()));
+
+        // Then
+        assertThat(visited).containsExactly("inside@test.com", "boundary@test.com");
+    }
+
+    @Test
+    void shouldFindDeletedEmailsInWindowExceptRecreatedUsers() {
+        // Given
+        jdbcTemplate.update("INSERT INTO user_tombstones (user_id, email, deleted_at) VALUES " +
+                "(1, 'gone@test.com', TIMESTAMP '2024-01-01 11:00:00'), " +
+                "(2, 'back@test.com', TIMESTAMP '2024-01-01 11:00:00'), " +
+                "(3, 'old@test.com', TIMESTAMP '2024-01-01 09:00:00')");
+        insertTestUser("back@test.com", "Back", "Again", "111");
+
+        // When
+        List<String> deleted = jdbcUserDao.findDeletedEmailsBetween(
+                LocalDateTime.parse("2024-01-01T10:00:00"),
+                LocalDateTime.parse("2024-01-01T12:00:00"));
+
+        // Then
+        assertThat(deleted).containsExactly("gone@test.com");
+    }
+
+    // ==================== SELECT WITH ROLES TESTS ====================
+
+    @Test
+    void shouldFindAllUsersWithRoles() {
+        // Given
+        insertRoles();
+        Long admin = insertTestUser("admin@test.com", "Admin", "User", "111");
+        Long user = insertTestUser("user@test.com", "Plain", "User", "222");
+        insertTestUser("noroles@test.com", "No", "Roles", "333");
+        assignRole(admin, 1L);
+        assignRole(admin, 2L);
+        assignRole(user, 1L);
+
+        // When
+        List<User> users = jdbcUserDao.findAllUsersWithRoles();
+
+        // Then - one User per row group, roles collected from the LEFT JOIN
+        assertThat(users).hasSize(3);
+        assertThat(users).extracting(User::getEmail)
+                .containsExactly("admin@test.com", "user@test.com", "noroles@test.com");
+        assertThat(users.get(0).getRoles()).extracting(Role::getName)
+                .containsExactlyInAnyOrder(Role.RoleName.USER, Role.RoleName.ADMIN);
+        assertThat(users.get(1).getRoles()).extracting(Role::getName)
+                .containsExactly(Role.RoleName.USER);
+        assertThat(users.get(2).getRoles()).isEmpty();
+    }
+
+    @Test
+    void shouldFindUserWithRolesById() {
+        // Given
+        insertRoles();
+        Long userId = insertTestUser("roles@test.com", "With", "Roles", "123");
+        assignRole(userId, 2L);
+
+        // When
+        Optional<User> user = jdbcUserDao.findUserWithRolesById(userId);
+
+        // Then
+        assertThat(user).isPresent();
+        assertThat(user.get().getFirstName()).isEqualTo("With");
+        assertThat(user.get().getRoles()).extracting(Role::getName)
+                .containsExactly(Role.RoleName.ADMIN);
+        assertThat(jdbcUserDao.findUserWithRolesById(999L)).isEmpty();
+    }
+
+    @Test
+    void shouldFindUserWithRolesByEmail() {
+        // Given
+        insertRoles();
+        Long userId = insertTestUser("byemail@test.com", "By", "Email", "123");
+        assignRole(userId, 1L);
+
+        // When
+        Optional<User> user = jdbcUserDao.findUserWithRolesByEmail("byemail@test.com");
+
+        // Then
+        assertThat(user).isPresent();
+        assertThat(user.get().getId()).isEqualTo(userId);
+        assertThat(user.get().getRoles()).extracting(Role::getName)
+                .containsExactly(Role.RoleName.USER);
+        assertThat(jdbcUserDao.findUserWithRolesByEmail("missing@test.com")).isEmpty();
+    }
+
+    @Test
+    void shouldPageUsersWithRolesWithoutSplittingRoles() {
+        // Given - every user has two roles, so a LIMIT over joined rows would split them
+        insertRoles();
+        for (int i = 1; i <= 5; i++) {
+            Long userId = insertTestUser("page" + i + "@test.com", "Page", "User" + i, null);
+            assignRole(userId, 1L);
+            assignRole(userId, 2L);
+        }
+
+        // When
+        Page<User> firstPage = jdbcUserDao.findUsersWithRoles(PageRequest.of(0, 2));
+        Page<User> lastPage = jdbcUserDao.findUsersWithRoles(PageRequest.of(2, 2));
+
+        // Then
+        assertThat(firstPage.getTotalElements()).isEqualTo(5);
+        assertThat(firstPage.getTotalPages()).isEqualTo(3);
+        assertThat(firstPage.getContent()).extracting(User::getEmail)
+                .containsExactly("page1@test.com", "page2@test.com");
+        assertThat(firstPage.getContent()).allSatisfy(user -> assertThat(user.getRoles()).hasSize(2));
+
+        assertThat(lastPage.getContent()).extracting(User::getEmail)
+                .containsExactly("page5@test.com");
+        assertThat(lastPage.getContent().get(0).getRoles()).hasSize(2);
+    }
+
+    @Test
+    void shouldPageUsersWithRolesSorted() {
+        // Given
+        insertTestUser("a@test.com", "Zed", "User", null);
+        insertTestUser("b@test.com", "Amy", "User", null);
+        insertTestUser("c@test.com", "Bob", "User", null);
+
+        // When
+        Page<User> page = jdbcUserDao.findUsersWithRoles(
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "firstName")));
+
+        // Then
+        assertThat(page.getContent()).extracting(User::getFirstName)
+                .containsExactly("Amy", "Bob", "Zed");
+    }
+
+    @Test
+    void shouldRejectUnsupportedSortProperty() {
+        // When & Then
+        assertThatThrownBy(() -> jdbcUserDao.findUsersWithRoles(
+                PageRequest.of(0, 10, Sort.by("password; DROP TABLE users"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unsupported sort property");
+    }
+
     // ==================== INSERT OPERATION TESTS ====================
 
     @Test
@@ -242,6 +460,113 @@ class JdbcUserDaoTest {
         assertThat(user.getId()).isGreaterThan(0);
     }
 
+    // ==================== UPSERT OPERATION TESTS ====================
+
+    @Test
+    void shouldFindUsersByEmails() {
+        // Given
+        insertTestUser("one@test.com", "One", "User", "111");
+        insertTestUser("two@test.com", "Two", "User", "222");
+        insertTestUser("three@test.com", "Three", "User", "333");
+
+        // When
+        List<User> users = jdbcUserDao.findUsersByEmails(List.of("one@test.com", "three@test.com", "none@test.com"));
+
+        // Then
+        assertThat(users).extracting(User::getEmail)
+                .containsExactlyInAnyOrder("one@test.com", "three@test.com");
+        assertThat(jdbcUserDao.findUsersByEmails(List.of())).isEmpty();
+    }
+
+    @Test
+    void shouldFindUserIdsByEmails() {
+        // Given
+        Long one = insertTestUser("one@test.com", "One", "User", "111");
+        insertTestUser("two@test.com", "Two", "User", "222");
+
+        // When
+        Map<String, Long> ids = jdbcUserDao.findUserIdsByEmails(List.of("one@test.com", "none@test.com"));
+
+        // Then - unknown emails are simply absent
+        assertThat(ids).containsExactly(Map.entry("one@test.com", one));
+        assertThat(jdbcUserDao.findUserIdsByEmails(List.of())).isEmpty();
+    }
+
+    @Test
+    void shouldMergeUsersInsertingNewAndUpdatingExisting() {
+        // Given
+        insertTestUser("existing@test.com", "Old", "Name", "111");
+
+        User changed = new User("existing@test.com", "newHash", "New", "Name");
+        changed.setPhone("999");
+        changed.setIsPrivacyEnabled(true);
+        User created = new User("created@test.com", "newHash", "Created", "User");
+
+        // When
+        int[] counts = jdbcUserDao.mergeUsers(List.of(changed, created));
+
+        // Then
+        assertThat(counts).hasSize(2);
+        assertThat(jdbcUserDao.countUsers()).isEqualTo(2);
+
+        User updated = jdbcUserDao.findUserByEmail("existing@test.com").orElseThrow();
+        assertThat(updated.getFirstName()).isEqualTo("New");
+        assertThat(updated.getPhone()).isEqualTo("999");
+        assertThat(updated.getIsPrivacyEnabled()).isTrue();
+        assertThat(updated.getPassword()).isEqualTo("password123"); // existing password kept
+
+        User inserted = jdbcUserDao.findUserByEmail("created@test.com").orElseThrow();
+        assertThat(inserted.getPassword()).isEqualTo("newHash");
+        assertThat(inserted.getCreatedAt()).isNotNull();
+    }
+
+    @Test
+    void shouldMergeSameRowsIdempotently() {
+        // Given
+        User user = new User("idem@test.com", "hash", "Idem", "Potent");
+
+        // When
+        jdbcUserDao.mergeUsers(List.of(user));
+        jdbcUserDao.mergeUsers(List.of(user));
+
+        // Then
+        assertThat(jdbcUserDao.countUsers()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldAssignRoleByEmailsOnlyOnce() {
+        // Given
+        insertRoles();
+        Long first = insertTestUser("first@test.com", "First", "User", null);
+        insertTestUser("second@test.com", "Second", "User", null);
+        assignRole(first, 1L);
+
+        // When
+        int assigned = jdbcUserDao.assignRoleByEmails(List.of("first@test.com", "second@test.com"), 1L);
+
+        // Then - first already had the role
+        assertThat(assigned).isEqualTo(1);
+        assertThat(jdbcUserDao.findUserWithRolesByEmail("second@test.com").orElseThrow().getRoles())
+                .extracting(Role::getName).containsExactly(Role.RoleName.USER);
+        assertThat(jdbcUserDao.assignRoleByEmails(List.of(), 1L)).isZero();
+    }
+
+    @Test
+    void shouldInsertUsersInBatch() {
+        // Given
+        List<User> users = List.of(
+                new User("batch1@test.com", "hash", "Batch", "One"),
+                new User("batch2@test.com", "hash", "Batch", "Two"));
+
+        // When
+        int[] counts = jdbcUserDao.insertUsers(users);
+
+        // Then
+        assertThat(counts).hasSize(2);
+        assertThat(jdbcUserDao.countUsers()).isEqualTo(2);
+        assertThat(jdbcUserDao.findUserByEmail("batch2@test.com").orElseThrow().getCreatedAt()).isNotNull();
+    }
+
     // ==================== UPDATE OPERATION TESTS ====================
 
     @Test
@@ -314,6 +639,9 @@ class JdbcUserDaoTest {
         // Then
         assertThat(rowsAffected).isEqualTo(1);
         assertThat(jdbcUserDao.findUserById(userId)).isEmpty();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT email FROM user_tombstones WHERE user_id = ?", String.class, userId))
+                .isEqualTo("delete@test.com");
     }
 
     @Test
@@ -401,6 +729,20 @@ class JdbcUserDaoTest {
         assertThat(user.getRoles()).isEmpty(); // JDBC doesn't load roles
     }
 
+    // Helper methods for role assignments (ids: 1 = USER, 2 = ADMIN)
+    private void setUpdatedAt(Long userId, String timestamp) {
+        jdbcTemplate.update("UPDATE users SET updated_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.parse(timestamp)), userId);
+    }
+
+    private void insertRoles() {
+        jdbcTemplate.update("INSERT INTO roles (id, name) VALUES (1, 'USER'), (2, 'ADMIN')");
+    }
+
+    private void assignRole(Long userId, Long roleId) {
+        jdbcTemplate.update("INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)", userId, roleId);
+    }
+
     // Helper method to insert test users
     private Long insertTestUser(String email, String firstName, String lastName, String phone) {
         jdbcTemplate.update(
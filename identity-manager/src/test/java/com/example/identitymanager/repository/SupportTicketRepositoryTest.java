@@ -1,5 +1,6 @@
 package com.example.identitymanager.repository;
 
+import com.example.identitymanager.dto.SupportTicketSummaryDTO;
 import com.example.identitymanager.model.Role;
 import com.example.identitymanager.model.SupportTicket;
 import com.example.identitymanager.model.User;
@@ -193,6 +194,22 @@ class SupportTicketRepositoryTest {
         assertThat(tickets).isEmpty();
     }
 
+    @Test
+    void shouldListTicketSummariesByUserEmail() {
+        // When
+        List<SupportTicketSummaryDTO> summaries = ticketRepository.findTicketSummariesByUserEmail("user@example.com");
+
+        // Then
+        assertThat(summaries).singleElement().satisfies(summary -> {
+            assertThat(summary.getId()).isEqualTo(testTicket.getId());
+            assertThat(summary.getSubject()).isEqualTo("Test Issue");
+            assertThat(summary.getStatus()).isEqualTo("OPEN");
+            assertThat(summary.getUserId()).isEqualTo(testUser.getId());
+            assertThat(summary.getUserEmail()).isEqualTo("user@example.com");
+        });
+        assertThat(ticketRepository.findTicketSummariesByUserEmail("another@example.com")).isEmpty();
+    }
+
     // ==================== FIND BY STATUS TESTS ====================
 
     @Test
@@ -1,5 +1,6 @@
 package com.example.identitymanager.repository;
 
+import com.example.identitymanager.dto.UserOptionDTO;
 import com.example.identitymanager.model.Role;
 import com.example.identitymanager.model.User;
 import org.junit.jupiter.api.BeforeEach;
@@ -426,6 +427,40 @@ class UserRepositoryTest {
         assertThat(page.getTotalElements()).isEqualTo(0);
     }
 
+    // ==================== USER OPTIONS (PICKER) TESTS ====================
+
+    @Test
+    void shouldFindUserOptionsByEmailPrefixWithinLimit() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            User user = new User();
+            user.setEmail("picker" + i + "@example.com");
+            user.setPassword("password");
+            user.setFirstName("Picker");
+            user.setLastName("User");
+            user.setIsPrivacyEnabled(false);
+            entityManager.persist(user);
+        }
+        entityManager.flush();
+
+        // When
+        List<UserOptionDTO> options = userRepository.findUserOptionsByEmailPrefix("picker", PageRequest.of(0, 3));
+
+        // Then - ordered by email, bounded by the page size
+        assertThat(options).extracting(UserOptionDTO::getEmail)
+                .containsExactly("picker0@example.com", "picker1@example.com", "picker2@example.com");
+        assertThat(options).allSatisfy(option -> assertThat(option.getId()).isNotNull());
+    }
+
+    @Test
+    void shouldTreatEscapedWildcardsLiterallyInUserOptions() {
+        // When - "\%" is a literal percent sign, so nothing matches
+        List<UserOptionDTO> options = userRepository.findUserOptionsByEmailPrefix("\\%", PageRequest.of(0, 10));
+
+        // Then
+        assertThat(options).isEmpty();
+    }
+
     // ==================== AVATAR TESTS ====================
 
     @Test
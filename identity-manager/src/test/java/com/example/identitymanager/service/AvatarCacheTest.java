@@ -0,0 +1,141 @@
+package com.example.identitymanager.service;
+
+import com.example.identitymanager.dto.AvatarCacheStatsDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AvatarCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    // ==================== HIT / MISS TESTS ====================
+
+    @Test
+    void shouldServeLoadedFileFromDirectBufferAndCountHits() throws IOException {
+        // Given
+        AvatarCache cache = new AvatarCache(1024, 256);
+        Path file = file("a.png", 100);
+
+        // When
+        Optional<ByteBuffer> miss = cache.get("a.png");
+        Optional<ByteBuffer> loaded = cache.load("a.png", file);
+        Optional<ByteBuffer> hit = cache.get("a.png");
+
+        // Then
+        assertThat(miss).isEmpty();
+        assertThat(loaded).isPresent();
+        assertThat(hit).isPresent();
+        assertThat(hit.get().isDirect()).isTrue();
+        assertThat(hit.get().isReadOnly()).isTrue();
+        assertThat(bytes(hit.get())).isEqualTo(Files.readAllBytes(file));
+
+        AvatarCacheStatsDTO stats = cache.getStats();
+        assertThat(stats.getHits()).isEqualTo(1);
+        assertThat(stats.getMisses()).isEqualTo(1);
+        assertThat(stats.getHitRatio()).isEqualTo(0.5);
+        assertThat(stats.getBytes()).isEqualTo(100);
+        assertThat(stats.getEntries()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldHandOutIndependentViews() throws IOException {
+        // Given
+        AvatarCache cache = new AvatarCache(1024, 256);
+        cache.load("a.png", file("a.png", 10));
+
+        // When - one reader consumes its view
+        ByteBuffer first = cache.get("a.png").orElseThrow();
+        first.position(first.limit());
+
+        // Then
+        assertThat(cache.get("a.png").orElseThrow().remaining()).isEqualTo(10);
+    }
+
+    // ==================== BUDGET TESTS ====================
+
+    @Test
+    void shouldEvictLeastRecentlyUsedToStayWithinByteBudget() throws IOException {
+        // Given - room for two 100-byte avatars
+        AvatarCache cache = new AvatarCache(250, 256);
+        cache.load("a.png", file("a.png", 100));
+        cache.load("b.png", file("b.png", 100));
+        cache.get("a.png");
+
+        // When
+        cache.load("c.png", file("c.png", 100));
+
+        // Then - b was least recently used
+        assertThat(cache.get("a.png")).isPresent();
+        assertThat(cache.get("b.png")).isEmpty();
+        assertThat(cache.get("c.png")).isPresent();
+        assertThat(cache.getStats().getBytes()).isEqualTo(200);
+        assertThat(cache.getStats().getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldServeButNotCacheFilesOverEntryLimit() throws IOException {
+        // Given
+        AvatarCache cache = new AvatarCache(1024, 50);
+
+        // When
+        Optional<ByteBuffer> loaded = cache.load("big.png", file("big.png", 100));
+
+        // Then
+        assertThat(loaded).isEmpty();
+        assertThat(cache.getStats().getUncacheable()).isEqualTo(1);
+        assertThat(cache.getStats().getEntries()).isZero();
+    }
+
+    @Test
+    void shouldCacheNothingWhenDisabled() throws IOException {
+        // Given
+        AvatarCache cache = new AvatarCache(0, 1024);
+
+        // When & Then
+        assertThat(cache.load("a.png", file("a.png", 10))).isEmpty();
+        assertThat(cache.getStats().getEntries()).isZero();
+    }
+
+    // ==================== INVALIDATION TESTS ====================
+
+    @Test
+    void shouldForgetEvictedAvatar() throws IOException {
+        // Given
+        AvatarCache cache = new AvatarCache(1024, 256);
+        cache.load("a.png", file("a.png", 100));
+
+        // When
+        cache.evict("a.png");
+        cache.evict(null);
+
+        // Then
+        assertThat(cache.get("a.png")).isEmpty();
+        assertThat(cache.getStats().getBytes()).isZero();
+        assertThat(cache.getStats().getInvalidations()).isEqualTo(1);
+    }
+
+    // ==================== HELPERS ====================
+
+    private Path file(String name, int size) throws IOException {
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) (name.charAt(0) + i);
+        }
+        return Files.write(tempDir.resolve(name), content);
+    }
+
+    private byte[] bytes(ByteBuffer buffer) {
+        byte[] content = new byte[buffer.remaining()];
+        buffer.duplicate().get(content);
+        return content;
+    }
+}
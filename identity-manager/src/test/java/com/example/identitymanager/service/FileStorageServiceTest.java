@@ -5,11 +5,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -71,6 +73,21 @@ class FileStorageServiceTest {
         assertThat(filename1).isNotEqualTo(filename2);
     }
 
+    @Test
+    void shouldPrefixStoredFilenameWithOwnerId() {
+        // Given
+        MockMultipartFile file = new MockMultipartFile("file", "test.jpg", "image/jpeg", "content".getBytes());
+
+        // When
+        String storedFilename = fileStorageService.storeFile(file, 12L);
+
+        // Then
+        assertThat(storedFilename).startsWith("12-");
+        assertThat(FileStorageService.isOwnedBy(storedFilename, 12L)).isTrue();
+        assertThat(FileStorageService.isOwnedBy(storedFilename, 1L)).isFalse();
+        assertThat(fileStorageService.findFile(storedFilename)).isPresent();
+    }
+
     @Test
     void shouldStoreFileWithoutExtension() {
         // Given
@@ -106,6 +123,20 @@ class FileStorageServiceTest {
                 .hasMessageContaining("Cannot store empty file");
     }
 
+    @Test
+    void shouldStoreFileWithExtensionOfDetectedImageType() {
+        // Given - PNG bytes uploaded under a .jpg name
+        byte[] png = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 0};
+        MockMultipartFile file = new MockMultipartFile("file", "photo.jpg", "image/jpeg", png);
+
+        // When
+        String storedFilename = fileStorageService.storeFile(file);
+
+        // Then
+        assertThat(storedFilename).endsWith(".png");
+        assertThat(fileStorageService.getContentType(storedFilename)).isEqualTo(MediaType.IMAGE_PNG);
+    }
+
     // ==================== LOAD FILE TESTS ====================
 
     @Test
@@ -135,6 +166,38 @@ class FileStorageServiceTest {
                 .hasMessageContaining("File not found");
     }
 
+    @Test
+    void shouldFindStoredFile() throws IOException {
+        // Given
+        Files.write(tempDir.resolve("abc.png"), "content".getBytes());
+
+        // When
+        Optional<Path> file = fileStorageService.findFile("abc.png");
+
+        // Then
+        assertThat(file).contains(tempDir.resolve("abc.png"));
+    }
+
+    @Test
+    void shouldNotFindMissingOrOutsideFiles() throws IOException {
+        // Given
+        Files.write(tempDir.getParent().resolve("secret.txt"), "secret".getBytes());
+
+        // When & Then
+        assertThat(fileStorageService.findFile("missing.png")).isEmpty();
+        assertThat(fileStorageService.findFile("../secret.txt")).isEmpty();
+        assertThat(fileStorageService.findFile("")).isEmpty();
+    }
+
+    @Test
+    void shouldOnlyReportImageContentTypes() {
+        assertThat(fileStorageService.getContentType("a.jpg")).isEqualTo(MediaType.IMAGE_JPEG);
+        assertThat(fileStorageService.getContentType("a.webp")).isEqualTo(MediaType.parseMediaType("image/webp"));
+        assertThat(fileStorageService.getContentType("a.html")).isEqualTo(MediaType.APPLICATION_OCTET_STREAM);
+        assertThat(fileStorageService.getContentType("a.svg")).isEqualTo(MediaType.APPLICATION_OCTET_STREAM);
+        assertThat(fileStorageService.getContentType("noextension")).isEqualTo(MediaType.APPLICATION_OCTET_STREAM);
+    }
+
     // ==================== DELETE FILE TESTS ====================
 
     @Test
@@ -0,0 +1,187 @@
+package com.example.identitymanager.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileStreamingServiceTest {
+
+    private static final byte[] CONTENT = "0123456789".getBytes();
+
+    @TempDir
+    Path tempDir;
+
+    private Path file;
+    private final FileStreamingService zeroCopy = new FileStreamingService(true);
+    private final FileStreamingService heapCopy = new FileStreamingService(false);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.write(tempDir.resolve("abc.png"), CONTENT);
+    }
+
+    // ==================== FULL RESPONSE TESTS ====================
+
+    @Test
+    void shouldSendWholeFileWithETagAndLength() throws IOException {
+        // Given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        zeroCopy.send(file, "abc.png", new MockHttpServletRequest("GET", "/"), response);
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(CONTENT);
+        assertThat(response.getContentLengthLong()).isEqualTo(10);
+        assertThat(response.getHeader("ETag")).isEqualTo("\"abc.png\"");
+        assertThat(response.getHeader("Accept-Ranges")).isEqualTo("bytes");
+    }
+
+    @Test
+    void shouldSendSameBytesWithHeapCopy() throws IOException {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("Range", "bytes=3-");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        heapCopy.send(file, "abc.png", request, response);
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("3456789");
+    }
+
+    @Test
+    void shouldSendHeadersOnlyForHead() throws IOException {
+        // Given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        zeroCopy.send(file, "abc.png", new MockHttpServletRequest("HEAD", "/"), response);
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentLengthLong()).isEqualTo(10);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void shouldHandFileToConnectorWhenSendfileIsSupported() throws IOException {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.setAttribute(FileStreamingService.SENDFILE_SUPPORTED, Boolean.TRUE);
+        request.addHeader("Range", "bytes=2-5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        zeroCopy.send(file, "abc.png", request, response);
+
+        // Then - nothing written by us, the connector sends bytes [2, 6)
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThat(response.getContentLengthLong()).isEqualTo(4);
+        assertThat(request.getAttribute(FileStreamingService.SENDFILE_FILENAME)).isEqualTo(file.toAbsolutePath().toString());
+        assertThat(request.getAttribute(FileStreamingService.SENDFILE_START)).isEqualTo(2L);
+        assertThat(request.getAttribute(FileStreamingService.SENDFILE_END)).isEqualTo(6L);
+    }
+
+    @Test
+    void shouldSendRangeOfInMemoryContent() throws IOException {
+        // Given
+        ByteBuffer content = ByteBuffer.allocateDirect(CONTENT.length).put(CONTENT).flip().asReadOnlyBuffer();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("Range", "bytes=1-3");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        zeroCopy.send(content, "abc.png", request, response);
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 1-3/10");
+        assertThat(response.getContentAsString()).isEqualTo("123");
+        assertThat(content.position()).isZero();
+    }
+
+    // ==================== CONDITIONAL REQUEST TESTS ====================
+
+    @Test
+    void shouldReturn304WhenETagMatches() throws IOException {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("If-None-Match", "\"other\", W/\"abc.png\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        zeroCopy.send(file, "abc.png", request, response);
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    // ==================== RANGE TESTS ====================
+
+    @Test
+    void shouldSendSuffixRange() throws IOException {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("Range", "bytes=-3");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        zeroCopy.send(file, "abc.png", request, response);
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 7-9/10");
+        assertThat(response.getContentAsString()).isEqualTo("789");
+    }
+
+    @Test
+    void shouldReturn416ForRangePastEnd() throws IOException {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("Range", "bytes=10-20");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        zeroCopy.send(file, "abc.png", request, response);
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes */10");
+    }
+
+    @Test
+    void shouldIgnoreRangeWhenIfRangeDoesNotMatchOrRangeIsMalformed() throws IOException {
+        // Given
+        MockHttpServletRequest stale = new MockHttpServletRequest("GET", "/");
+        stale.addHeader("Range", "bytes=2-5");
+        stale.addHeader("If-Range", "\"old.png\"");
+        MockHttpServletRequest malformed = new MockHttpServletRequest("GET", "/");
+        malformed.addHeader("Range", "bytes=five-six");
+        MockHttpServletResponse staleResponse = new MockHttpServletResponse();
+        MockHttpServletResponse malformedResponse = new MockHttpServletResponse();
+
+        // When
+        zeroCopy.send(file, "abc.png", stale, staleResponse);
+        zeroCopy.send(file, "abc.png", malformed, malformedResponse);
+
+        // Then
+        assertThat(staleResponse.getStatus()).isEqualTo(200);
+        assertThat(staleResponse.getContentAsByteArray()).isEqualTo(CONTENT);
+        assertThat(malformedResponse.getStatus()).isEqualTo(200);
+        assertThat(malformedResponse.getContentAsByteArray()).isEqualTo(CONTENT);
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.identitymanager.service;
+
+import com.example.identitymanager.dto.ImportJobDTO;
+import com.example.identitymanager.dto.ImportResult;
+import com.example.identitymanager.exception.ResourceNotFoundException;
+import com.example.identitymanager.model.ImportJob;
+import com.example.identitymanager.repository.ImportJobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImportJobServiceTest {
+
+    private static final String CSV = "email,firstName,lastName,phone,isPrivacyEnabled\n" +
+            "one@example.com,One,User,,false\n";
+
+    @Mock
+    private ImportJobRepository jobRepository;
+
+    @Mock
+    private UserImportService userImportService;
+
+    @TempDir
+    Path spoolDir;
+
+    private ImportJobService importJobService;
+
+    // In-memory stand-in for the import_jobs table
+    private final Map<String, ImportJob> jobs = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        // Run jobs on the calling thread so the tests are deterministic
+        importJobService = new ImportJobService(jobRepository, userImportService, spoolDir.toString(),
+                Duration.ofHours(24), Runnable::run);
+
+        lenient().when(jobRepository.save(any(ImportJob.class))).thenAnswer(invocation -> {
+            ImportJob job = invocation.getArgument(0);
+            jobs.put(job.getId(), job);
+            return job;
+        });
+        lenient().when(jobRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(jobs.get(invocation.<String>getArgument(0))));
+    }
+
+    // ==================== SUBMIT TESTS ====================
+
+    @Test
+    void shouldRunSubmittedJobToCompletionAndDeleteSpoolFile() throws Exception {
+        // Given
+        when(userImportService.importCsv(any(), eq(UserImportService.Mode.UPSERT), any(), eq(0L), any()))
+                .thenReturn(new ImportResult(1, 0, 0));
+
+        // When
+        ImportJobDTO submitted = importJobService.submit(csvFile(), UserImportService.Mode.UPSERT);
+
+        // Then
+        ImportJob job = jobs.get(submitted.getId());
+        assertThat(job.getStatus()).isEqualTo(ImportJob.JobStatus.COMPLETED);
+        assertThat(job.getInserted()).isEqualTo(1);
+        assertThat(job.getStartedAt()).isNotNull();
+        assertThat(job.getFinishedAt()).isNotNull();
+        assertThat(Files.exists(Path.of(job.getFilePath()))).isFalse();
+    }
+
+    @Test
+    void shouldSaveCheckpointWhenChunkIsWritten() throws Exception {
+        // Given - the import writes one chunk and then fails
+        when(userImportService.importCsv(any(), any(), any(), anyLong(), any())).thenAnswer(invocation -> {
+            ImportResult result = invocation.getArgument(2);
+            result.setRowsRead(500);
+            result.setInserted(499);
+            result.addError(3, "Invalid email: 'bad'");
+            invocation.<ImportListener>getArgument(4).onChunkWritten(501, result);
+            throw new IllegalStateException("Connection lost");
+        });
+
+        // When
+        ImportJobDTO submitted = importJobService.submit(csvFile(), UserImportService.Mode.INSERT);
+
+        // Then - progress up to the checkpoint survives and the spool file is kept for resume
+        ImportJob job = jobs.get(submitted.getId());
+        assertThat(job.getStatus()).isEqualTo(ImportJob.JobStatus.FAILED);
+        assertThat(job.getErrorMessage()).isEqualTo("Connection lost");
+        assertThat(job.getLastLine()).isEqualTo(501);
+        assertThat(job.getInserted()).isEqualTo(499);
+        assertThat(job.getFailed()).isEqualTo(1);
+        assertThat(job.getErrorReport()).isEqualTo("Line 3: Invalid email: 'bad'");
+        assertThat(job.isResumable()).isTrue();
+        assertThat(Files.exists(Path.of(job.getFilePath()))).isTrue();
+    }
+
+    @Test
+    void shouldMarkJobCancelledWhenImportStops() throws Exception {
+        // Given
+        when(userImportService.importCsv(any(), any(), any(), anyLong(), any()))
+                .thenThrow(new CancellationException("Import cancelled after line 501"));
+
+        // When
+        ImportJobDTO submitted = importJobService.submit(csvFile(), UserImportService.Mode.INSERT);
+
+        // Then
+        assertThat(jobs.get(submitted.getId()).getStatus()).isEqualTo(ImportJob.JobStatus.CANCELLED);
+        assertThat(importJobService.getJob(submitted.getId()).isResumable()).isTrue();
+    }
+
+    // ==================== RESUME TESTS ====================
+
+    @Test
+    void shouldResumeFromCheckpointWithPreviousCounts() throws Exception {
+        // Given
+        ImportJob job = storedJob(ImportJob.JobStatus.FAILED);
+        job.setLastLine(501);
+        job.setRowsRead(500);
+        job.setInserted(498);
+        job.setFailed(2);
+        job.setErrorReport("Line 3: Invalid email: 'bad'\nLine 7: Invalid email: 'worse'");
+
+        when(userImportService.importCsv(any(), eq(UserImportService.Mode.INSERT), any(), eq(501L), any()))
+                .thenAnswer(invocation -> invocation.getArgument(2));
+
+        // When
+        importJobService.resume(job.getId());
+
+        // Then
+        verify(userImportService).importCsv(any(), eq(UserImportService.Mode.INSERT),
+                argThat(result -> result.getInserted() == 498
+                        && result.getRowsRead() == 500
+                        && result.getFailed() == 2
+                        && result.getErrors().size() == 2),
+                eq(501L), any());
+        assertThat(job.getStatus()).isEqualTo(ImportJob.JobStatus.COMPLETED);
+        assertThat(job.getErrorMessage()).isNull();
+    }
+
+    @Test
+    void shouldRejectResumeOfCompletedJob() {
+        // Given
+        ImportJob job = storedJob(ImportJob.JobStatus.COMPLETED);
+
+        // When & Then
+        assertThatThrownBy(() -> importJobService.resume(job.getId()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Only failed or cancelled import jobs can be resumed");
+
+        verifyNoInteractions(userImportService);
+    }
+
+    // ==================== CANCEL / LIFECYCLE TESTS ====================
+
+    @Test
+    void shouldCancelQueuedJobImmediately() {
+        // Given
+        ImportJob job = storedJob(ImportJob.JobStatus.QUEUED);
+
+        // When
+        ImportJobDTO cancelled = importJobService.cancel(job.getId());
+
+        // Then
+        assertThat(cancelled.getStatus()).isEqualTo("CANCELLED");
+        assertThat(cancelled.isResumable()).isTrue();
+    }
+
+    @Test
+    void shouldRejectCancelOfFinishedJob() {
+        // Given
+        ImportJob job = storedJob(ImportJob.JobStatus.COMPLETED);
+
+        // When & Then
+        assertThatThrownBy(() -> importJobService.cancel(job.getId()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // ==================== SPOOL CLEANUP TESTS ====================
+
+    @Test
+    void shouldExpireSpoolFilesOfLongFinishedJobsAndOrphans() throws IOException {
+        // Given
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(24);
+        ImportJob expired = storedJob(ImportJob.JobStatus.FAILED);
+        expired.setFinishedAt(cutoff.minusMinutes(1));
+        ImportJob recent = storedJob(ImportJob.JobStatus.CANCELLED);
+        recent.setFinishedAt(cutoff.plusMinutes(1));
+        ImportJob queued = storedJob(ImportJob.JobStatus.QUEUED);
+        // Left by an earlier run - its job row died with the in-memory database
+        Path orphan = Files.writeString(spoolDir.resolve("earlier-run.csv"), CSV);
+        Files.setLastModifiedTime(orphan, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+        Path fresh = Files.writeString(spoolDir.resolve("being-submitted.csv"), CSV);
+
+        // When
+        int deleted = importJobService.expireSpoolFiles(cutoff);
+
+        // Then
+        assertThat(deleted).isEqualTo(2);
+        assertThat(Files.exists(Path.of(expired.getFilePath()))).isFalse();
+        assertThat(Files.exists(orphan)).isFalse();
+        assertThat(Files.exists(Path.of(recent.getFilePath()))).isTrue();
+        assertThat(Files.exists(Path.of(queued.getFilePath()))).isTrue();
+        assertThat(Files.exists(fresh)).isTrue();
+    }
+
+    @Test
+    void shouldNotOfferResumeOnceSpoolFileIsGone() throws IOException {
+        // Given
+        ImportJob job = storedJob(ImportJob.JobStatus.FAILED);
+        Files.delete(Path.of(job.getFilePath()));
+
+        // When & Then
+        assertThat(importJobService.getJob(job.getId()).isResumable()).isFalse();
+        assertThatThrownBy(() -> importJobService.resume(job.getId()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("no longer exists");
+    }
+
+    @Test
+    void shouldThrowWhenJobNotFound() {
+        // When & Then
+        assertThatThrownBy(() -> importJobService.getJob("missing"))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("missing");
+    }
+
+    // ==================== HELPERS ====================
+
+    private MockMultipartFile csvFile() {
+        return new MockMultipartFile("file", "users.csv", "text/csv", CSV.getBytes());
+    }
+
+    private ImportJob storedJob(ImportJob.JobStatus status) {
+        ImportJob job = new ImportJob();
+        job.setId("job-" + jobs.size());
+        job.setMode(UserImportService.Mode.INSERT.name());
+        job.setStatus(status);
+        job.setOriginalFilename("users.csv");
+        try {
+            job.setFilePath(Files.writeString(spoolDir.resolve(job.getId() + ".csv"), CSV).toString());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        jobs.put(job.getId(), job);
+        return job;
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.identitymanager.service;
+
+import com.example.identitymanager.dto.SupportTicketDTO;
+import com.example.identitymanager.exception.ResourceNotFoundException;
+import com.example.identitymanager.model.SupportTicket;
+import com.example.identitymanager.model.User;
+import com.example.identitymanager.repository.JdbcTicketDao;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Guards the ticket listings against N+1 regressions by counting JDBC statements.
+// Hibernate statistics see only JPA statements; StatementCounter also sees JdbcTemplate ones.
+@DataJpaTest
+@Import({SupportTicketService.class, JdbcTicketDao.class, TicketSearchIndex.class,
+        SupportTicketServiceQueryCountTest.StatementCounter.class})
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class SupportTicketServiceQueryCountTest {
+
+    private static final int USERS = 3;
+    private static final int TICKETS_PER_USER = 4;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private SupportTicketService ticketService;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    private Statistics statistics;
+    private User firstUser;
+    private User userWithoutTickets;
+
+    @BeforeEach
+    void setUp() {
+        for (int u = 0; u < USERS; u++) {
+            User user = persistUser("user" + u + "@example.com");
+            if (u == 0) {
+                firstUser = user;
+            }
+            for (int t = 0; t < TICKETS_PER_USER; t++) {
+                SupportTicket ticket = new SupportTicket();
+                ticket.setSubject("Issue " + u + "-" + t);
+                ticket.setDescription("Description");
+                ticket.setStatus(SupportTicket.TicketStatus.OPEN);
+                ticket.setUser(user);
+                entityManager.persist(ticket);
+            }
+        }
+        userWithoutTickets = persistUser("quiet@example.com");
+
+        // Start from an empty persistence context so nothing is served from the first-level cache
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statementCounter.reset();
+    }
+
+    // ==================== LISTING QUERY COUNT TESTS ====================
+
+    @Test
+    void shouldListAllTicketsInSingleQuery() {
+        // When
+        List<SupportTicketDTO> result = ticketService.getAllTickets();
+
+        // Then
+        assertThat(result).hasSize(USERS * TICKETS_PER_USER);
+        assertThat(result).allSatisfy(dto -> assertThat(dto.getUserEmail()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void shouldListTicketsByUserIdInSingleQuery() {
+        // When
+        List<SupportTicketDTO> result = ticketService.getTicketsByUserId(firstUser.getId());
+
+        // Then
+        assertThat(result).hasSize(TICKETS_PER_USER);
+        assertThat(result).allSatisfy(dto -> assertThat(dto.getUserId()).isEqualTo(firstUser.getId()));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldListTicketsByUserEmailInSingleQuery() {
+        // When
+        List<SupportTicketDTO> result = ticketService.getTicketsByUserEmail("user0@example.com");
+
+        // Then
+        assertThat(result).hasSize(TICKETS_PER_USER);
+        assertThat(result).allSatisfy(dto -> assertThat(dto.getUserEmail()).isEqualTo("user0@example.com"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statementCounter.get()).isEqualTo(1);
+    }
+
+    // ==================== PRINCIPAL-SCOPED WRITE QUERY COUNT TESTS ====================
+
+    @Test
+    void shouldCreateTicketForCurrentUserInSingleStatement() {
+        // When
+        SupportTicketDTO created = ticketService.createTicketForCurrentUser("user1@example.com", "Outage", "VPN down");
+
+        // Then
+        assertThat(created.getId()).isNotNull();
+        assertThat(created.getUserEmail()).isEqualTo("user1@example.com");
+        assertThat(statementCounter.get()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void shouldCreateTicketByUserIdInSingleStatement() {
+        // When
+        SupportTicketDTO created = ticketService.createTicket(firstUser.getId(), "Outage", "VPN down");
+
+        // Then
+        assertThat(created.getUserId()).isEqualTo(firstUser.getId());
+        assertThat(created.getUserEmail()).isEqualTo("user0@example.com");
+        assertThat(statementCounter.get()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void shouldResolveSearchOwnerWithoutLoadingUser() {
+        // When
+        ticketService.searchArchivedTickets("issue", "user0@example.com", 10);
+
+        // Then - id lookup + archive query, no User entity (or its roles) hydrated
+        assertThat(statementCounter.get()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+    @Test
+    void shouldStillRejectCreateForUnknownUser() {
+        // When & Then
+        assertThatThrownBy(() -> ticketService.createTicketForCurrentUser("nobody@example.com", "Lost", "Desc"))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(statementCounter.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCheckUserExistenceOnlyWhenListingIsEmpty() {
+        // When
+        List<SupportTicketDTO> result = ticketService.getTicketsByUserId(userWithoutTickets.getId());
+
+        // Then
+        assertThat(result).isEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldStillThrowWhenUserDoesNotExist() {
+        // When & Then
+        assertThatThrownBy(() -> ticketService.getTicketsByUserEmail("nobody@example.com"))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("email");
+    }
+
+    private User persistUser(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("password");
+        user.setFirstName("Test");
+        user.setLastName("User");
+        user.setIsPrivacyEnabled(false);
+        return entityManager.persist(user);
+    }
+
+    // Counts every JDBC statement prepared on the test DataSource, whichever API issued it
+    static class StatementCounter implements BeanPostProcessor {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        int get() {
+            return count.get();
+        }
+
+        void reset() {
+            count.set(0);
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{DataSource.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(dataSource, method, args);
+                        return result instanceof Connection connection ? countingConnection(connection) : result;
+                    });
+        }
+
+        private Connection countingConnection(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("prepare") || method.getName().equals("createStatement")) {
+                            count.incrementAndGet();
+                        }
+                        return invoke(connection, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
@@ -1,27 +1,40 @@
 package com.example.identitymanager.service;
 
+import com.example.identitymanager.dto.BulkStatusUpdateResult;
 import com.example.identitymanager.dto.SupportTicketDTO;
+import com.example.identitymanager.dto.SupportTicketSummaryDTO;
+import com.example.identitymanager.dto.TicketFilter;
+import com.example.identitymanager.dto.TicketPageDTO;
+import com.example.identitymanager.dto.UserTicketCountsDTO;
 import com.example.identitymanager.exception.ResourceNotFoundException;
 import com.example.identitymanager.model.SupportTicket;
 import com.example.identitymanager.model.User;
 import com.example.identitymanager.repository.SupportTicketRepository;
+import com.example.identitymanager.repository.TicketDao;
 import com.example.identitymanager.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,11 +46,21 @@ class SupportTicketServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private TicketDao ticketDao;
+
+    @Mock
+    private TicketSearchIndex searchIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private SupportTicketService ticketService;
 
     private User testUser;
     private SupportTicket testTicket;
+    private SupportTicketDTO testTicketDTO;
 
     @BeforeEach
     void setUp() {
@@ -54,6 +77,9 @@ class SupportTicketServiceTest {
         testTicket.setStatus(SupportTicket.TicketStatus.OPEN);
         testTicket.setUser(testUser);
         testTicket.setCreatedAt(LocalDateTime.now());
+
+        testTicketDTO = new SupportTicketDTO(1L, "Test Issue", "Test Description", "OPEN",
+                1L, "user@example.com", testTicket.getCreatedAt());
     }
 
     // ==================== GET ALL TICKETS TESTS ====================
@@ -61,7 +87,7 @@ class SupportTicketServiceTest {
     @Test
     void shouldGetAllTickets() {
         // Given
-        when(ticketRepository.findAll()).thenReturn(Arrays.asList(testTicket));
+        when(ticketRepository.findAllTicketDTOs()).thenReturn(Arrays.asList(testTicketDTO));
 
         // When
         List<SupportTicketDTO> result = ticketService.getAllTickets();
@@ -69,34 +95,30 @@ class SupportTicketServiceTest {
         // Then
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getSubject()).isEqualTo("Test Issue");
-        verify(ticketRepository).findAll();
+        verify(ticketRepository).findAllTicketDTOs();
+        verify(ticketRepository, never()).findAll();
     }
 
     @Test
     void shouldReturnEmptyListWhenNoTickets() {
         // Given
-        when(ticketRepository.findAll()).thenReturn(Collections.emptyList());
+        when(ticketRepository.findAllTicketDTOs()).thenReturn(Collections.emptyList());
 
         // When
         List<SupportTicketDTO> result = ticketService.getAllTickets();
 
         // Then
         assertThat(result).isEmpty();
-        verify(ticketRepository).findAll();
+        verify(ticketRepository).findAllTicketDTOs();
     }
 
     @Test
     void shouldGetMultipleTickets() {
         // Given
-        SupportTicket ticket2 = new SupportTicket();
-        ticket2.setId(2L);
-        ticket2.setSubject("Second Issue");
-        ticket2.setDescription("Second Description");
-        ticket2.setStatus(SupportTicket.TicketStatus.IN_PROGRESS);
-        ticket2.setUser(testUser);
-        ticket2.setCreatedAt(LocalDateTime.now());
+        SupportTicketDTO ticket2 = new SupportTicketDTO(2L, "Second Issue", "Second Description",
+                "IN_PROGRESS", 1L, "user@example.com", LocalDateTime.now());
 
-        when(ticketRepository.findAll()).thenReturn(Arrays.asList(testTicket, ticket2));
+        when(ticketRepository.findAllTicketDTOs()).thenReturn(Arrays.asList(testTicketDTO, ticket2));
 
         // When
         List<SupportTicketDTO> result = ticketService.getAllTickets();
@@ -106,7 +128,7 @@ class SupportTicketServiceTest {
         assertThat(result.get(0).getSubject()).isEqualTo("Test Issue");
         assertThat(result.get(1).getSubject()).isEqualTo("Second Issue");
 
-        verify(ticketRepository).findAll();
+        verify(ticketRepository).findAllTicketDTOs();
     }
 
     // ==================== GET TICKET BY ID TESTS ====================
@@ -139,13 +161,39 @@ class SupportTicketServiceTest {
         verify(ticketRepository).findById(999L);
     }
 
+    @Test
+    void shouldFallBackToArchiveWhenTicketNotInHotTable() {
+        // Given
+        SupportTicketDTO archived = new SupportTicketDTO(7L, "Old Issue", "Old Description", "CLOSED",
+                1L, "user@example.com", LocalDateTime.now().minusYears(1));
+        when(ticketRepository.findById(7L)).thenReturn(Optional.empty());
+        when(ticketDao.findArchivedById(7L)).thenReturn(Optional.of(archived));
+
+        // When
+        SupportTicketDTO result = ticketService.getTicketById(7L);
+
+        // Then
+        assertThat(result).isSameAs(archived);
+    }
+
+    @Test
+    void shouldNotQueryArchiveWhenTicketIsInHotTable() {
+        // Given
+        when(ticketRepository.findById(1L)).thenReturn(Optional.of(testTicket));
+
+        // When
+        ticketService.getTicketById(1L);
+
+        // Then
+        verify(ticketDao, never()).findArchivedById(any());
+    }
+
     // ==================== GET TICKETS BY USER ID TESTS ====================
 
     @Test
     void shouldGetTicketsByUserId() {
         // Given
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(ticketRepository.findByUser(testUser)).thenReturn(Arrays.asList(testTicket));
+        when(ticketRepository.findTicketDTOsByUserId(1L)).thenReturn(Arrays.asList(testTicketDTO));
 
         // When
         List<SupportTicketDTO> result = ticketService.getTicketsByUserId(1L);
@@ -153,112 +201,266 @@ class SupportTicketServiceTest {
         // Then
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getUserId()).isEqualTo(1L);
-        verify(ticketRepository).findByUser(testUser);
+        verify(ticketRepository).findTicketDTOsByUserId(1L);
+        // Non-empty result proves the user exists - no extra lookup
+        verify(userRepository, never()).existsById(any());
     }
 
     @Test
     void shouldReturnEmptyListWhenUserHasNoTickets() {
         // Given
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(ticketRepository.findByUser(testUser)).thenReturn(Collections.emptyList());
+        when(ticketRepository.findTicketDTOsByUserId(1L)).thenReturn(Collections.emptyList());
+        when(userRepository.existsById(1L)).thenReturn(true);
 
         // When
         List<SupportTicketDTO> result = ticketService.getTicketsByUserId(1L);
 
         // Then
         assertThat(result).isEmpty();
-        verify(userRepository).findById(1L);
-        verify(ticketRepository).findByUser(testUser);
+        verify(userRepository).existsById(1L);
+        verify(ticketRepository).findTicketDTOsByUserId(1L);
     }
 
     @Test
     void shouldThrowExceptionWhenUserNotFoundForTickets() {
         // Given
-        when(userRepository.findById(999L)).thenReturn(Optional.empty());
+        when(ticketRepository.findTicketDTOsByUserId(999L)).thenReturn(Collections.emptyList());
+        when(userRepository.existsById(999L)).thenReturn(false);
 
         // When & Then
         assertThatThrownBy(() -> ticketService.getTicketsByUserId(999L))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("999");
 
-        verify(ticketRepository, never()).findByUser(any());
+        verify(userRepository).existsById(999L);
     }
 
-    // ==================== CREATE TICKET TESTS ====================
+    // ==================== TICKET PAGE (KEYSET) TESTS ====================
 
     @Test
-    void shouldCreateTicket() {
+    void shouldReturnNextCursorWhenMoreRowsExist() {
+        // Given - DAO returns limit + 1 rows
+        TicketFilter filter = new TicketFilter();
+        SupportTicketDTO second = new SupportTicketDTO(2L, "Second", "D", "OPEN", 1L, "user@example.com",
+                LocalDateTime.parse("2024-01-01T09:00:00"));
+        SupportTicketDTO third = new SupportTicketDTO(3L, "Third", "D", "OPEN", 1L, "user@example.com",
+                LocalDateTime.parse("2024-01-01T08:00:00"));
+        when(ticketDao.findTicketPage(filter, null, null, 3))
+                .thenReturn(Arrays.asList(testTicketDTO, second, third));
+
+        // When
+        TicketPageDTO<SupportTicketDTO> page = ticketService.getTicketPage(filter, null, 2);
+
+        // Then
+        assertThat(page.getItems()).extracting(SupportTicketDTO::getId).containsExactly(1L, 2L);
+        assertThat(page.getNextCursor()).isNotNull();
+    }
+
+    @Test
+    void shouldSeekFromDecodedCursorPosition() {
+        // Given - cursor produced by a previous page ending at ticket 2
+        TicketFilter filter = new TicketFilter();
+        LocalDateTime lastCreatedAt = LocalDateTime.parse("2024-01-01T09:00:00.123456");
+        SupportTicketDTO last = new SupportTicketDTO(2L, "Second", "D", "OPEN", 1L, "user@example.com", lastCreatedAt);
+        when(ticketDao.findTicketPage(filter, null, null, 2))
+                .thenReturn(Arrays.asList(last, testTicketDTO));
+        String cursor = ticketService.getTicketPage(filter, null, 1).getNextCursor();
+        when(ticketDao.findTicketPage(filter, lastCreatedAt, 2L, 2)).thenReturn(Collections.emptyList());
+
+        // When
+        TicketPageDTO<SupportTicketDTO> page = ticketService.getTicketPage(filter, cursor, 1);
+
+        // Then
+        assertThat(page.getItems()).isEmpty();
+        assertThat(page.getNextCursor()).isNull();
+        verify(ticketDao).findTicketPage(filter, lastCreatedAt, 2L, 2);
+    }
+
+    @Test
+    void shouldPageSummariesWithTheSameCursorAsFullRows() {
         // Given
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(ticketRepository.save(any(SupportTicket.class))).thenReturn(testTicket);
+        TicketFilter filter = new TicketFilter();
+        LocalDateTime lastCreatedAt = LocalDateTime.parse("2024-01-01T09:00:00");
+        SupportTicketSummaryDTO first = new SupportTicketSummaryDTO(2L, "Second", "OPEN", 1L, "user@example.com",
+                lastCreatedAt);
+        SupportTicketSummaryDTO extra = new SupportTicketSummaryDTO(1L, "First", "OPEN", 1L, "user@example.com",
+                lastCreatedAt.minusHours(1));
+        when(ticketDao.findTicketSummaryPage(filter, null, null, 2)).thenReturn(Arrays.asList(first, extra));
+        SupportTicketDTO full = new SupportTicketDTO(2L, "Second", "D", "OPEN", 1L, "user@example.com", lastCreatedAt);
+        when(ticketDao.findTicketPage(filter, null, null, 2)).thenReturn(Arrays.asList(full, testTicketDTO));
 
         // When
-        SupportTicketDTO result = ticketService.createTicket(1L, "New Issue", "Description");
+        TicketPageDTO<SupportTicketSummaryDTO> page = ticketService.getTicketSummaryPage(filter, null, 1);
+
+        // Then - same rows and the same cursor as the full view, without descriptions
+        assertThat(page.getItems()).containsExactly(first);
+        assertThat(page.getNextCursor()).isEqualTo(ticketService.getTicketPage(filter, null, 1).getNextCursor());
+    }
+
+    @Test
+    void shouldCheckUserOnlyWhenSummaryListIsEmpty() {
+        // Given
+        when(ticketRepository.findTicketSummariesByUserEmail("unknown@example.com")).thenReturn(List.of());
+        when(userRepository.existsByEmail("unknown@example.com")).thenReturn(false);
+
+        // When & Then
+        assertThatThrownBy(() -> ticketService.getTicketSummariesByUserEmail("unknown@example.com"))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verify(ticketRepository, never()).findTicketDTOsByUserEmail(any());
+    }
+
+    @Test
+    void shouldRejectInvalidLimitCursorAndRange() {
+        TicketFilter range = new TicketFilter();
+        range.setCreatedFrom(LocalDateTime.parse("2024-02-01T00:00:00"));
+        range.setCreatedTo(LocalDateTime.parse("2024-01-01T00:00:00"));
+
+        // When & Then
+        assertThatThrownBy(() -> ticketService.getTicketPage(new TicketFilter(), null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ticketService.getTicketPage(new TicketFilter(), null,
+                SupportTicketService.MAX_PAGE_SIZE + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ticketService.getTicketPage(new TicketFilter(), "not-a-cursor!", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("cursor");
+        assertThatThrownBy(() -> ticketService.getTicketPage(range, null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verify(ticketDao, never()).findTicketPage(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void shouldThrowWhenFilteredUserDoesNotExist() {
+        // Given
+        TicketFilter filter = new TicketFilter();
+        filter.setUserId(999L);
+        when(ticketDao.findTicketPage(eq(filter), isNull(), isNull(), anyInt())).thenReturn(Collections.emptyList());
+        when(userRepository.existsById(999L)).thenReturn(false);
+
+        // When & Then
+        assertThatThrownBy(() -> ticketService.getTicketPage(filter, null, 10))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("999");
+    }
+
+    // ==================== FULL-TEXT SEARCH TESTS ====================
+
+    @Test
+    void shouldReturnSearchHitsInRelevanceOrder() {
+        // Given - index ranks 2 above 1, the DTO query returns them in id order
+        SupportTicketDTO second = new SupportTicketDTO(2L, "Login fails", "D", "OPEN", 1L, "user@example.com",
+                LocalDateTime.now());
+        when(searchIndex.search("login", null, null, 10)).thenReturn(List.of(2L, 1L));
+        when(ticketRepository.findTicketDTOsByIds(List.of(2L, 1L))).thenReturn(List.of(testTicketDTO, second));
+
+        // When
+        List<SupportTicketDTO> result = ticketService.searchTickets("login", null, null, 10);
 
         // Then
-        assertThat(result).isNotNull();
-        assertThat(result.getSubject()).isEqualTo("Test Issue");
-        assertThat(result.getUserId()).isEqualTo(1L);
-        verify(ticketRepository).save(any(SupportTicket.class));
+        assertThat(result).extracting(SupportTicketDTO::getId).containsExactly(2L, 1L);
+        verify(searchIndex, never()).removeAll(any());
+    }
+
+    @Test
+    void shouldScopeSearchToOwnerAndDropStaleHits() {
+        // Given - ticket 5 is still indexed but no longer in the database
+        when(userRepository.findIdByEmail("user@example.com")).thenReturn(Optional.of(1L));
+        when(searchIndex.search("issue", SupportTicket.TicketStatus.OPEN, 1L, 20)).thenReturn(List.of(5L, 1L));
+        when(ticketRepository.findTicketDTOsByIds(List.of(5L, 1L))).thenReturn(List.of(testTicketDTO));
+
+        // When
+        List<SupportTicketDTO> result = ticketService.searchTickets("issue", SupportTicket.TicketStatus.OPEN,
+                "user@example.com", 20);
+
+        // Then
+        assertThat(result).extracting(SupportTicketDTO::getId).containsExactly(1L);
+        verify(searchIndex).removeAll(List.of(5L));
     }
 
     @Test
-    void shouldSetStatusToOpenWhenCreatingTicket() {
+    void shouldRejectBlankSearchQueryAndBadLimit() {
+        // When & Then
+        assertThatThrownBy(() -> ticketService.searchTickets(" ", null, null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ticketService.searchTickets("login", null, null,
+                SupportTicketService.MAX_SEARCH_RESULTS + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(searchIndex);
+    }
+
+    @Test
+    void shouldPublishEventsForIndexOnCreateAndDelete() {
         // Given
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(ticketRepository.save(any(SupportTicket.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(ticketDao.insertOpenTicketForUserId(1L, "Test Issue", "Test Description"))
+                .thenReturn(Optional.of(testTicketDTO));
+        when(ticketRepository.findById(1L)).thenReturn(Optional.of(testTicket));
 
         // When
-        ticketService.createTicket(1L, "Subject", "Description");
+        ticketService.createTicket(1L, "Test Issue", "Test Description");
+        ticketService.deleteTicket(1L);
 
         // Then
-        verify(ticketRepository).save(argThat(ticket ->
-                ticket.getStatus() == SupportTicket.TicketStatus.OPEN
-        ));
+        ArgumentCaptor<TicketChangedEvent> events = ArgumentCaptor.forClass(TicketChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertThat(events.getAllValues()).extracting(TicketChangedEvent::getType)
+                .containsExactly(TicketChangedEvent.Type.CREATED, TicketChangedEvent.Type.DELETED);
     }
 
+    // ==================== CREATE TICKET TESTS ====================
+
     @Test
-    void shouldSetCorrectSubjectAndDescriptionWhenCreating() {
+    void shouldCreateTicket() {
         // Given
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(ticketRepository.save(any(SupportTicket.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(ticketDao.insertOpenTicketForUserId(1L, "New Issue", "Description")).thenReturn(Optional.of(testTicketDTO));
 
         // When
-        ticketService.createTicket(1L, "My Subject", "My Description");
+        SupportTicketDTO result = ticketService.createTicket(1L, "New Issue", "Description");
 
         // Then
-        verify(ticketRepository).save(argThat(ticket ->
-                "My Subject".equals(ticket.getSubject()) &&
-                        "My Description".equals(ticket.getDescription())
-        ));
+        assertThat(result).isSameAs(testTicketDTO);
+        assertThat(result.getUserId()).isEqualTo(1L);
     }
 
     @Test
-    void shouldAssignUserToTicketWhenCreating() {
+    void shouldCreateTicketWithoutLoadingUser() {
         // Given
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(ticketRepository.save(any(SupportTicket.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(ticketDao.insertOpenTicketForUserId(1L, "Subject", "Description")).thenReturn(Optional.of(testTicketDTO));
+
+        // When
+        ticketService.createTicket(1L, "Subject", "Description");
+
+        // Then - the owner is resolved inside the INSERT, no entity round trips
+        verifyNoInteractions(userRepository);
+        verify(ticketRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldPublishCreatedEventWithInsertedTicket() {
+        // Given
+        when(ticketDao.insertOpenTicketForUserId(1L, "Subject", "Description")).thenReturn(Optional.of(testTicketDTO));
 
         // When
         ticketService.createTicket(1L, "Subject", "Description");
 
         // Then
-        verify(ticketRepository).save(argThat(ticket ->
-                ticket.getUser() != null && ticket.getUser().getId().equals(1L)
-        ));
+        ArgumentCaptor<TicketChangedEvent> event = ArgumentCaptor.forClass(TicketChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getType()).isEqualTo(TicketChangedEvent.Type.CREATED);
+        assertThat(event.getValue().getTicket()).isSameAs(testTicketDTO);
     }
 
     @Test
     void shouldThrowExceptionWhenCreatingTicketForNonExistentUser() {
         // Given
-        when(userRepository.findById(999L)).thenReturn(Optional.empty());
+        when(ticketDao.insertOpenTicketForUserId(999L, "Subject", "Description")).thenReturn(Optional.empty());
 
         // When & Then
         assertThatThrownBy(() -> ticketService.createTicket(999L, "Subject", "Description"))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("999");
 
-        verify(ticketRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     // ==================== UPDATE TICKET STATUS TESTS ====================
@@ -279,6 +481,7 @@ class SupportTicketServiceTest {
         assertThat(result.getStatus()).isEqualTo("RESOLVED");
         verify(ticketRepository).save(argThat(ticket ->
                 ticket.getStatus() == SupportTicket.TicketStatus.RESOLVED
+                        && ticket.getStatusChangedAt() != null
         ));
     }
 
@@ -312,6 +515,24 @@ class SupportTicketServiceTest {
         verify(ticketRepository).save(any(SupportTicket.class));
     }
 
+    @Test
+    void shouldNotPublishStatusChangeWhenStatusIsUnchanged() {
+        // Given
+        LocalDateTime changedAt = LocalDateTime.now().minusDays(3);
+        testTicket.setStatus(SupportTicket.TicketStatus.RESOLVED);
+        testTicket.setStatusChangedAt(changedAt);
+        when(ticketRepository.findById(1L)).thenReturn(Optional.of(testTicket));
+
+        // When
+        SupportTicketDTO result = ticketService.updateTicketStatus(1L, SupportTicket.TicketStatus.RESOLVED);
+
+        // Then
+        assertThat(result.getStatus()).isEqualTo("RESOLVED");
+        assertThat(testTicket.getStatusChangedAt()).isEqualTo(changedAt);
+        verify(ticketRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
     @Test
     void shouldThrowExceptionWhenUpdatingStatusOfNonExistentTicket() {
         // Given
@@ -325,6 +546,226 @@ class SupportTicketServiceTest {
         verify(ticketRepository, never()).save(any());
     }
 
+    // ==================== BULK STATUS UPDATE TESTS ====================
+
+    @Test
+    void shouldBulkUpdateByIdsAndReportCounts() {
+        // Given
+        List<Long> ids = List.of(1L, 2L, 3L);
+        TicketFilter filter = new TicketFilter();
+        when(ticketDao.updateStatus(filter, ids, SupportTicket.TicketStatus.CLOSED, 0)).thenReturn(List.of(
+                summary(1L, "a@test.com"), summary(3L, "b@test.com")));
+
+        // When
+        BulkStatusUpdateResult result = ticketService.bulkUpdateStatus(ids, filter, SupportTicket.TicketStatus.CLOSED);
+
+        // Then
+        assertThat(result.getStatus()).isEqualTo("CLOSED");
+        assertThat(result.getRequested()).isEqualTo(3);
+        assertThat(result.getUpdated()).isEqualTo(2);
+        ArgumentCaptor<TicketChangedEvent> event = ArgumentCaptor.forClass(TicketChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getType()).isEqualTo(TicketChangedEvent.Type.BULK_STATUS_CHANGED);
+        assertThat(event.getValue().getTicketIds()).containsExactly(1L, 3L);
+        assertThat(event.getValue().getTickets()).extracting(SupportTicketSummaryDTO::getUserEmail)
+                .containsExactly("a@test.com", "b@test.com");
+        assertThat(event.getValue().getStatus()).isEqualTo(SupportTicket.TicketStatus.CLOSED);
+    }
+
+    @Test
+    void shouldBulkUpdateByFilterWithoutEventWhenNothingChanged() {
+        // Given
+        TicketFilter filter = new TicketFilter();
+        filter.setStatus(SupportTicket.TicketStatus.RESOLVED);
+        when(ticketDao.updateStatus(filter, null, SupportTicket.TicketStatus.CLOSED, 0)).thenReturn(List.of());
+
+        // When
+        BulkStatusUpdateResult result = ticketService.bulkUpdateStatus(null, filter, SupportTicket.TicketStatus.CLOSED);
+
+        // Then
+        assertThat(result.getRequested()).isNull();
+        assertThat(result.getUpdated()).isZero();
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void shouldRejectBulkUpdateWithoutIdsOrSourceStatus() {
+        // When & Then
+        assertThatThrownBy(() -> ticketService.bulkUpdateStatus(List.of(), new TicketFilter(),
+                SupportTicket.TicketStatus.CLOSED))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("fromStatus");
+        verifyNoInteractions(ticketDao);
+    }
+
+    @Test
+    void shouldRejectTooManyIds() {
+        // Given
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= SupportTicketService.MAX_BULK_IDS + 1; id++) {
+            ids.add(id);
+        }
+
+        // When & Then
+        assertThatThrownBy(() -> ticketService.bulkUpdateStatus(ids, new TicketFilter(),
+                SupportTicket.TicketStatus.CLOSED))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(ticketDao);
+    }
+
+    @Test
+    void shouldRunTransitionBatchWithLimit() {
+        // Given
+        TicketFilter filter = new TicketFilter();
+        filter.setStatus(SupportTicket.TicketStatus.RESOLVED);
+        when(ticketDao.updateStatus(filter, null, SupportTicket.TicketStatus.CLOSED, 2)).thenReturn(List.of(
+                summary(4L, "a@test.com"), summary(5L, "a@test.com")));
+
+        // When
+        int closed = ticketService.transitionBatch(filter, SupportTicket.TicketStatus.CLOSED, 2);
+
+        // Then
+        assertThat(closed).isEqualTo(2);
+        verify(eventPublisher).publishEvent(any(TicketChangedEvent.class));
+    }
+
+    // ==================== ARCHIVE TESTS ====================
+
+    @Test
+    void shouldArchiveBatchAndPublishArchivedIds() {
+        // Given
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(90);
+        when(ticketDao.archiveClosedTickets(cutoff, 100)).thenReturn(List.of(3L, 4L));
+
+        // When
+        int archived = ticketService.archiveBatch(cutoff, 100);
+
+        // Then
+        assertThat(archived).isEqualTo(2);
+        ArgumentCaptor<TicketChangedEvent> event = ArgumentCaptor.forClass(TicketChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getType()).isEqualTo(TicketChangedEvent.Type.ARCHIVED);
+        assertThat(event.getValue().getTicketIds()).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void shouldNotPublishWhenNothingArchived() {
+        // Given
+        when(ticketDao.archiveClosedTickets(any(), anyInt())).thenReturn(List.of());
+
+        // When
+        int archived = ticketService.archiveBatch(LocalDateTime.now(), 100);
+
+        // Then
+        assertThat(archived).isZero();
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void shouldSearchArchiveWithTokenizedTermsScopedToOwner() {
+        // Given
+        when(userRepository.findIdByEmail("user@example.com")).thenReturn(Optional.of(1L));
+        when(ticketDao.searchArchive(List.of("vpn", "timeout"), 1L, 20)).thenReturn(List.of(testTicketDTO));
+
+        // When
+        List<SupportTicketDTO> result = ticketService.searchArchivedTickets("VPN timeout, vpn!", "user@example.com", 20);
+
+        // Then
+        assertThat(result).containsExactly(testTicketDTO);
+    }
+
+    @Test
+    void shouldRejectBlankArchiveQuery() {
+        // When & Then
+        assertThatThrownBy(() -> ticketService.searchArchivedTickets("  ", null, 20))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(ticketDao);
+    }
+
+    @Test
+    void shouldReturnNothingForArchiveQueryWithoutSearchableTerms() {
+        // When
+        List<SupportTicketDTO> result = ticketService.searchArchivedTickets("a ?", null, 20);
+
+        // Then
+        assertThat(result).isEmpty();
+        verifyNoInteractions(ticketDao);
+    }
+
+    // ==================== TICKET COUNTS TESTS ====================
+
+    @Test
+    void shouldReadTicketCountsForAPageFromTheCounters() {
+        // Given
+        UserTicketCountsDTO counts = new UserTicketCountsDTO(1L, 2, 1, 0, 3);
+        when(ticketDao.findTicketCounts(List.of(1L, 2L))).thenReturn(Map.of(1L, counts));
+
+        // When
+        Map<Long, UserTicketCountsDTO> result = ticketService.getTicketCounts(List.of(1L, 2L));
+
+        // Then
+        assertThat(result).containsExactly(Map.entry(1L, counts));
+        verifyNoInteractions(ticketRepository);
+    }
+
+    @Test
+    void shouldReturnZeroCountsWhenUserHasNoCounterRow() {
+        // Given
+        when(ticketDao.findTicketCounts(List.of(7L))).thenReturn(Map.of());
+
+        // When
+        UserTicketCountsDTO result = ticketService.getTicketCounts(7L);
+
+        // Then
+        assertThat(result).isEqualTo(new UserTicketCountsDTO(7L, 0, 0, 0, 0));
+        assertThat(result.getTotal()).isZero();
+    }
+
+    // ==================== CLAIM NEXT TICKET TESTS ====================
+
+    @Test
+    void shouldClaimNextTicketForAgentAndPublishStatusChange() {
+        // Given
+        testTicketDTO.setStatus("IN_PROGRESS");
+        when(userRepository.findIdByEmail("agent@example.com")).thenReturn(Optional.of(7L));
+        when(ticketDao.claimNextOpenTicket(7L)).thenReturn(Optional.of(testTicketDTO));
+
+        // When
+        Optional<SupportTicketDTO> result = ticketService.claimNextTicket("agent@example.com");
+
+        // Then
+        assertThat(result).contains(testTicketDTO);
+        ArgumentCaptor<TicketChangedEvent> event = ArgumentCaptor.forClass(TicketChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getType()).isEqualTo(TicketChangedEvent.Type.STATUS_CHANGED);
+        assertThat(event.getValue().getTicketId()).isEqualTo(1L);
+    }
+
+    @Test
+    void shouldReturnEmptyWithoutEventWhenQueueIsDrained() {
+        // Given
+        when(userRepository.findIdByEmail("user@example.com")).thenReturn(Optional.of(1L));
+        when(ticketDao.claimNextOpenTicket(1L)).thenReturn(Optional.empty());
+
+        // When
+        Optional<SupportTicketDTO> result = ticketService.claimNextTicket("user@example.com");
+
+        // Then
+        assertThat(result).isEmpty();
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void shouldThrowWhenClaimingAgentDoesNotExist() {
+        // Given
+        when(userRepository.findIdByEmail("ghost@example.com")).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThatThrownBy(() -> ticketService.claimNextTicket("ghost@example.com"))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verify(ticketDao, never()).claimNextOpenTicket(any());
+    }
+
     // ==================== DTO CONVERSION TESTS ====================
 
     @Test
@@ -366,8 +807,8 @@ class SupportTicketServiceTest {
     @Test
     void shouldGetTicketsByUserEmail() {
         // Given
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
-        when(ticketRepository.findByUser(testUser)).thenReturn(Arrays.asList(testTicket));
+        when(ticketRepository.findTicketDTOsByUserEmail("test@example.com"))
+                .thenReturn(Arrays.asList(testTicketDTO));
 
         // When
         List<SupportTicketDTO> result = ticketService.getTicketsByUserEmail("test@example.com");
@@ -375,44 +816,47 @@ class SupportTicketServiceTest {
         // Then
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getSubject()).isEqualTo("Test Issue");
-        verify(userRepository).findByEmail("test@example.com");
-        verify(ticketRepository).findByUser(testUser);
+        verify(ticketRepository).findTicketDTOsByUserEmail("test@example.com");
+        verify(userRepository, never()).findByEmail(any());
+        verify(userRepository, never()).findIdByEmail(any());
     }
 
     @Test
     void shouldThrowExceptionWhenUserEmailNotFound() {
         // Given
-        when(userRepository.findByEmail("unknown@example.com")).thenReturn(Optional.empty());
+        when(ticketRepository.findTicketDTOsByUserEmail("unknown@example.com"))
+                .thenReturn(Collections.emptyList());
+        when(userRepository.existsByEmail("unknown@example.com")).thenReturn(false);
 
         // When & Then
         assertThatThrownBy(() -> ticketService.getTicketsByUserEmail("unknown@example.com"))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("email");
 
-        verify(ticketRepository, never()).findByUser(any());
+        verify(userRepository).existsByEmail("unknown@example.com");
     }
 
     @Test
     void shouldCreateTicketForCurrentUser() {
         // Given
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
-        when(ticketRepository.save(any(SupportTicket.class))).thenReturn(testTicket);
+        when(ticketDao.insertOpenTicketForUserEmail("test@example.com", "New Subject", "New Description"))
+                .thenReturn(Optional.of(testTicketDTO));
 
         // When
         SupportTicketDTO result = ticketService.createTicketForCurrentUser(
                 "test@example.com", "New Subject", "New Description");
 
         // Then
-        assertThat(result).isNotNull();
-        assertThat(result.getSubject()).isEqualTo("Test Issue");
-        verify(userRepository).findByEmail("test@example.com");
-        verify(ticketRepository).save(any(SupportTicket.class));
+        assertThat(result).isSameAs(testTicketDTO);
+        verify(eventPublisher).publishEvent(any(TicketChangedEvent.class));
+        verifyNoInteractions(userRepository);
     }
 
     @Test
     void shouldThrowExceptionWhenCreatingTicketForUnknownEmail() {
         // Given
-        when(userRepository.findByEmail("unknown@example.com")).thenReturn(Optional.empty());
+        when(ticketDao.insertOpenTicketForUserEmail("unknown@example.com", "Subject", "Description"))
+                .thenReturn(Optional.empty());
 
         // When & Then
         assertThatThrownBy(() -> ticketService.createTicketForCurrentUser(
@@ -420,24 +864,10 @@ class SupportTicketServiceTest {
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("email");
 
-        verify(ticketRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
-    @Test
-    void shouldSetCorrectDataWhenCreatingTicketForCurrentUser() {
-        // Given
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
-        when(ticketRepository.save(any(SupportTicket.class))).thenAnswer(invocation -> invocation.getArgument(0));
-
-        // When
-        ticketService.createTicketForCurrentUser("test@example.com", "My Subject", "My Description");
-
-        // Then
-        verify(ticketRepository).save(argThat(ticket ->
-                "My Subject".equals(ticket.getSubject()) &&
-                        "My Description".equals(ticket.getDescription()) &&
-                        ticket.getStatus() == SupportTicket.TicketStatus.OPEN &&
-                        ticket.getUser().equals(testUser)
-        ));
+    private SupportTicketSummaryDTO summary(Long id, String ownerEmail) {
+        return new SupportTicketSummaryDTO(id, "Subject " + id, "CLOSED", 1L, ownerEmail, LocalDateTime.now());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,50 @@
+package com.example.identitymanager.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TicketArchiveJobTest {
+
+    @Mock
+    private SupportTicketService ticketService;
+
+    @Test
+    void shouldArchiveInBatchesUntilAShortBatch() {
+        // Given
+        TicketArchiveJob job = new TicketArchiveJob(ticketService, 90, 50);
+        LocalDateTime cutoff = LocalDateTime.parse("2024-03-01T00:00:00");
+        when(ticketService.archiveBatch(cutoff, 50)).thenReturn(50, 50, 50, 3);
+
+        // When
+        int archived = job.archiveClosedBefore(cutoff);
+
+        // Then
+        assertThat(archived).isEqualTo(153);
+        verify(ticketService, times(4)).archiveBatch(cutoff, 50);
+    }
+
+    @Test
+    void shouldUseConfiguredAgeAsCutoff() {
+        // Given
+        TicketArchiveJob job = new TicketArchiveJob(ticketService, 90, 50);
+        when(ticketService.archiveBatch(any(), eq(50))).thenReturn(0);
+        LocalDateTime before = LocalDateTime.now().minusDays(90);
+
+        // When
+        job.run();
+
+        // Then
+        verify(ticketService).archiveBatch(argThat(cutoff -> !cutoff.isBefore(before)
+                && cutoff.isBefore(LocalDateTime.now().minusDays(89))), eq(50));
+    }
+}
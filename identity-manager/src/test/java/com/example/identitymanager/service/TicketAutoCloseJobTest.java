@@ -0,0 +1,57 @@
+package com.example.identitymanager.service;
+
+import com.example.identitymanager.dto.TicketFilter;
+import com.example.identitymanager.model.SupportTicket;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TicketAutoCloseJobTest {
+
+    @Mock
+    private SupportTicketService ticketService;
+
+    @Test
+    void shouldCloseInBatchesUntilAShortBatch() {
+        // Given
+        TicketAutoCloseJob job = new TicketAutoCloseJob(ticketService, 14, 100);
+        LocalDateTime cutoff = LocalDateTime.parse("2024-06-01T00:00:00");
+        when(ticketService.transitionBatch(any(), eq(SupportTicket.TicketStatus.CLOSED), eq(100)))
+                .thenReturn(100, 100, 37);
+
+        // When
+        int closed = job.closeResolvedBefore(cutoff);
+
+        // Then
+        assertThat(closed).isEqualTo(237);
+        ArgumentCaptor<TicketFilter> filter = ArgumentCaptor.forClass(TicketFilter.class);
+        verify(ticketService, times(3)).transitionBatch(filter.capture(), eq(SupportTicket.TicketStatus.CLOSED), eq(100));
+        assertThat(filter.getValue().getStatus()).isEqualTo(SupportTicket.TicketStatus.RESOLVED);
+        assertThat(filter.getValue().getStatusChangedBefore()).isEqualTo(cutoff);
+        assertThat(filter.getValue().getCreatedTo()).isNull();
+    }
+
+    @Test
+    void shouldStopAfterOneEmptyBatch() {
+        // Given
+        TicketAutoCloseJob job = new TicketAutoCloseJob(ticketService, 14, 100);
+        when(ticketService.transitionBatch(any(), any(), anyInt())).thenReturn(0);
+
+        // When
+        int closed = job.closeResolvedBefore(LocalDateTime.now());
+
+        // Then
+        assertThat(closed).isZero();
+        verify(ticketService, times(1)).transitionBatch(any(), any(), anyInt());
+    }
+}
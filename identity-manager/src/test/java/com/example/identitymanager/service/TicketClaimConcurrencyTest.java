@@ -0,0 +1,162 @@
+package com.example.identitymanager.service;
+
+import com.example.identitymanager.dto.SupportTicketDTO;
+import com.example.identitymanager.repository.JdbcTicketDao;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Stress test for the claim queue - many agents drain it at once, each claim in its own transaction.
+// Not transactional itself: the agents must see each other's committed claims and row locks.
+@DataJpaTest
+@Import({SupportTicketService.class, JdbcTicketDao.class, TicketSearchIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TicketClaimConcurrencyTest {
+
+    private static final int AGENTS = 8;
+    private static final int TICKETS = 400;
+
+    @Autowired
+    private SupportTicketService ticketService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<String, Long> agentIds = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        Long ownerId = insertUser("owner@test.com");
+        for (int a = 0; a < AGENTS; a++) {
+            String email = "agent" + a + "@test.com";
+            agentIds.put(email, insertUser(email));
+        }
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < TICKETS; i++) {
+            rows.add(new Object[]{"Ticket " + i, "Queued work", ownerId});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO support_tickets (subject, description, status, user_id) " +
+                "VALUES (?, ?, 'OPEN', ?)", rows);
+        // Some work that is not in the queue at all
+        jdbcTemplate.update("INSERT INTO support_tickets (subject, description, status, user_id) " +
+                "VALUES ('Done', 'Already closed', 'CLOSED', ?)", ownerId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM support_tickets");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void shouldNeverAssignTheSameTicketTwiceUnderConcurrentClaims() throws Exception {
+        // Given
+        ExecutorService pool = Executors.newFixedThreadPool(AGENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Long> claimedIds = new CopyOnWriteArrayList<>();
+        Map<Long, String> claimedBy = new ConcurrentHashMap<>();
+        // OPEN tickets counted right after each empty claim
+        List<Integer> openAtEmptyClaim = new CopyOnWriteArrayList<>();
+
+        // When - every agent claims until no OPEN ticket is left, not just until its first empty claim
+        List<Future<Integer>> results = new ArrayList<>();
+        for (String agent : agentIds.keySet()) {
+            results.add(pool.submit(() -> {
+                start.await();
+                int claims = 0;
+                while (true) {
+                    Optional<SupportTicketDTO> next = ticketService.claimNextTicket(agent);
+                    if (next.isPresent()) {
+                        claimedIds.add(next.get().getId());
+                        claimedBy.put(next.get().getId(), agent);
+                        claims++;
+                        continue;
+                    }
+                    int open = countOpen();
+                    openAtEmptyClaim.add(open);
+                    if (open == 0) {
+                        return claims;
+                    }
+                }
+            }));
+        }
+        start.countDown();
+
+        int total = 0;
+        for (Future<Integer> result : results) {
+            total += result.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // Then - every OPEN ticket claimed exactly once, nothing else touched
+        assertThat(total).isEqualTo(TICKETS);
+        assertThat(new HashSet<>(claimedIds)).hasSize(TICKETS);
+        assertThat(countOpen()).isZero();
+
+        // An agent only comes back empty-handed while the other agents hold the last rows (one each,
+        // until their claims commit) - never while unheld OPEN tickets remain
+        assertThat(openAtEmptyClaim).allMatch(open -> open < AGENTS);
+
+        // Agents claim side by side instead of queueing behind one another
+        assertThat(new HashSet<>(claimedBy.values())).hasSizeGreaterThan(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM support_tickets WHERE status = 'CLOSED' AND assignee_id IS NULL",
+                Integer.class)).isEqualTo(1);
+
+        // The persisted assignee is the agent that received the ticket
+        Map<Long, Long> assignees = jdbcTemplate.query(
+                "SELECT id, assignee_id FROM support_tickets WHERE status = 'IN_PROGRESS'",
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)}).stream()
+                .collect(Collectors.toMap(row -> row[0], row -> row[1]));
+        assertThat(assignees).hasSize(TICKETS);
+        Set<Long> mismatched = claimedBy.entrySet().stream()
+                .filter(entry -> !assignees.get(entry.getKey()).equals(agentIds.get(entry.getValue())))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+        assertThat(mismatched).isEmpty();
+    }
+
+    @Test
+    void shouldReturnEmptyOnceQueueIsDrained() {
+        // Given
+        jdbcTemplate.update("UPDATE support_tickets SET status = 'RESOLVED'");
+
+        // When & Then
+        assertThat(ticketService.claimNextTicket("agent0@test.com")).isEmpty();
+    }
+
+    private int countOpen() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM support_tickets WHERE status = 'OPEN'", Integer.class);
+    }
+
+    private Long insertUser(String email) {
+        jdbcTemplate.update(
+                "INSERT INTO users (email, password, first_name, last_name, is_privacy_enabled) VALUES (?, ?, ?, ?, ?)",
+                email, "password123", "Support", "Agent", false);
+        return jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, email);
+    }
+}
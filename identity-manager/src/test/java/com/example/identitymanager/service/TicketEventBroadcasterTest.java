@@ -0,0 +1,217 @@
+package com.example.identitymanager.service;
+
+import com.example.identitymanager.dto.SupportTicketDTO;
+import com.example.identitymanager.dto.SupportTicketSummaryDTO;
+import com.example.identitymanager.model.SupportTicket;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TicketEventBroadcasterTest {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final TicketEventBroadcaster broadcaster = new TicketEventBroadcaster(executor, 2, 60_000L);
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    // ==================== SCOPING TESTS ====================
+
+    @Test
+    void shouldDeliverOwnTicketsToOwnerAndEverythingToAdmin() throws Exception {
+        // Given
+        RecordingEmitter owner = new RecordingEmitter(1);
+        RecordingEmitter admin = new RecordingEmitter(2);
+        broadcaster.subscribe("owner@example.com", owner);
+        broadcaster.subscribe(null, admin);
+
+        // When
+        broadcaster.onTicketChanged(TicketChangedEvent.created(ticket(1L, "owner@example.com", "OPEN")));
+        broadcaster.onTicketChanged(TicketChangedEvent.created(ticket(2L, "other@example.com", "OPEN")));
+
+        // Then
+        assertThat(admin.await()).isTrue();
+        assertThat(owner.await()).isTrue();
+        assertThat(admin.ticketIds()).containsExactly(1L, 2L);
+        assertThat(owner.ticketIds()).containsExactly(1L);
+    }
+
+    @Test
+    void shouldNameEventsAndIgnoreTypesDashboardsDoNotShow() throws Exception {
+        // Given
+        RecordingEmitter admin = new RecordingEmitter(2);
+        broadcaster.subscribe(null, admin);
+
+        // When
+        broadcaster.onTicketChanged(TicketChangedEvent.deleted(9L));
+        broadcaster.onTicketChanged(TicketChangedEvent.bulkInserted(List.of(5L)));
+        broadcaster.onTicketChanged(TicketChangedEvent.created(ticket(1L, "owner@example.com", "OPEN")));
+        broadcaster.onTicketChanged(TicketChangedEvent.statusChanged(ticket(1L, "owner@example.com", "RESOLVED")));
+
+        // Then
+        assertThat(admin.await()).isTrue();
+        assertThat(admin.frames()).hasSize(2);
+        assertThat(admin.frames().get(0)).contains("event:created");
+        assertThat(admin.frames().get(1)).contains("event:status-changed");
+    }
+
+    @Test
+    void shouldSplitBulkStatusChangesByOwner() throws Exception {
+        // Given
+        RecordingEmitter owner = new RecordingEmitter(1);
+        RecordingEmitter bystander = new RecordingEmitter(1);
+        RecordingEmitter admin = new RecordingEmitter(1);
+        broadcaster.subscribe("owner@example.com", owner);
+        broadcaster.subscribe("bystander@example.com", bystander);
+        broadcaster.subscribe(null, admin);
+
+        // When - auto-close of three tickets, two of them the owner's
+        broadcaster.onTicketChanged(TicketChangedEvent.bulkStatusChanged(List.of(
+                summary(1L, "owner@example.com"), summary(2L, "other@example.com"), summary(3L, "owner@example.com")),
+                SupportTicket.TicketStatus.CLOSED));
+        broadcaster.onTicketChanged(TicketChangedEvent.created(ticket(4L, "bystander@example.com", "OPEN")));
+
+        // Then - the owner gets only its own ids, the admin all of them
+        assertThat(admin.await()).isTrue();
+        assertThat(owner.await()).isTrue();
+        assertThat(bystander.await()).isTrue();
+        assertThat(admin.frames().get(0)).contains("event:bulk-status-changed").contains("[1, 2, 3]");
+        assertThat(owner.frames()).hasSize(1);
+        assertThat(owner.frames().get(0)).contains("event:bulk-status-changed").contains("[1, 3]");
+        assertThat(bystander.frames()).hasSize(1);
+        assertThat(bystander.ticketIds()).containsExactly(4L);
+    }
+
+    // ==================== SLOW CONSUMER TESTS ====================
+
+    @Test
+    void shouldDropSubscriberWhoseBufferOverflowsWithoutAffectingOthers() throws Exception {
+        // Given - the slow client blocks inside its first send
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(1) {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                super.send(builder);
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        RecordingEmitter fast = new RecordingEmitter(5);
+        broadcaster.subscribe(null, slow);
+        broadcaster.subscribe(null, fast);
+
+        // When - one event in flight, two buffered, the next one overflows.
+        // The fast client is given time to take each event so only the slow one can fall behind.
+        broadcaster.onTicketChanged(TicketChangedEvent.created(ticket(1L, "owner@example.com", "OPEN")));
+        assertThat(slow.await()).isTrue();
+        for (long id = 2; id <= 5; id++) {
+            broadcaster.onTicketChanged(TicketChangedEvent.created(ticket(id, "owner@example.com", "OPEN")));
+            assertThat(fast.awaitReceived((int) id)).isTrue();
+        }
+        release.countDown();
+
+        // Then
+        assertThat(fast.await()).isTrue();
+        assertThat(fast.ticketIds()).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(broadcaster.getDroppedSubscriberCount()).isEqualTo(1);
+        assertThat(broadcaster.getSubscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldForgetSubscriberWhenClientDisconnects() throws Exception {
+        // Given
+        SseEmitter broken = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        RecordingEmitter healthy = new RecordingEmitter(1);
+        broadcaster.subscribe(null, broken);
+        broadcaster.subscribe(null, healthy);
+
+        // When
+        broadcaster.onTicketChanged(TicketChangedEvent.created(ticket(1L, "owner@example.com", "OPEN")));
+
+        // Then
+        assertThat(healthy.await()).isTrue();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(broadcaster.getSubscriberCount()).isEqualTo(1);
+        assertThat(broadcaster.getDroppedSubscriberCount()).isZero();
+    }
+
+    // ==================== HELPERS ====================
+
+    private SupportTicketDTO ticket(Long id, String ownerEmail, String status) {
+        return new SupportTicketDTO(id, "Subject " + id, "Description", status, 1L, ownerEmail, LocalDateTime.now());
+    }
+
+    private SupportTicketSummaryDTO summary(Long id, String ownerEmail) {
+        return new SupportTicketSummaryDTO(id, "Subject " + id, "CLOSED", 1L, ownerEmail, LocalDateTime.now());
+    }
+
+    // Captures what would be written to the response instead of needing a servlet container
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> frames = new CopyOnWriteArrayList<>();
+        private final List<Long> ticketIds = new CopyOnWriteArrayList<>();
+        private final CountDownLatch expected;
+
+        RecordingEmitter(int expectedEvents) {
+            this.expected = new CountDownLatch(expectedEvents);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            StringBuilder frame = new StringBuilder();
+            builder.build().forEach(part -> {
+                if (part.getData() instanceof SupportTicketDTO ticket) {
+                    ticketIds.add(ticket.getId());
+                } else {
+                    frame.append(part.getData());
+                }
+            });
+            frames.add(frame.toString());
+            expected.countDown();
+        }
+
+        boolean await() throws InterruptedException {
+            return expected.await(5, TimeUnit.SECONDS);
+        }
+
+        boolean awaitReceived(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (frames.size() < count) {
+                if (System.nanoTime() > deadline) {
+                    return false;
+                }
+                Thread.sleep(5);
+            }
+            return true;
+        }
+
+        List<String> frames() {
+            return frames;
+        }
+
+        List<Long> ticketIds() {
+            return ticketIds;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.identitymanager.service;
+
+import com.example.identitymanager.dto.ImportResult;
+import com.example.identitymanager.model.SupportTicket;
+import com.example.identitymanager.repository.TicketDao;
+import com.example.identitymanager.repository.UserDao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TicketImportServiceTest {
+
+    private static final String HEADER = "email,subject,description,status,createdAt\n";
+
+    @Mock
+    private UserDao userDao;
+
+    @Mock
+    private TicketDao ticketDao;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private TicketImportService ticketImportService;
+
+    @BeforeEach
+    void setUp() {
+        ticketImportService = new TicketImportService(userDao, ticketDao, transactionManager, eventPublisher);
+    }
+
+    @Test
+    void shouldResolveEmailsAndInsertTicketsInOneBatch() throws Exception {
+        // Given
+        when(userDao.findUserIdsByEmails(anyCollection()))
+                .thenReturn(Map.of("one@example.com", 1L, "two@example.com", 2L));
+        when(ticketDao.insertTickets(anyList())).thenReturn(List.of(11L, 12L, 13L));
+
+        String csv = HEADER +
+                "one@example.com,Login issue,Cannot log in,,\n" +
+                "two@example.com,Old ticket,Migrated,closed,2023-06-01T09:30:00\n" +
+                "one@example.com,Second,Another one\n";
+
+        // When
+        ImportResult result = ticketImportService.importCsv(csv(csv));
+
+        // Then
+        assertThat(result.getRowsRead()).isEqualTo(3);
+        assertThat(result.getInserted()).isEqualTo(3);
+        assertThat(result.getFailed()).isZero();
+
+        // One lookup for the distinct emails of the chunk
+        ArgumentCaptor<Collection<String>> emails = ArgumentCaptor.forClass(Collection.class);
+        verify(userDao).findUserIdsByEmails(emails.capture());
+        assertThat(emails.getValue()).containsExactly("one@example.com", "two@example.com");
+
+        ArgumentCaptor<List<SupportTicket>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(ticketDao).insertTickets(inserted.capture());
+        List<SupportTicket> tickets = inserted.getValue();
+        assertThat(tickets).extracting(ticket -> ticket.getUser().getId()).containsExactly(1L, 2L, 1L);
+        assertThat(tickets.get(0).getStatus()).isEqualTo(SupportTicket.TicketStatus.OPEN);
+        assertThat(tickets.get(1).getStatus()).isEqualTo(SupportTicket.TicketStatus.CLOSED);
+        assertThat(tickets.get(1).getCreatedAt()).isEqualTo(LocalDateTime.parse("2023-06-01T09:30:00"));
+
+        // Listeners (search index) are told exactly which rows are new
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof TicketChangedEvent changed
+                && changed.getType() == TicketChangedEvent.Type.BULK_INSERTED
+                && changed.getTicketIds().equals(List.of(11L, 12L, 13L))));
+    }
+
+    @Test
+    void shouldReportUnknownEmailsAndInvalidRows() throws Exception {
+        // Given
+        when(userDao.findUserIdsByEmails(anyCollection())).thenReturn(Map.of("one@example.com", 1L));
+
+        String csv = HEADER +
+                "one@example.com,Valid,Row,,\n" +
+                "ghost@example.com,No user,Here,,\n" +
+                "one@example.com,,Missing subject,,\n" +
+                "one@example.com,Bad status,Row,REOPENED,\n" +
+                "one@example.com,Bad date,Row,,yesterday\n" +
+                "one@example.com,Too few\n";
+
+        // When
+        ImportResult result = ticketImportService.importCsv(csv(csv));
+
+        // Then - invalid rows are reported at validation, unknown emails after the chunk lookup
+        assertThat(result.getInserted()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(5);
+        assertThat(result.getErrors()).containsExactly(
+                "Line 4: Subject is required",
+                "Line 5: Invalid status: 'REOPENED'",
+                "Line 6: Invalid createdAt: 'yesterday' (expected e.g. 2024-01-31T14:30:00)",
+                "Line 7: Expected at least 3 columns but found 2",
+                "Line 3: User not found with email: ghost@example.com");
+    }
+
+    @Test
+    void shouldWriteInFixedSizeChunks() throws Exception {
+        // Given
+        when(userDao.findUserIdsByEmails(anyCollection())).thenReturn(Map.of("one@example.com", 1L));
+
+        StringBuilder csv = new StringBuilder(HEADER);
+        int rows = TicketImportService.CHUNK_SIZE * 2 + 1;
+        for (int i = 0; i < rows; i++) {
+            csv.append("one@example.com,Subject ").append(i).append(",Description,,\n");
+        }
+
+        // When
+        ImportResult result = ticketImportService.importCsv(csv(csv.toString()));
+
+        // Then - one lookup and one batch per chunk, each committed separately
+        assertThat(result.getInserted()).isEqualTo(rows);
+        verify(userDao, times(3)).findUserIdsByEmails(anyCollection());
+        verify(ticketDao, times(3)).insertTickets(anyList());
+        verify(transactionManager, times(3)).commit(any());
+        // One event per chunk, each delivered when its chunk commits
+        verify(eventPublisher, times(3)).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void shouldNotInsertWhenNoEmailResolves() throws Exception {
+        // Given
+        when(userDao.findUserIdsByEmails(anyCollection())).thenReturn(Map.of());
+
+        // When
+        ImportResult result = ticketImportService.importCsv(csv(HEADER + "ghost@example.com,Subject,Description,,\n"));
+
+        // Then
+        assertThat(result.getFailed()).isEqualTo(1);
+        verifyNoInteractions(ticketDao);
+    }
+
+    @Test
+    void shouldReturnEmptyResultForHeaderOnlyFile() throws Exception {
+        // When
+        ImportResult result = ticketImportService.importCsv(csv(HEADER));
+
+        // Then
+        assertThat(result.getRowsRead()).isZero();
+        verifyNoInteractions(userDao, ticketDao);
+    }
+
+    private InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
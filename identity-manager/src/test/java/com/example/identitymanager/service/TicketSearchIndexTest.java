@@ -0,0 +1,226 @@
+package com.example.identitymanager.service;
+
+import com.example.identitymanager.dto.SupportTicketDTO;
+import com.example.identitymanager.dto.SupportTicketSummaryDTO;
+import com.example.identitymanager.model.SupportTicket;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not transactional - the rebuild workers read on their own connections and must see committed rows
+@JdbcTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Sql(scripts = "/test-schema.sql")
+class TicketSearchIndexTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TicketSearchIndex index;
+    private Long ownerId;
+    private Long otherId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = insertUser("owner@test.com");
+        otherId = insertUser("other@test.com");
+        // Three workers so the rebuild really splits the id space
+        index = new TicketSearchIndex(jdbcTemplate, 3);
+    }
+
+    // ==================== TOKENIZER TESTS ====================
+
+    @Test
+    void shouldTokenizeCaseInsensitivelyAndKeepNonAsciiLetters() {
+        assertThat(TicketSearchIndex.tokenize("Błąd LOGOWANIA: hasło-reset, a 2FA!"))
+                .containsExactly("błąd", "logowania", "hasło", "reset", "2fa");
+    }
+
+    // ==================== REBUILD + QUERY TESTS ====================
+
+    @Test
+    void shouldRebuildInParallelAndRequireAllTerms() {
+        // Given
+        Long a = insertTicket(ownerId, "Login fails", "Password reset link expired", "OPEN");
+        Long b = insertTicket(ownerId, "Invoice missing", "Password manager question", "OPEN");
+        Long c = insertTicket(otherId, "Reset password", "Login loop after reset", "CLOSED");
+        for (int i = 0; i < 10; i++) {
+            insertTicket(otherId, "Noise " + i, "Unrelated text", "OPEN");
+        }
+
+        // When
+        index.rebuild();
+
+        // Then
+        assertThat(index.size()).isEqualTo(13);
+        assertThat(index.search("password", null, null, 10)).containsExactlyInAnyOrder(a, b, c);
+        assertThat(index.search("password login", null, null, 10)).containsExactlyInAnyOrder(a, c);
+        assertThat(index.search("password nosuchword", null, null, 10)).isEmpty();
+    }
+
+    @Test
+    void shouldFilterByStatusAndOwner() {
+        // Given
+        Long open = insertTicket(ownerId, "Printer jam", "Paper stuck", "OPEN");
+        Long closed = insertTicket(ownerId, "Printer offline", "No network", "CLOSED");
+        Long others = insertTicket(otherId, "Printer toner", "Empty", "OPEN");
+        index.rebuild();
+
+        // When & Then
+        assertThat(index.search("printer", SupportTicket.TicketStatus.OPEN, null, 10))
+                .containsExactlyInAnyOrder(open, others);
+        assertThat(index.search("printer", null, ownerId, 10)).containsExactlyInAnyOrder(open, closed);
+        assertThat(index.search("printer", SupportTicket.TicketStatus.CLOSED, otherId, 10)).isEmpty();
+    }
+
+    @Test
+    void shouldRankSubjectMatchesAndLimitResults() {
+        // Given - same term in subject of one ticket, only in the description of the other
+        Long inDescription = insertTicket(ownerId, "General question", "The vpn drops sometimes", "OPEN");
+        Long inSubject = insertTicket(ownerId, "VPN drops", "Happens every hour", "OPEN");
+        index.rebuild();
+
+        // When
+        List<Long> ranked = index.search("vpn", null, null, 10);
+        List<Long> top = index.search("vpn", null, null, 1);
+
+        // Then
+        assertThat(ranked).containsExactly(inSubject, inDescription);
+        assertThat(top).containsExactly(inSubject);
+    }
+
+    // ==================== INCREMENTAL UPDATE TESTS ====================
+
+    @Test
+    void shouldApplyCreateStatusChangeAndDeleteEvents() {
+        // Given
+        index.rebuild();
+        SupportTicketDTO ticket = new SupportTicketDTO(42L, "Broken keyboard", "Keys stuck", "OPEN",
+                ownerId, "owner@test.com", null);
+
+        // When - created
+        index.onTicketChanged(TicketChangedEvent.created(ticket));
+
+        // Then
+        assertThat(index.search("keyboard", SupportTicket.TicketStatus.OPEN, null, 10)).containsExactly(42L);
+
+        // When - status changed
+        ticket.setStatus("RESOLVED");
+        index.onTicketChanged(TicketChangedEvent.statusChanged(ticket));
+
+        // Then
+        assertThat(index.search("keyboard", SupportTicket.TicketStatus.OPEN, null, 10)).isEmpty();
+        assertThat(index.search("keyboard", SupportTicket.TicketStatus.RESOLVED, null, 10)).containsExactly(42L);
+
+        // When - deleted
+        index.onTicketChanged(TicketChangedEvent.deleted(42L));
+
+        // Then
+        assertThat(index.search("keyboard", null, null, 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void shouldApplyBulkStatusChanges() {
+        // Given
+        Long first = insertTicket(ownerId, "Laptop battery", "Drains fast", "RESOLVED");
+        Long second = insertTicket(ownerId, "Laptop hinge", "Broken", "RESOLVED");
+        Long untouched = insertTicket(ownerId, "Laptop fan", "Noisy", "RESOLVED");
+        index.rebuild();
+
+        // When
+        index.onTicketChanged(TicketChangedEvent.bulkStatusChanged(List.of(
+                new SupportTicketSummaryDTO(first, "Laptop battery", "CLOSED", ownerId, "owner@test.com", null),
+                new SupportTicketSummaryDTO(second, "Laptop hinge", "CLOSED", ownerId, "owner@test.com", null)),
+                SupportTicket.TicketStatus.CLOSED));
+
+        // Then
+        assertThat(index.search("laptop", SupportTicket.TicketStatus.CLOSED, null, 10))
+                .containsExactlyInAnyOrder(first, second);
+        assertThat(index.search("laptop", SupportTicket.TicketStatus.RESOLVED, null, 10)).containsExactly(untouched);
+    }
+
+    @Test
+    void shouldDropArchivedTickets() {
+        // Given
+        Long archived = insertTicket(ownerId, "Monitor flicker", "Old", "CLOSED");
+        Long active = insertTicket(ownerId, "Monitor stand", "New", "OPEN");
+        index.rebuild();
+
+        // When
+        index.onTicketChanged(TicketChangedEvent.archived(List.of(archived)));
+
+        // Then
+        assertThat(index.search("monitor", null, null, 10)).containsExactly(active);
+    }
+
+    @Test
+    void shouldIndexBulkInsertedIds() {
+        // Given
+        Long before = insertTicket(ownerId, "Monitor flicker", "Since update", "OPEN");
+        index.rebuild();
+        Long imported = insertTicket(otherId, "Monitor dead", "No signal", "OPEN");
+
+        // When
+        index.onTicketChanged(TicketChangedEvent.bulkInserted(List.of(imported)));
+
+        // Then
+        assertThat(index.search("monitor", null, null, 10)).containsExactlyInAnyOrder(before, imported);
+    }
+
+    @Test
+    void shouldIndexImportChunksCommittedAroundAnOrdinaryCreate() {
+        // Given - an import's first chunk commits, then a regular create with a higher id is indexed first
+        index.rebuild();
+        Long firstChunk = insertTicket(otherId, "Printer jam", "Tray two", "OPEN");
+        Long created = insertTicket(ownerId, "Printer offline", "Network", "OPEN");
+        index.onTicketChanged(TicketChangedEvent.created(new SupportTicketDTO(created, "Printer offline", "Network",
+                "OPEN", ownerId, "owner@test.com", null)));
+        Long secondChunk = insertTicket(otherId, "Printer toner", "Empty", "OPEN");
+
+        // When - each chunk's event arrives after the create
+        index.onTicketChanged(TicketChangedEvent.bulkInserted(List.of(firstChunk)));
+        index.onTicketChanged(TicketChangedEvent.bulkInserted(List.of(secondChunk)));
+
+        // Then
+        assertThat(index.search("printer", null, null, 10))
+                .containsExactlyInAnyOrder(firstChunk, created, secondChunk);
+    }
+
+    @Test
+    void shouldRemoveStaleIds() {
+        // Given
+        Long id = insertTicket(ownerId, "Mouse lag", "Wireless", "OPEN");
+        index.rebuild();
+
+        // When
+        index.removeAll(List.of(id));
+
+        // Then
+        assertThat(index.search("mouse", null, null, 10)).isEmpty();
+    }
+
+    // ==================== HELPERS ====================
+
+    private Long insertUser(String email) {
+        jdbcTemplate.update(
+                "INSERT INTO users (email, password, first_name, last_name, is_privacy_enabled) VALUES (?, ?, ?, ?, ?)",
+                email, "password123", "Search", "User", false);
+        return jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, email);
+    }
+
+    private Long insertTicket(Long userId, String subject, String description, String status) {
+        jdbcTemplate.update("INSERT INTO support_tickets (subject, description, status, user_id) VALUES (?, ?, ?, ?)",
+                subject, description, status, userId);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM support_tickets", Long.class);
+    }
+}
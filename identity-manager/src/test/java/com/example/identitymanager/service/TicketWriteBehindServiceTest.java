@@ -0,0 +1,253 @@
+package com.example.identitymanager.service;
+
+import com.example.identitymanager.dto.QueuedTicketDTO;
+import com.example.identitymanager.dto.SupportTicketDTO;
+import com.example.identitymanager.dto.WriteBehindStatsDTO;
+import com.example.identitymanager.model.SupportTicket;
+import com.example.identitymanager.repository.TicketDao;
+import com.example.identitymanager.repository.UserDao;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TicketWriteBehindServiceTest {
+
+    @Mock
+    private UserDao userDao;
+
+    @Mock
+    private TicketDao ticketDao;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private TicketWriteBehindService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    // ==================== ACCEPT TESTS ====================
+
+    @Test
+    void shouldAcknowledgeWithProvisionalIdAndRejectWhenFull() {
+        // Given
+        service = newService(true, 2, 10);
+
+        // When
+        Optional<QueuedTicketDTO> first = service.submit("a@test.com", "One", "Desc");
+        Optional<QueuedTicketDTO> second = service.submit("a@test.com", "Two", "Desc");
+        Optional<QueuedTicketDTO> third = service.submit("a@test.com", "Three", "Desc");
+
+        // Then
+        assertThat(first).isPresent();
+        assertThat(first.get().getProvisionalId()).isNotBlank();
+        assertThat(second.get().getQueueDepth()).isEqualTo(2);
+        assertThat(third).isEmpty();
+        WriteBehindStatsDTO stats = service.getStats();
+        assertThat(stats.getAccepted()).isEqualTo(2);
+        assertThat(stats.getRejected()).isEqualTo(1);
+        assertThat(stats.getQueueDepth()).isEqualTo(2);
+        assertThat(stats.getPending()).isEqualTo(2);
+        verifyNoInteractions(ticketDao);
+    }
+
+    @Test
+    void shouldRefuseSubmitWhenDisabled() {
+        // Given
+        service = newService(false, 10, 10);
+
+        // When & Then
+        assertThatThrownBy(() -> service.submit("a@test.com", "One", "Desc"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    // ==================== WRITER TESTS ====================
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldWriteQueuedTicketsAsOneGroupWithOneUserLookup() {
+        // Given
+        service = newService(true, 10, 10);
+        when(userDao.findUserIdsByEmails(any())).thenReturn(Map.of("a@test.com", 1L, "b@test.com", 2L));
+        when(ticketDao.insertTickets(anyList())).thenReturn(List.of(10L, 11L));
+        QueuedTicketDTO queued = service.submit("a@test.com", "One", "Desc").orElseThrow();
+        service.submit("b@test.com", "Two", "Desc");
+        service.submit("gone@test.com", "Three", "Desc");
+
+        // When
+        int written = service.flush();
+
+        // Then
+        assertThat(written).isEqualTo(2);
+        ArgumentCaptor<List<SupportTicket>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(ticketDao, times(1)).insertTickets(inserted.capture());
+        assertThat(inserted.getValue()).extracting(SupportTicket::getSubject).containsExactly("One", "Two");
+        assertThat(inserted.getValue()).extracting(ticket -> ticket.getUser().getId()).containsExactly(1L, 2L);
+        assertThat(inserted.getValue().get(0).getCreatedAt()).isEqualTo(queued.getAcceptedAt());
+        verify(userDao, times(1)).findUserIdsByEmails(any());
+        verify(transactionManager, times(1)).commit(any());
+        // One CREATED per written ticket, as a direct create would publish
+        ArgumentCaptor<TicketChangedEvent> events = ArgumentCaptor.forClass(TicketChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertThat(events.getAllValues()).extracting(TicketChangedEvent::getType)
+                .containsOnly(TicketChangedEvent.Type.CREATED);
+        SupportTicketDTO created = events.getAllValues().get(0).getTicket();
+        assertThat(created.getId()).isEqualTo(10L);
+        assertThat(created.getSubject()).isEqualTo("One");
+        assertThat(created.getStatus()).isEqualTo("OPEN");
+        assertThat(created.getUserId()).isEqualTo(1L);
+        assertThat(created.getUserEmail()).isEqualTo("a@test.com");
+        assertThat(created.getCreatedAt()).isEqualTo(queued.getAcceptedAt());
+        assertThat(events.getAllValues().get(1).getTicket().getUserEmail()).isEqualTo("b@test.com");
+
+        WriteBehindStatsDTO stats = service.getStats();
+        assertThat(stats.getCommitted()).isEqualTo(2);
+        assertThat(stats.getFailed()).isEqualTo(1);
+        assertThat(stats.getPending()).isZero();
+        assertThat(stats.getBatches()).isEqualTo(1);
+        assertThat(stats.getLargestBatch()).isEqualTo(3);
+        assertThat(stats.getLastCommitAt()).isNotNull();
+    }
+
+    @Test
+    void shouldCapGroupAtMaxBatch() {
+        // Given
+        service = newService(true, 10, 2);
+        when(userDao.findUserIdsByEmails(any())).thenReturn(Map.of("a@test.com", 1L));
+        for (int i = 0; i < 5; i++) {
+            service.submit("a@test.com", "T" + i, "Desc");
+        }
+
+        // When & Then
+        assertThat(service.flush()).isEqualTo(2);
+        assertThat(service.flush()).isEqualTo(2);
+        assertThat(service.flush()).isEqualTo(1);
+        assertThat(service.flush()).isZero();
+        assertThat(service.getStats().getBatches()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldCountWholeGroupAsFailedWhenWriteFails() {
+        // Given
+        service = newService(true, 10, 10);
+        when(userDao.findUserIdsByEmails(any())).thenReturn(Map.of("a@test.com", 1L));
+        when(ticketDao.insertTickets(anyList())).thenThrow(new IllegalStateException("Database down"));
+        service.submit("a@test.com", "One", "Desc");
+        service.submit("a@test.com", "Two", "Desc");
+
+        // When
+        int written = service.flush();
+
+        // Then
+        assertThat(written).isZero();
+        WriteBehindStatsDTO stats = service.getStats();
+        assertThat(stats.getFailed()).isEqualTo(2);
+        assertThat(stats.getCommitted()).isZero();
+        assertThat(stats.getPending()).isZero();
+        verify(transactionManager).rollback(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void shouldCommitEverythingAcknowledgedBeforeShutdown() {
+        // Given
+        service = newService(true, 1000, 50);
+        when(userDao.findUserIdsByEmails(any())).thenReturn(Map.of("a@test.com", 1L));
+        service.start();
+        for (int i = 0; i < 200; i++) {
+            service.submit("a@test.com", "T" + i, "Desc");
+        }
+
+        // When
+        service.shutdown();
+
+        // Then
+        WriteBehindStatsDTO stats = service.getStats();
+        assertThat(stats.getCommitted()).isEqualTo(200);
+        assertThat(stats.getPending()).isZero();
+        assertThat(stats.getLargestBatch()).isLessThanOrEqualTo(50);
+        assertThatThrownBy(() -> service.submit("a@test.com", "Late", "Desc"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldNeverAcknowledgeATicketThatShutdownDoesNotAccountFor() throws Exception {
+        // Given - submitters racing the shutdown
+        service = newService(true, 100_000, 50);
+        when(userDao.findUserIdsByEmails(any())).thenReturn(Map.of("a@test.com", 1L));
+        service.start();
+        AtomicInteger acknowledged = new AtomicInteger();
+        List<Thread> submitters = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            submitters.add(Thread.ofVirtual().start(() -> {
+                try {
+                    while (true) {
+                        service.submit("a@test.com", "Race", "Desc").ifPresent(queued -> acknowledged.incrementAndGet());
+                    }
+                } catch (IllegalStateException stopped) {
+                    // Shut down - nothing more is accepted
+                }
+            }));
+        }
+        Thread.sleep(20);
+
+        // When
+        service.shutdown();
+        for (Thread submitter : submitters) {
+            submitter.join();
+        }
+
+        // Then - every 202 was either committed or counted as failed
+        WriteBehindStatsDTO stats = service.getStats();
+        assertThat(stats.getAccepted()).isEqualTo(acknowledged.get());
+        assertThat(stats.getCommitted() + stats.getFailed()).isEqualTo(stats.getAccepted());
+        assertThat(stats.getPending()).isZero();
+    }
+
+    @Test
+    void shouldCountTicketsLeftInQueueAsFailedOnShutdown() {
+        // Given - no writer running, so nothing drains the queue
+        service = newService(true, 10, 10);
+        service.submit("a@test.com", "One", "Desc");
+        service.submit("a@test.com", "Two", "Desc");
+
+        // When
+        service.shutdown();
+
+        // Then
+        WriteBehindStatsDTO stats = service.getStats();
+        assertThat(stats.getFailed()).isEqualTo(2);
+        assertThat(stats.getPending()).isZero();
+        assertThat(stats.getQueueDepth()).isZero();
+    }
+
+    private TicketWriteBehindService newService(boolean enabled, int capacity, int maxBatch) {
+        return new TicketWriteBehindService(userDao, ticketDao, transactionManager, eventPublisher,
+                enabled, capacity, maxBatch, 5);
+    }
+}
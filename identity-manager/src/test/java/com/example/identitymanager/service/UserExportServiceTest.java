@@ -0,0 +1,199 @@
+package com.example.identitymanager.service;
+
+import com.example.identitymanager.model.User;
+import com.example.identitymanager.repository.UserDao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserExportServiceTest {
+
+    @Mock
+    private UserDao userDao;
+
+    private UserExportService userExportService;
+
+    @BeforeEach
+    void setUp() {
+        userExportService = new UserExportService(userDao);
+    }
+
+    @Test
+    void shouldWriteHeaderAndRowsFromCursor() throws Exception {
+        // Given
+        stubUsers(2);
+        StringWriter writer = new StringWriter();
+
+        // When
+        long rows = userExportService.writeCsv(writer);
+
+        // Then
+        assertThat(rows).isEqualTo(2);
+        assertThat(writer.toString()).isEqualTo(
+                "\"email\",\"firstName\",\"lastName\",\"phone\",\"isPrivacyEnabled\"\n" +
+                "\"user0@example.com\",\"First0\",\"Last0\",\"\",\"false\"\n" +
+                "\"user1@example.com\",\"First1\",\"Last1\",\"\",\"true\"\n");
+    }
+
+    @Test
+    void shouldFlushHeaderBeforeQueryingUsers() throws Exception {
+        // Given - record what the client has received when the cursor starts
+        FlushRecordingWriter writer = new FlushRecordingWriter();
+        List<String> flushedBeforeQuery = new ArrayList<>();
+        doAnswer(invocation -> {
+            flushedBeforeQuery.add(writer.flushed.toString());
+            return null;
+        }).when(userDao).forEachUser(any());
+
+        // When
+        userExportService.writeCsv(writer);
+
+        // Then
+        assertThat(flushedBeforeQuery).singleElement().asString().startsWith("\"email\"");
+    }
+
+    @Test
+    void shouldFlushPeriodicallyWhileStreaming() throws Exception {
+        // Given
+        stubUsers(UserExportService.FLUSH_EVERY * 3 + 1);
+        FlushRecordingWriter writer = new FlushRecordingWriter();
+
+        // When
+        long rows = userExportService.writeCsv(writer);
+
+        // Then - rows never pile up in the buffer beyond FLUSH_EVERY
+        assertThat(rows).isEqualTo(UserExportService.FLUSH_EVERY * 3 + 1);
+        assertThat(writer.maxLinesPerFlush).isEqualTo(UserExportService.FLUSH_EVERY);
+        assertThat(writer.pending).isEmpty();
+    }
+
+    @Test
+    void shouldPropagateClientDisconnect() {
+        // Given
+        stubUsers(UserExportService.FLUSH_EVERY);
+        Writer broken = new FlushRecordingWriter() {
+            @Override
+            public void flush() throws IOException {
+                if (pending.length() > 0 && flushes > 0) {
+                    throw new IOException("Broken pipe");
+                }
+                super.flush();
+            }
+        };
+
+        // When & Then
+        assertThatThrownBy(() -> userExportService.writeCsv(broken))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Broken pipe");
+    }
+
+    // ==================== DELTA EXPORT TESTS ====================
+
+    @Test
+    void shouldWriteChangedUsersFollowedByTombstones() throws Exception {
+        // Given
+        LocalDateTime since = LocalDateTime.parse("2024-01-01T10:00:00");
+        LocalDateTime until = LocalDateTime.parse("2024-01-02T10:00:00");
+        doAnswer(invocation -> {
+            Consumer<User> action = invocation.getArgument(2);
+            User user = new User();
+            user.setEmail("changed@example.com");
+            user.setFirstName("Changed");
+            user.setLastName("User");
+            user.setPhone("123");
+            user.setIsPrivacyEnabled(true);
+            action.accept(user);
+            return null;
+        }).when(userDao).forEachUserUpdatedBetween(eq(since), eq(until), any());
+        when(userDao.findDeletedEmailsBetween(since, until)).thenReturn(List.of("gone@example.com"));
+        StringWriter writer = new StringWriter();
+
+        // When
+        long rows = userExportService.writeDeltaCsv(writer, since, until);
+
+        // Then
+        assertThat(rows).isEqualTo(2);
+        assertThat(writer.toString()).isEqualTo(
+                "\"email\",\"firstName\",\"lastName\",\"phone\",\"isPrivacyEnabled\",\"deleted\"\n" +
+                "\"changed@example.com\",\"Changed\",\"User\",\"123\",\"true\",\"false\"\n" +
+                "\"gone@example.com\",\"\",\"\",\"\",\"\",\"true\"\n");
+    }
+
+    @Test
+    void shouldLagWatermarkBehindClock() {
+        // Given
+        Clock clock = Clock.fixed(Instant.parse("2024-01-01T12:00:00.123456Z"), ZoneOffset.UTC);
+        UserExportService service = new UserExportService(userDao, clock);
+
+        // When
+        LocalDateTime watermark = service.currentWatermark();
+
+        // Then - trails the clock and is truncated so it round-trips through the header
+        assertThat(watermark).isEqualTo(LocalDateTime.parse("2024-01-01T11:59:55.123"));
+    }
+
+    // ==================== HELPERS ====================
+
+    @SuppressWarnings("unchecked")
+    private void stubUsers(int count) {
+        doAnswer(invocation -> {
+            Consumer<User> action = invocation.getArgument(0);
+            for (int i = 0; i < count; i++) {
+                User user = new User();
+                user.setEmail("user" + i + "@example.com");
+                user.setFirstName("First" + i);
+                user.setLastName("Last" + i);
+                user.setIsPrivacyEnabled(i % 2 == 1);
+                action.accept(user);
+            }
+            return null;
+        }).when(userDao).forEachUser(any());
+    }
+
+    // Keeps written data pending until flush, like a buffered servlet response
+    private static class FlushRecordingWriter extends Writer {
+
+        final StringBuilder pending = new StringBuilder();
+        final StringBuilder flushed = new StringBuilder();
+        int flushes = 0;
+        long maxLinesPerFlush = 0;
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            pending.append(buffer, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            maxLinesPerFlush = Math.max(maxLinesPerFlush, pending.chars().filter(c -> c == '\n').count());
+            flushed.append(pending);
+            pending.setLength(0);
+            flushes++;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,456 @@
+package com.example.identitymanager.service;
+
+import com.example.identitymanager.dto.ImportResult;
+import com.example.identitymanager.model.Role;
+import com.example.identitymanager.model.User;
+import com.example.identitymanager.repository.RoleRepository;
+import com.example.identitymanager.repository.UserDao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceTest {
+
+    private static final String HEADER = "email,firstName,lastName,phone,isPrivacyEnabled\n";
+
+    @Mock
+    private UserDao userDao;
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserImportService userImportService;
+
+    private Role userRole;
+
+    @BeforeEach
+    void setUp() {
+        userImportService = new UserImportService(userDao, roleRepository, passwordEncoder, transactionManager);
+
+        userRole = new Role();
+        userRole.setId(1L);
+        userRole.setName(Role.RoleName.USER);
+    }
+
+    // ==================== INSERT MODE TESTS ====================
+
+    @Test
+    void shouldInsertValidRowsInOneBatch() throws Exception {
+        // Given
+        when(roleRepository.findByName(Role.RoleName.USER)).thenReturn(Optional.of(userRole));
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(userDao.findUsersByEmails(anyCollection())).thenReturn(Collections.emptyList());
+
+        String csv = HEADER +
+                "one@example.com,One,User,123,false\n" +
+                "two@example.com,Two,User,,true\n";
+
+        // When
+        ImportResult result = userImportService.importCsv(csv(csv), UserImportService.Mode.INSERT);
+
+        // Then
+        assertThat(result.getRowsRead()).isEqualTo(2);
+        assertThat(result.getInserted()).isEqualTo(2);
+        assertThat(result.getFailed()).isZero();
+
+        ArgumentCaptor<List<User>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(userDao).insertUsers(inserted.capture());
+        assertThat(inserted.getValue()).extracting(User::getEmail)
+                .containsExactly("one@example.com", "two@example.com");
+        assertThat(inserted.getValue().get(1).getPhone()).isNull();
+        assertThat(inserted.getValue().get(1).getIsPrivacyEnabled()).isTrue();
+        verify(userDao).assignRoleByEmails(anyCollection(), eq(1L));
+    }
+
+    @Test
+    void shouldReportExistingAndDuplicateEmailsAsRowErrors() throws Exception {
+        // Given
+        when(roleRepository.findByName(Role.RoleName.USER)).thenReturn(Optional.of(userRole));
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(userDao.findUsersByEmails(anyCollection()))
+                .thenReturn(List.of(user("taken@example.com", "Taken", "User")));
+
+        String csv = HEADER +
+                "taken@example.com,Taken,User,,false\n" +
+                "new@example.com,New,User,,false\n" +
+                "new@example.com,New,Again,,false\n";
+
+        // When
+        ImportResult result = userImportService.importCsv(csv(csv), UserImportService.Mode.INSERT);
+
+        // Then - the import continues past the conflicting rows
+        assertThat(result.getInserted()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getErrors()).containsExactly(
+                "Line 2: User already exists with email: taken@example.com",
+                "Line 4: Duplicate email in file: new@example.com");
+    }
+
+    @Test
+    void shouldReportInvalidRowsAndContinue() throws Exception {
+        // Given
+        when(roleRepository.findByName(Role.RoleName.USER)).thenReturn(Optional.of(userRole));
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(userDao.findUsersByEmails(anyCollection())).thenReturn(Collections.emptyList());
+
+        String csv = HEADER +
+                "not-an-email,Bad,Email,,false\n" +
+                "short@example.com,Missing\n" +
+                "noname@example.com,,User,,false\n" +
+                "ok@example.com,Ok,User,,false\n";
+
+        // When
+        ImportResult result = userImportService.importCsv(csv(csv), UserImportService.Mode.INSERT);
+
+        // Then
+        assertThat(result.getRowsRead()).isEqualTo(4);
+        assertThat(result.getInserted()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(3);
+        assertThat(result.getErrors()).containsExactly(
+                "Line 2: Invalid email: 'not-an-email'",
+                "Line 3: Expected 5 columns but found 2",
+                "Line 4: First name and last name are required");
+    }
+
+    @Test
+    void shouldReturnEmptyResultForHeaderOnlyFile() throws Exception {
+        // Given
+        when(roleRepository.findByName(Role.RoleName.USER)).thenReturn(Optional.of(userRole));
+
+        // When
+        ImportResult result = userImportService.importCsv(csv(HEADER), UserImportService.Mode.INSERT);
+
+        // Then
+        assertThat(result.getRowsRead()).isZero();
+        verify(userDao, never()).insertUsers(anyList());
+    }
+
+    @Test
+    void shouldWriteInFixedSizeChunks() throws Exception {
+        // Given
+        when(roleRepository.findByName(Role.RoleName.USER)).thenReturn(Optional.of(userRole));
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(userDao.findUsersByEmails(anyCollection())).thenReturn(Collections.emptyList());
+
+        int rows = UserImportService.CHUNK_SIZE * 2 + 1;
+
+        // When
+        ImportResult result = userImportService.importCsv(
+                new GeneratedCsvInputStream(rows), UserImportService.Mode.INSERT);
+
+        // Then - two full chunks and one partial chunk, each committed separately
+        assertThat(result.getInserted()).isEqualTo(rows);
+        verify(userDao, times(3)).insertUsers(anyList());
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void shouldHashDefaultPasswordOncePerImport() throws Exception {
+        // Given
+        when(roleRepository.findByName(Role.RoleName.USER)).thenReturn(Optional.of(userRole));
+        when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+        when(userDao.findUsersByEmails(anyCollection())).thenReturn(Collections.emptyList());
+
+        int rows = UserImportService.CHUNK_SIZE * 3;
+
+        // When
+        ImportResult result = userImportService.importCsv(
+                new GeneratedCsvInputStream(rows), UserImportService.Mode.INSERT);
+
+        // Then - one bcrypt computation for the whole file, shared by every row
+        verify(passwordEncoder, times(1)).encode(anyString());
+        ArgumentCaptor<List<User>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(userDao, times(3)).insertUsers(inserted.capture());
+        assertThat(inserted.getAllValues()).flatMap(chunk -> chunk)
+                .extracting(User::getPassword)
+                .containsOnly("encodedPassword");
+
+        // Throughput is reported with the result
+        assertThat(result.getRowsPerSecond()).isPositive();
+        assertThat(result.toSummary()).contains(rows + " rows in").contains("rows/s");
+    }
+
+    // ==================== UPSERT MODE TESTS ====================
+
+    @Test
+    void shouldClassifyRowsAsInsertedUpdatedAndUnchanged() throws Exception {
+        // Given
+        when(roleRepository.findByName(Role.RoleName.USER)).thenReturn(Optional.of(userRole));
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(userDao.findUsersByEmails(anyCollection())).thenReturn(List.of(
+                user("same@example.com", "Same", "User"),
+                user("changed@example.com", "Old", "Name")));
+
+        String csv = HEADER +
+                "new@example.com,New,User,,false\n" +
+                "same@example.com,Same,User,,false\n" +
+                "changed@example.com,New,Name,,false\n";
+
+        // When
+        ImportResult result = userImportService.importCsv(csv(csv), UserImportService.Mode.UPSERT);
+
+        // Then
+        assertThat(result.getInserted()).isEqualTo(1);
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getUnchanged()).isEqualTo(1);
+
+        // Only new and changed rows are written, role only assigned to new users
+        ArgumentCaptor<List<User>> written = ArgumentCaptor.forClass(List.class);
+        verify(userDao).mergeUsers(written.capture());
+        assertThat(written.getValue()).extracting(User::getEmail)
+                .containsExactly("new@example.com", "changed@example.com");
+        verify(userDao).assignRoleByEmails(List.of("new@example.com"), 1L);
+    }
+
+    @Test
+    void shouldNotWriteAnythingWhenAllRowsUnchanged() throws Exception {
+        // Given
+        when(roleRepository.findByName(Role.RoleName.USER)).thenReturn(Optional.of(userRole));
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(userDao.findUsersByEmails(anyCollection()))
+                .thenReturn(List.of(user("same@example.com", "Same", "User")));
+
+        // When
+        ImportResult result = userImportService.importCsv(
+                csv(HEADER + "same@example.com,Same,User,,false\n"), UserImportService.Mode.UPSERT);
+
+        // Then
+        assertThat(result.getUnchanged()).isEqualTo(1);
+        verify(userDao, never()).mergeUsers(anyList());
+        verify(userDao, never()).assignRoleByEmails(anyCollection(), anyLong());
+    }
+
+    @Test
+    void shouldCollapseDuplicateEmailsWithinChunk() throws Exception {
+        // Given
+        when(roleRepository.findByName(Role.RoleName.USER)).thenReturn(Optional.of(userRole));
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(userDao.findUsersByEmails(anyCollection())).thenReturn(Collections.emptyList());
+
+        String csv = HEADER +
+                "dup@example.com,First,Version,,false\n" +
+                "dup@example.com,Second,Version,,false\n";
+
+        // When
+        ImportResult result = userImportService.importCsv(csv(csv), UserImportService.Mode.UPSERT);
+
+        // Then - last row wins and is written once
+        assertThat(result.getInserted()).isEqualTo(1);
+        assertThat(result.getUpdated()).isEqualTo(1);
+
+        ArgumentCaptor<List<User>> written = ArgumentCaptor.forClass(List.class);
+        verify(userDao).mergeUsers(written.capture());
+        assertThat(written.getValue()).singleElement()
+                .extracting(User::getFirstName).isEqualTo("Second");
+    }
+
+    @Test
+    void shouldThrowWhenUserRoleMissing() {
+        // Given
+        when(roleRepository.findByName(Role.RoleName.USER)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThatThrownBy(() -> userImportService.importCsv(csv(HEADER), UserImportService.Mode.UPSERT))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("USER role not found");
+    }
+
+    // ==================== RESUMABLE IMPORT TESTS ====================
+
+    @Test
+    void shouldCheckpointAfterEachCommittedChunk() throws Exception {
+        // Given
+        when(roleRepository.findByName(Role.RoleName.USER)).thenReturn(Optional.of(userRole));
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(userDao.findUsersByEmails(anyCollection())).thenReturn(Collections.emptyList());
+
+        List<Long> checkpoints = new ArrayList<>();
+        ImportListener listener = new ImportListener() {
+            @Override
+            public void onChunkWritten(long lastLine, ImportResult result) {
+                checkpoints.add(lastLine);
+            }
+        };
+
+        // When
+        userImportService.importCsv(new GeneratedCsvInputStream(UserImportService.CHUNK_SIZE * 2 + 1),
+                UserImportService.Mode.INSERT, new ImportResult(), 0, listener);
+
+        // Then - line 1 is the header, so chunk N ends at line N * CHUNK_SIZE + 1
+        assertThat(checkpoints).containsExactly(
+                (long) UserImportService.CHUNK_SIZE + 1,
+                (long) UserImportService.CHUNK_SIZE * 2 + 1,
+                (long) UserImportService.CHUNK_SIZE * 2 + 2);
+    }
+
+    @Test
+    void shouldStopAfterCommittedChunkWhenCancelled() {
+        // Given
+        when(roleRepository.findByName(Role.RoleName.USER)).thenReturn(Optional.of(userRole));
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(userDao.findUsersByEmails(anyCollection())).thenReturn(Collections.emptyList());
+
+        ImportListener cancelled = new ImportListener() {
+            @Override
+            public boolean isCancelled() {
+                return true;
+            }
+        };
+
+        // When & Then
+        assertThatThrownBy(() -> userImportService.importCsv(
+                new GeneratedCsvInputStream(UserImportService.CHUNK_SIZE * 3),
+                UserImportService.Mode.INSERT, new ImportResult(), 0, cancelled))
+                .isInstanceOf(CancellationException.class);
+
+        verify(userDao, times(1)).insertUsers(anyList());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void shouldSkipCommittedRowsWhenResuming() throws Exception {
+        // Given
+        when(roleRepository.findByName(Role.RoleName.USER)).thenReturn(Optional.of(userRole));
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(userDao.findUsersByEmails(anyCollection())).thenReturn(Collections.emptyList());
+
+        // First chunk was committed by the interrupted run
+        ImportResult previous = new ImportResult(UserImportService.CHUNK_SIZE, 0, 0);
+        previous.setRowsRead(UserImportService.CHUNK_SIZE);
+
+        // When
+        ImportResult result = userImportService.importCsv(
+                new GeneratedCsvInputStream(UserImportService.CHUNK_SIZE + 10),
+                UserImportService.Mode.INSERT, previous, UserImportService.CHUNK_SIZE + 1, ImportListener.NONE);
+
+        // Then - only the remaining rows are written, counts continue from the checkpoint
+        ArgumentCaptor<List<User>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(userDao).insertUsers(inserted.capture());
+        assertThat(inserted.getValue()).hasSize(10);
+        assertThat(result.getRowsRead()).isEqualTo(UserImportService.CHUNK_SIZE + 10);
+        assertThat(result.getInserted()).isEqualTo(UserImportService.CHUNK_SIZE + 10);
+    }
+
+    // ==================== LARGE FILE TEST ====================
+
+    @Test
+    void shouldStreamMultiMillionRowFileInBoundedChunks() throws Exception {
+        // Given - stub-only mocks do not record invocations, so nothing retains the chunks
+        UserDao streamingDao = mock(UserDao.class, withSettings().stubOnly());
+        RoleRepository roles = mock(RoleRepository.class, withSettings().stubOnly());
+        PasswordEncoder encoder = mock(PasswordEncoder.class, withSettings().stubOnly());
+        PlatformTransactionManager txManager = mock(PlatformTransactionManager.class, withSettings().stubOnly());
+
+        when(roles.findByName(Role.RoleName.USER)).thenReturn(Optional.of(userRole));
+        when(encoder.encode(anyString())).thenReturn("encodedPassword");
+        when(streamingDao.findUsersByEmails(anyCollection())).thenReturn(Collections.emptyList());
+
+        AtomicLong written = new AtomicLong();
+        AtomicInteger largestChunk = new AtomicInteger();
+        when(streamingDao.insertUsers(anyList())).thenAnswer(invocation -> {
+            List<User> chunk = invocation.getArgument(0);
+            written.addAndGet(chunk.size());
+            largestChunk.accumulateAndGet(chunk.size(), Math::max);
+            return new int[chunk.size()];
+        });
+
+        int rows = 2_000_000;
+        UserImportService service = new UserImportService(streamingDao, roles, encoder, txManager);
+
+        // When - the file is generated on the fly and never exists in memory as a whole
+        ImportResult result = service.importCsv(new GeneratedCsvInputStream(rows), UserImportService.Mode.INSERT);
+
+        // Then
+        assertThat(result.getRowsRead()).isEqualTo(rows);
+        assertThat(result.getInserted()).isEqualTo(rows);
+        assertThat(written.get()).isEqualTo(rows);
+        assertThat(largestChunk.get()).isEqualTo(UserImportService.CHUNK_SIZE);
+    }
+
+    // ==================== HELPERS ====================
+
+    private InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private User user(String email, String firstName, String lastName) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("encodedPassword");
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setIsPrivacyEnabled(false);
+        return user;
+    }
+
+    // Produces a header plus N user rows lazily, one line at a time
+    private static class GeneratedCsvInputStream extends InputStream {
+
+        private final int rows;
+        private int nextRow = 0;
+        private byte[] line = HEADER.getBytes(StandardCharsets.UTF_8);
+        private int position = 0;
+
+        GeneratedCsvInputStream(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read() {
+            if (!ensureLine()) {
+                return -1;
+            }
+            return line[position++];
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (!ensureLine()) {
+                return -1;
+            }
+            int count = Math.min(length, line.length - position);
+            System.arraycopy(line, position, buffer, offset, count);
+            position += count;
+            return count;
+        }
+
+        private boolean ensureLine() {
+            if (position < line.length) {
+                return true;
+            }
+            if (nextRow >= rows) {
+                return false;
+            }
+            nextRow++;
+            line = ("user" + nextRow + "@example.com,First" + nextRow + ",Last,123456789," + (nextRow % 2 == 0) + "\n")
+                    .getBytes(StandardCharsets.UTF_8);
+            position = 0;
+            return true;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.identitymanager.service;
 
 import com.example.identitymanager.dto.UserDTO;
+import com.example.identitymanager.dto.UserOptionDTO;
 import com.example.identitymanager.dto.UserRegistrationDTO;
 import com.example.identitymanager.dto.UserUpdateDTO;
 import com.example.identitymanager.exception.DuplicateResourceException;
@@ -9,6 +10,7 @@ import com.example.identitymanager.model.Role;
 import com.example.identitymanager.model.User;
 import com.example.identitymanager.repository.RoleRepository;
 import com.example.identitymanager.repository.UserRepository;
+import com.example.identitymanager.repository.UserTombstoneRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -42,6 +44,9 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private UserTombstoneRepository userTombstoneRepository;
+
     @InjectMocks
     private UserService userService;
 
@@ -275,6 +280,22 @@ class UserServiceTest {
         verify(userRepository).searchUsers("nonexistent", pageable);
     }
 
+    // ==================== USER OPTIONS TESTS ====================
+
+    @Test
+    void shouldFindUserOptionsWithEscapedPrefixAndLimit() {
+        // Given
+        List<UserOptionDTO> options = List.of(new UserOptionDTO(1L, "a_b@example.com"));
+        when(userRepository.findUserOptionsByEmailPrefix("a\\_b", PageRequest.of(0, 20))).thenReturn(options);
+
+        // When
+        List<UserOptionDTO> result = userService.findUserOptions(" a_b ", 20);
+
+        // Then
+        assertThat(result).isEqualTo(options);
+        verify(userRepository, never()).findAll();
+    }
+
     // ==================== GET USERS BY ROLE TESTS ====================
 
     @Test
@@ -507,6 +528,9 @@ class UserServiceTest {
         // Then
         verify(userRepository).findById(1L);
         verify(userRepository).delete(testUser);
+        verify(userTombstoneRepository).save(argThat(tombstone ->
+                tombstone.getUserId().equals(testUser.getId())
+                        && tombstone.getEmail().equals(testUser.getEmail())));
     }
 
     @Test
@@ -520,6 +544,7 @@ class UserServiceTest {
                 .hasMessageContaining("999");
 
         verify(userRepository, never()).delete(any(User.class));
+        verifyNoInteractions(userTombstoneRepository);
     }
 
     // ==================== UPDATE PRIVACY SETTINGS TESTS ====================
@@ -1,4 +1,7 @@
+DROP TABLE IF EXISTS user_tombstones;
 DROP TABLE IF EXISTS user_roles;
+DROP TABLE IF EXISTS user_ticket_counts;
+DROP TABLE IF EXISTS support_tickets_archive;
 DROP TABLE IF EXISTS support_tickets;
 DROP TABLE IF EXISTS users;
 DROP TABLE IF EXISTS roles;
@@ -11,10 +14,22 @@ CREATE TABLE users (
                        last_name VARCHAR(50) NOT NULL,
                        phone VARCHAR(20),
                        is_privacy_enabled BOOLEAN NOT NULL DEFAULT FALSE,
+                       avatar_filename VARCHAR(255),
                        created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
                        updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
 
+CREATE INDEX idx_users_updated_at ON users(updated_at);
+
+CREATE TABLE user_tombstones (
+                                 id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                                 user_id BIGINT NOT NULL,
+                                 email VARCHAR(100) NOT NULL,
+                                 deleted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_user_tombstones_deleted_at ON user_tombstones(deleted_at);
+
 CREATE TABLE roles (
                        id BIGINT AUTO_INCREMENT PRIMARY KEY,
                        name VARCHAR(20) NOT NULL UNIQUE
@@ -26,4 +41,53 @@ CREATE TABLE user_roles (
                             PRIMARY KEY (user_id, role_id),
                             FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
                             FOREIGN KEY (role_id) REFERENCES roles(id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+CREATE TABLE support_tickets (
+                                 id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                                 subject VARCHAR(200) NOT NULL,
+                                 description VARCHAR(1000) NOT NULL,
+                                 status VARCHAR(20) NOT NULL DEFAULT 'OPEN',
+                                 user_id BIGINT NOT NULL,
+                                 assignee_id BIGINT,
+                                 created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                 status_changed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                 FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+                                 FOREIGN KEY (assignee_id) REFERENCES users(id) ON DELETE SET NULL
+);
+
+CREATE INDEX idx_support_tickets_created_at ON support_tickets(created_at, id);
+CREATE INDEX idx_support_tickets_status_created_at ON support_tickets(status, created_at, id);
+CREATE INDEX idx_support_tickets_user_created_at ON support_tickets(user_id, created_at, id);
+CREATE INDEX idx_support_tickets_status_changed_at ON support_tickets(status, status_changed_at, id);
+
+CREATE TABLE user_ticket_counts (
+                                    user_id BIGINT PRIMARY KEY,
+                                    open_count BIGINT NOT NULL DEFAULT 0,
+                                    in_progress_count BIGINT NOT NULL DEFAULT 0,
+                                    resolved_count BIGINT NOT NULL DEFAULT 0,
+                                    closed_count BIGINT NOT NULL DEFAULT 0,
+                                    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE TRIGGER trg_users_ticket_counts AFTER INSERT ON users
+    FOR EACH ROW CALL 'com.example.identitymanager.repository.TicketCountTrigger';
+CREATE TRIGGER trg_support_tickets_counts AFTER INSERT, UPDATE, DELETE ON support_tickets
+    FOR EACH ROW CALL 'com.example.identitymanager.repository.TicketCountTrigger';
+
+CREATE TABLE support_tickets_archive (
+                                         id BIGINT PRIMARY KEY,
+                                         subject VARCHAR(200) NOT NULL,
+                                         description VARCHAR(1000) NOT NULL,
+                                         status VARCHAR(20) NOT NULL,
+                                         user_id BIGINT NOT NULL,
+                                         assignee_id BIGINT,
+                                         created_at TIMESTAMP NOT NULL,
+                                         status_changed_at TIMESTAMP NOT NULL,
+                                         archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                         FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+                                         FOREIGN KEY (assignee_id) REFERENCES users(id) ON DELETE SET NULL
+);
+
+CREATE INDEX idx_support_tickets_archive_created_at ON support_tickets_archive(created_at, id);
+CREATE INDEX idx_support_tickets_archive_user_created_at ON support_tickets_archive(user_id, created_at, id);